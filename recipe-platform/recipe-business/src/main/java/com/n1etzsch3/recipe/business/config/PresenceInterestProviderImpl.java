@@ -0,0 +1,48 @@
+package com.n1etzsch3.recipe.business.config;
+
+import com.n1etzsch3.recipe.business.mapper.ChatMessageMapper;
+import com.n1etzsch3.recipe.business.mapper.UserFollowMapper;
+import com.n1etzsch3.recipe.business.service.AdminRoleRegistry;
+import com.n1etzsch3.recipe.common.event.UserRoleChangedEvent;
+import com.n1etzsch3.recipe.common.websocket.PresenceInterestProvider;
+import com.n1etzsch3.recipe.framework.websocket.PresenceHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 在线状态订阅关系实现
+ * 普通用户订阅关注的用户与私信会话对象，管理员订阅全部用户（用户管理页面展示在线状态）
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceInterestProviderImpl implements PresenceInterestProvider {
+
+    private final UserFollowMapper followMapper;
+    private final ChatMessageMapper chatMessageMapper;
+    private final AdminRoleRegistry adminRoleRegistry;
+    private final PresenceHub presenceHub;
+
+    @Override
+    public Set<Long> loadInterests(Long userId) {
+        Set<Long> interests = new HashSet<>(followMapper.selectFollowedIds(userId));
+        interests.addAll(chatMessageMapper.selectConversationPartnerIds(userId));
+        return interests;
+    }
+
+    @Override
+    public boolean watchesAll(Long userId) {
+        return adminRoleRegistry.getActiveAdminIds().contains(userId);
+    }
+
+    /**
+     * 角色或状态变更后重新加载订阅关系（成为管理员后订阅全部用户）
+     */
+    @EventListener
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        event.getUserIds().forEach(presenceHub::reload);
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * WebSocket 用户状态回调实现
- * 当用户上线/离线时，广播状态给管理员
+ * 当用户上线/离线时，发布状态给订阅该用户的在线用户
  */
 @Component
 @RequiredArgsConstructor
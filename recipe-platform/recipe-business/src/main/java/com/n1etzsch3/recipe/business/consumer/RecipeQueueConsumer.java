@@ -1,5 +1,9 @@
 package com.n1etzsch3.recipe.business.consumer;
 
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.n1etzsch3.recipe.business.domain.dto.ValidationResult;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
@@ -7,14 +11,25 @@ import com.n1etzsch3.recipe.business.entity.RecipeStep;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeStepMapper;
 import com.n1etzsch3.recipe.business.service.ContentValidator;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
 import com.n1etzsch3.recipe.business.service.NotificationService;
+import com.n1etzsch3.recipe.business.service.RecipeCacheService;
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.common.constant.RecipeConstants;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
 import org.springframework.data.redis.connection.stream.*;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -22,12 +37,21 @@ import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 菜谱发布队列消费者
- * 使用 Redis Streams 实现异步处理
+ * 使用 Redis Streams 消费者组实现异步处理：
+ * 每个实例以唯一消费者名加入消费者组，由拉取线程按空闲工作线程数拉取消息并交给虚拟线程并发处理；
+ * 处理失败的消息保留在待确认列表中，空闲超时后由任一实例接管重试，超过重试次数转入死信队列
  */
 @Slf4j
 @Component
@@ -40,21 +64,118 @@ public class RecipeQueueConsumer {
     private final SysUserMapper sysUserMapper;
     private final ContentValidator contentValidator;
     private final NotificationService notificationService;
+    private final RecipeCacheService recipeCacheService;
+    private final DashboardStatsService dashboardStatsService;
+    private final MeterRegistry meterRegistry;
 
     private static final String STREAM_KEY = CacheConstants.STREAM_RECIPE_PUBLISH;
+    private static final String DLQ_KEY = CacheConstants.STREAM_RECIPE_PUBLISH_DLQ;
     private static final String GROUP_NAME = CacheConstants.STREAM_GROUP_RECIPE;
-    private static final String CONSUMER_NAME = CacheConstants.STREAM_CONSUMER_PREFIX + "1";
 
     /**
-     * 初始化消费者组
+     * 死信队列保留的最大消息数（近似裁剪）
+     */
+    private static final long DLQ_MAX_LENGTH = 10000;
+
+    /**
+     * 单次检查的待确认消息数上限
+     */
+    private static final long PENDING_SCAN_LIMIT = 100;
+
+    /**
+     * 拉取异常后的等待时间（毫秒）
+     */
+    private static final long ERROR_BACKOFF_MS = 1000;
+
+    /**
+     * 每个实例的并发工作线程数
+     */
+    @Value("${recipe.queue.workers:8}")
+    private int workers;
+
+    /**
+     * 拉取消息的阻塞等待时间（毫秒）
+     */
+    @Value("${recipe.queue.block-timeout:2000}")
+    private long blockTimeoutMs;
+
+    /**
+     * 未确认消息空闲超过该时间（毫秒）后被接管重试，应大于单条消息的最长处理时间
+     */
+    @Value("${recipe.queue.claim-idle:60000}")
+    private long claimIdleMs;
+
+    /**
+     * 最大重试次数
+     */
+    @Value("${recipe.queue.max-retries:3}")
+    private int maxRetries;
+
+    /**
+     * 无待处理消息的消费者空闲超过该时间（毫秒）后从消费者组中移除
+     */
+    @Value("${recipe.queue.consumer-expire:3600000}")
+    private long consumerExpireMs;
+
+    // 实例唯一的消费者名：主机名-进程号-随机后缀（容器重启后进程号可能相同）
+    private final String consumerName = CacheConstants.STREAM_CONSUMER_PREFIX
+            + NetUtil.getLocalHostName() + "-" + RuntimeUtil.getPid() + "-" + IdUtil.nanoId(6);
+
+    // 工作线程许可：拉取数量不超过空闲许可数，全部繁忙时暂停拉取
+    private Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("recipe-queue-worker-", 0).factory());
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    // 队列指标，定时刷新，避免每次采集都访问 Redis
+    private final AtomicLong streamLength = new AtomicLong();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong lag = new AtomicLong();
+
+    private Counter processedCounter;
+    private Counter failedCounter;
+    private Counter claimedCounter;
+    private Counter deadLetterCounter;
+    private Timer processTimer;
+
+    /**
+     * 初始化消费者组与指标
      */
     @PostConstruct
-    public void initConsumerGroup() {
+    public void init() {
+        permits = new Semaphore(Math.max(1, workers));
+        initConsumerGroup();
+
+        processedCounter = Counter.builder("recipe.queue.records")
+                .tag("result", "processed")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("recipe.queue.records")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        deadLetterCounter = Counter.builder("recipe.queue.records")
+                .tag("result", "dead_letter")
+                .register(meterRegistry);
+        claimedCounter = Counter.builder("recipe.queue.claimed")
+                .register(meterRegistry);
+        processTimer = Timer.builder("recipe.queue.process.duration")
+                .register(meterRegistry);
+        Gauge.builder("recipe.queue.length", streamLength, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("recipe.queue.pending", pendingCount, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("recipe.queue.lag", lag, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("recipe.queue.workers.busy", permits, p -> Math.max(1, workers) - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 初始化消费者组
+     */
+    private void initConsumerGroup() {
         try {
             // 创建 Stream（如果不存在）
             Boolean hasKey = redisTemplate.hasKey(STREAM_KEY);
             if (!hasKey) {
-                // 添加一条初始消息来创建 Stream，然后立即删除
+                // 添加一条初始消息来创建 Stream，消费时确认并删除
                 redisTemplate.opsForStream().add(STREAM_KEY, Map.of("init", "true"));
                 log.info("创建 Redis Stream: {}", STREAM_KEY);
             }
@@ -64,44 +185,225 @@ public class RecipeQueueConsumer {
             log.info("创建消费者组: {}", GROUP_NAME);
         } catch (Exception e) {
             // 组已存在时会抛出异常，可以忽略
-            if (!e.getMessage().contains("BUSYGROUP")) {
+            if (!StrUtil.contains(e.getMessage(), "BUSYGROUP")) {
                 log.warn("初始化消费者组时出现警告: {}", e.getMessage());
             }
         }
     }
 
     /**
-     * 定时消费队列消息
-     * 每秒执行一次
+     * 应用就绪后启动拉取线程
      */
-    @Scheduled(fixedDelay = 1000)
-    public void consume() {
-        try {
-            // 从消费者组读取消息
-            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
-                    Consumer.from(GROUP_NAME, CONSUMER_NAME),
-                    StreamReadOptions.empty().count(5).block(Duration.ofMillis(500)),
-                    StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofVirtual().name("recipe-queue-dispatcher").start(this::dispatchLoop);
+        log.info("菜谱发布队列消费者已启动: consumer={}, workers={}", consumerName, permits.availablePermits());
+    }
 
-            if (records == null || records.isEmpty()) {
+    /**
+     * 拉取循环：等待至少一个空闲工作线程，按空闲数量拉取新消息
+     */
+    private void dispatchLoop() {
+        while (running) {
+            int free = 0;
+            try {
+                permits.acquire();
+                free = 1 + permits.drainPermits();
+
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                        Consumer.from(GROUP_NAME, consumerName),
+                        StreamReadOptions.empty().count(free).block(Duration.ofMillis(blockTimeoutMs)),
+                        StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+
+                int received = records == null ? 0 : records.size();
+                permits.release(free - received);
+                free = 0;
+                if (received > 0) {
+                    log.debug("收到 {} 条待处理消息", received);
+                    records.forEach(this::submit);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
+            } catch (Exception e) {
+                permits.release(free);
+                if (!running) {
+                    return;
+                }
+                if (StrUtil.contains(e.getMessage(), "NOGROUP")) {
+                    // Stream 被删除（如 Redis 清库）后重建消费者组
+                    initConsumerGroup();
+                } else {
+                    log.error("消费队列异常: {}", e.getMessage());
+                }
+                try {
+                    Thread.sleep(ERROR_BACKOFF_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
             }
+        }
+    }
 
-            log.debug("收到 {} 条待处理消息", records.size());
+    /**
+     * 提交到工作线程处理，调用方需已持有一个许可
+     */
+    private void submit(MapRecord<String, Object, Object> record) {
+        try {
+            executor.execute(() -> {
+                try {
+                    handle(record);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // 关闭期间提交失败，消息保留在待确认列表中由其他实例接管
+            permits.release();
+            log.warn("提交消息失败，等待接管重试: recordId={}", record.getId().getValue());
+        }
+    }
 
-            for (MapRecord<String, Object, Object> record : records) {
-                processRecord(record);
-            }
+    /**
+     * 处理并确认消息；处理失败时不确认，等待空闲超时后重试
+     */
+    private void handle(MapRecord<String, Object, Object> record) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            processRecord(record);
+            acknowledge(record);
+            processedCounter.increment();
         } catch (Exception e) {
-            // 避免频繁打印相同错误
-            if (!e.getMessage().contains("NOGROUP")) {
-                log.error("消费队列异常: {}", e.getMessage());
+            failedCounter.increment();
+            log.error("处理消息失败，将在 {}ms 后重试: recordId={}, error={}",
+                    claimIdleMs, record.getId().getValue(), e.getMessage(), e);
+        } finally {
+            sample.stop(processTimer);
+        }
+    }
+
+    /**
+     * 接管空闲的待确认消息（所属实例宕机或处理失败），超过重试次数的转入死信队列；
+     * 同时清理过期消费者并刷新队列指标
+     */
+    @Scheduled(fixedDelayString = "${recipe.queue.claim-interval:15000}")
+    public void recover() {
+        if (!running) {
+            return;
+        }
+        try {
+            claimIdle();
+            removeExpiredConsumers();
+            refreshMetrics();
+        } catch (Exception e) {
+            if (!StrUtil.contains(e.getMessage(), "NOGROUP")) {
+                log.error("接管待确认消息异常: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void claimIdle() {
+        PendingMessages pending = redisTemplate.opsForStream().pending(
+                STREAM_KEY, GROUP_NAME, Range.unbounded(), PENDING_SCAN_LIMIT);
+        Duration minIdle = Duration.ofMillis(claimIdleMs);
+
+        // 需要重试的消息只接管空闲工作线程能处理的数量，其余留给下一轮或其他实例
+        int free = permits.drainPermits();
+        int reserved = 0;
+        try {
+            Map<String, Long> deliveries = new HashMap<>();
+            List<RecordId> ids = new ArrayList<>();
+            for (PendingMessage message : pending) {
+                if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) {
+                    continue;
+                }
+                boolean exhausted = message.getTotalDeliveryCount() > maxRetries;
+                if (exhausted || reserved < free) {
+                    reserved += exhausted ? 0 : 1;
+                    deliveries.put(message.getIdAsString(), message.getTotalDeliveryCount());
+                    ids.add(message.getId());
+                }
             }
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            // 仍空闲满 minIdle 才会被接管，多个实例同时接管同一消息时只有一个成功
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().claim(
+                    STREAM_KEY, GROUP_NAME, consumerName, minIdle, ids.toArray(new RecordId[0]));
+            for (MapRecord<String, Object, Object> record : records) {
+                long delivered = deliveries.getOrDefault(record.getId().getValue(), 1L);
+                if (delivered > maxRetries) {
+                    deadLetter(record, delivered);
+                } else {
+                    free--;
+                    claimedCounter.increment();
+                    log.info("接管待确认消息重试: recordId={}, delivered={}", record.getId().getValue(), delivered);
+                    submit(record);
+                }
+            }
+        } finally {
+            permits.release(free);
+        }
+    }
+
+    /**
+     * 转入死信队列，确认原消息并将菜谱退回草稿，避免用户卡在"处理中"
+     */
+    private void deadLetter(MapRecord<String, Object, Object> record, long delivered) {
+        Map<String, String> fields = new HashMap<>();
+        record.getValue().forEach((k, v) -> fields.put(String.valueOf(k), String.valueOf(v)));
+        fields.put("sourceId", record.getId().getValue());
+        fields.put("deliveries", String.valueOf(delivered));
+        fields.put("deadAt", String.valueOf(System.currentTimeMillis()));
+        redisTemplate.opsForStream().add(DLQ_KEY, fields);
+        redisTemplate.opsForStream().trim(DLQ_KEY, DLQ_MAX_LENGTH, true);
+        acknowledge(record);
+        deadLetterCounter.increment();
+        log.warn("消息超过最大重试次数，已转入死信队列: recordId={}, delivered={}", record.getId().getValue(), delivered);
+
+        String recipeIdStr = (String) record.getValue().get("recipeId");
+        String userIdStr = (String) record.getValue().get("userId");
+        if (recipeIdStr != null && userIdStr != null) {
+            revertToDraft(Long.parseLong(recipeIdStr), Long.parseLong(userIdStr));
         }
     }
 
     /**
-     * 处理单条消息
+     * 移除长时间空闲且没有待确认消息的消费者（已下线的实例）
+     */
+    private void removeExpiredConsumers() {
+        StreamInfo.XInfoConsumers consumers = redisTemplate.opsForStream().consumers(STREAM_KEY, GROUP_NAME);
+        consumers.stream().forEach(consumer -> {
+            if (!consumer.consumerName().equals(consumerName)
+                    && consumer.pendingCount() == 0
+                    && consumer.idleTimeMs() > consumerExpireMs) {
+                redisTemplate.opsForStream().deleteConsumer(STREAM_KEY, Consumer.from(GROUP_NAME, consumer.consumerName()));
+                log.info("移除过期消费者: {}", consumer.consumerName());
+            }
+        });
+    }
+
+    /**
+     * 已确认的消息会被删除，队列长度减去待确认数即为尚未投递的积压数
+     */
+    private void refreshMetrics() {
+        Long length = redisTemplate.opsForStream().size(STREAM_KEY);
+        long pendingTotal = redisTemplate.opsForStream().groups(STREAM_KEY).stream()
+                .filter(group -> GROUP_NAME.equals(group.groupName()))
+                .mapToLong(StreamInfo.XInfoGroup::pendingCount)
+                .findFirst()
+                .orElse(0L);
+        long total = length != null ? length : 0L;
+        streamLength.set(total);
+        pendingCount.set(pendingTotal);
+        lag.set(Math.max(0, total - pendingTotal));
+    }
+
+    /**
+     * 处理单条消息，抛出异常表示需要重试
      */
     private void processRecord(MapRecord<String, Object, Object> record) {
         String recordId = record.getId().getValue();
@@ -109,7 +411,6 @@ public class RecipeQueueConsumer {
 
         // 跳过初始化消息
         if (value.containsKey("init")) {
-            acknowledge(record);
             return;
         }
 
@@ -118,83 +419,85 @@ public class RecipeQueueConsumer {
 
         if (recipeIdStr == null || userIdStr == null) {
             log.warn("消息格式错误，跳过: recordId={}", recordId);
-            acknowledge(record);
             return;
         }
 
         Long recipeId = Long.parseLong(recipeIdStr);
         Long userId = Long.parseLong(userIdStr);
 
-        try {
-            // 获取菜谱信息
-            RecipeInfo recipe = recipeInfoMapper.selectById(recipeId);
-            if (recipe == null) {
-                log.warn("菜谱不存在，跳过: recipeId={}", recipeId);
-                return; // finally will ACK
-            }
+        // 获取菜谱信息
+        RecipeInfo recipe = recipeInfoMapper.selectById(recipeId);
+        if (recipe == null) {
+            log.warn("菜谱不存在，跳过: recipeId={}", recipeId);
+            return;
+        }
 
-            // 只处理「处理中」状态的菜谱
-            if (recipe.getStatus() != RecipeConstants.STATUS_PROCESSING) {
-                log.debug("菜谱状态不是处理中，跳过: recipeId={}, status={}", recipeId, recipe.getStatus());
-                return; // finally will ACK
-            }
+        // 只处理「处理中」状态的菜谱（重试时已处理过的消息在此跳过）
+        if (recipe.getStatus() != RecipeConstants.STATUS_PROCESSING) {
+            log.debug("菜谱状态不是处理中，跳过: recipeId={}, status={}", recipeId, recipe.getStatus());
+            return;
+        }
 
-            // 获取步骤信息用于验证
-            List<RecipeStep> steps = recipeStepMapper.selectList(
-                    new LambdaQueryWrapper<RecipeStep>()
-                            .eq(RecipeStep::getRecipeId, recipeId));
+        // 获取步骤信息用于验证
+        List<RecipeStep> steps = recipeStepMapper.selectList(
+                new LambdaQueryWrapper<RecipeStep>()
+                        .eq(RecipeStep::getRecipeId, recipeId));
 
-            // 内容预审
-            ValidationResult result = contentValidator.validate(recipe, steps);
+        // 内容预审
+        ValidationResult result = contentValidator.validate(recipe, steps);
 
-            if (result.isPassed()) {
-                // 预审通过 → 待审核
-                recipe.setStatus(RecipeConstants.STATUS_PENDING);
-                recipe.setUpdateTime(LocalDateTime.now());
-                recipeInfoMapper.updateById(recipe);
+        if (result.isPassed()) {
+            // 预审通过 → 待审核
+            recipe.setStatus(RecipeConstants.STATUS_PENDING);
+            recipe.setUpdateTime(LocalDateTime.now());
+            recipeInfoMapper.updateById(recipe);
+            recipeCacheService.evictRecipe(recipeId);
+            dashboardStatsService.recordRecipeStatusChanged(recipe, RecipeConstants.STATUS_PROCESSING);
 
-                // 获取作者信息
-                SysUser author = sysUserMapper.selectById(userId);
-                String authorName = author != null ? author.getNickname() : "用户" + userId;
+            // 获取作者信息
+            SysUser author = sysUserMapper.selectById(userId);
+            String authorName = author != null ? author.getNickname() : "用户" + userId;
 
-                // 通知管理员有新菜谱待审核
-                notificationService.sendNewRecipePending(recipeId, recipe.getTitle(), userId, authorName,
-                        recipe.getCoverImage());
+            // 通知管理员有新菜谱待审核
+            notificationService.sendNewRecipePending(recipeId, recipe.getTitle(), userId, authorName,
+                    recipe.getCoverImage());
 
-                log.info("菜谱预审通过，已进入待审核队列: recipeId={}, title={}", recipeId, recipe.getTitle());
-            } else {
-                // 预审失败 → 退回草稿
+            log.info("菜谱预审通过，已进入待审核队列: recipeId={}, title={}", recipeId, recipe.getTitle());
+        } else {
+            // 预审失败 → 退回草稿
+            recipe.setStatus(RecipeConstants.STATUS_DRAFT);
+            recipe.setRejectReason("自动检测：" + result.getReason());
+            recipe.setUpdateTime(LocalDateTime.now());
+            recipeInfoMapper.updateById(recipe);
+            recipeCacheService.evictRecipe(recipeId);
+            dashboardStatsService.recordRecipeStatusChanged(recipe, RecipeConstants.STATUS_PROCESSING);
+
+            // 通知用户
+            notificationService.sendRecipeRejected(userId, recipeId, recipe.getTitle(), result.getReason());
+
+            log.info("菜谱预审未通过，已退回草稿: recipeId={}, reason={}", recipeId, result.getReason());
+        }
+    }
+
+    /**
+     * 兜底处理：将仍处于「处理中」的菜谱退回草稿并通知用户
+     */
+    private void revertToDraft(Long recipeId, Long userId) {
+        try {
+            RecipeInfo recipe = recipeInfoMapper.selectById(recipeId);
+            if (recipe != null && recipe.getStatus() == RecipeConstants.STATUS_PROCESSING) {
                 recipe.setStatus(RecipeConstants.STATUS_DRAFT);
-                recipe.setRejectReason("自动检测：" + result.getReason());
+                recipe.setRejectReason("系统处理异常，请稍后重新提交");
                 recipe.setUpdateTime(LocalDateTime.now());
                 recipeInfoMapper.updateById(recipe);
-
+                recipeCacheService.evictRecipe(recipeId);
+                dashboardStatsService.recordRecipeStatusChanged(recipe, RecipeConstants.STATUS_PROCESSING);
                 // 通知用户
-                notificationService.sendRecipeRejected(userId, recipeId, recipe.getTitle(), result.getReason());
-
-                log.info("菜谱预审未通过，已退回草稿: recipeId={}, reason={}", recipeId, result.getReason());
+                notificationService.sendRecipeRejected(userId, recipeId, recipe.getTitle(), "系统处理异常，请稍后重新提交");
+                log.warn("菜谱 {} 已通过兜底逻辑退回草稿", recipeId);
             }
-
         } catch (Exception e) {
-            log.error("处理菜谱 {} 失败: {}", recipeId, e.getMessage(), e);
-            // 兜底处理：尝试更新状态为草稿，避免用户卡在"处理中"
-            try {
-                RecipeInfo recipe = recipeInfoMapper.selectById(recipeId);
-                if (recipe != null && recipe.getStatus() == RecipeConstants.STATUS_PROCESSING) {
-                    recipe.setStatus(RecipeConstants.STATUS_DRAFT);
-                    recipe.setRejectReason("系统处理异常，请稍后重新提交");
-                    recipe.setUpdateTime(LocalDateTime.now());
-                    recipeInfoMapper.updateById(recipe);
-                    // 通知用户
-                    notificationService.sendRecipeRejected(userId, recipeId, recipe.getTitle(), "系统处理异常，请稍后重新提交");
-                    log.warn("菜谱 {} 已通过兜底逻辑退回草稿", recipeId);
-                }
-            } catch (Exception fallbackEx) {
-                log.error("兜底处理也失败: recipeId={}, error={}", recipeId, fallbackEx.getMessage());
-            }
-        } finally {
-            // 无论成功或失败，都确认消息，避免消息堆积
-            acknowledge(record);
+            log.error("兜底处理失败: recipeId={}, error={}", recipeId, e.getMessage());
         }
     }
 
@@ -206,9 +509,29 @@ public class RecipeQueueConsumer {
             redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP_NAME, record.getId());
             // 处理完成后删除消息，防止队列堆积
             Long deleted = redisTemplate.opsForStream().delete(STREAM_KEY, record.getId().getValue());
-            log.info("已确认消息: {}, 删除结果: {}", record.getId().getValue(), deleted);
+            log.debug("已确认消息: {}, 删除结果: {}", record.getId().getValue(), deleted);
         } catch (Exception e) {
             log.error("确认或删除消息失败: {}", record.getId(), e);
         }
     }
+
+    /**
+     * 停止拉取并等待处理中的消息完成，未完成的消息由其他实例接管
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (dispatcher != null) {
+                dispatcher.join(blockTimeoutMs + ERROR_BACKOFF_MS);
+            }
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package com.n1etzsch3.recipe.business.domain.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AdminSensitiveWordBatchDTO {
+    @NotEmpty(message = "敏感词不能为空")
+    @Size(max = 5000, message = "单次最多导入5000个敏感词")
+    private List<String> words;
+
+    @Size(max = 32, message = "分类长度不能超过32")
+    private String category;
+}
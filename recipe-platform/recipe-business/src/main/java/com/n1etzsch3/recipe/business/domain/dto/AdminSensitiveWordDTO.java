@@ -0,0 +1,15 @@
+package com.n1etzsch3.recipe.business.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class AdminSensitiveWordDTO {
+    @NotBlank(message = "敏感词不能为空")
+    @Size(max = 100, message = "敏感词长度不能超过100")
+    private String word;
+
+    @Size(max = 32, message = "分类长度不能超过32")
+    private String category;
+}
@@ -0,0 +1,36 @@
+package com.n1etzsch3.recipe.business.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 内容验证命中项
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ContentHit {
+
+    /** 命中类型 */
+    public enum Type {
+        /** 敏感词 */
+        SENSITIVE_WORD,
+        /** 外部链接 */
+        URL
+    }
+
+    private Type type;
+
+    /** 所在字段（标题、简介、步骤 N） */
+    private String field;
+
+    /** 起始位置（含） */
+    private int start;
+
+    /** 结束位置（不含） */
+    private int end;
+
+    /** 命中的敏感词或链接原文 */
+    private String word;
+}
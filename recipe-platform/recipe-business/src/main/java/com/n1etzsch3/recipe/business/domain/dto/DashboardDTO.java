@@ -47,6 +47,9 @@ public class DashboardDTO {
     // 最新动态列表
     private List<RecentActivityDTO> recentActivities;
 
+    // 是否为部分结果（部分统计项超时或失败，使用了默认值）
+    private boolean partial;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -26,6 +26,10 @@ public class RecipeDetailDTO {
     private Integer favoriteCount; // 收藏数
     private LocalDateTime createTime;
 
+    // 按食材查找时返回
+    private Integer matchedCount; // 命中的查询食材数
+    private Integer ingredientCount; // 食材总数
+
     // 是否收藏/关注 (针对当前登录用户)
     private Boolean isFavorite;
     private Boolean isFollow;
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * 内容验证结果
  */
@@ -18,11 +20,18 @@ public class ValidationResult {
     /** 失败原因（通过时为 null） */
     private String reason;
 
+    /** 全部命中项（按字段顺序） */
+    private List<ContentHit> hits;
+
     public static ValidationResult pass() {
-        return new ValidationResult(true, null);
+        return new ValidationResult(true, null, List.of());
     }
 
     public static ValidationResult fail(String reason) {
-        return new ValidationResult(false, reason);
+        return new ValidationResult(false, reason, List.of());
+    }
+
+    public static ValidationResult fail(String reason, List<ContentHit> hits) {
+        return new ValidationResult(false, reason, hits);
     }
 }
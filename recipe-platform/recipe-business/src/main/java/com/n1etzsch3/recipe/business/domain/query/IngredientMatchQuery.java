@@ -0,0 +1,14 @@
+package com.n1etzsch3.recipe.business.domain.query;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IngredientMatchQuery {
+    private Integer page = 1;
+    private Integer size = 10;
+
+    // 手头已有的食材名称
+    private List<String> ingredients;
+}
@@ -15,4 +15,9 @@ public class RecipePageQuery {
 
     private Long authorId;
     private Integer status; // 0: Auditing, 1: Published, 2: Rejected
+
+    // 游标分页：上一页返回的 nextCursor，首页为空
+    private String cursor;
+    // 游标分页首页是否返回总数
+    private Boolean withTotal;
 }
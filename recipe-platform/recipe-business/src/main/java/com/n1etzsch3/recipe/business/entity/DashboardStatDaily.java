@@ -0,0 +1,22 @@
+package com.n1etzsch3.recipe.business.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 仪表盘每日统计（主键: statDate + metric + dim）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("dashboard_stat_daily")
+public class DashboardStatDaily {
+    private LocalDate statDate;
+    private String metric;
+    private String dim; // 维度，无维度时为空串
+    private Long value; // 当日增量（汇总查询时为合计值）
+}
@@ -0,0 +1,18 @@
+package com.n1etzsch3.recipe.business.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+/**
+ * 菜谱计数（收藏数、评论数）
+ */
+@Data
+@TableName("recipe_stats")
+public class RecipeStats {
+    @TableId(type = IdType.INPUT)
+    private Long recipeId;
+    private Integer favoriteCount;
+    private Integer commentCount; // 含回复
+}
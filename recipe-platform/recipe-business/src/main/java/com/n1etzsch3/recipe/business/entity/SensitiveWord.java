@@ -0,0 +1,22 @@
+package com.n1etzsch3.recipe.business.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 敏感词
+ */
+@Data
+@TableName("sensitive_word")
+public class SensitiveWord {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    private String word;
+    private String category;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,33 @@
+package com.n1etzsch3.recipe.business.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户通知收件箱
+ */
+@Data
+@TableName("user_notification")
+public class UserNotification {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    private Long userId;
+    /**
+     * 用户收件箱内递增序号
+     */
+    private Long seq;
+    private String type;
+    private String title;
+    private String content;
+    private Long relatedId;
+    private Long senderId;
+    private String senderName;
+    private String senderAvatar;
+    private String imageUrl;
+    private Integer isRead; // 0-unread, 1-read
+    private LocalDateTime createTime;
+}
@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -28,4 +29,44 @@ public interface ChatMessageMapper extends BaseMapper<ChatMessage> {
             ORDER BY m.create_time DESC
             """)
     List<ChatMessage> selectLatestConversations(@Param("userId") Long userId);
+
+    /**
+     * 查询与用户有私信往来的全部用户ID
+     */
+    @Select("""
+            SELECT receiver_id FROM sys_message WHERE sender_id = #{userId}
+            UNION
+            SELECT sender_id FROM sys_message WHERE receiver_id = #{userId}
+            """)
+    List<Long> selectConversationPartnerIds(@Param("userId") Long userId);
+
+    /**
+     * 两人会话的聊天记录，按 (create_time, id) 倒序游标分页
+     * 两个方向各自按 idx_msg_conversation (sender_id, receiver_id, create_time[, id]) 有序范围扫描并限制行数，
+     * 合并后只对至多 2 * limit 行排序
+     *
+     * @param cursorTime 上一页最后一条的发送时间，为 null 时从最新一条开始
+     */
+    @Select("""
+            <script>
+            SELECT * FROM (
+                (SELECT * FROM sys_message
+                 WHERE sender_id = #{userId} AND receiver_id = #{targetUserId}
+                 <if test="cursorTime != null">AND (create_time, id) &lt; (#{cursorTime}, #{cursorId})</if>
+                 ORDER BY create_time DESC, id DESC
+                 LIMIT #{limit})
+                UNION ALL
+                (SELECT * FROM sys_message
+                 WHERE sender_id = #{targetUserId} AND receiver_id = #{userId}
+                 <if test="cursorTime != null">AND (create_time, id) &lt; (#{cursorTime}, #{cursorId})</if>
+                 ORDER BY create_time DESC, id DESC
+                 LIMIT #{limit})
+            ) conversation
+            ORDER BY create_time DESC, id DESC
+            LIMIT #{limit}
+            </script>
+            """)
+    List<ChatMessage> selectConversationPage(@Param("userId") Long userId, @Param("targetUserId") Long targetUserId,
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
 }
@@ -2,8 +2,48 @@ package com.n1etzsch3.recipe.business.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.n1etzsch3.recipe.business.entity.CommentLike;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface CommentLikeMapper extends BaseMapper<CommentLike> {
+
+    /**
+     * 批量查询每条评论最近的若干条点赞记录
+     */
+    @Select("""
+            <script>
+            SELECT id, comment_id, user_id, create_time
+            FROM (
+                SELECT l.*,
+                       ROW_NUMBER() OVER (PARTITION BY l.comment_id ORDER BY l.create_time DESC, l.id DESC) AS rn
+                FROM comment_like l
+                WHERE l.comment_id IN
+                <foreach collection="commentIds" item="commentId" open="(" separator="," close=")">
+                    #{commentId}
+                </foreach>
+            ) t
+            WHERE t.rn &lt;= #{limit}
+            ORDER BY comment_id, rn
+            </script>
+            """)
+    List<CommentLike> selectRecentLikes(@Param("commentIds") Collection<Long> commentIds, @Param("limit") int limit);
+
+    /**
+     * 删除指定菜谱下所有评论的点赞记录
+     */
+    @Delete("""
+            <script>
+            DELETE l FROM comment_like l
+            JOIN recipe_comment c ON c.id = l.comment_id
+            WHERE c.recipe_id IN
+            <foreach collection="recipeIds" item="recipeId" open="(" separator="," close=")">#{recipeId}</foreach>
+            </script>
+            """)
+    int deleteByRecipeIds(@Param("recipeIds") Collection<Long> recipeIds);
 }
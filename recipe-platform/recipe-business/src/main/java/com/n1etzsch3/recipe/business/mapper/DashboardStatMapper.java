@@ -0,0 +1,114 @@
+package com.n1etzsch3.recipe.business.mapper;
+
+import com.n1etzsch3.recipe.business.entity.DashboardStatDaily;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Mapper
+public interface DashboardStatMapper {
+
+    /**
+     * 批量累加每日统计增量
+     */
+    @Insert("""
+            <script>
+            INSERT INTO dashboard_stat_daily (stat_date, metric, dim, `value`) VALUES
+            <foreach collection="rows" item="row" separator=",">
+                (#{row.statDate}, #{row.metric}, #{row.dim}, #{row.value})
+            </foreach>
+            ON DUPLICATE KEY UPDATE `value` = `value` + VALUES(`value`)
+            </script>
+            """)
+    int batchIncrement(@Param("rows") List<DashboardStatDaily> rows);
+
+    /**
+     * 各指标各维度的累计值
+     */
+    @Select("SELECT metric, dim, SUM(`value`) AS `value` FROM dashboard_stat_daily GROUP BY metric, dim")
+    List<DashboardStatDaily> sumByMetric();
+
+    /**
+     * 指定日期的统计值
+     */
+    @Select("SELECT stat_date, metric, dim, `value` FROM dashboard_stat_daily WHERE stat_date = #{date}")
+    List<DashboardStatDaily> selectByDate(@Param("date") LocalDate date);
+
+    /**
+     * 日期区间 [from, to) 内按月汇总
+     *
+     * @return metric, month, total
+     */
+    @Select("""
+            SELECT metric, MONTH(stat_date) AS month, SUM(`value`) AS total
+            FROM dashboard_stat_daily
+            WHERE stat_date >= #{from} AND stat_date < #{to}
+            GROUP BY metric, MONTH(stat_date)
+            """)
+    List<Map<String, Object>> sumByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 指定指标最早的统计日期
+     */
+    @Select("SELECT MIN(stat_date) FROM dashboard_stat_daily WHERE metric = #{metric}")
+    LocalDate selectFirstDate(@Param("metric") String metric);
+
+    @Delete("""
+            DELETE FROM dashboard_stat_daily
+            WHERE metric = #{metric} AND stat_date >= #{from} AND stat_date < #{to}
+            """)
+    int deleteByMetric(@Param("metric") String metric, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // ==================== 对账：按日期区间 [from, to) 从明细表重建 ====================
+
+    @Select("SELECT DATE(MIN(create_time)) FROM sys_user")
+    LocalDate selectFirstUserDate();
+
+    @Select("SELECT DATE(MIN(create_time)) FROM recipe_info")
+    LocalDate selectFirstRecipeDate();
+
+    @Select("SELECT DATE(MIN(create_time)) FROM recipe_comment")
+    LocalDate selectFirstCommentDate();
+
+    @Insert("""
+            INSERT INTO dashboard_stat_daily (stat_date, metric, dim, `value`)
+            SELECT DATE(create_time), #{metric}, '', COUNT(*) FROM sys_user
+            WHERE create_time >= #{from} AND create_time < #{to}
+            GROUP BY DATE(create_time)
+            """)
+    int rebuildUsers(@Param("metric") String metric, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Insert("""
+            INSERT INTO dashboard_stat_daily (stat_date, metric, dim, `value`)
+            SELECT DATE(create_time), #{metric}, CAST(status AS CHAR), COUNT(*) FROM recipe_info
+            WHERE create_time >= #{from} AND create_time < #{to}
+            GROUP BY DATE(create_time), status
+            """)
+    int rebuildRecipes(@Param("metric") String metric, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Insert("""
+            INSERT INTO dashboard_stat_daily (stat_date, metric, dim, `value`)
+            SELECT DATE(create_time), #{metric}, CAST(category_id AS CHAR), COUNT(*) FROM recipe_info
+            WHERE category_id IS NOT NULL AND create_time >= #{from} AND create_time < #{to}
+            GROUP BY DATE(create_time), category_id
+            """)
+    int rebuildCategories(@Param("metric") String metric, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Insert("""
+            INSERT INTO dashboard_stat_daily (stat_date, metric, dim, `value`)
+            SELECT DATE(create_time), #{metric}, '', COUNT(*) FROM recipe_comment
+            WHERE create_time >= #{from} AND create_time < #{to}
+            GROUP BY DATE(create_time)
+            """)
+    int rebuildComments(@Param("metric") String metric, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Select("SELECT IFNULL(SUM(view_count), 0) FROM recipe_info")
+    long sumViewCount();
+}
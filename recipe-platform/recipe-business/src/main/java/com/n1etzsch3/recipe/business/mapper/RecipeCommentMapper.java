@@ -3,7 +3,32 @@ package com.n1etzsch3.recipe.business.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.n1etzsch3.recipe.business.entity.RecipeComment;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface RecipeCommentMapper extends BaseMapper<RecipeComment> {
+
+    /**
+     * 批量查询每条评论的第一条回复（按自增ID取最早的一条）
+     */
+    @Select("""
+            <script>
+            SELECT c.*
+            FROM recipe_comment c
+            JOIN (
+                SELECT parent_id, MIN(id) AS first_id
+                FROM recipe_comment
+                WHERE parent_id IN
+                <foreach collection="parentIds" item="parentId" open="(" separator="," close=")">
+                    #{parentId}
+                </foreach>
+                GROUP BY parent_id
+            ) f ON c.id = f.first_id
+            </script>
+            """)
+    List<RecipeComment> selectFirstReplies(@Param("parentIds") Collection<Long> parentIds);
 }
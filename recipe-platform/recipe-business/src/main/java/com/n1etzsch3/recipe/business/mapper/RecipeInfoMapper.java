@@ -3,7 +3,32 @@ package com.n1etzsch3.recipe.business.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Map;
 
 @Mapper
 public interface RecipeInfoMapper extends BaseMapper<RecipeInfo> {
+
+    /**
+     * 批量累加浏览量
+     *
+     * @param deltas 菜谱ID → 浏览量增量
+     */
+    @Update("""
+            <script>
+            UPDATE recipe_info
+            SET view_count = COALESCE(view_count, 0) + CASE id
+            <foreach collection="deltas" index="recipeId" item="delta">
+                WHEN #{recipeId} THEN #{delta}
+            </foreach>
+            ELSE 0 END
+            WHERE id IN
+            <foreach collection="deltas" index="recipeId" open="(" separator="," close=")">
+                #{recipeId}
+            </foreach>
+            </script>
+            """)
+    int batchIncrementViewCount(@Param("deltas") Map<Long, Long> deltas);
 }
@@ -2,8 +2,73 @@ package com.n1etzsch3.recipe.business.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.n1etzsch3.recipe.business.entity.RecipeIngredient;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface RecipeIngredientMapper extends BaseMapper<RecipeIngredient> {
+
+    /**
+     * 多行批量写入（未指定排序时与单条写入一致取默认值 0）
+     */
+    @Insert("""
+            <script>
+            INSERT INTO recipe_ingredient (recipe_id, name, amount, sort_order) VALUES
+            <foreach collection="list" item="i" separator=",">
+                (#{i.recipeId}, #{i.name}, #{i.amount}, IFNULL(#{i.sortOrder}, 0))
+            </foreach>
+            </script>
+            """)
+    int insertBatch(@Param("list") List<RecipeIngredient> list);
+
+    /**
+     * 按主键多行批量更新（单条 UPDATE，已被删除的行不会被重新写入）
+     */
+    @Update("""
+            <script>
+            UPDATE recipe_ingredient SET
+            name = CASE id
+                <foreach collection="list" item="i">WHEN #{i.id} THEN #{i.name} </foreach>
+            END,
+            amount = CASE id
+                <foreach collection="list" item="i">WHEN #{i.id} THEN #{i.amount} </foreach>
+            END,
+            sort_order = CASE id
+                <foreach collection="list" item="i">WHEN #{i.id} THEN IFNULL(#{i.sortOrder}, 0) </foreach>
+            END
+            WHERE id IN
+            <foreach collection="list" item="i" open="(" separator="," close=")">#{i.id}</foreach>
+            </script>
+            """)
+    int updateBatch(@Param("list") List<RecipeIngredient> list);
+
+    /**
+     * 按食材名聚合命中菜谱（食材索引未就绪时使用）
+     * 库中食材名按与 IngredientIndex.normalize 相同的规则去除空白并转小写后比较（全角/半角由列排序规则忽略），
+     * 返回 recipeId、matched（命中食材数）、total（食材总数，按归一化后的名称去重）
+     */
+    @Select("""
+            <script>
+            SELECT i.recipe_id AS recipeId,
+                   COUNT(DISTINCT LOWER(REGEXP_REPLACE(i.name, '[[:space:]]+', ''))) AS matched,
+                   (SELECT COUNT(DISTINCT LOWER(REGEXP_REPLACE(t.name, '[[:space:]]+', '')))
+                    FROM recipe_ingredient t WHERE t.recipe_id = i.recipe_id) AS total
+            FROM recipe_ingredient i
+            JOIN recipe_info r ON r.id = i.recipe_id AND r.status = #{status}
+            WHERE LOWER(REGEXP_REPLACE(i.name, '[[:space:]]+', '')) IN
+            <foreach collection="names" item="name" open="(" separator="," close=")">#{name}</foreach>
+            GROUP BY i.recipe_id
+            ORDER BY matched DESC, total ASC, i.recipe_id DESC
+            LIMIT #{limit}
+            </script>
+            """)
+    List<Map<String, Object>> selectMatchedRecipes(@Param("names") Collection<String> names,
+            @Param("status") Integer status, @Param("limit") int limit);
 }
@@ -0,0 +1,85 @@
+package com.n1etzsch3.recipe.business.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.n1etzsch3.recipe.business.entity.RecipeStats;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+public interface RecipeStatsMapper extends BaseMapper<RecipeStats> {
+
+    /**
+     * 原子增减计数（行不存在时插入，计数不小于 0）
+     */
+    @Insert("""
+            INSERT INTO recipe_stats (recipe_id, favorite_count, comment_count)
+            VALUES (#{recipeId}, GREATEST(#{favoriteDelta}, 0), GREATEST(#{commentDelta}, 0))
+            ON DUPLICATE KEY UPDATE
+                favorite_count = GREATEST(favorite_count + #{favoriteDelta}, 0),
+                comment_count = GREATEST(comment_count + #{commentDelta}, 0)
+            """)
+    int increment(@Param("recipeId") Long recipeId, @Param("favoriteDelta") long favoriteDelta,
+            @Param("commentDelta") long commentDelta);
+
+    // ==================== 对账：从明细表重建 ====================
+
+    /**
+     * 取 id 大于 afterId 的第 batchSize 个菜谱ID（用于分批对账）
+     */
+    @Select("""
+            SELECT MAX(id) FROM (
+                SELECT id FROM recipe_info WHERE id > #{afterId} ORDER BY id LIMIT #{batchSize}
+            ) t
+            """)
+    Long selectBatchEndId(@Param("afterId") long afterId, @Param("batchSize") int batchSize);
+
+    /**
+     * 按明细表重算 (fromId, toId] 区间内菜谱的计数
+     *
+     * @return 受影响行数（新增行计 1，修正行计 2，无变化计 0）
+     */
+    @Insert("""
+            INSERT INTO recipe_stats (recipe_id, favorite_count, comment_count)
+            SELECT r.id,
+                   (SELECT COUNT(*) FROM user_favorite f WHERE f.recipe_id = r.id),
+                   (SELECT COUNT(*) FROM recipe_comment c WHERE c.recipe_id = r.id)
+            FROM recipe_info r
+            WHERE r.id > #{fromId} AND r.id <= #{toId}
+            ON DUPLICATE KEY UPDATE
+                favorite_count = VALUES(favorite_count),
+                comment_count = VALUES(comment_count)
+            """)
+    int rebuildRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 按点赞表修正 (fromId, toId] 区间内菜谱的评论点赞数
+     */
+    @Update("""
+            UPDATE recipe_comment c
+            LEFT JOIN (
+                SELECT l.comment_id, COUNT(*) AS cnt
+                FROM comment_like l
+                JOIN recipe_comment rc ON rc.id = l.comment_id
+                WHERE rc.recipe_id > #{fromId} AND rc.recipe_id <= #{toId}
+                GROUP BY l.comment_id
+            ) t ON t.comment_id = c.id
+            SET c.like_count = COALESCE(t.cnt, 0)
+            WHERE c.recipe_id > #{fromId} AND c.recipe_id <= #{toId}
+              AND COALESCE(c.like_count, -1) <> COALESCE(t.cnt, 0)
+            """)
+    int rebuildCommentLikes(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 清理已删除菜谱的计数
+     */
+    @Delete("""
+            DELETE s FROM recipe_stats s
+            LEFT JOIN recipe_info r ON r.id = s.recipe_id
+            WHERE r.id IS NULL
+            """)
+    int deleteOrphans();
+}
@@ -2,8 +2,47 @@ package com.n1etzsch3.recipe.business.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.n1etzsch3.recipe.business.entity.RecipeStep;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface RecipeStepMapper extends BaseMapper<RecipeStep> {
+
+    /**
+     * 多行批量写入
+     */
+    @Insert("""
+            <script>
+            INSERT INTO recipe_step (recipe_id, step_no, description, image_url) VALUES
+            <foreach collection="list" item="s" separator=",">
+                (#{s.recipeId}, #{s.stepNo}, #{s.description}, #{s.imageUrl})
+            </foreach>
+            </script>
+            """)
+    int insertBatch(@Param("list") List<RecipeStep> list);
+
+    /**
+     * 按主键多行批量更新（单条 UPDATE，已被删除的行不会被重新写入）
+     */
+    @Update("""
+            <script>
+            UPDATE recipe_step SET
+            step_no = CASE id
+                <foreach collection="list" item="s">WHEN #{s.id} THEN #{s.stepNo} </foreach>
+            END,
+            description = CASE id
+                <foreach collection="list" item="s">WHEN #{s.id} THEN #{s.description} </foreach>
+            END,
+            image_url = CASE id
+                <foreach collection="list" item="s">WHEN #{s.id} THEN #{s.imageUrl} </foreach>
+            END
+            WHERE id IN
+            <foreach collection="list" item="s" open="(" separator="," close=")">#{s.id}</foreach>
+            </script>
+            """)
+    int updateBatch(@Param("list") List<RecipeStep> list);
 }
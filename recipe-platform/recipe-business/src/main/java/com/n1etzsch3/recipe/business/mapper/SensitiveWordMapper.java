@@ -0,0 +1,35 @@
+package com.n1etzsch3.recipe.business.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.n1etzsch3.recipe.business.entity.SensitiveWord;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface SensitiveWordMapper extends BaseMapper<SensitiveWord> {
+
+    /**
+     * 全部词条（编译自动机用）
+     */
+    @Select("SELECT word FROM sensitive_word")
+    List<String> selectAllWords();
+
+    /**
+     * 批量导入，已存在的词条跳过
+     *
+     * @return 新增条数
+     */
+    @Insert("""
+            <script>
+            INSERT IGNORE INTO sensitive_word (word, category, create_time, update_time) VALUES
+            <foreach collection="words" item="word" separator=",">
+                (#{word}, #{category}, NOW(), NOW())
+            </foreach>
+            </script>
+            """)
+    int insertIgnoreBatch(@Param("words") List<String> words, @Param("category") String category);
+}
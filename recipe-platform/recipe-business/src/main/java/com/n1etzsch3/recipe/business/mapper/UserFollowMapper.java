@@ -9,6 +9,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 @Mapper
 public interface UserFollowMapper extends BaseMapper<UserFollow> {
 
@@ -20,4 +22,10 @@ public interface UserFollowMapper extends BaseMapper<UserFollow> {
             ORDER BY f.create_time DESC
             """)
     IPage<UserVO> selectFollowedUsers(Page<?> page, @Param("followerId") Long followerId);
+
+    /**
+     * 查询用户关注的全部用户ID
+     */
+    @Select("SELECT followed_id FROM user_follow WHERE follower_id = #{followerId}")
+    List<Long> selectFollowedIds(@Param("followerId") Long followerId);
 }
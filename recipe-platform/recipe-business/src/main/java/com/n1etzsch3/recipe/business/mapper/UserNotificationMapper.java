@@ -0,0 +1,53 @@
+package com.n1etzsch3.recipe.business.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.n1etzsch3.recipe.business.entity.UserNotification;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface UserNotificationMapper extends BaseMapper<UserNotification> {
+
+    /**
+     * 多行批量写入
+     */
+    @Insert("""
+            <script>
+            INSERT INTO user_notification (user_id, seq, type, title, content, related_id, sender_id,
+                sender_name, sender_avatar, image_url, is_read, create_time) VALUES
+            <foreach collection="list" item="n" separator=",">
+                (#{n.userId}, #{n.seq}, #{n.type}, #{n.title}, #{n.content}, #{n.relatedId}, #{n.senderId},
+                 #{n.senderName}, #{n.senderAvatar}, #{n.imageUrl}, 0, #{n.createTime})
+            </foreach>
+            </script>
+            """)
+    int insertBatch(@Param("list") List<UserNotification> list);
+
+    /**
+     * 序号大于 lastSeq 的最新若干条通知（按序号降序）
+     */
+    @Select("""
+            SELECT * FROM user_notification
+            WHERE user_id = #{userId} AND seq > #{lastSeq}
+            ORDER BY seq DESC
+            LIMIT #{limit}
+            """)
+    List<UserNotification> selectAfterSeq(@Param("userId") Long userId, @Param("lastSeq") long lastSeq,
+            @Param("limit") int limit);
+
+    /**
+     * 用户收件箱已写入的最大序号（Redis 序号丢失时用于恢复）
+     */
+    @Select("SELECT COALESCE(MAX(seq), 0) FROM user_notification WHERE user_id = #{userId}")
+    long selectMaxSeq(@Param("userId") Long userId);
+
+    /**
+     * 用户已写入的未读通知数（Redis 未读数丢失时用于恢复）
+     */
+    @Select("SELECT COUNT(*) FROM user_notification WHERE user_id = #{userId} AND is_read = 0")
+    long countUnread(@Param("userId") Long userId);
+}
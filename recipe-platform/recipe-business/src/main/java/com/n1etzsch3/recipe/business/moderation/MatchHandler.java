@@ -0,0 +1,15 @@
+package com.n1etzsch3.recipe.business.moderation;
+
+/**
+ * 文本扫描命中回调
+ */
+@FunctionalInterface
+public interface MatchHandler {
+
+    /**
+     * @param start 命中起始位置（含，原文下标）
+     * @param end   命中结束位置（不含）
+     * @param word  命中的词典词条或原文片段
+     */
+    void onMatch(int start, int end, String word);
+}
@@ -0,0 +1,181 @@
+package com.n1etzsch3.recipe.business.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 敏感词多模式匹配器（Aho-Corasick 自动机）
+ * 词条与文本均按 {@link TextFolding} 折叠后匹配，扫描耗时只与文本长度和命中数有关，与词典大小无关；
+ * 编译完成后不可变，可被多个线程共享
+ */
+public final class SensitiveWordMatcher {
+
+    private static final int ROOT = 0;
+
+    // 词条原文与长度
+    private final String[] words;
+    private final int[] lengths;
+
+    // 状态 s 的子节点位于 labels/targets 的 [childStart[s], childStart[s + 1])，按字符升序
+    private final int[] childStart;
+    private final char[] labels;
+    private final int[] targets;
+
+    // 失败指针
+    private final int[] fail;
+    // 以该状态结尾的词条下标，无则为 -1
+    private final int[] output;
+    // 沿失败指针最近的有输出的状态，无则为 -1
+    private final int[] outputLink;
+
+    private SensitiveWordMatcher(String[] words, int[] lengths, int[] childStart, char[] labels, int[] targets,
+            int[] fail, int[] output, int[] outputLink) {
+        this.words = words;
+        this.lengths = lengths;
+        this.childStart = childStart;
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * 编译词典，空白词条忽略，折叠后重复的词条只保留第一个
+     */
+    public static SensitiveWordMatcher compile(Collection<String> dictionary) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(-1);
+
+        List<String> words = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String word : dictionary) {
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            String key = TextFolding.fold(word.strip());
+            if (!seen.add(key)) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < key.length(); i++) {
+                Map<Character, Integer> children = trie.get(state);
+                Integer next = children.get(key.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    children.put(key.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    terminal.add(-1);
+                }
+                state = next;
+            }
+            terminal.set(state, words.size());
+            words.add(word.strip());
+            lengths.add(key.length());
+        }
+
+        int size = trie.size();
+        int[] childStart = new int[size + 1];
+        for (int s = 0; s < size; s++) {
+            childStart[s + 1] = childStart[s] + trie.get(s).size();
+        }
+        char[] labels = new char[childStart[size]];
+        int[] targets = new int[childStart[size]];
+        int[] output = new int[size];
+        for (int s = 0; s < size; s++) {
+            int p = childStart[s];
+            for (Map.Entry<Character, Integer> entry : trie.get(s).entrySet()) {
+                labels[p] = entry.getKey();
+                targets[p] = entry.getValue();
+                p++;
+            }
+            output[s] = terminal.get(s);
+        }
+
+        SensitiveWordMatcher matcher = new SensitiveWordMatcher(
+                words.toArray(new String[0]), lengths.stream().mapToInt(Integer::intValue).toArray(),
+                childStart, labels, targets, new int[size], output, new int[size]);
+        matcher.linkFailures();
+        return matcher;
+    }
+
+    /**
+     * 广度优先计算失败指针与输出链
+     */
+    private void linkFailures() {
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int p = childStart[ROOT]; p < childStart[ROOT + 1]; p++) {
+            fail[targets[p]] = ROOT;
+            queue.add(targets[p]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int p = childStart[state]; p < childStart[state + 1]; p++) {
+                int target = targets[p];
+                int f = fail[state];
+                int next;
+                while ((next = child(f, labels[p])) < 0 && f != ROOT) {
+                    f = fail[f];
+                }
+                fail[target] = Math.max(next, ROOT);
+                int failState = fail[target];
+                outputLink[target] = output[failState] >= 0 ? failState : outputLink[failState];
+                queue.add(target);
+            }
+        }
+    }
+
+    /**
+     * 扫描文本，按结束位置顺序回调所有命中（包括重叠命中）
+     */
+    public void scan(String text, MatchHandler handler) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = TextFolding.fold(text.charAt(i));
+            int next;
+            while ((next = child(state, c)) < 0 && state != ROOT) {
+                state = fail[state];
+            }
+            state = Math.max(next, ROOT);
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int word = output[s];
+                handler.onMatch(i + 1 - lengths[word], i + 1, words[word]);
+            }
+        }
+    }
+
+    /**
+     * 词条数量
+     */
+    public int size() {
+        return words.length;
+    }
+
+    private int child(int state, char c) {
+        int low = childStart[state];
+        int high = childStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return targets[mid];
+            }
+        }
+        return -1;
+    }
+}
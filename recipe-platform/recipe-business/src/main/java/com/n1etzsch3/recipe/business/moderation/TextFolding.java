@@ -0,0 +1,28 @@
+package com.n1etzsch3.recipe.business.moderation;
+
+/**
+ * 逐字符的全角/半角与大小写折叠
+ * 每个字符折叠为一个字符，折叠后的下标与原文一一对应，命中位置可直接用于原文
+ */
+public final class TextFolding {
+
+    private TextFolding() {
+    }
+
+    public static char fold(char c) {
+        if (c == '\u3000') {
+            c = ' ';
+        } else if (c >= '\uFF01' && c <= '\uFF5E') {
+            c = (char) (c - 0xFEE0);
+        }
+        return Character.toLowerCase(c);
+    }
+
+    public static String fold(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(text.charAt(i));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,56 @@
+package com.n1etzsch3.recipe.business.moderation;
+
+/**
+ * 外部链接扫描：识别 http://、https://、www. 开头且后跟非空白字符的片段
+ * 单遍线性扫描，不使用正则，避免长文本回溯
+ */
+public final class UrlScanner {
+
+    private static final String[] PREFIXES = {"https://", "http://", "www."};
+
+    private UrlScanner() {
+    }
+
+    public static void scan(String text, MatchHandler handler) {
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            int prefix = prefixLength(text, i);
+            if (prefix > 0 && i + prefix < n && !Character.isWhitespace(text.charAt(i + prefix))) {
+                int end = i + prefix;
+                while (end < n && !Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                handler.onMatch(i, end, text.substring(i, end));
+                i = end;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static int prefixLength(String text, int offset) {
+        char first = TextFolding.fold(text.charAt(offset));
+        if (first != 'h' && first != 'w') {
+            return 0;
+        }
+        for (String prefix : PREFIXES) {
+            if (startsWith(text, offset, prefix)) {
+                return prefix.length();
+            }
+        }
+        return 0;
+    }
+
+    private static boolean startsWith(String text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (TextFolding.fold(text.charAt(offset + i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
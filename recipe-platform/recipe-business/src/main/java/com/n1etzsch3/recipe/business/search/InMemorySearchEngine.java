@@ -0,0 +1,263 @@
+package com.n1etzsch3.recipe.business.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.n1etzsch3.recipe.common.constant.RecipeConstants;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内倒排索引，BM25 排序
+ * 检索耗时只与命中文档数有关，与菜谱表大小无关
+ */
+@Component
+@ConditionalOnProperty(name = "recipe.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemorySearchEngine implements SearchEngine {
+
+    // 字段权重：标题命中比描述命中更相关
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float INGREDIENT_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // BM25 参数
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // 联想时最多扫描的前缀匹配项
+    private static final int SUGGEST_SCAN_LIMIT = 500;
+
+    /**
+     * 已索引文档的过滤字段与词项（删除时用于清理倒排表）
+     */
+    private record Doc(Integer status, Long userId, Integer categoryId, float length,
+            Set<String> terms, Set<String> suggestions) {
+    }
+
+    private record Scored(Long id, float score) {
+    }
+
+    // 词项 → (菜谱ID → 加权词频)
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // 联想词 → 包含该词的已发布菜谱数
+    private final NavigableMap<String, Integer> suggestions = new TreeMap<>();
+    private double totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Collection<RecipeDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (RecipeDocument document : documents) {
+                removeInternal(document.getId());
+                addInternal(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> recipeIds) {
+        lock.writeLock().lock();
+        try {
+            recipeIds.forEach(this::removeInternal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public SearchResult search(SearchQuery query) {
+        Set<String> terms = TextTokenizer.queryTerms(query.getKeyword());
+        if (terms.isEmpty()) {
+            return SearchResult.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            // 所有查询词都必须命中，从最短的倒排表开始求交集
+            List<Map<Long, Float>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Float> list = postings.get(term);
+                if (list == null) {
+                    return SearchResult.empty();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            int docCount = docs.size();
+            double avgLength = docCount > 0 ? totalLength / docCount : 1;
+            float[] idf = new float[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int df = lists.get(i).size();
+                idf[i] = (float) Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+
+            List<Scored> hits = new ArrayList<>();
+            for (Long id : lists.get(0).keySet()) {
+                Doc doc = docs.get(id);
+                if (!matches(doc, query)) {
+                    continue;
+                }
+                float score = 0;
+                boolean all = true;
+                for (int i = 0; i < lists.size(); i++) {
+                    Float tf = lists.get(i).get(id);
+                    if (tf == null) {
+                        all = false;
+                        break;
+                    }
+                    float norm = (float) (K1 * (1 - B + B * doc.length() / avgLength));
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                if (all) {
+                    hits.add(new Scored(id, score));
+                }
+            }
+
+            hits.sort(Comparator.comparingDouble(Scored::score).reversed()
+                    .thenComparing(Scored::id, Comparator.reverseOrder()));
+            int from = Math.min(Math.max(query.getOffset(), 0), hits.size());
+            int to = Math.min(from + Math.max(query.getLimit(), 0), hits.size());
+            List<Long> ids = new ArrayList<>(to - from);
+            for (Scored hit : hits.subList(from, to)) {
+                ids.add(hit.id());
+            }
+            return new SearchResult(ids, hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = TextTokenizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : suggestions
+                    .subMap(normalized, true, normalized + Character.MAX_VALUE, false).entrySet()) {
+                candidates.add(Map.entry(entry.getKey(), entry.getValue()));
+                if (candidates.size() >= SUGGEST_SCAN_LIMIT) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 按菜谱数降序，同等热度时短词优先
+        candidates.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparingInt(e -> e.getKey().length()));
+        List<String> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            result.add(candidates.get(i).getKey());
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(Doc doc, SearchQuery query) {
+        return doc != null
+                && (query.getStatus() == null || Objects.equals(query.getStatus(), doc.status()))
+                && (query.getUserId() == null || Objects.equals(query.getUserId(), doc.userId()))
+                && (query.getCategoryId() == null || Objects.equals(query.getCategoryId(), doc.categoryId()));
+    }
+
+    private void addInternal(RecipeDocument document) {
+        Map<String, Float> weighted = new HashMap<>();
+        float length = 0;
+        length += accumulate(weighted, document.getTitle(), TITLE_WEIGHT);
+        length += accumulate(weighted, document.getCategoryName(), CATEGORY_WEIGHT);
+        if (document.getIngredients() != null) {
+            for (String ingredient : document.getIngredients()) {
+                length += accumulate(weighted, ingredient, INGREDIENT_WEIGHT);
+            }
+        }
+        length += accumulate(weighted, document.getDescription(), DESCRIPTION_WEIGHT);
+
+        Long id = document.getId();
+        weighted.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+
+        // 只有已发布菜谱参与联想
+        Set<String> suggestTerms = new HashSet<>();
+        if (Objects.equals(document.getStatus(), RecipeConstants.STATUS_PUBLISHED)) {
+            addSuggestion(suggestTerms, document.getTitle());
+            if (document.getIngredients() != null) {
+                document.getIngredients().forEach(ingredient -> addSuggestion(suggestTerms, ingredient));
+            }
+            suggestTerms.forEach(term -> suggestions.merge(term, 1, Integer::sum));
+        }
+
+        docs.put(id, new Doc(document.getStatus(), document.getUserId(), document.getCategoryId(), length,
+                weighted.keySet(), suggestTerms));
+        totalLength += length;
+    }
+
+    private void removeInternal(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms()) {
+            Map<Long, Float> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String term : doc.suggestions()) {
+            suggestions.computeIfPresent(term, (k, count) -> count > 1 ? count - 1 : null);
+        }
+        totalLength -= doc.length();
+    }
+
+    private static float accumulate(Map<String, Float> weighted, String text, float weight) {
+        if (StrUtil.isBlank(text)) {
+            return 0;
+        }
+        List<String> tokens = TextTokenizer.tokenize(text);
+        for (String token : tokens) {
+            weighted.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private static void addSuggestion(Set<String> target, String text) {
+        String normalized = TextTokenizer.normalize(text);
+        if (!normalized.isEmpty()) {
+            target.add(normalized);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.n1etzsch3.recipe.business.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 按食材查找的单条命中
+ */
+@Getter
+@AllArgsConstructor
+public class IngredientHit {
+
+    private Long recipeId;
+
+    /**
+     * 命中的查询食材数
+     */
+    private int matchedCount;
+
+    /**
+     * 菜谱食材总数
+     */
+    private int ingredientCount;
+}
@@ -0,0 +1,222 @@
+package com.n1etzsch3.recipe.business.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.n1etzsch3.recipe.common.constant.RecipeConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 食材倒排索引：归一化食材名 → 已发布菜谱ID 压缩位图
+ * 按命中食材数降序、缺少食材数升序、菜谱ID降序排序，排序与分页全部通过位图运算完成
+ */
+@Slf4j
+@Component
+public class IngredientIndex {
+
+    // 位图以无符号 int 存储菜谱ID
+    private static final long MAX_RECIPE_ID = 0xFFFFFFFFL;
+
+    // 食材名 → 菜谱ID
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+    // 菜谱ID → 食材名（删除时用于清理倒排表）
+    private final Map<Integer, String[]> recipes = new HashMap<>();
+    // 食材总数 → 菜谱ID
+    private final NavigableMap<Integer, RoaringBitmap> bySize = new TreeMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 食材名归一化：统一全角/半角与大小写并去除空白
+     */
+    public static String normalize(String name) {
+        return StrUtil.cleanBlank(TextTokenizer.normalize(name));
+    }
+
+    /**
+     * 写入或更新菜谱，非已发布菜谱从索引中移除
+     */
+    public void index(Collection<RecipeDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (RecipeDocument document : documents) {
+                if (document.getId() == null || document.getId() <= 0 || document.getId() > MAX_RECIPE_ID) {
+                    log.warn("菜谱ID超出食材索引范围，已跳过: {}", document.getId());
+                    continue;
+                }
+                int id = document.getId().intValue();
+                removeInternal(id);
+                if (Objects.equals(document.getStatus(), RecipeConstants.STATUS_PUBLISHED)) {
+                    addInternal(id, document.getIngredients());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Long> recipeIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long recipeId : recipeIds) {
+                if (recipeId != null && recipeId > 0 && recipeId <= MAX_RECIPE_ID) {
+                    removeInternal(recipeId.intValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按食材查找已发布菜谱
+     *
+     * @param names  查询食材（已归一化、去重）
+     * @param offset 跳过的命中数
+     * @param limit  返回的命中数
+     */
+    public IngredientMatchResult match(Collection<String> names, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> lists = new ArrayList<>(names.size());
+            for (String name : names) {
+                RoaringBitmap list = postings.get(name);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return IngredientMatchResult.empty();
+            }
+
+            // atLeast[j]：至少命中 j+1 种食材的菜谱
+            int k = lists.size();
+            RoaringBitmap[] atLeast = new RoaringBitmap[k];
+            for (int i = 0; i < k; i++) {
+                RoaringBitmap list = lists.get(i);
+                for (int j = i; j > 0; j--) {
+                    RoaringBitmap carry = RoaringBitmap.and(atLeast[j - 1], list);
+                    atLeast[j] = atLeast[j] == null ? carry : RoaringBitmap.or(atLeast[j], carry);
+                }
+                atLeast[0] = atLeast[0] == null ? list.clone() : RoaringBitmap.or(atLeast[0], list);
+            }
+
+            // 按实际命中数分配，不信任调用方传入的 limit
+            int capacity = (int) Math.min(Math.max(limit, 0), atLeast[0].getLongCardinality());
+            List<IngredientHit> hits = new ArrayList<>(capacity);
+            int skip = Math.max(offset, 0);
+            for (int j = k - 1; j >= 0 && hits.size() < limit; j--) {
+                RoaringBitmap exact = j == k - 1 ? atLeast[j] : RoaringBitmap.andNot(atLeast[j], atLeast[j + 1]);
+                int remaining = exact.getCardinality();
+                if (skip >= remaining) {
+                    skip -= remaining;
+                    continue;
+                }
+                // 命中数相同时，食材总数越少（缺少的越少）越靠前
+                for (Map.Entry<Integer, RoaringBitmap> entry : bySize.tailMap(j + 1, true).entrySet()) {
+                    if (remaining == 0 || hits.size() >= limit) {
+                        break;
+                    }
+                    RoaringBitmap cell = RoaringBitmap.and(exact, entry.getValue());
+                    int cardinality = cell.getCardinality();
+                    if (cardinality == 0) {
+                        continue;
+                    }
+                    remaining -= cardinality;
+                    if (skip >= cardinality) {
+                        skip -= cardinality;
+                        continue;
+                    }
+                    // 同一分组内新菜谱优先
+                    for (int p = skip; p < cardinality && hits.size() < limit; p++) {
+                        long recipeId = Integer.toUnsignedLong(cell.select(cardinality - 1 - p));
+                        hits.add(new IngredientHit(recipeId, j + 1, entry.getKey()));
+                    }
+                    skip = 0;
+                }
+            }
+            return new IngredientMatchResult(hits, atLeast[0].getLongCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 压缩位图容器（全量重建后调用）
+     */
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(RoaringBitmap::runOptimize);
+            bySize.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(int id, Collection<String> ingredients) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String ingredient : ingredients) {
+            String name = normalize(ingredient);
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+
+        for (String name : names) {
+            postings.computeIfAbsent(name, n -> new RoaringBitmap()).add(id);
+        }
+        bySize.computeIfAbsent(names.size(), n -> new RoaringBitmap()).add(id);
+        recipes.put(id, names.toArray(new String[0]));
+    }
+
+    private void removeInternal(int id) {
+        String[] names = recipes.remove(id);
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            RoaringBitmap list = postings.get(name);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(name);
+                }
+            }
+        }
+        RoaringBitmap sized = bySize.get(names.length);
+        if (sized != null) {
+            sized.remove(id);
+            if (sized.isEmpty()) {
+                bySize.remove(names.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.n1etzsch3.recipe.business.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 按食材查找结果
+ */
+@Getter
+@AllArgsConstructor
+public class IngredientMatchResult {
+
+    private static final IngredientMatchResult EMPTY = new IngredientMatchResult(List.of(), 0);
+
+    /**
+     * 当前页命中（按覆盖度降序）
+     */
+    private List<IngredientHit> hits;
+
+    /**
+     * 至少命中一种食材的菜谱总数
+     */
+    private long total;
+
+    public static IngredientMatchResult empty() {
+        return EMPTY;
+    }
+}
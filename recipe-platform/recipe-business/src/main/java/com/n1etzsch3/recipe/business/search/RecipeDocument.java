@@ -0,0 +1,22 @@
+package com.n1etzsch3.recipe.business.search;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 索引文档
+ */
+@Data
+public class RecipeDocument {
+    private Long id;
+    private String title;
+    private String description;
+    private String categoryName;
+    private List<String> ingredients;
+
+    // 过滤字段
+    private Integer status;
+    private Long userId;
+    private Integer categoryId;
+}
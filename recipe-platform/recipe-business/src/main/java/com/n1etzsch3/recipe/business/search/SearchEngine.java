@@ -0,0 +1,36 @@
+package com.n1etzsch3.recipe.business.search;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 菜谱全文检索引擎
+ * 默认实现为进程内倒排索引 {@link InMemorySearchEngine}，可替换为本地 Lucene 目录等实现
+ */
+public interface SearchEngine {
+
+    /**
+     * 新增或覆盖文档
+     */
+    void index(Collection<RecipeDocument> documents);
+
+    /**
+     * 删除文档
+     */
+    void remove(Collection<Long> recipeIds);
+
+    /**
+     * 关键词检索，按相关度降序
+     */
+    SearchResult search(SearchQuery query);
+
+    /**
+     * 前缀联想（已发布菜谱的标题与食材名）
+     */
+    List<String> suggest(String prefix, int limit);
+
+    /**
+     * 已索引文档数
+     */
+    int size();
+}
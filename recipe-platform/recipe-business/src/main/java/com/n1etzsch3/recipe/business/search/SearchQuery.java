@@ -0,0 +1,16 @@
+package com.n1etzsch3.recipe.business.search;
+
+import lombok.Data;
+
+/**
+ * 检索条件（过滤字段为空表示不限制）
+ */
+@Data
+public class SearchQuery {
+    private String keyword;
+    private Integer status;
+    private Long userId;
+    private Integer categoryId;
+    private int offset;
+    private int limit = 10;
+}
@@ -0,0 +1,30 @@
+package com.n1etzsch3.recipe.business.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 检索结果
+ */
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+
+    private static final SearchResult EMPTY = new SearchResult(List.of(), 0);
+
+    /**
+     * 当前页菜谱ID（按相关度降序）
+     */
+    private List<Long> ids;
+
+    /**
+     * 命中总数
+     */
+    private long total;
+
+    public static SearchResult empty() {
+        return EMPTY;
+    }
+}
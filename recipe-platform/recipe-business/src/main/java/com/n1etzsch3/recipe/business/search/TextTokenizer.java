@@ -0,0 +1,91 @@
+package com.n1etzsch3.recipe.business.search;
+
+import cn.hutool.core.convert.Convert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 中英文混合分词
+ * 中文按连续片段切分为单字 + 相邻二元组（bigram），英文/数字按单词切分；
+ * 查询时中文片段只取二元组（单字片段取单字），保证命中结果包含完整的查询片段
+ */
+public final class TextTokenizer {
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 统一全角/半角与大小写
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Convert.toDBC(text).toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * 文档分词（保留重复项，用于统计词频）
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        scan(normalize(text), tokens, true);
+        return tokens;
+    }
+
+    /**
+     * 查询分词（去重）
+     */
+    public static Set<String> queryTerms(String text) {
+        List<String> tokens = new ArrayList<>();
+        scan(normalize(text), tokens, false);
+        return new LinkedHashSet<>(tokens);
+    }
+
+    private static void scan(String text, List<String> out, boolean forIndex) {
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < n && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                emitCjk(text, start, i, out, forIndex);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < n && Character.isLetterOrDigit(text.charAt(i)) && !isCjk(text.charAt(i))) {
+                    i++;
+                }
+                out.add(text.substring(start, i));
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static void emitCjk(String text, int start, int end, List<String> out, boolean forIndex) {
+        if (end - start == 1) {
+            out.add(text.substring(start, end));
+            return;
+        }
+        if (forIndex) {
+            for (int i = start; i < end; i++) {
+                out.add(text.substring(i, i + 1));
+            }
+        }
+        for (int i = start; i + 1 < end; i++) {
+            out.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN;
+    }
+}
@@ -0,0 +1,150 @@
+package com.n1etzsch3.recipe.business.service;
+
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.common.constant.UserConstants;
+import com.n1etzsch3.recipe.common.event.UserRoleChangedEvent;
+import com.n1etzsch3.recipe.system.entity.SysUser;
+import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 管理员名单（内存）
+ * 启动时加载全部管理员（超级管理员与普通管理员）及其状态，后台变更用户角色或状态时通过事件广播各节点刷新，
+ * 推送管理员通知时无需查询数据库
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminRoleRegistry {
+
+    private static final List<String> ADMIN_ROLES = List.of(UserConstants.ROLE_ADMIN, UserConstants.ROLE_COMMON_ADMIN);
+
+    private final SysUserMapper sysUserMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 名单快照：管理员ID → 状态，以及其中状态正常的管理员
+     */
+    private record Snapshot(Map<Long, Integer> statuses, Set<Long> active) {
+
+        static Snapshot of(Map<Long, Integer> statuses) {
+            Set<Long> active = statuses.entrySet().stream()
+                    .filter(e -> Integer.valueOf(UserConstants.NORMAL).equals(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toUnmodifiableSet());
+            return new Snapshot(Collections.unmodifiableMap(new HashMap<>(statuses)), active);
+        }
+    }
+
+    private volatile Snapshot snapshot = Snapshot.of(Map.of());
+
+    @PostConstruct
+    public void init() {
+        reloadAll();
+        listenerContainer.addMessageListener((message, pattern) -> onChangedMessage(message),
+                new ChannelTopic(CacheConstants.CHANNEL_ADMIN_ROLE_CHANGED));
+    }
+
+    /**
+     * 全部管理员ID（不论状态）
+     */
+    public Set<Long> getAdminIds() {
+        return snapshot.statuses().keySet();
+    }
+
+    /**
+     * 状态正常的管理员ID
+     */
+    public Set<Long> getActiveAdminIds() {
+        return snapshot.active();
+    }
+
+    /**
+     * 用户角色或状态已变更，通知所有节点（包括本节点）刷新这些用户
+     */
+    @EventListener
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        if (event.getUserIds() == null || event.getUserIds().isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_ADMIN_ROLE_CHANGED,
+                    JSONUtil.toJsonStr(event.getUserIds()));
+        } catch (Exception e) {
+            log.warn("广播管理员名单变更失败，仅刷新本节点: {}", e.getMessage());
+            refresh(event.getUserIds());
+        }
+    }
+
+    /**
+     * 定时全量加载，兜底处理丢失的广播
+     */
+    @Scheduled(fixedDelayString = "${recipe.admin-registry.refresh-interval:300000}")
+    public void scheduledReload() {
+        reloadAll();
+    }
+
+    private void onChangedMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            refresh(JSONUtil.parseArray(body).toList(Long.class));
+        } catch (Exception e) {
+            log.warn("处理管理员名单变更消息失败: {}", body);
+        }
+    }
+
+    /**
+     * 重新读取指定用户，不再是管理员的从名单中移除
+     */
+    private synchronized void refresh(Collection<Long> userIds) {
+        List<SysUser> users = sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
+                .select(SysUser::getId, SysUser::getRole, SysUser::getStatus)
+                .in(SysUser::getId, userIds));
+        Map<Long, Integer> statuses = new HashMap<>(snapshot.statuses());
+        userIds.forEach(statuses::remove);
+        for (SysUser user : users) {
+            if (ADMIN_ROLES.contains(user.getRole())) {
+                statuses.put(user.getId(), user.getStatus());
+            }
+        }
+        snapshot = Snapshot.of(statuses);
+        log.info("管理员名单已刷新: changed={}, admins={}", userIds.size(), statuses.size());
+    }
+
+    private synchronized void reloadAll() {
+        try {
+            List<SysUser> users = sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
+                    .select(SysUser::getId, SysUser::getStatus)
+                    .in(SysUser::getRole, ADMIN_ROLES));
+            Map<Long, Integer> statuses = new HashMap<>();
+            for (SysUser user : users) {
+                statuses.put(user.getId(), user.getStatus());
+            }
+            snapshot = Snapshot.of(statuses);
+            log.debug("管理员名单已加载: admins={}", statuses.size());
+        } catch (Exception e) {
+            log.error("加载管理员名单失败，继续使用当前名单: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.n1etzsch3.recipe.business.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.n1etzsch3.recipe.business.entity.SensitiveWord;
+import com.n1etzsch3.recipe.common.core.domain.Result;
+
+import java.util.List;
+
+public interface AdminSensitiveWordService {
+
+    Result<IPage<SensitiveWord>> pageSensitiveWords(Integer page, Integer size, String keyword, String category);
+
+    Result<?> addSensitiveWord(SensitiveWord word);
+
+    /**
+     * 批量导入，已存在的词条跳过
+     */
+    Result<?> importSensitiveWords(List<String> words, String category);
+
+    Result<?> updateSensitiveWord(Long id, SensitiveWord word);
+
+    Result<?> deleteSensitiveWord(Long id);
+}
@@ -3,6 +3,7 @@ package com.n1etzsch3.recipe.business.service;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.n1etzsch3.recipe.business.domain.dto.*;
 import com.n1etzsch3.recipe.business.entity.RecipeCategory;
+import com.n1etzsch3.recipe.business.entity.SensitiveWord;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 
@@ -56,4 +57,15 @@ public interface AdminService {
             Long userId, Long recipeId, String sortBy);
 
     Result<?> deleteComment(Long commentId);
+
+    // --- Sensitive Word Manage ---
+    Result<IPage<SensitiveWord>> pageSensitiveWords(Integer page, Integer size, String keyword, String category);
+
+    Result<?> addSensitiveWord(SensitiveWord word);
+
+    Result<?> importSensitiveWords(List<String> words, String category);
+
+    Result<?> updateSensitiveWord(Long id, SensitiveWord word);
+
+    Result<?> deleteSensitiveWord(Long id);
 }
@@ -0,0 +1,506 @@
+package com.n1etzsch3.recipe.business.service;
+
+import cn.hutool.core.convert.Convert;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.n1etzsch3.recipe.business.entity.DashboardStatDaily;
+import com.n1etzsch3.recipe.business.entity.RecipeComment;
+import com.n1etzsch3.recipe.business.entity.RecipeInfo;
+import com.n1etzsch3.recipe.business.mapper.DashboardStatMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.common.event.UserRegisteredEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 仪表盘统计服务
+ * 业务事件发生时增量更新每日汇总表（先在本地累加，定时批量写入），
+ * 仪表盘读取汇总表而不扫描明细表；汇总表由对账任务定期从明细表重建，
+ * 重建前通过广播要求所有节点写入本地增量，避免重建后再叠加已计入明细表的数据
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsService {
+
+    /** 用户数，按注册日期 */
+    public static final String METRIC_USER = "user";
+    /** 菜谱数，按创建日期，维度为状态 */
+    public static final String METRIC_RECIPE = "recipe";
+    /** 菜谱数，按创建日期，维度为分类ID */
+    public static final String METRIC_CATEGORY = "category";
+    /** 评论数，按创建日期 */
+    public static final String METRIC_COMMENT = "comment";
+    /** 浏览量，按写回日期；维度 removed 为删除菜谱扣减，adjust 为对账修正 */
+    public static final String METRIC_VIEW = "view";
+
+    public static final String DIM_NONE = "";
+    public static final String DIM_VIEW_REMOVED = "removed";
+    public static final String DIM_VIEW_ADJUST = "adjust";
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+    private static final int ACTIVE_DAYS = 7;
+    private static final long FLUSH_ACK_POLL_MILLIS = 50;
+    private static final long FLUSH_ACK_TTL_SECONDS = 60;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final DashboardStatMapper statMapper;
+    private final RecipeInfoMapper recipeInfoMapper;
+    private final RecipeCommentMapper commentMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private record StatKey(LocalDate date, String metric, String dim) {
+    }
+
+    // 未写入数据库的统计增量（累加与取出均为单键原子操作，取出后到达的增量计入新的条目）
+    private final ConcurrentHashMap<StatKey, Long> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) ->
+                        onFlushRequested(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CacheConstants.CHANNEL_DASHBOARD_FLUSH));
+    }
+
+    // ==================== 业务事件 ====================
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        recordUserCreated(event.getCreateTime());
+    }
+
+    public void recordUserCreated(LocalDateTime createTime) {
+        add(dateOf(createTime), METRIC_USER, DIM_NONE, 1);
+    }
+
+    public void recordRecipeCreated(RecipeInfo recipe) {
+        LocalDate date = dateOf(recipe.getCreateTime());
+        add(date, METRIC_RECIPE, dim(recipe.getStatus()), 1);
+        if (recipe.getCategoryId() != null) {
+            add(date, METRIC_CATEGORY, dim(recipe.getCategoryId()), 1);
+        }
+        markActive(recipe.getUserId());
+    }
+
+    /**
+     * 菜谱状态变更
+     *
+     * @param recipe    变更后的菜谱（需包含创建时间）
+     * @param oldStatus 变更前状态
+     */
+    public void recordRecipeStatusChanged(RecipeInfo recipe, Integer oldStatus) {
+        if (Objects.equals(oldStatus, recipe.getStatus())) {
+            return;
+        }
+        LocalDate date = dateOf(recipe.getCreateTime());
+        add(date, METRIC_RECIPE, dim(oldStatus), -1);
+        add(date, METRIC_RECIPE, dim(recipe.getStatus()), 1);
+    }
+
+    /**
+     * 菜谱分类变更
+     *
+     * @param recipe        变更后的菜谱（需包含创建时间）
+     * @param oldCategoryId 变更前分类
+     */
+    public void recordRecipeCategoryChanged(RecipeInfo recipe, Integer oldCategoryId) {
+        if (Objects.equals(oldCategoryId, recipe.getCategoryId())) {
+            return;
+        }
+        LocalDate date = dateOf(recipe.getCreateTime());
+        if (oldCategoryId != null) {
+            add(date, METRIC_CATEGORY, dim(oldCategoryId), -1);
+        }
+        if (recipe.getCategoryId() != null) {
+            add(date, METRIC_CATEGORY, dim(recipe.getCategoryId()), 1);
+        }
+    }
+
+    /**
+     * 菜谱删除（评论需另外调用 {@link #recordCommentsDeleting}）
+     *
+     * @param recipe 删除前的菜谱
+     */
+    public void recordRecipeDeleted(RecipeInfo recipe) {
+        LocalDate date = dateOf(recipe.getCreateTime());
+        add(date, METRIC_RECIPE, dim(recipe.getStatus()), -1);
+        if (recipe.getCategoryId() != null) {
+            add(date, METRIC_CATEGORY, dim(recipe.getCategoryId()), -1);
+        }
+        if (recipe.getViewCount() != null && recipe.getViewCount() > 0) {
+            add(LocalDate.now(), METRIC_VIEW, DIM_VIEW_REMOVED, -recipe.getViewCount());
+        }
+    }
+
+    public void recordCommentAdded(RecipeComment comment) {
+        add(dateOf(comment.getCreateTime()), METRIC_COMMENT, DIM_NONE, 1);
+        markActive(comment.getUserId());
+    }
+
+    public void recordCommentDeleted(RecipeComment comment) {
+        add(dateOf(comment.getCreateTime()), METRIC_COMMENT, DIM_NONE, -1);
+    }
+
+    /**
+     * 批量删除评论前调用，按创建日期统计即将删除的评论数
+     *
+     * @param condition 删除条件
+     */
+    public void recordCommentsDeleting(QueryWrapper<RecipeComment> condition) {
+        // 复制后再追加分组，调用方随后仍可使用原条件执行删除
+        QueryWrapper<RecipeComment> query = condition.clone()
+                .select("DATE(create_time) AS stat_date", "COUNT(*) AS cnt")
+                .groupBy("DATE(create_time)");
+        for (Map<String, Object> row : commentMapper.selectMaps(query)) {
+            LocalDate date = toLocalDate(row.get("stat_date"));
+            add(date, METRIC_COMMENT, DIM_NONE, -Convert.toLong(row.get("cnt"), 0L));
+        }
+    }
+
+    /**
+     * 浏览量写回数据库后调用
+     */
+    public void recordViews(long delta) {
+        add(LocalDate.now(), METRIC_VIEW, DIM_NONE, delta);
+    }
+
+    // ==================== 仪表盘读取 ====================
+
+    /**
+     * 各指标累计值
+     *
+     * @return metric → dim → 累计值
+     */
+    public Map<String, Map<String, Long>> loadTotals() {
+        Map<String, Map<String, Long>> totals = new HashMap<>();
+        for (DashboardStatDaily row : statMapper.sumByMetric()) {
+            merge(totals, row.getMetric(), row.getDim(), row.getValue());
+        }
+        pending.forEach((key, delta) -> merge(totals, key.metric(), key.dim(), delta));
+        return totals;
+    }
+
+    /**
+     * 指定日期的统计值
+     *
+     * @return metric → dim → 当日值
+     */
+    public Map<String, Map<String, Long>> loadDay(LocalDate date) {
+        Map<String, Map<String, Long>> day = new HashMap<>();
+        for (DashboardStatDaily row : statMapper.selectByDate(date)) {
+            merge(day, row.getMetric(), row.getDim(), row.getValue());
+        }
+        pending.forEach((key, delta) -> {
+            if (key.date().equals(date)) {
+                merge(day, key.metric(), key.dim(), delta);
+            }
+        });
+        return day;
+    }
+
+    /**
+     * 指定年份各月统计值（各维度合计）
+     *
+     * @return metric → month → 当月值
+     */
+    public Map<String, Map<Integer, Long>> loadMonthly(int year) {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        Map<String, Map<Integer, Long>> monthly = new HashMap<>();
+        for (Map<String, Object> row : statMapper.sumByMonth(from, to)) {
+            monthly.computeIfAbsent((String) row.get("metric"), m -> new HashMap<>())
+                    .merge(Convert.toInt(row.get("month")), Convert.toLong(row.get("total"), 0L), Long::sum);
+        }
+        pending.forEach((key, delta) -> {
+            if (key.date().getYear() == year) {
+                monthly.computeIfAbsent(key.metric(), m -> new HashMap<>())
+                        .merge(key.date().getMonthValue(), delta, Long::sum);
+            }
+        });
+        return monthly;
+    }
+
+    /**
+     * 最近7天（含今天）发布菜谱或评论的去重用户数（HyperLogLog 估算）
+     */
+    public long countWeeklyActiveUsers() {
+        String[] keys = new String[ACTIVE_DAYS];
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < ACTIVE_DAYS; i++) {
+            keys[i] = activeKey(today.minusDays(i));
+        }
+        Long size = stringRedisTemplate.opsForHyperLogLog().size(keys);
+        return size != null ? size : 0L;
+    }
+
+    // ==================== 写入与对账 ====================
+
+    /**
+     * 定时将统计增量批量写入数据库
+     */
+    @Scheduled(fixedDelayString = "${recipe.dashboard.stats.flush-interval:5000}", initialDelay = 5000)
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<DashboardStatDaily> rows = drain();
+            for (int i = 0; i < rows.size(); i += FLUSH_BATCH_SIZE) {
+                writeBatch(rows.subList(i, Math.min(i + FLUSH_BATCH_SIZE, rows.size())));
+            }
+            if (!rows.isEmpty()) {
+                log.debug("统计增量写入完成: rows={}", rows.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 广播要求所有节点写入本地增量，并等待各节点确认
+     *
+     * @param waitMillis 最长等待时间
+     * @return 是否所有节点都已确认
+     */
+    public boolean flushAllNodes(long waitMillis) throws InterruptedException {
+        flush();
+        String requestId = UUID.randomUUID().toString();
+        Long receivers = stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_DASHBOARD_FLUSH, requestId);
+        if (receivers == null || receivers == 0) {
+            return true;
+        }
+        String ackKey = CacheConstants.KEY_DASHBOARD_FLUSH_ACK + requestId;
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            String acked = stringRedisTemplate.opsForValue().get(ackKey);
+            if (acked != null && Long.parseLong(acked) >= receivers) {
+                return true;
+            }
+            Thread.sleep(FLUSH_ACK_POLL_MILLIS);
+        }
+        return false;
+    }
+
+    /**
+     * 重建指标的起始日期（明细表与汇总表中较早者），无数据时返回 null
+     */
+    public LocalDate firstRebuildDate(String metric) {
+        LocalDate source = switch (metric) {
+            case METRIC_USER -> statMapper.selectFirstUserDate();
+            case METRIC_RECIPE, METRIC_CATEGORY -> statMapper.selectFirstRecipeDate();
+            case METRIC_COMMENT -> statMapper.selectFirstCommentDate();
+            default -> throw new IllegalArgumentException("不支持重建的统计指标: " + metric);
+        };
+        LocalDate recorded = statMapper.selectFirstDate(metric);
+        if (source == null || recorded == null) {
+            return source != null ? source : recorded;
+        }
+        return source.isBefore(recorded) ? source : recorded;
+    }
+
+    /**
+     * 从明细表重建指定指标在日期区间 [from, to) 内的汇总（浏览量不可按日重建，由 {@link #reconcileViews()} 修正合计）
+     * 每个区间一个短事务，对账任务按区间逐段调用
+     *
+     * @return 重建后的行数
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuildRange(String metric, LocalDate from, LocalDate to) {
+        statMapper.deleteByMetric(metric, from, to);
+        return switch (metric) {
+            case METRIC_USER -> statMapper.rebuildUsers(metric, from, to);
+            case METRIC_RECIPE -> statMapper.rebuildRecipes(metric, from, to);
+            case METRIC_CATEGORY -> statMapper.rebuildCategories(metric, from, to);
+            case METRIC_COMMENT -> statMapper.rebuildComments(metric, from, to);
+            default -> throw new IllegalArgumentException("不支持重建的统计指标: " + metric);
+        };
+    }
+
+    /**
+     * 修正浏览量合计与 recipe_info.view_count 之和的偏差
+     *
+     * @return 修正量
+     */
+    public long reconcileViews() {
+        long actual = statMapper.sumViewCount();
+        long recorded = loadTotals().getOrDefault(METRIC_VIEW, Map.of()).values().stream()
+                .mapToLong(Long::longValue).sum();
+        long diff = actual - recorded;
+        if (diff != 0) {
+            statMapper.batchIncrement(List.of(
+                    new DashboardStatDaily(LocalDate.now(), METRIC_VIEW, DIM_VIEW_ADJUST, diff)));
+        }
+        return diff;
+    }
+
+    /**
+     * 从明细表补齐最近7天的活跃用户（HyperLogLog 重复添加无副作用）
+     */
+    public void rebuildActiveUsers() {
+        LocalDateTime since = LocalDate.now().minusDays(ACTIVE_DAYS - 1).atStartOfDay();
+        List<Map<String, Object>> rows = new ArrayList<>(recipeInfoMapper.selectMaps(new QueryWrapper<RecipeInfo>()
+                .select("DISTINCT DATE(create_time) AS stat_date", "user_id")
+                .ge("create_time", since)));
+        rows.addAll(commentMapper.selectMaps(new QueryWrapper<RecipeComment>()
+                .select("DISTINCT DATE(create_time) AS stat_date", "user_id")
+                .ge("create_time", since)));
+
+        Map<String, List<String>> usersByKey = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Long userId = Convert.toLong(row.get("user_id"));
+            if (userId != null) {
+                LocalDate date = toLocalDate(row.get("stat_date"));
+                usersByKey.computeIfAbsent(activeKey(date), k -> new ArrayList<>()).add(userId.toString());
+            }
+        }
+        usersByKey.forEach((key, userIds) -> {
+            stringRedisTemplate.opsForHyperLogLog().add(key, userIds.toArray(new String[0]));
+            stringRedisTemplate.expire(key, CacheConstants.TTL_ACTIVE_USERS, TimeUnit.SECONDS);
+        });
+    }
+
+    /**
+     * 收到写入广播：写入本地增量后确认
+     */
+    private void onFlushRequested(String requestId) {
+        try {
+            flush();
+            String ackKey = CacheConstants.KEY_DASHBOARD_FLUSH_ACK + requestId;
+            stringRedisTemplate.opsForValue().increment(ackKey);
+            stringRedisTemplate.expire(ackKey, FLUSH_ACK_TTL_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("响应统计增量写入广播失败: requestId={}, error={}", requestId, e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前写入剩余增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 记录统计增量；处于事务中时等事务提交后再记录，回滚的操作不计入
+     */
+    private void add(LocalDate date, String metric, String dim, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        StatKey key = new StatKey(date, metric, dim);
+        runAfterCommit(() -> pending.merge(key, delta, Long::sum));
+    }
+
+    private void markActive(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        String key = activeKey(LocalDate.now());
+        runAfterCommit(() -> {
+            try {
+                stringRedisTemplate.opsForHyperLogLog().add(key, userId.toString());
+                stringRedisTemplate.expire(key, CacheConstants.TTL_ACTIVE_USERS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("记录活跃用户失败: userId={}, error={}", userId, e.getMessage());
+            }
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // 使用 afterCompletion 而非 afterCommit：在其他同步回调的 afterCommit 中注册时也能被执行
+                    if (status == STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private List<DashboardStatDaily> drain() {
+        List<DashboardStatDaily> rows = new ArrayList<>();
+        for (StatKey key : pending.keySet()) {
+            // 原子移除：之后的增量重新创建条目，不会累加到已取出的值上
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                rows.add(new DashboardStatDaily(key.date(), key.metric(), key.dim(), delta));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 写入一批增量，失败时放回待写入队列等待下次重试
+     */
+    private void writeBatch(List<DashboardStatDaily> batch) {
+        try {
+            statMapper.batchIncrement(batch);
+        } catch (Exception e) {
+            log.error("统计增量写入失败，将在下次重试: size={}, error={}", batch.size(), e.getMessage());
+            for (DashboardStatDaily row : batch) {
+                pending.merge(new StatKey(row.getStatDate(), row.getMetric(), row.getDim()),
+                        row.getValue(), Long::sum);
+            }
+        }
+    }
+
+    private static void merge(Map<String, Map<String, Long>> target, String metric, String dim, Long value) {
+        if (value != null && value != 0) {
+            target.computeIfAbsent(metric, m -> new HashMap<>()).merge(dim, value, Long::sum);
+        }
+    }
+
+    private static LocalDate dateOf(LocalDateTime time) {
+        return time != null ? time.toLocalDate() : LocalDate.now();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return Convert.toLocalDateTime(value).toLocalDate();
+    }
+
+    private static String dim(Integer value) {
+        return value != null ? value.toString() : DIM_NONE;
+    }
+
+    private static String activeKey(LocalDate date) {
+        return CacheConstants.KEY_ACTIVE_USERS + date.format(DAY_FORMAT);
+    }
+}
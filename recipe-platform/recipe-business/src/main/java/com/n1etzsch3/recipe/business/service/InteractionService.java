@@ -8,6 +8,7 @@ import com.n1etzsch3.recipe.business.domain.vo.MyCommentVO;
 import com.n1etzsch3.recipe.business.domain.vo.CommentReplyVO;
 import com.n1etzsch3.recipe.business.domain.vo.CommentLikeVO;
 import com.n1etzsch3.recipe.business.domain.vo.SystemNotificationVO;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 
 import java.util.List;
@@ -29,11 +30,24 @@ public interface InteractionService {
      */
     Result<IPage<CommentVO>> pageComments(Long recipeId, Integer page, Integer size);
 
+    /**
+     * 游标分页查询评论
+     *
+     * @param cursor    上一页返回的游标，首页为空
+     * @param withTotal 首页是否返回总数
+     */
+    Result<CursorPage<CommentVO>> scrollComments(Long recipeId, String cursor, Integer size, boolean withTotal);
+
     /**
      * 我的收藏列表
      */
     Result<IPage<RecipeDetailDTO>> pageMyFavorites(Integer page, Integer size);
 
+    /**
+     * 游标分页查询我的收藏
+     */
+    Result<CursorPage<RecipeDetailDTO>> scrollMyFavorites(String cursor, Integer size);
+
     /**
      * 点赞/取消点赞评论
      */
@@ -80,4 +94,14 @@ public interface InteractionService {
      * 系统通知列表
      */
     Result<IPage<SystemNotificationVO>> pageSystemNotifications(Integer page, Integer size);
+
+    /**
+     * 未读系统通知数
+     */
+    Result<Long> countUnreadNotifications();
+
+    /**
+     * 系统通知全部标记为已读
+     */
+    Result<?> markNotificationsRead();
 }
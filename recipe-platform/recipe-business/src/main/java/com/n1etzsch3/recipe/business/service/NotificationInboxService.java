@@ -0,0 +1,338 @@
+package com.n1etzsch3.recipe.business.service;
+
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.n1etzsch3.recipe.business.entity.UserNotification;
+import com.n1etzsch3.recipe.business.mapper.UserNotificationMapper;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.common.websocket.MessageType;
+import com.n1etzsch3.recipe.common.websocket.NotificationReplayProvider;
+import com.n1etzsch3.recipe.common.websocket.WebSocketMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 通知收件箱服务
+ * 推送的通知先分配用户内递增序号并累加未读数（Redis Hash），再进入内存缓冲，定时多行批量写入数据库；
+ * 客户端重连时按最后收到的序号补发离线期间的通知（缓冲中的通知最多延迟一个写入周期可见）；
+ * Redis 中的序号丢失时先按数据库与本节点缓冲中的最大序号恢复，保证序号不回退；
+ * 写入失败的批次放回缓冲并指数退避重试，只丢弃逐条写入仍因数据本身出错的通知
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationInboxService implements NotificationReplayProvider {
+
+    private static final String FIELD_SEQ = "seq";
+    private static final String FIELD_UNREAD = "unread";
+
+    /**
+     * 分配序号并累加未读数；序号字段不存在（首次使用或 Redis 数据丢失）时返回 -1，由调用方恢复后重试
+     */
+    private static final DefaultRedisScript<Long> NEXT_SEQ_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], 'seq') == 0 then
+                return -1
+            end
+            redis.call('HINCRBY', KEYS[1], 'unread', 1)
+            return redis.call('HINCRBY', KEYS[1], 'seq', 1)
+            """, Long.class);
+
+    private final UserNotificationMapper notificationMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 单条 INSERT 的最大行数
+     */
+    @Value("${recipe.notification.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 缓冲中最多保留的待写入通知数，超出时丢弃（通知仍会实时推送）
+     */
+    @Value("${recipe.notification.max-pending:100000}")
+    private int maxPending;
+
+    /**
+     * 重连时最多补发的通知数
+     */
+    @Value("${recipe.notification.replay-limit:100}")
+    private int replayLimit;
+
+    /**
+     * 写入失败后的重试间隔上限（毫秒），间隔从写入周期开始逐次翻倍
+     */
+    @Value("${recipe.notification.retry-max-backoff:30000}")
+    private long maxBackoffMs;
+
+    @Value("${recipe.notification.flush-interval:200}")
+    private long flushIntervalMs;
+
+    private final Queue<UserNotification> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // 写入失败后的退避状态（仅在 flushLock 内修改）
+    private volatile long retryAt;
+    private long backoffMs;
+
+    /**
+     * 通知存入收件箱，并将分配的序号写回消息
+     *
+     * @return 是否已存入（Redis 不可用或缓冲已满时返回 false）
+     */
+    public boolean append(Long userId, WebSocketMessage message) {
+        // 先占用缓冲名额，缓冲已满时不分配序号、不累加未读数
+        if (pendingSize.incrementAndGet() > maxPending) {
+            pendingSize.decrementAndGet();
+            log.warn("通知收件箱缓冲已满，丢弃: userId={}, type={}", userId, message.getType());
+            return false;
+        }
+        long seq;
+        try {
+            String key = inboxKey(userId);
+            Long next = stringRedisTemplate.execute(NEXT_SEQ_SCRIPT, List.of(key));
+            if (next == null || next < 0) {
+                seedCounters(userId);
+                next = stringRedisTemplate.execute(NEXT_SEQ_SCRIPT, List.of(key));
+            }
+            if (next == null || next < 0) {
+                throw new IllegalStateException("收件箱序号恢复失败");
+            }
+            seq = next;
+        } catch (Exception e) {
+            pendingSize.decrementAndGet();
+            log.warn("分配通知序号失败，通知不存入收件箱: userId={}, error={}", userId, e.getMessage());
+            return false;
+        }
+        message.setSeq(seq);
+
+        UserNotification notification = new UserNotification();
+        notification.setUserId(userId);
+        notification.setSeq(seq);
+        notification.setType(message.getType().name());
+        notification.setTitle(message.getTitle());
+        notification.setContent(message.getContent());
+        notification.setRelatedId(message.getRelatedId());
+        notification.setSenderId(message.getSenderId());
+        notification.setSenderName(message.getSenderName());
+        notification.setSenderAvatar(message.getSenderAvatar());
+        notification.setImageUrl(message.getImageUrl());
+        notification.setCreateTime(message.getTimestamp() != null ? message.getTimestamp() : LocalDateTime.now());
+        pending.add(notification);
+        return true;
+    }
+
+    /**
+     * 定时将缓冲中的通知多行批量写入（写入失败后的退避期内跳过）
+     */
+    @Scheduled(fixedDelayString = "${recipe.notification.flush-interval:200}")
+    public void flush() {
+        if (System.currentTimeMillis() >= retryAt) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        flushLock.lock();
+        try {
+            int total = 0;
+            List<UserNotification> batch = new ArrayList<>(batchSize);
+            UserNotification notification;
+            while ((notification = pending.poll()) != null) {
+                pendingSize.decrementAndGet();
+                batch.add(notification);
+                if (batch.size() >= batchSize) {
+                    int written = writeBatch(batch);
+                    if (written < 0) {
+                        return;
+                    }
+                    total += written;
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                int written = writeBatch(batch);
+                if (written < 0) {
+                    return;
+                }
+                total += written;
+            }
+            backoffMs = 0;
+            retryAt = 0;
+            if (total > 0) {
+                log.debug("通知收件箱写入完成: rows={}", total);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 写入一批通知；整批失败时逐条写入，只丢弃因数据本身出错的行，
+     * 数据库不可用等其他错误时将未写入的通知放回缓冲并进入退避
+     *
+     * @return 写入的行数，需要退避重试时返回 -1
+     */
+    private int writeBatch(List<UserNotification> batch) {
+        try {
+            return notificationMapper.insertBatch(batch);
+        } catch (Exception e) {
+            log.warn("通知收件箱批量写入失败，改为逐条写入: size={}, error={}", batch.size(), e.getMessage());
+        }
+        int written = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            UserNotification notification = batch.get(i);
+            try {
+                written += notificationMapper.insertBatch(List.of(notification));
+            } catch (DataIntegrityViolationException e) {
+                log.error("通知写入失败，丢弃: userId={}, seq={}, error={}",
+                        notification.getUserId(), notification.getSeq(), e.getMessage());
+            } catch (Exception e) {
+                requeue(batch.subList(i, batch.size()));
+                backoffMs = backoffMs == 0 ? Math.max(flushIntervalMs, 1) : Math.min(backoffMs * 2, maxBackoffMs);
+                retryAt = System.currentTimeMillis() + backoffMs;
+                log.error("通知收件箱写入失败，{}ms 后重试: pending={}, error={}",
+                        backoffMs, pendingSize.get(), e.getMessage());
+                return -1;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 放回缓冲（不受缓冲上限限制，已分配序号的通知不丢弃）
+     */
+    private void requeue(List<UserNotification> notifications) {
+        pending.addAll(notifications);
+        pendingSize.addAndGet(notifications.size());
+    }
+
+    @Override
+    public long currentSeq(Long userId) {
+        try {
+            Object seq = stringRedisTemplate.opsForHash().get(inboxKey(userId), FIELD_SEQ);
+            return seq != null ? Long.parseLong(seq.toString()) : seedCounters(userId);
+        } catch (Exception e) {
+            // 返回数据库中的序号，避免客户端误判为序号回退
+            log.warn("读取通知序号失败，使用数据库中的序号: userId={}, error={}", userId, e.getMessage());
+            return persistedMaxSeq(userId);
+        }
+    }
+
+    /**
+     * 序号字段不存在时按已有通知恢复序号与未读数（多个请求并发恢复时只有第一个写入生效）
+     *
+     * @return 恢复后的当前序号
+     */
+    private long seedCounters(Long userId) {
+        long maxSeq = persistedMaxSeq(userId);
+        String key = inboxKey(userId);
+        if (maxSeq > 0) {
+            // 缓冲中尚未写入的通知同样计入未读数
+            long unread = notificationMapper.countUnread(userId)
+                    + pending.stream().filter(n -> userId.equals(n.getUserId())).count();
+            stringRedisTemplate.opsForHash().putIfAbsent(key, FIELD_UNREAD, String.valueOf(unread));
+        }
+        stringRedisTemplate.opsForHash().putIfAbsent(key, FIELD_SEQ, String.valueOf(maxSeq));
+        Object seq = stringRedisTemplate.opsForHash().get(key, FIELD_SEQ);
+        if (maxSeq > 0) {
+            log.warn("收件箱序号已从数据库恢复: userId={}, seq={}", userId, seq);
+        }
+        return seq != null ? Long.parseLong(seq.toString()) : maxSeq;
+    }
+
+    /**
+     * 已分配的最大序号：数据库与本节点缓冲中的较大值
+     */
+    private long persistedMaxSeq(Long userId) {
+        long buffered = pending.stream().filter(n -> userId.equals(n.getUserId()))
+                .mapToLong(UserNotification::getSeq).max().orElse(0);
+        return Math.max(notificationMapper.selectMaxSeq(userId), buffered);
+    }
+
+    @Override
+    public List<String> replay(Long userId, long lastSeq) {
+        List<UserNotification> notifications = notificationMapper.selectAfterSeq(userId, lastSeq, replayLimit);
+        // 超出上限时只补发最新的若干条，更早的通知可在通知列表中查看
+        Collections.reverse(notifications);
+        List<String> messages = new ArrayList<>(notifications.size());
+        for (UserNotification n : notifications) {
+            messages.add(JSONUtil.toJsonStr(toMessage(n)));
+        }
+        return messages;
+    }
+
+    /**
+     * 分页查询收件箱（按序号倒序）
+     */
+    public IPage<UserNotification> page(Long userId, Integer page, Integer size) {
+        return notificationMapper.selectPage(new Page<>(page, size), new LambdaQueryWrapper<UserNotification>()
+                .eq(UserNotification::getUserId, userId)
+                .orderByDesc(UserNotification::getSeq));
+    }
+
+    /**
+     * 未读通知数
+     */
+    public long unreadCount(Long userId) {
+        Object unread = stringRedisTemplate.opsForHash().get(inboxKey(userId), FIELD_UNREAD);
+        return unread != null ? Math.max(0, Long.parseLong(unread.toString())) : 0;
+    }
+
+    /**
+     * 全部标记为已读（先写入缓冲中的通知，避免其未读状态残留）
+     */
+    public void markAllRead(Long userId) {
+        drain();
+        notificationMapper.update(null, new LambdaUpdateWrapper<UserNotification>()
+                .eq(UserNotification::getUserId, userId)
+                .eq(UserNotification::getIsRead, 0)
+                .set(UserNotification::getIsRead, 1));
+        stringRedisTemplate.opsForHash().put(inboxKey(userId), FIELD_UNREAD, "0");
+    }
+
+    private static WebSocketMessage toMessage(UserNotification n) {
+        return WebSocketMessage.builder()
+                .type(MessageType.valueOf(n.getType()))
+                .title(n.getTitle())
+                .content(n.getContent())
+                .relatedId(n.getRelatedId())
+                .senderId(n.getSenderId())
+                .senderName(n.getSenderName())
+                .senderAvatar(n.getSenderAvatar())
+                .imageUrl(n.getImageUrl())
+                .seq(n.getSeq())
+                .timestamp(n.getCreateTime())
+                .build();
+    }
+
+    private static String inboxKey(Long userId) {
+        return CacheConstants.KEY_NOTIFY_INBOX + userId;
+    }
+
+    /**
+     * 应用关闭前写入缓冲中的通知
+     */
+    @PreDestroy
+    public void shutdown() {
+        drain();
+    }
+}
@@ -48,7 +48,7 @@ public interface NotificationService {
         void sendNewMessage(Long receiverId, Long senderId, String senderName, String senderAvatar, String content);
 
         /**
-         * 发送新关注者通知
+         * 发送新关注者通知（合并窗口内的多个关注者合并为一条）
          * 
          * @param followedId     被关注者ID
          * @param followerId     关注者ID
@@ -100,17 +100,31 @@ public interface NotificationService {
          * @param commentOwnerId 评论作者ID
          * @param likerId        点赞者ID
          * @param likerName      点赞者昵称
+         * @param commentId      评论ID（同一评论的点赞合并为一条通知）
          * @param recipeId       菜谱ID
          * @param recipeTitle    菜谱标题
          * @param commentContent 评论内容
          */
         void sendCommentLiked(Long commentOwnerId, Long likerId, String likerName,
-                        Long recipeId, String recipeTitle, String commentContent);
+                        Long commentId, Long recipeId, String recipeTitle, String commentContent);
+
+        /**
+         * 发送菜谱被收藏通知（同一菜谱的收藏合并为一条）
+         *
+         * @param authorId    菜谱作者ID
+         * @param userId      收藏者ID
+         * @param userName    收藏者昵称
+         * @param userAvatar  收藏者头像
+         * @param recipeId    菜谱ID
+         * @param recipeTitle 菜谱标题
+         */
+        void sendRecipeFavorited(Long authorId, Long userId, String userName, String userAvatar,
+                        Long recipeId, String recipeTitle);
 
         // ========== 管理员广播 ==========
 
         /**
-         * 广播用户上线状态给所有在线管理员
+         * 发布用户上线状态，合并后推送给订阅该用户的在线用户（关注者、私信会话对象与管理员）
          *
          * @param userId   上线的用户ID
          * @param nickname 用户昵称
@@ -118,7 +132,7 @@ public interface NotificationService {
         void broadcastUserOnline(Long userId, String nickname);
 
         /**
-         * 广播用户离线状态给所有在线管理员
+         * 发布用户离线状态，合并后推送给订阅该用户的在线用户
          *
          * @param userId 离线的用户ID
          */
@@ -3,6 +3,9 @@ package com.n1etzsch3.recipe.business.service;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.RandomUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.n1etzsch3.recipe.business.domain.dto.RecipeDetailDTO;
 import com.n1etzsch3.recipe.business.entity.RecipeCategory;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
@@ -15,17 +18,30 @@ import com.n1etzsch3.recipe.business.mapper.RecipeStepMapper;
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.service.RedisUserCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
- * 菜谱详情 Redis 缓存服务
- * 包含缓存穿透、雪崩防护
+ * 菜谱详情二级缓存服务
+ * L1 为进程内 Caffeine 缓存（按容量与权重限制，条目 TTL 随机抖动），L2 为 Redis
+ * 包含缓存穿透、雪崩防护；失效时通过 Redis Pub/Sub 通知所有节点清除 L1
  */
 @Slf4j
 @Service
@@ -33,6 +49,9 @@ import java.util.concurrent.TimeUnit;
 public class RecipeCacheService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
     private final RecipeInfoMapper recipeInfoMapper;
     private final RecipeIngredientMapper ingredientMapper;
     private final RecipeStepMapper stepMapper;
@@ -44,29 +63,111 @@ public class RecipeCacheService {
     private static final long NULL_TTL = 60; // 空值缓存60秒
     private static final long TTL_RANDOM_OFFSET = 300; // 随机偏移防止雪崩
 
+    // L1 空值标记（Caffeine 不允许存储 null）
+    private static final RecipeDetailDTO NULL_DETAIL = new RecipeDetailDTO();
+    // 每个条目的基础权重，保证权重上限同时约束条目数量
+    private static final int BASE_ENTRY_WEIGHT = 1;
+    private static final int WEIGHT_UNIT_CHARS = 1024;
+
+    /**
+     * L1 最大总权重（约等于缓存的菜谱文本 KB 数 + 条目数）
+     */
+    @Value("${recipe.cache.detail.local-max-weight:65536}")
+    private long localMaxWeight;
+
+    /**
+     * L1 基础 TTL（秒）
+     */
+    @Value("${recipe.cache.detail.local-ttl:60}")
+    private long localTtlSeconds;
+
     /**
-     * 获取菜谱详情（优先从缓存）
-     * 包含缓存穿透和雪崩防护
+     * L1 TTL 随机抖动上限（秒）
+     */
+    @Value("${recipe.cache.detail.local-ttl-jitter:30}")
+    private long localTtlJitterSeconds;
+
+    private Cache<Long, RecipeDetailDTO> localCache;
+    private Counter remoteHitCounter;
+    private Counter remoteMissCounter;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxWeight)
+                .weigher((Long id, RecipeDetailDTO dto) -> weigh(dto))
+                .expireAfter(new Expiry<Long, RecipeDetailDTO>() {
+                    @Override
+                    public long expireAfterCreate(Long key, RecipeDetailDTO value, long currentTime) {
+                        if (value == NULL_DETAIL) {
+                            return TimeUnit.SECONDS.toNanos(NULL_TTL);
+                        }
+                        long jitter = localTtlJitterSeconds > 0 ? RandomUtil.randomLong(0, localTtlJitterSeconds) : 0;
+                        return TimeUnit.SECONDS.toNanos(localTtlSeconds + jitter);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, RecipeDetailDTO value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, RecipeDetailDTO value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "recipe.detail.l1");
+        remoteHitCounter = Counter.builder("recipe.detail.l2.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        remoteMissCounter = Counter.builder("recipe.detail.l2.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener((message, pattern) -> onEvictMessage(message),
+                new ChannelTopic(CacheConstants.CHANNEL_RECIPE_EVICT));
+    }
+
+    /**
+     * 获取菜谱详情（L1 → L2 → DB）
+     * 返回的对象为多个请求共享，调用方不得修改，需要填充用户相关字段时请先复制
      */
     public RecipeDetailDTO getRecipeDetail(Long recipeId) {
         if (recipeId == null) {
             return null;
         }
 
+        // Caffeine 保证同一节点上相同 key 只有一个线程回源
+        RecipeDetailDTO dto = localCache.get(recipeId, this::loadFromRemote);
+        return dto == NULL_DETAIL ? null : dto;
+    }
+
+    /**
+     * L1 未命中时从 Redis 加载，Redis 未命中再查询数据库
+     */
+    private RecipeDetailDTO loadFromRemote(Long recipeId) {
         String key = CacheConstants.KEY_RECIPE_DETAIL + recipeId;
         Object cached = redisTemplate.opsForValue().get(key);
 
         // 1. 命中空值缓存（防止穿透）
         if (NULL_PLACEHOLDER.equals(cached)) {
+            remoteHitCounter.increment();
             log.debug("命中空值缓存: {}", key);
-            return null;
+            return NULL_DETAIL;
         }
 
         // 2. 命中正常缓存
         if (cached != null) {
+            remoteHitCounter.increment();
             log.debug("命中缓存: {}", key);
             return (RecipeDetailDTO) cached;
         }
+        remoteMissCounter.increment();
 
         // 3. 缓存未命中，查询数据库
         RecipeInfo recipe = recipeInfoMapper.selectById(recipeId);
@@ -75,18 +176,38 @@ public class RecipeCacheService {
             // 缓存空值防止穿透（短TTL）
             redisTemplate.opsForValue().set(key, NULL_PLACEHOLDER, NULL_TTL, TimeUnit.SECONDS);
             log.info("缓存空值防穿透: {}", key);
-            return null;
+            return NULL_DETAIL;
         }
 
-        // 4. 构建DTO
+        // 4. 构建DTO并写入 Redis
         RecipeDetailDTO dto = buildRecipeDetailDTO(recipe, recipeId);
+        writeRemote(key, dto);
+        return dto;
+    }
 
-        // 5. 写入缓存，添加随机偏移防止雪崩
+    /**
+     * 写入 Redis，添加随机偏移防止雪崩
+     */
+    private void writeRemote(String key, RecipeDetailDTO dto) {
         long ttl = CacheConstants.TTL_RECIPE + RandomUtil.randomLong(0, TTL_RANDOM_OFFSET);
         redisTemplate.opsForValue().set(key, dto, ttl, TimeUnit.SECONDS);
         log.info("写入缓存: {} TTL={}s", key, ttl);
+    }
 
-        return dto;
+    /**
+     * 预热菜谱缓存（已在 Redis 中的跳过）
+     *
+     * @return 是否新写入了缓存
+     */
+    public boolean warmup(RecipeInfo recipe) {
+        String key = CacheConstants.KEY_RECIPE_DETAIL + recipe.getId();
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            return false;
+        }
+        RecipeDetailDTO dto = buildRecipeDetailDTO(recipe, recipe.getId());
+        writeRemote(key, dto);
+        localCache.put(recipe.getId(), dto);
+        return true;
     }
 
     /**
@@ -128,13 +249,72 @@ public class RecipeCacheService {
     }
 
     /**
-     * 清除菜谱详情缓存
+     * 估算条目权重：基础权重 + 文本长度（按 KB 计）
+     */
+    private int weigh(RecipeDetailDTO dto) {
+        if (dto == NULL_DETAIL) {
+            return BASE_ENTRY_WEIGHT;
+        }
+        long chars = length(dto.getTitle()) + length(dto.getDescription());
+        if (dto.getIngredients() != null) {
+            for (RecipeIngredient ingredient : dto.getIngredients()) {
+                chars += length(ingredient.getName()) + length(ingredient.getAmount());
+            }
+        }
+        if (dto.getSteps() != null) {
+            for (RecipeStep step : dto.getSteps()) {
+                chars += length(step.getDescription()) + length(step.getImageUrl());
+            }
+        }
+        return BASE_ENTRY_WEIGHT + (int) Math.min(Integer.MAX_VALUE - 1, chars / WEIGHT_UNIT_CHARS);
+    }
+
+    private static long length(String s) {
+        return s != null ? s.length() : 0;
+    }
+
+    /**
+     * 清除菜谱详情缓存（L2 + 所有节点的 L1）
+     * 在事务中调用时，提交后会再清除一次，避免并发读取把旧数据重新写回缓存
      */
     public void evictRecipe(Long recipeId) {
-        if (recipeId != null) {
-            String key = CacheConstants.KEY_RECIPE_DETAIL + recipeId;
+        if (recipeId == null) {
+            return;
+        }
+        doEvict(recipeId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(recipeId);
+                }
+            });
+        }
+    }
+
+    private void doEvict(Long recipeId) {
+        String key = CacheConstants.KEY_RECIPE_DETAIL + recipeId;
+        localCache.invalidate(recipeId);
+        try {
             redisTemplate.delete(key);
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_RECIPE_EVICT, recipeId.toString());
             log.info("清除缓存: {}", key);
+        } catch (Exception e) {
+            log.warn("清除缓存失败: {}, error={}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 收到其他节点的失效广播，清除本地 L1
+     */
+    private void onEvictMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            localCache.invalidate(Long.parseLong(body));
+            log.debug("收到缓存失效广播: recipeId={}", body);
+        } catch (NumberFormatException e) {
+            log.warn("无效的缓存失效消息: {}", body);
         }
     }
 
@@ -0,0 +1,85 @@
+package com.n1etzsch3.recipe.business.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.n1etzsch3.recipe.business.entity.RecipeComment;
+import com.n1etzsch3.recipe.business.entity.RecipeInfo;
+import com.n1etzsch3.recipe.business.entity.RecipeIngredient;
+import com.n1etzsch3.recipe.business.entity.RecipeStep;
+import com.n1etzsch3.recipe.business.entity.UserFavorite;
+import com.n1etzsch3.recipe.business.mapper.CommentLikeMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeIngredientMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeStepMapper;
+import com.n1etzsch3.recipe.business.mapper.UserFavoriteMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 菜谱批量清除
+ * 每次调用在一个短事务内按集合删除一批菜谱及其全部关联数据（食材、步骤、评论、评论点赞、收藏、计数）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipePurgeService {
+
+    private final RecipeInfoMapper recipeInfoMapper;
+    private final RecipeIngredientMapper ingredientMapper;
+    private final RecipeStepMapper stepMapper;
+    private final RecipeCommentMapper commentMapper;
+    private final CommentLikeMapper commentLikeMapper;
+    private final UserFavoriteMapper favoriteMapper;
+    private final RecipeCacheService recipeCacheService;
+    private final DashboardStatsService dashboardStatsService;
+    private final RecipeStatsService recipeStatsService;
+
+    /**
+     * 删除一批候选菜谱
+     * 先在事务内锁定仍满足清理条件的菜谱，候选查询之后被修改（如重新编辑）的菜谱跳过
+     *
+     * @param candidateIds 候选菜谱ID
+     * @param status       清理的菜谱状态
+     * @param threshold    最后修改时间早于该时间才清理
+     * @return 实际删除的菜谱数
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int purge(List<Long> candidateIds, Integer status, LocalDateTime threshold) {
+        if (candidateIds.isEmpty()) {
+            return 0;
+        }
+        List<RecipeInfo> recipes = recipeInfoMapper.selectList(new LambdaQueryWrapper<RecipeInfo>()
+                .select(RecipeInfo::getId, RecipeInfo::getStatus, RecipeInfo::getCategoryId,
+                        RecipeInfo::getViewCount, RecipeInfo::getCreateTime)
+                .in(RecipeInfo::getId, candidateIds)
+                .eq(RecipeInfo::getStatus, status)
+                .lt(RecipeInfo::getUpdateTime, threshold)
+                .last("FOR UPDATE"));
+        if (recipes.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = recipes.stream().map(RecipeInfo::getId).toList();
+
+        commentLikeMapper.deleteByRecipeIds(ids);
+        dashboardStatsService.recordCommentsDeleting(new QueryWrapper<RecipeComment>().in("recipe_id", ids));
+        commentMapper.delete(new LambdaQueryWrapper<RecipeComment>().in(RecipeComment::getRecipeId, ids));
+        ingredientMapper.delete(new LambdaQueryWrapper<RecipeIngredient>().in(RecipeIngredient::getRecipeId, ids));
+        stepMapper.delete(new LambdaQueryWrapper<RecipeStep>().in(RecipeStep::getRecipeId, ids));
+        favoriteMapper.delete(new LambdaQueryWrapper<UserFavorite>().in(UserFavorite::getRecipeId, ids));
+        recipeInfoMapper.delete(new LambdaQueryWrapper<RecipeInfo>().in(RecipeInfo::getId, ids));
+        recipeStatsService.removeAll(ids);
+
+        for (RecipeInfo recipe : recipes) {
+            recipeCacheService.evictRecipe(recipe.getId());
+            dashboardStatsService.recordRecipeDeleted(recipe);
+        }
+        log.debug("已删除菜谱及关联数据: count={}, ids={}", ids.size(), ids);
+        return ids.size();
+    }
+}
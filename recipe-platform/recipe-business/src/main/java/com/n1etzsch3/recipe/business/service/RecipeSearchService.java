@@ -0,0 +1,309 @@
+package com.n1etzsch3.recipe.business.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.n1etzsch3.recipe.business.entity.RecipeInfo;
+import com.n1etzsch3.recipe.business.entity.RecipeIngredient;
+import com.n1etzsch3.recipe.business.mapper.RecipeCategoryMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeIngredientMapper;
+import com.n1etzsch3.recipe.business.search.IngredientHit;
+import com.n1etzsch3.recipe.business.search.IngredientIndex;
+import com.n1etzsch3.recipe.business.search.IngredientMatchResult;
+import com.n1etzsch3.recipe.business.search.RecipeDocument;
+import com.n1etzsch3.recipe.business.search.SearchEngine;
+import com.n1etzsch3.recipe.business.search.SearchQuery;
+import com.n1etzsch3.recipe.business.search.SearchResult;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.common.constant.RecipeConstants;
+import com.n1etzsch3.recipe.framework.config.SchedulingConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 菜谱全文检索服务（含食材倒排索引）
+ * 启动时从数据库构建索引；菜谱变更通过缓存失效广播（所有节点都会收到）标记为待刷新，定时批量重建对应文档
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeSearchService {
+
+    private static final int BATCH_SIZE = 1000;
+    // 索引构建完成前按食材查找时，数据库最多返回的命中数
+    private static final int MAX_FALLBACK_MATCHES = 200;
+
+    private final SearchEngine searchEngine;
+    private final IngredientIndex ingredientIndex;
+    private final RecipeInfoMapper recipeInfoMapper;
+    private final RecipeIngredientMapper ingredientMapper;
+    private final RecipeCategoryMapper categoryMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile boolean ready;
+
+    // 待刷新的菜谱ID
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // 已索引的菜谱ID（全量重建结束时据此清理已删除的菜谱）
+    private final Set<Long> indexedIds = ConcurrentHashMap.newKeySet();
+    // 全量重建期间已处理的菜谱ID
+    private volatile Set<Long> rebuildSeen;
+
+    // 读取数据库与写入索引须原子执行，避免旧数据覆盖较新的刷新结果
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) -> onRecipeChanged(message),
+                new ChannelTopic(CacheConstants.CHANNEL_RECIPE_EVICT));
+    }
+
+    /**
+     * 应用启动后在后台构建索引，构建完成前检索回退到数据库 LIKE 查询
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofVirtual().name("recipe-search-build").start(this::rebuild);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchResult search(SearchQuery query) {
+        return searchEngine.search(query);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return searchEngine.suggest(prefix, limit);
+    }
+
+    /**
+     * 按食材查找已发布菜谱，按覆盖度排序
+     *
+     * @param names 查询食材（已归一化、去重）
+     */
+    public IngredientMatchResult matchIngredients(Collection<String> names, int offset, int limit) {
+        if (names.isEmpty()) {
+            return IngredientMatchResult.empty();
+        }
+        if (ready) {
+            return ingredientIndex.match(names, offset, limit);
+        }
+
+        // 索引构建完成前回退到数据库聚合查询，只返回前若干条
+        List<IngredientHit> hits = new ArrayList<>();
+        for (Map<String, Object> row : ingredientMapper.selectMatchedRecipes(names,
+                RecipeConstants.STATUS_PUBLISHED, MAX_FALLBACK_MATCHES)) {
+            hits.add(new IngredientHit(((Number) row.get("recipeId")).longValue(),
+                    ((Number) row.get("matched")).intValue(), ((Number) row.get("total")).intValue()));
+        }
+        int from = Math.min(Math.max(offset, 0), hits.size());
+        int to = Math.min(from + Math.max(limit, 0), hits.size());
+        return new IngredientMatchResult(new ArrayList<>(hits.subList(from, to)), hits.size());
+    }
+
+    /**
+     * 按相关度分页检索并加载菜谱
+     *
+     * @param page 页码（从1开始）
+     */
+    public Page<RecipeInfo> searchPage(SearchQuery query, long page, long size) {
+        query.setOffset((int) ((Math.max(page, 1) - 1) * size));
+        query.setLimit((int) size);
+        SearchResult result = searchEngine.search(query);
+
+        Page<RecipeInfo> resultPage = new Page<>(page, size, result.getTotal());
+        resultPage.setRecords(loadRecipes(result.getIds(), query));
+        return resultPage;
+    }
+
+    /**
+     * 按检索结果顺序加载菜谱
+     */
+    public List<RecipeInfo> loadRecipes(List<Long> ids, SearchQuery query) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, RecipeInfo> loaded = new HashMap<>();
+        recipeInfoMapper.selectBatchIds(ids).forEach(r -> loaded.put(r.getId(), r));
+        List<RecipeInfo> records = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RecipeInfo recipe = loaded.get(id);
+            // 索引刷新有秒级延迟，按数据库最新值再过滤一次
+            if (recipe != null
+                    && (query.getStatus() == null || Objects.equals(query.getStatus(), recipe.getStatus()))
+                    && (query.getUserId() == null || Objects.equals(query.getUserId(), recipe.getUserId()))
+                    && (query.getCategoryId() == null
+                            || Objects.equals(query.getCategoryId(), recipe.getCategoryId()))) {
+                records.add(recipe);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 定时刷新变更过的菜谱文档
+     */
+    @Scheduled(fixedDelayString = "${recipe.search.refresh-interval:1000}", initialDelay = 5000)
+    public void refreshDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Long id : dirty) {
+            if (dirty.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            List<Long> batch = ids.subList(i, Math.min(i + BATCH_SIZE, ids.size()));
+            indexLock.lock();
+            try {
+                List<RecipeInfo> recipes = recipeInfoMapper.selectBatchIds(batch);
+                Set<Long> found = new HashSet<>();
+                recipes.forEach(r -> found.add(r.getId()));
+                List<Long> removed = batch.stream().filter(id -> !found.contains(id)).toList();
+
+                indexBatch(recipes);
+                if (!removed.isEmpty()) {
+                    searchEngine.remove(removed);
+                    ingredientIndex.remove(removed);
+                    removed.forEach(indexedIds::remove);
+                }
+                Set<Long> seen = rebuildSeen;
+                if (seen != null) {
+                    seen.addAll(batch);
+                }
+            } catch (Exception e) {
+                log.warn("刷新检索索引失败，稍后重试: size={}, error={}", batch.size(), e.getMessage());
+                dirty.addAll(batch);
+            } finally {
+                indexLock.unlock();
+            }
+        }
+        log.debug("检索索引已刷新: {} 个菜谱", ids.size());
+    }
+
+    /**
+     * 从数据库全量重建索引（启动时执行，之后每天校正一次）
+     */
+    @Scheduled(cron = "${recipe.search.rebuild-cron:0 30 4 * * ?}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        rebuildSeen = seen;
+        try {
+            long lastId = 0;
+            while (true) {
+                List<RecipeInfo> recipes;
+                indexLock.lock();
+                try {
+                    recipes = recipeInfoMapper.selectList(new LambdaQueryWrapper<RecipeInfo>()
+                            .gt(RecipeInfo::getId, lastId)
+                            .orderByAsc(RecipeInfo::getId)
+                            .last("LIMIT " + BATCH_SIZE));
+                    indexBatch(recipes);
+                } finally {
+                    indexLock.unlock();
+                }
+                if (recipes.isEmpty()) {
+                    break;
+                }
+                recipes.forEach(r -> seen.add(r.getId()));
+                lastId = recipes.get(recipes.size() - 1).getId();
+            }
+
+            // 清理数据库中已不存在的菜谱
+            indexLock.lock();
+            try {
+                List<Long> stale = indexedIds.stream().filter(id -> !seen.contains(id)).toList();
+                if (!stale.isEmpty()) {
+                    searchEngine.remove(stale);
+                    ingredientIndex.remove(stale);
+                    stale.forEach(indexedIds::remove);
+                }
+                ingredientIndex.optimize();
+            } finally {
+                indexLock.unlock();
+            }
+
+            ready = true;
+            log.info("检索索引构建完成: docs={}, ingredientDocs={}, 耗时 {}ms", searchEngine.size(),
+                    ingredientIndex.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("检索索引构建失败", e);
+        } finally {
+            rebuildSeen = null;
+        }
+    }
+
+    private void onRecipeChanged(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            dirty.add(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("无效的菜谱变更消息: {}", body);
+        }
+    }
+
+    private void indexBatch(List<RecipeInfo> recipes) {
+        if (recipes.isEmpty()) {
+            return;
+        }
+        List<Long> ids = recipes.stream().map(RecipeInfo::getId).toList();
+
+        Map<Long, List<String>> ingredients = new HashMap<>();
+        ingredientMapper.selectList(new LambdaQueryWrapper<RecipeIngredient>()
+                .select(RecipeIngredient::getRecipeId, RecipeIngredient::getName)
+                .in(RecipeIngredient::getRecipeId, ids))
+                .forEach(i -> ingredients.computeIfAbsent(i.getRecipeId(), k -> new ArrayList<>()).add(i.getName()));
+
+        Map<Integer, String> categoryNames = new HashMap<>();
+        categoryMapper.selectList(null).forEach(c -> categoryNames.put(c.getId(), c.getName()));
+
+        List<RecipeDocument> documents = new ArrayList<>(recipes.size());
+        for (RecipeInfo recipe : recipes) {
+            documents.add(toDocument(recipe, ingredients.getOrDefault(recipe.getId(), List.of()),
+                    categoryNames.get(recipe.getCategoryId())));
+        }
+        searchEngine.index(documents);
+        ingredientIndex.index(documents);
+        indexedIds.addAll(ids);
+    }
+
+    private static RecipeDocument toDocument(RecipeInfo recipe, Collection<String> ingredients, String categoryName) {
+        RecipeDocument document = new RecipeDocument();
+        document.setId(recipe.getId());
+        document.setTitle(recipe.getTitle());
+        document.setDescription(recipe.getDescription());
+        document.setCategoryName(categoryName);
+        document.setIngredients(new ArrayList<>(ingredients));
+        document.setStatus(recipe.getStatus());
+        document.setUserId(recipe.getUserId());
+        document.setCategoryId(recipe.getCategoryId());
+        return document;
+    }
+}
@@ -4,10 +4,14 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.n1etzsch3.recipe.business.domain.dto.RecipeDetailDTO;
 import com.n1etzsch3.recipe.business.domain.dto.RecipePublishDTO;
+import com.n1etzsch3.recipe.business.domain.query.IngredientMatchQuery;
 import com.n1etzsch3.recipe.business.domain.query.RecipePageQuery;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 
+import java.util.List;
+
 public interface RecipeService extends IService<RecipeInfo> {
 
     /**
@@ -25,6 +29,21 @@ public interface RecipeService extends IService<RecipeInfo> {
      */
     Result<IPage<RecipeDetailDTO>> pageRecipes(RecipePageQuery query);
 
+    /**
+     * 游标分页查询菜谱（首页流/无限滚动）
+     */
+    Result<CursorPage<RecipeDetailDTO>> scrollRecipes(RecipePageQuery query);
+
+    /**
+     * 按食材查找已发布菜谱（按命中食材数降序、缺少食材数升序）
+     */
+    Result<IPage<RecipeDetailDTO>> pageByIngredients(IngredientMatchQuery query);
+
+    /**
+     * 搜索联想（按前缀匹配已发布菜谱的标题和食材）
+     */
+    Result<List<String>> suggest(String prefix);
+
     /**
      * 修改菜谱
      */
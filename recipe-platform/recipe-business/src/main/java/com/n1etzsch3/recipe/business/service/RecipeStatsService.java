@@ -0,0 +1,102 @@
+package com.n1etzsch3.recipe.business.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.n1etzsch3.recipe.business.entity.RecipeStats;
+import com.n1etzsch3.recipe.business.mapper.RecipeStatsMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 菜谱计数服务
+ * 收藏/评论增删时在调用方事务内原子增减 recipe_stats，列表页按主键批量读取，不再做聚合查询
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeStatsService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final RecipeStatsMapper statsMapper;
+
+    public void incrementFavorites(Long recipeId, long delta) {
+        if (delta != 0) {
+            statsMapper.increment(recipeId, delta, 0);
+        }
+    }
+
+    public void incrementComments(Long recipeId, long delta) {
+        if (delta != 0) {
+            statsMapper.increment(recipeId, 0, delta);
+        }
+    }
+
+    /**
+     * 菜谱删除时移除计数
+     */
+    public void remove(Long recipeId) {
+        statsMapper.deleteById(recipeId);
+    }
+
+    /**
+     * 批量删除菜谱时移除计数
+     */
+    public void removeAll(Collection<Long> recipeIds) {
+        if (!recipeIds.isEmpty()) {
+            statsMapper.delete(new LambdaQueryWrapper<RecipeStats>().in(RecipeStats::getRecipeId, recipeIds));
+        }
+    }
+
+    /**
+     * 批量读取计数，无记录的菜谱不在结果中（按 0 处理）
+     */
+    public Map<Long, RecipeStats> getStats(Collection<Long> recipeIds) {
+        Map<Long, RecipeStats> result = new HashMap<>();
+        if (recipeIds.isEmpty()) {
+            return result;
+        }
+        statsMapper.selectBatchIds(recipeIds).forEach(s -> result.put(s.getRecipeId(), s));
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return statsMapper.selectOne(new LambdaQueryWrapper<RecipeStats>().last("LIMIT 1")) == null;
+    }
+
+    /**
+     * 从明细表分批重算计数（同时修正评论点赞数），每批单独提交以缩短锁持有时间
+     *
+     * @param aborted 每批开始前检查，返回 true 时停止（如执行锁已失效）
+     * @return 受影响行数（新增行计 1，修正行计 2）
+     * @throws IllegalStateException 已中止
+     */
+    public long reconcile(BooleanSupplier aborted) {
+        long fixed = 0;
+        long fixedLikes = 0;
+        long lastId = 0;
+        while (true) {
+            if (aborted.getAsBoolean()) {
+                throw new IllegalStateException("对账已中止: lastId=" + lastId);
+            }
+            Long endId = statsMapper.selectBatchEndId(lastId, BATCH_SIZE);
+            if (endId == null) {
+                break;
+            }
+            fixed += statsMapper.rebuildRange(lastId, endId);
+            fixedLikes += statsMapper.rebuildCommentLikes(lastId, endId);
+            lastId = endId;
+        }
+        if (aborted.getAsBoolean()) {
+            throw new IllegalStateException("对账已中止: lastId=" + lastId);
+        }
+        int orphans = statsMapper.deleteOrphans();
+        log.info("菜谱计数对账完成: affected={}, commentLikesFixed={}, orphansRemoved={}", fixed, fixedLikes, orphans);
+        return fixed;
+    }
+}
@@ -0,0 +1,196 @@
+package com.n1etzsch3.recipe.business.service;
+
+import com.n1etzsch3.recipe.business.entity.RecipeInfo;
+import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 菜谱浏览量写回服务
+ * 浏览量先累加在本地计数中，定时批量写回数据库，避免热点菜谱行锁竞争；
+ * 对外展示的浏览量由 Redis 计数器维护，保证单调递增
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecipeViewCountService {
+
+    private final RecipeInfoMapper recipeInfoMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final DashboardStatsService dashboardStatsService;
+
+    /**
+     * 单条 UPDATE 语句最多包含的菜谱数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    /**
+     * 计数器存在时自增并续期；不存在时用调用方给出的当前值初始化
+     */
+    private static final DefaultRedisScript<Long> INCR_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                local v = redis.call('INCR', KEYS[1])
+                redis.call('EXPIRE', KEYS[1], ARGV[2])
+                return v
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])
+            return tonumber(ARGV[1])
+            """, Long.class);
+
+    // 未写回数据库的浏览量增量（累加与取出均为单键原子操作，取出后到达的浏览计入新的条目）
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 记录一次浏览
+     *
+     * @param recipeId  菜谱ID
+     * @param baseCount 调用方已知的数据库浏览量（可能来自缓存）
+     * @return 包含本次浏览在内的最新浏览量
+     */
+    public int recordView(Long recipeId, Integer baseCount) {
+        pending.merge(recipeId, 1L, Long::sum);
+
+        long localCount = (baseCount != null ? baseCount : 0) + getPendingDelta(recipeId);
+        try {
+            Long total = stringRedisTemplate.execute(INCR_SCRIPT,
+                    List.of(CacheConstants.KEY_VIEW_COUNT + recipeId),
+                    String.valueOf(localCount),
+                    String.valueOf(CacheConstants.TTL_VIEW_COUNT));
+            if (total != null) {
+                return (int) Math.max(total, localCount);
+            }
+        } catch (Exception e) {
+            log.warn("更新浏览量计数器失败: recipeId={}, error={}", recipeId, e.getMessage());
+        }
+        return (int) localCount;
+    }
+
+    /**
+     * 获取本节点尚未写回数据库的浏览量增量
+     */
+    public long getPendingDelta(Long recipeId) {
+        Long delta = pending.get(recipeId);
+        return delta != null ? delta : 0;
+    }
+
+    /**
+     * 批量获取最新浏览量（数据库值与实时计数器合并）
+     *
+     * @param recipes 从数据库查询的菜谱
+     * @return 菜谱ID → 浏览量
+     */
+    public Map<Long, Integer> getViewCounts(List<RecipeInfo> recipes) {
+        Map<Long, Integer> result = new HashMap<>();
+        if (recipes == null || recipes.isEmpty()) {
+            return result;
+        }
+
+        List<String> keys = new ArrayList<>(recipes.size());
+        for (RecipeInfo recipe : recipes) {
+            keys.add(CacheConstants.KEY_VIEW_COUNT + recipe.getId());
+        }
+
+        List<String> liveCounts = null;
+        try {
+            liveCounts = stringRedisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.warn("批量读取浏览量计数器失败: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < recipes.size(); i++) {
+            RecipeInfo recipe = recipes.get(i);
+            long merged = (recipe.getViewCount() != null ? recipe.getViewCount() : 0)
+                    + getPendingDelta(recipe.getId());
+            String live = liveCounts != null ? liveCounts.get(i) : null;
+            if (live != null) {
+                merged = Math.max(merged, Long.parseLong(live));
+            }
+            result.put(recipe.getId(), (int) merged);
+        }
+        return result;
+    }
+
+    /**
+     * 定时将浏览量增量批量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${recipe.view-count.flush-interval:5000}", initialDelay = 5000)
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = drain();
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            int updated = 0;
+            Map<Long, Long> batch = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() >= FLUSH_BATCH_SIZE) {
+                    updated += writeBatch(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                updated += writeBatch(batch);
+            }
+            log.debug("浏览量写回完成: recipes={}, updatedRows={}", deltas.size(), updated);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭前写回剩余增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("应用关闭，写回剩余浏览量增量...");
+        flush();
+    }
+
+    /**
+     * 取出所有待写回的增量
+     */
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long recipeId : pending.keySet()) {
+            // 原子移除：之后的浏览重新创建条目，不会累加到已取出的值上
+            Long delta = pending.remove(recipeId);
+            if (delta != null && delta > 0) {
+                deltas.put(recipeId, delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 写入一批增量，失败时放回待写回队列等待下次重试
+     */
+    private int writeBatch(Map<Long, Long> batch) {
+        try {
+            int updated = recipeInfoMapper.batchIncrementViewCount(batch);
+            dashboardStatsService.recordViews(batch.values().stream().mapToLong(Long::longValue).sum());
+            return updated;
+        } catch (Exception e) {
+            log.error("浏览量批量写回失败，将在下次重试: size={}, error={}", batch.size(), e.getMessage());
+            batch.forEach((recipeId, delta) -> pending.merge(recipeId, delta, Long::sum));
+            return 0;
+        }
+    }
+}
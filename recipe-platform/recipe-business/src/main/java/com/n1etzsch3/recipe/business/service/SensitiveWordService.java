@@ -0,0 +1,147 @@
+package com.n1etzsch3.recipe.business.service;
+
+import com.n1etzsch3.recipe.business.mapper.SensitiveWordMapper;
+import com.n1etzsch3.recipe.business.moderation.SensitiveWordMatcher;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 敏感词词典服务
+ * 词典存储在 sensitive_word 表中，后台线程编译为不可变的自动机快照后原子替换，验证时无锁读取；
+ * 词典变更时递增 Redis 版本号并广播，其他节点收到广播或定时检查到版本变化后重新编译
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SensitiveWordService {
+
+    private final SensitiveWordMapper sensitiveWordMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 词典快照：版本号与对应的自动机
+     */
+    private record Snapshot(long version, SensitiveWordMatcher matcher) {
+    }
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(
+            new Snapshot(-1, SensitiveWordMatcher.compile(List.of())));
+
+    // 编译在单个后台线程上串行执行，编译期间的变更请求合并为一次
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("sensitive-word-reload").factory());
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        // 首次加载同步执行，保证消费者开始预审前词典已就绪
+        reload();
+        listenerContainer.addMessageListener((message, pattern) -> onReloadMessage(message),
+                new ChannelTopic(CacheConstants.CHANNEL_SENSITIVE_WORD_RELOAD));
+    }
+
+    /**
+     * 当前词典自动机，始终返回完整编译的快照
+     */
+    public SensitiveWordMatcher getMatcher() {
+        return current.get().matcher();
+    }
+
+    public long getVersion() {
+        return current.get().version();
+    }
+
+    /**
+     * 词典已变更：递增版本号并通知所有节点（包括本节点）重新编译
+     */
+    public void publishChange() {
+        try {
+            Long version = stringRedisTemplate.opsForValue().increment(CacheConstants.KEY_SENSITIVE_WORD_VERSION);
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_SENSITIVE_WORD_RELOAD, String.valueOf(version));
+        } catch (Exception e) {
+            log.warn("广播敏感词词典变更失败，仅重新编译本节点: {}", e.getMessage());
+            requestReload();
+        }
+    }
+
+    /**
+     * 定时比对 Redis 版本号，兜底处理丢失的广播
+     */
+    @Scheduled(fixedDelayString = "${recipe.sensitive-word.check-interval:60000}")
+    public void checkVersion() {
+        if (readVersion() != getVersion()) {
+            requestReload();
+        }
+    }
+
+    private void onReloadMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (Long.parseLong(body) != getVersion()) {
+                requestReload();
+            }
+        } catch (NumberFormatException e) {
+            log.warn("无效的敏感词词典变更消息: {}", body);
+        }
+    }
+
+    /**
+     * 提交后台编译任务，已有任务排队时不重复提交
+     */
+    private void requestReload() {
+        if (reloadQueued.compareAndSet(false, true)) {
+            reloadExecutor.execute(() -> {
+                // 先清除标记再加载，加载期间的新变更会再排队一次
+                reloadQueued.set(false);
+                reload();
+            });
+        }
+    }
+
+    private void reload() {
+        try {
+            // 先读版本号再读词典，版本号只会偏旧，不会漏掉之后的变更
+            long version = readVersion();
+            long start = System.currentTimeMillis();
+            List<String> words = sensitiveWordMapper.selectAllWords();
+            SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(words);
+            current.set(new Snapshot(version, matcher));
+            log.info("敏感词词典已加载: version={}, words={}, cost={}ms",
+                    version, matcher.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("加载敏感词词典失败，继续使用当前版本: {}", e.getMessage());
+        }
+    }
+
+    private long readVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(CacheConstants.KEY_SENSITIVE_WORD_VERSION);
+            return version != null ? Long.parseLong(version) : 0;
+        } catch (Exception e) {
+            log.warn("读取敏感词词典版本失败: {}", e.getMessage());
+            return getVersion();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+}
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.n1etzsch3.recipe.business.domain.dto.MessageSendDTO;
 import com.n1etzsch3.recipe.business.domain.vo.MessageVO;
 import com.n1etzsch3.recipe.business.domain.vo.UserVO;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 
 public interface SocialService {
@@ -34,6 +35,11 @@ public interface SocialService {
      */
     Result<IPage<MessageVO>> pageMessages(Long otherUserId, Integer page, Integer size);
 
+    /**
+     * 游标分页获取聊天记录（向上翻阅历史消息）
+     */
+    Result<CursorPage<MessageVO>> scrollMessages(Long otherUserId, String cursor, Integer size);
+
     /**
      * 获取会话列表
      */
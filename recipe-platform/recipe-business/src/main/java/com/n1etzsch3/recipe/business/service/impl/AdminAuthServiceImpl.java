@@ -8,8 +8,8 @@ import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.common.utils.JwtUtils;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
+import com.n1etzsch3.recipe.framework.service.PasswordHashService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -20,7 +20,7 @@ import java.util.Map;
 public class AdminAuthServiceImpl implements AdminAuthService {
 
     private final SysUserMapper sysUserMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashService passwordHashService;
     private final AdminLogService adminLogService;
 
     @Override
@@ -41,7 +41,7 @@ public class AdminAuthServiceImpl implements AdminAuthService {
             return Result.fail("非管理员账号");
         }
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashService.matches(password, user.getPassword())) {
             // 记录登录失败日志：密码错误
             adminLogService.logLogin(user.getId(), username, false, "密码错误");
             return Result.fail("账号或密码错误");
@@ -9,6 +9,8 @@ import com.n1etzsch3.recipe.business.domain.dto.CommentDetailDTO;
 import com.n1etzsch3.recipe.business.entity.RecipeComment;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
 import com.n1etzsch3.recipe.business.service.AdminCommentService;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
+import com.n1etzsch3.recipe.business.service.RecipeStatsService;
 import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
 import com.n1etzsch3.recipe.common.core.domain.Result;
@@ -17,6 +19,7 @@ import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,6 +35,8 @@ public class AdminCommentServiceImpl implements AdminCommentService {
     private final RecipeCommentMapper commentMapper;
     private final RecipeInfoMapper recipeInfoMapper;
     private final SysUserMapper sysUserMapper;
+    private final DashboardStatsService dashboardStatsService;
+    private final RecipeStatsService recipeStatsService;
 
     @Override
     public Result<IPage<CommentDetailDTO>> pageComments(Integer page, Integer size, String keyword,
@@ -104,12 +109,16 @@ public class AdminCommentServiceImpl implements AdminCommentService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Result<?> deleteComment(Long commentId) {
         RecipeComment comment = commentMapper.selectById(commentId);
         if (comment == null) {
             return Result.fail("评论不存在");
         }
-        commentMapper.deleteById(commentId);
+        if (commentMapper.deleteById(commentId) > 0) {
+            recipeStatsService.incrementComments(comment.getRecipeId(), -1);
+        }
+        dashboardStatsService.recordCommentDeleted(comment);
         log.info("管理员删除评论: id={}", commentId);
         return Result.ok("删除成功");
     }
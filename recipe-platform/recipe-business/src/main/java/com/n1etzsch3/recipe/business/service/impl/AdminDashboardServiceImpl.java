@@ -11,24 +11,38 @@ import com.n1etzsch3.recipe.business.mapper.RecipeCategoryMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
 import com.n1etzsch3.recipe.business.service.AdminDashboardService;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.common.constant.RecipeConstants;
+import com.n1etzsch3.recipe.common.context.QueryTimeoutContext;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AdminDashboardServiceImpl implements AdminDashboardService {
@@ -37,140 +51,122 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
     private final RecipeCategoryMapper categoryMapper;
     private final RecipeCommentMapper commentMapper;
     private final SysUserMapper sysUserMapper;
+    private final DashboardStatsService dashboardStatsService;
+
+    /**
+     * 单项统计查询超时时间（毫秒），超时的统计项使用默认值，执行中的 SQL 由语句超时取消
+     */
+    @Value("${recipe.dashboard.query-timeout:3000}")
+    private long queryTimeoutMs;
+
+    /**
+     * 同时执行的统计查询数量上限（不应超过数据库连接池大小）
+     */
+    @Value("${recipe.dashboard.max-concurrency:6}")
+    private int maxConcurrency;
+
+    // 统计查询在虚拟线程上并发执行，并发数由信号量限制
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("dashboard-", 0).factory());
+    private Semaphore permits;
+
+    // 正在进行的统计计算，缓存失效时并发请求共享同一次计算
+    private final AtomicReference<CompletableFuture<DashboardDTO>> inFlight = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrency));
+    }
 
     @Override
-    @Cacheable(value = CacheConstants.CACHE_DASHBOARD, key = "'stats'")
+    @Cacheable(value = CacheConstants.CACHE_DASHBOARD, key = "'stats'", unless = "#result.data == null || #result.data.partial")
     public Result<DashboardDTO> getDashboard() {
-        DashboardDTO dto = new DashboardDTO();
+        CompletableFuture<DashboardDTO> future = new CompletableFuture<>();
+        CompletableFuture<DashboardDTO> existing = inFlight.compareAndExchange(null, future);
+        if (existing != null) {
+            log.debug("仪表盘统计正在计算，等待结果");
+            return Result.ok(existing.join());
+        }
 
+        try {
+            future.complete(computeDashboard());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(future, null);
+        }
+        return Result.ok(future.join());
+    }
+
+    /**
+     * 并发执行相互独立的统计查询，整体耗时取决于最慢的单个查询
+     * 计数类指标读取增量维护的每日汇总表，不扫描明细表
+     */
+    private DashboardDTO computeDashboard() {
+        long start = System.currentTimeMillis();
+        AtomicBoolean partial = new AtomicBoolean(false);
+        LocalDate today = LocalDate.now();
+
+        // 汇总统计
+        CompletableFuture<Map<String, Map<String, Long>>> totals = submit("totals", partial, Map.of(),
+                dashboardStatsService::loadTotals);
+        CompletableFuture<Map<String, Map<String, Long>>> todayStats = submit("todayStats", partial, Map.of(),
+                () -> dashboardStatsService.loadDay(today));
+        CompletableFuture<Map<String, Map<Integer, Long>>> monthly = submit("monthly", partial, Map.of(),
+                () -> dashboardStatsService.loadMonthly(today.getYear()));
+        CompletableFuture<Long> weeklyActiveUsers = submit("weeklyActiveUsers", partial, 0L,
+                dashboardStatsService::countWeeklyActiveUsers);
+
+        // 分类
+        CompletableFuture<List<RecipeCategory>> categories = submit("categories", partial, List.of(),
+                () -> categoryMapper.selectList(null));
+
+        // 活跃用户、最新动态
+        CompletableFuture<List<DashboardDTO.TopUserDTO>> topUsers = submit("topActiveUsers", partial,
+                List.of(), this::queryTopActiveUsers);
+        CompletableFuture<List<DashboardDTO.RecentActivityDTO>> recentRecipes = submit("recentRecipes", partial,
+                List.of(), this::queryRecentRecipeActivities);
+        CompletableFuture<List<DashboardDTO.RecentActivityDTO>> recentComments = submit("recentComments", partial,
+                List.of(), this::queryRecentCommentActivities);
+
+        CompletableFuture.allOf(totals, todayStats, monthly, weeklyActiveUsers, categories,
+                topUsers, recentRecipes, recentComments).join();
+
+        Map<String, Map<String, Long>> total = totals.join();
+        Map<String, Long> recipeByStatus = total.getOrDefault(DashboardStatsService.METRIC_RECIPE, Map.of());
+        Map<String, Map<String, Long>> day = todayStats.join();
+
+        DashboardDTO dto = new DashboardDTO();
         // 用户统计
-        dto.setTotalUsers(sysUserMapper.selectCount(null));
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        dto.setTodayNewUsers(sysUserMapper.selectCount(new LambdaQueryWrapper<SysUser>()
-                .ge(SysUser::getCreateTime, todayStart)));
+        dto.setTotalUsers(sum(total, DashboardStatsService.METRIC_USER));
+        dto.setTodayNewUsers(sum(day, DashboardStatsService.METRIC_USER));
 
         // 菜谱统计
-        dto.setTotalRecipes(recipeInfoMapper.selectCount(null));
-        dto.setPendingRecipes(recipeInfoMapper.selectCount(new LambdaQueryWrapper<RecipeInfo>()
-                .eq(RecipeInfo::getStatus, RecipeConstants.STATUS_PENDING)));
-        dto.setPublishedRecipes(recipeInfoMapper.selectCount(new LambdaQueryWrapper<RecipeInfo>()
-                .eq(RecipeInfo::getStatus, RecipeConstants.STATUS_PUBLISHED)));
+        dto.setTotalRecipes(sum(total, DashboardStatsService.METRIC_RECIPE));
+        dto.setPendingRecipes(recipeByStatus.getOrDefault(String.valueOf(RecipeConstants.STATUS_PENDING), 0L));
+        dto.setPublishedRecipes(recipeByStatus.getOrDefault(String.valueOf(RecipeConstants.STATUS_PUBLISHED), 0L));
 
         // 评论统计
-        dto.setTotalComments(commentMapper.selectCount(null));
-        dto.setTodayComments(commentMapper.selectCount(new LambdaQueryWrapper<RecipeComment>()
-                .ge(RecipeComment::getCreateTime, todayStart)));
+        dto.setTotalComments(sum(total, DashboardStatsService.METRIC_COMMENT));
+        dto.setTodayComments(sum(day, DashboardStatsService.METRIC_COMMENT));
 
         // 分类统计
-        dto.setTotalCategories(categoryMapper.selectCount(null));
-
-        // 月度菜谱发布统计 (当前年份各月份, 使用聚合查询优化)
-        int currentYear = LocalDate.now().getYear();
-        QueryWrapper<RecipeInfo> monthlyWrapper = new QueryWrapper<>();
-        monthlyWrapper.select("MONTH(create_time) as month", "COUNT(*) as count");
-        monthlyWrapper.apply("YEAR(create_time) = {0}", currentYear);
-        monthlyWrapper.groupBy("MONTH(create_time)");
-        List<Map<String, Object>> monthlyList = recipeInfoMapper.selectMaps(monthlyWrapper);
-
-        Map<Integer, Long> monthData = new HashMap<>();
-        if (monthlyList != null) {
-            for (Map<String, Object> map : monthlyList) {
-                Integer m = Convert.toInt(map.get("month"));
-                Long c = Convert.toLong(map.get("count"));
-                if (m != null) {
-                    monthData.put(m, c);
-                }
-            }
-        }
+        List<RecipeCategory> categoryList = categories.join();
+        dto.setTotalCategories((long) categoryList.size());
+        dto.setCategoryStats(toCategoryStats(categoryList,
+                total.getOrDefault(DashboardStatsService.METRIC_CATEGORY, Map.of())));
 
-        List<DashboardDTO.MonthlyStatDTO> monthlyStats = new java.util.ArrayList<>();
-        for (int month = 1; month <= 12; month++) {
-            monthlyStats.add(new DashboardDTO.MonthlyStatDTO(month, monthData.getOrDefault(month, 0L)));
-        }
-        dto.setMonthlyRecipes(monthlyStats);
-
-        // 分类菜谱分布统计 (使用聚合查询优化)
-        QueryWrapper<RecipeInfo> catWrapper = new QueryWrapper<>();
-        catWrapper.select("category_id", "COUNT(*) as count");
-        catWrapper.isNotNull("category_id");
-        catWrapper.groupBy("category_id");
-        List<Map<String, Object>> catList = recipeInfoMapper.selectMaps(catWrapper);
-
-        List<RecipeCategory> categories = categoryMapper.selectList(null);
-        Map<Integer, String> categoryNames = categories.stream()
-                .collect(java.util.stream.Collectors.toMap(RecipeCategory::getId, RecipeCategory::getName));
-
-        List<DashboardDTO.CategoryStatDTO> categoryStats = new java.util.ArrayList<>();
-        if (catList != null) {
-            for (Map<String, Object> map : catList) {
-                Integer cid = Convert.toInt(map.get("category_id"));
-                Long count = Convert.toLong(map.get("count"));
-                String name = categoryNames.get(cid);
-                if (name != null) {
-                    categoryStats.add(new DashboardDTO.CategoryStatDTO(name, count));
-                }
-            }
-        }
-        categoryStats.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
-        dto.setCategoryStats(categoryStats);
-
-        // 月度用户增长统计
-        QueryWrapper<SysUser> monthlyUserWrapper = new QueryWrapper<>();
-        monthlyUserWrapper.select("MONTH(create_time) as month", "COUNT(*) as count");
-        monthlyUserWrapper.apply("YEAR(create_time) = {0}", currentYear);
-        monthlyUserWrapper.groupBy("MONTH(create_time)");
-        List<Map<String, Object>> monthlyUserList = sysUserMapper.selectMaps(monthlyUserWrapper);
-
-        Map<Integer, Long> monthUserData = new HashMap<>();
-        if (monthlyUserList != null) {
-            for (Map<String, Object> map : monthlyUserList) {
-                Integer m = Convert.toInt(map.get("month"));
-                Long c = Convert.toLong(map.get("count"));
-                if (m != null) {
-                    monthUserData.put(m, c);
-                }
-            }
-        }
-
-        List<DashboardDTO.MonthlyStatDTO> monthlyUserStats = new java.util.ArrayList<>();
-        for (int month = 1; month <= 12; month++) {
-            monthlyUserStats.add(new DashboardDTO.MonthlyStatDTO(month, monthUserData.getOrDefault(month, 0L)));
-        }
-        dto.setMonthlyUsers(monthlyUserStats);
+        // 月度菜谱发布、用户增长
+        Map<String, Map<Integer, Long>> monthlyData = monthly.join();
+        dto.setMonthlyRecipes(toMonthlyStats(monthlyData.getOrDefault(DashboardStatsService.METRIC_RECIPE, Map.of())));
+        Map<Integer, Long> monthUserData = monthlyData.getOrDefault(DashboardStatsService.METRIC_USER, Map.of());
+        dto.setMonthlyUsers(toMonthlyStats(monthUserData));
 
         // 周活跃用户数（7天内有发布菜谱或评论的用户）
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        QueryWrapper<RecipeInfo> weekRecipeWrapper = new QueryWrapper<>();
-        weekRecipeWrapper.select("DISTINCT user_id");
-        weekRecipeWrapper.ge("create_time", weekAgo);
-        List<Map<String, Object>> weekRecipeUsers = recipeInfoMapper.selectMaps(weekRecipeWrapper);
-
-        QueryWrapper<RecipeComment> weekCommentWrapper = new QueryWrapper<>();
-        weekCommentWrapper.select("DISTINCT user_id");
-        weekCommentWrapper.ge("create_time", weekAgo);
-        List<Map<String, Object>> weekCommentUsers = commentMapper.selectMaps(weekCommentWrapper);
-
-        Set<Long> activeUserIds = new HashSet<>();
-        if (weekRecipeUsers != null) {
-            weekRecipeUsers.forEach(m -> {
-                Long uid = Convert.toLong(m.get("user_id"));
-                if (uid != null) {
-                    activeUserIds.add(uid);
-                }
-            });
-        }
-        if (weekCommentUsers != null) {
-            weekCommentUsers.forEach(m -> {
-                Long uid = Convert.toLong(m.get("user_id"));
-                if (uid != null) {
-                    activeUserIds.add(uid);
-                }
-            });
-        }
-        dto.setWeeklyActiveUsers((long) activeUserIds.size());
+        dto.setWeeklyActiveUsers(weeklyActiveUsers.join());
 
         // 用户增长率（本月 vs 上月）
-        int currentMonth = LocalDate.now().getMonthValue();
+        int currentMonth = today.getMonthValue();
         Long thisMonthUsers = monthUserData.getOrDefault(currentMonth, 0L);
         Long lastMonthUsers = monthUserData.getOrDefault(currentMonth > 1 ? currentMonth - 1 : 12, 0L);
         if (lastMonthUsers > 0) {
@@ -181,22 +177,92 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
             dto.setUserGrowthRate(0.0);
         }
 
-        // 总浏览量和今日浏览量（使用菜谱的 viewCount 字段求和）
-        QueryWrapper<RecipeInfo> viewWrapper = new QueryWrapper<>();
-        viewWrapper.select("IFNULL(SUM(view_count), 0) as total");
-        List<Map<String, Object>> viewResult = recipeInfoMapper.selectMaps(viewWrapper);
-        Long totalViews = 0L;
-        if (viewResult != null && !viewResult.isEmpty()) {
-            totalViews = Convert.toLong(viewResult.get(0).get("total"));
-            if (totalViews == null) {
-                totalViews = 0L;
+        // 总浏览量（含删除扣减与对账修正），今日浏览量为今日写回的浏览增量
+        dto.setTotalViews(sum(total, DashboardStatsService.METRIC_VIEW));
+        dto.setTodayViews(day.getOrDefault(DashboardStatsService.METRIC_VIEW, Map.of())
+                .getOrDefault(DashboardStatsService.DIM_NONE, 0L));
+        dto.setTopActiveUsers(topUsers.join());
+
+        // 最新动态：按时间排序，取最新10条
+        List<DashboardDTO.RecentActivityDTO> activities = new ArrayList<>(recentRecipes.join());
+        activities.addAll(recentComments.join());
+        activities.sort((a, b) -> b.getTime().compareTo(a.getTime()));
+        if (activities.size() > 10) {
+            activities = new ArrayList<>(activities.subList(0, 10));
+        }
+        dto.setRecentActivities(activities);
+
+        dto.setPartial(partial.get());
+        log.info("仪表盘统计完成: 耗时 {}ms, partial={}", System.currentTimeMillis() - start, dto.isPartial());
+        return dto;
+    }
+
+    /**
+     * 提交单项统计查询，超时或失败时返回默认值并标记为部分结果
+     * 截止时间同时作用于等待并发许可和 SQL 语句超时，超时的查询会被数据库取消并释放许可与连接
+     */
+    private <T> CompletableFuture<T> submit(String name, AtomicBoolean partial, T fallback, Supplier<T> query) {
+        long deadline = System.currentTimeMillis() + queryTimeoutMs;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (!permits.tryAcquire(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("等待统计查询许可超时: " + name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("统计查询被中断: " + name, e);
+            }
+            QueryTimeoutContext.set(deadline);
+            try {
+                T value = query.get();
+                return value != null ? value : fallback;
+            } finally {
+                QueryTimeoutContext.remove();
+                permits.release();
             }
+        }, executor)
+                .orTimeout(queryTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    partial.set(true);
+                    log.warn("仪表盘统计项 {} 执行失败或超时，使用默认值: {}", name, e.toString());
+                    return fallback;
+                });
+    }
+
+    private static long sum(Map<String, Map<String, Long>> stats, String metric) {
+        return stats.getOrDefault(metric, Map.of()).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private List<DashboardDTO.MonthlyStatDTO> toMonthlyStats(Map<Integer, Long> monthData) {
+        List<DashboardDTO.MonthlyStatDTO> stats = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            stats.add(new DashboardDTO.MonthlyStatDTO(month, monthData.getOrDefault(month, 0L)));
         }
-        dto.setTotalViews(totalViews);
-        // 今日浏览量暂时模拟（实际需要记录每日浏览日志）
-        dto.setTodayViews(dto.getTodayNewUsers() * 3 + dto.getTodayComments() * 2);
+        return stats;
+    }
 
-        // 活跃用户列表（发布菜谱数量最多的前5名）
+    /**
+     * 分类菜谱分布统计
+     *
+     * @param countByCategory 分类ID(字符串) → 菜谱数
+     */
+    private List<DashboardDTO.CategoryStatDTO> toCategoryStats(List<RecipeCategory> categories,
+            Map<String, Long> countByCategory) {
+        List<DashboardDTO.CategoryStatDTO> categoryStats = new ArrayList<>();
+        for (RecipeCategory category : categories) {
+            Long count = countByCategory.get(String.valueOf(category.getId()));
+            if (count != null && count > 0) {
+                categoryStats.add(new DashboardDTO.CategoryStatDTO(category.getName(), count));
+            }
+        }
+        categoryStats.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return categoryStats;
+    }
+
+    /**
+     * 活跃用户列表（发布菜谱数量最多的前5名）
+     */
+    private List<DashboardDTO.TopUserDTO> queryTopActiveUsers() {
         QueryWrapper<RecipeInfo> topUserWrapper = new QueryWrapper<>();
         topUserWrapper.select("user_id", "COUNT(*) as recipe_count");
         topUserWrapper.groupBy("user_id");
@@ -204,73 +270,74 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
         topUserWrapper.last("LIMIT 5");
         List<Map<String, Object>> topUserRecipes = recipeInfoMapper.selectMaps(topUserWrapper);
 
-        List<DashboardDTO.TopUserDTO> topUsers = new java.util.ArrayList<>();
-        if (topUserRecipes != null && !topUserRecipes.isEmpty()) {
-            List<Long> topUserIds = new java.util.ArrayList<>();
-            Map<Long, Long> recipeCountMap = new HashMap<>();
-            for (Map<String, Object> map : topUserRecipes) {
-                Long userId = Convert.toLong(map.get("user_id"));
-                Long recipeCount = Convert.toLong(map.get("recipe_count"));
-                if (userId != null) {
-                    topUserIds.add(userId);
-                    recipeCountMap.put(userId, recipeCount != null ? recipeCount : 0L);
-                }
+        List<DashboardDTO.TopUserDTO> topUsers = new ArrayList<>();
+        if (topUserRecipes == null || topUserRecipes.isEmpty()) {
+            return topUsers;
+        }
+
+        List<Long> topUserIds = new ArrayList<>();
+        Map<Long, Long> recipeCountMap = new HashMap<>();
+        for (Map<String, Object> map : topUserRecipes) {
+            Long userId = Convert.toLong(map.get("user_id"));
+            Long recipeCount = Convert.toLong(map.get("recipe_count"));
+            if (userId != null) {
+                topUserIds.add(userId);
+                recipeCountMap.put(userId, recipeCount != null ? recipeCount : 0L);
             }
+        }
 
-            Map<Long, SysUser> topUserMap = new HashMap<>();
-            if (!topUserIds.isEmpty()) {
-                List<SysUser> users = sysUserMapper.selectList(
-                        new LambdaQueryWrapper<SysUser>().in(SysUser::getId, topUserIds));
-                for (SysUser user : users) {
-                    topUserMap.put(user.getId(), user);
-                }
+        Map<Long, SysUser> topUserMap = new HashMap<>();
+        Map<Long, Long> commentCountMap = new HashMap<>();
+        if (!topUserIds.isEmpty()) {
+            List<SysUser> users = sysUserMapper.selectList(
+                    new LambdaQueryWrapper<SysUser>().in(SysUser::getId, topUserIds));
+            for (SysUser user : users) {
+                topUserMap.put(user.getId(), user);
             }
 
-            Map<Long, Long> commentCountMap = new HashMap<>();
-            if (!topUserIds.isEmpty()) {
-                QueryWrapper<RecipeComment> commentCountWrapper = new QueryWrapper<>();
-                commentCountWrapper.select("user_id", "COUNT(*) as cnt");
-                commentCountWrapper.in("user_id", topUserIds);
-                commentCountWrapper.groupBy("user_id");
-                List<Map<String, Object>> commentCounts = commentMapper.selectMaps(commentCountWrapper);
-                if (commentCounts != null) {
-                    for (Map<String, Object> row : commentCounts) {
-                        Long uid = Convert.toLong(row.get("user_id"));
-                        Long cnt = Convert.toLong(row.get("cnt"));
-                        if (uid != null) {
-                            commentCountMap.put(uid, cnt != null ? cnt : 0L);
-                        }
+            QueryWrapper<RecipeComment> commentCountWrapper = new QueryWrapper<>();
+            commentCountWrapper.select("user_id", "COUNT(*) as cnt");
+            commentCountWrapper.in("user_id", topUserIds);
+            commentCountWrapper.groupBy("user_id");
+            List<Map<String, Object>> commentCounts = commentMapper.selectMaps(commentCountWrapper);
+            if (commentCounts != null) {
+                for (Map<String, Object> row : commentCounts) {
+                    Long uid = Convert.toLong(row.get("user_id"));
+                    Long cnt = Convert.toLong(row.get("cnt"));
+                    if (uid != null) {
+                        commentCountMap.put(uid, cnt != null ? cnt : 0L);
                     }
                 }
             }
+        }
 
-            for (Long userId : topUserIds) {
-                SysUser user = topUserMap.get(userId);
-                if (user != null) {
-                    Long recipeCount = recipeCountMap.getOrDefault(userId, 0L);
-                    Long commentCount = commentCountMap.getOrDefault(userId, 0L);
-                    int score = Math.min(100, (int) (recipeCount * 10 + commentCount * 2));
-                    topUsers.add(new DashboardDTO.TopUserDTO(
-                            user.getId(),
-                            user.getNickname(),
-                            user.getAvatar(),
-                            recipeCount,
-                            commentCount,
-                            score,
-                            user.getCreateTime()));
-                }
+        for (Long userId : topUserIds) {
+            SysUser user = topUserMap.get(userId);
+            if (user != null) {
+                Long recipeCount = recipeCountMap.getOrDefault(userId, 0L);
+                Long commentCount = commentCountMap.getOrDefault(userId, 0L);
+                int score = Math.min(100, (int) (recipeCount * 10 + commentCount * 2));
+                topUsers.add(new DashboardDTO.TopUserDTO(
+                        user.getId(),
+                        user.getNickname(),
+                        user.getAvatar(),
+                        recipeCount,
+                        commentCount,
+                        score,
+                        user.getCreateTime()));
             }
         }
-        dto.setTopActiveUsers(topUsers);
-
-        // 最新动态（最近的菜谱发布和评论，取10条）
-        List<DashboardDTO.RecentActivityDTO> activities = new java.util.ArrayList<>();
+        return topUsers;
+    }
 
-        // 最新发布的菜谱
+    /**
+     * 最新发布的菜谱（取5条）
+     */
+    private List<DashboardDTO.RecentActivityDTO> queryRecentRecipeActivities() {
         List<RecipeInfo> recentRecipes = recipeInfoMapper.selectList(new LambdaQueryWrapper<RecipeInfo>()
                 .orderByDesc(RecipeInfo::getCreateTime)
                 .last("LIMIT 5"));
-        Map<Long, SysUser> recentRecipeAuthorMap = new HashMap<>();
+        Map<Long, SysUser> authorMap = new HashMap<>();
         if (recentRecipes != null && !recentRecipes.isEmpty()) {
             Set<Long> authorIds = new HashSet<>();
             for (RecipeInfo recipe : recentRecipes) {
@@ -282,12 +349,17 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
                 List<SysUser> authors = sysUserMapper.selectList(
                         new LambdaQueryWrapper<SysUser>().in(SysUser::getId, authorIds));
                 for (SysUser author : authors) {
-                    recentRecipeAuthorMap.put(author.getId(), author);
+                    authorMap.put(author.getId(), author);
                 }
             }
         }
+
+        List<DashboardDTO.RecentActivityDTO> activities = new ArrayList<>();
+        if (recentRecipes == null) {
+            return activities;
+        }
         for (RecipeInfo recipe : recentRecipes) {
-            SysUser author = recentRecipeAuthorMap.get(recipe.getUserId());
+            SysUser author = authorMap.get(recipe.getUserId());
             activities.add(new DashboardDTO.RecentActivityDTO(
                     recipe.getUserId(),
                     author != null ? author.getNickname() : "未知用户",
@@ -298,13 +370,18 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
                     recipe.getId(),
                     recipe.getCreateTime()));
         }
+        return activities;
+    }
 
-        // 最新评论
+    /**
+     * 最新评论（取5条）
+     */
+    private List<DashboardDTO.RecentActivityDTO> queryRecentCommentActivities() {
         List<RecipeComment> recentComments = commentMapper.selectList(new LambdaQueryWrapper<RecipeComment>()
                 .orderByDesc(RecipeComment::getCreateTime)
                 .last("LIMIT 5"));
-        Map<Long, SysUser> recentCommenterMap = new HashMap<>();
-        Map<Long, RecipeInfo> recentCommentRecipeMap = new HashMap<>();
+        Map<Long, SysUser> commenterMap = new HashMap<>();
+        Map<Long, RecipeInfo> recipeMap = new HashMap<>();
         if (recentComments != null && !recentComments.isEmpty()) {
             Set<Long> commenterIds = new HashSet<>();
             Set<Long> recipeIds = new HashSet<>();
@@ -320,20 +397,25 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
                 List<SysUser> commenters = sysUserMapper.selectList(
                         new LambdaQueryWrapper<SysUser>().in(SysUser::getId, commenterIds));
                 for (SysUser commenter : commenters) {
-                    recentCommenterMap.put(commenter.getId(), commenter);
+                    commenterMap.put(commenter.getId(), commenter);
                 }
             }
             if (!recipeIds.isEmpty()) {
                 List<RecipeInfo> recipes = recipeInfoMapper.selectList(
                         new LambdaQueryWrapper<RecipeInfo>().in(RecipeInfo::getId, recipeIds));
                 for (RecipeInfo recipe : recipes) {
-                    recentCommentRecipeMap.put(recipe.getId(), recipe);
+                    recipeMap.put(recipe.getId(), recipe);
                 }
             }
         }
+
+        List<DashboardDTO.RecentActivityDTO> activities = new ArrayList<>();
+        if (recentComments == null) {
+            return activities;
+        }
         for (RecipeComment comment : recentComments) {
-            SysUser commenter = recentCommenterMap.get(comment.getUserId());
-            RecipeInfo recipe = recentCommentRecipeMap.get(comment.getRecipeId());
+            SysUser commenter = commenterMap.get(comment.getUserId());
+            RecipeInfo recipe = recipeMap.get(comment.getRecipeId());
             String targetTitle = recipe != null ? recipe.getTitle() : "某个菜谱";
             activities.add(new DashboardDTO.RecentActivityDTO(
                     comment.getUserId(),
@@ -345,14 +427,11 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
                     comment.getRecipeId(),
                     comment.getCreateTime()));
         }
+        return activities;
+    }
 
-        // 按时间排序，取最新10条
-        activities.sort((a, b) -> b.getTime().compareTo(a.getTime()));
-        if (activities.size() > 10) {
-            activities = activities.subList(0, 10);
-        }
-        dto.setRecentActivities(activities);
-
-        return Result.ok(dto);
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 }
@@ -10,16 +10,14 @@ import com.n1etzsch3.recipe.business.entity.AdminOperationLog;
 import com.n1etzsch3.recipe.business.mapper.AdminOperationLogMapper;
 import com.n1etzsch3.recipe.business.service.AdminLogService;
 import com.n1etzsch3.recipe.common.core.domain.Result;
+import com.n1etzsch3.recipe.framework.service.ClientIpResolver;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -35,6 +33,7 @@ public class AdminLogServiceImpl implements AdminLogService {
 
     private final AdminOperationLogMapper logMapper;
     private final SysUserMapper sysUserMapper;
+    private final ClientIpResolver clientIpResolver;
 
     @Override
     public void log(String operationType, String targetType, Long targetId, String targetName, String detail) {
@@ -56,7 +55,7 @@ public class AdminLogServiceImpl implements AdminLogService {
             logEntity.setTargetId(targetId);
             logEntity.setTargetName(targetName);
             logEntity.setDetail(detail);
-            logEntity.setIpAddress(getClientIp());
+            logEntity.setIpAddress(clientIpResolver.currentIp());
             logEntity.setCreateTime(LocalDateTime.now());
 
             logMapper.insert(logEntity);
@@ -137,7 +136,7 @@ public class AdminLogServiceImpl implements AdminLogService {
             logEntity.setTargetId(null);
             logEntity.setTargetName(null);
             logEntity.setDetail(detail);
-            logEntity.setIpAddress(getClientIp());
+            logEntity.setIpAddress(clientIpResolver.currentIp());
             logEntity.setCreateTime(LocalDateTime.now());
 
             logMapper.insert(logEntity);
@@ -146,42 +145,4 @@ public class AdminLogServiceImpl implements AdminLogService {
             log.error("记录登录日志失败", e);
         }
     }
-
-    /**
-     * 获取客户端 IP 地址
-     */
-    private String getClientIp() {
-        try {
-            ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attrs == null)
-                return null;
-
-            HttpServletRequest request = attrs.getRequest();
-            String ip = request.getHeader("X-Forwarded-For");
-            if (StrUtil.isBlank(ip) || "unknown".equalsIgnoreCase(ip)) {
-                ip = request.getHeader("X-Real-IP");
-            }
-            if (StrUtil.isBlank(ip) || "unknown".equalsIgnoreCase(ip)) {
-                ip = request.getHeader("Proxy-Client-IP");
-            }
-            if (StrUtil.isBlank(ip) || "unknown".equalsIgnoreCase(ip)) {
-                ip = request.getHeader("WL-Proxy-Client-IP");
-            }
-            if (StrUtil.isBlank(ip) || "unknown".equalsIgnoreCase(ip)) {
-                ip = request.getRemoteAddr();
-            }
-            // 多个代理时取第一个
-            if (ip != null && ip.contains(",")) {
-                ip = ip.split(",")[0].trim();
-            }
-            // 将 IPv6 localhost 转为 IPv4
-            if ("0:0:0:0:0:0:0:1".equals(ip) || "::1".equals(ip)) {
-                ip = "127.0.0.1";
-            }
-            return ip;
-        } catch (Exception e) {
-            log.warn("获取客户端IP失败", e);
-            return null;
-        }
-    }
 }
@@ -3,6 +3,7 @@ package com.n1etzsch3.recipe.business.service.impl;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.n1etzsch3.recipe.business.domain.dto.AuditDTO;
@@ -16,8 +17,13 @@ import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeIngredientMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeStepMapper;
 import com.n1etzsch3.recipe.business.service.AdminLogService;
+import com.n1etzsch3.recipe.business.search.SearchQuery;
 import com.n1etzsch3.recipe.business.service.AdminRecipeService;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
 import com.n1etzsch3.recipe.business.service.NotificationService;
+import com.n1etzsch3.recipe.business.service.RecipeCacheService;
+import com.n1etzsch3.recipe.business.service.RecipeSearchService;
+import com.n1etzsch3.recipe.business.service.RecipeStatsService;
 import com.n1etzsch3.recipe.common.constant.RecipeConstants;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.system.entity.SysUser;
@@ -47,6 +53,10 @@ public class AdminRecipeServiceImpl implements AdminRecipeService {
     private final SysUserMapper sysUserMapper;
     private final NotificationService notificationService;
     private final AdminLogService adminLogService;
+    private final RecipeCacheService recipeCacheService;
+    private final DashboardStatsService dashboardStatsService;
+    private final RecipeSearchService recipeSearchService;
+    private final RecipeStatsService recipeStatsService;
 
     @Override
     public Result<IPage<RecipeDetailDTO>> pageAuditRecipes(Integer page, Integer size) {
@@ -66,6 +76,7 @@ public class AdminRecipeServiceImpl implements AdminRecipeService {
         if (recipe == null) {
             return Result.fail("菜谱不存在");
         }
+        Integer oldStatus = recipe.getStatus();
 
         if ("pass".equals(auditDTO.getAction())) {
             recipe.setStatus(RecipeConstants.STATUS_PUBLISHED);
@@ -82,12 +93,22 @@ public class AdminRecipeServiceImpl implements AdminRecipeService {
         }
         recipe.setUpdateTime(LocalDateTime.now());
         recipeInfoMapper.updateById(recipe);
+        recipeCacheService.evictRecipe(recipe.getId());
+        dashboardStatsService.recordRecipeStatusChanged(recipe, oldStatus);
 
         return Result.ok("操作成功");
     }
 
     @Override
     public Result<IPage<RecipeDetailDTO>> pageAllRecipes(Integer page, Integer size, Integer status, String keyword) {
+        // 有关键词时走倒排索引，按相关度排序
+        if (StrUtil.isNotBlank(keyword) && recipeSearchService.isReady()) {
+            SearchQuery searchQuery = new SearchQuery();
+            searchQuery.setKeyword(keyword);
+            searchQuery.setStatus(status);
+            return Result.ok(convertToDetailPage(recipeSearchService.searchPage(searchQuery, page, size)));
+        }
+
         Page<RecipeInfo> p = new Page<>(page, size);
         LambdaQueryWrapper<RecipeInfo> wrapper = new LambdaQueryWrapper<RecipeInfo>()
                 .eq(status != null, RecipeInfo::getStatus, status)
@@ -110,10 +131,14 @@ public class AdminRecipeServiceImpl implements AdminRecipeService {
                 .eq(com.n1etzsch3.recipe.business.entity.RecipeIngredient::getRecipeId, recipeId));
         stepMapper.delete(new LambdaQueryWrapper<com.n1etzsch3.recipe.business.entity.RecipeStep>()
                 .eq(com.n1etzsch3.recipe.business.entity.RecipeStep::getRecipeId, recipeId));
+        dashboardStatsService.recordCommentsDeleting(new QueryWrapper<RecipeComment>().eq("recipe_id", recipeId));
         commentMapper.delete(new LambdaQueryWrapper<RecipeComment>()
                 .eq(RecipeComment::getRecipeId, recipeId));
 
         recipeInfoMapper.deleteById(recipeId);
+        recipeStatsService.remove(recipeId);
+        recipeCacheService.evictRecipe(recipeId);
+        dashboardStatsService.recordRecipeDeleted(recipe);
 
         adminLogService.log("RECIPE_DELETE", "recipe", recipeId, recipe.getTitle(), null);
         log.info("管理员删除菜谱: id={}, title={}", recipeId, recipe.getTitle());
@@ -140,6 +165,8 @@ public class AdminRecipeServiceImpl implements AdminRecipeService {
                 recipe.setRejectReason(reason);
             }
             recipeInfoMapper.updateById(recipe);
+            recipeCacheService.evictRecipe(recipe.getId());
+            dashboardStatsService.recordRecipeStatusChanged(recipe, RecipeConstants.STATUS_PENDING);
 
             if (newStatus == RecipeConstants.STATUS_PUBLISHED) {
                 notificationService.sendRecipeApproved(recipe.getUserId(), recipe.getId(), recipe.getTitle());
@@ -165,10 +192,21 @@ public class AdminRecipeServiceImpl implements AdminRecipeService {
             return Result.fail("请指定目标状态");
         }
 
+        // 记录变更前状态用于统计
+        List<RecipeInfo> before = recipeInfoMapper.selectList(new LambdaQueryWrapper<RecipeInfo>()
+                .select(RecipeInfo::getId, RecipeInfo::getStatus, RecipeInfo::getCreateTime)
+                .in(RecipeInfo::getId, ids));
+
         RecipeInfo update = new RecipeInfo();
         update.setStatus(status);
         update.setUpdateTime(LocalDateTime.now());
         int count = recipeInfoMapper.update(update, new LambdaQueryWrapper<RecipeInfo>().in(RecipeInfo::getId, ids));
+        ids.forEach(recipeCacheService::evictRecipe);
+        for (RecipeInfo recipe : before) {
+            Integer oldStatus = recipe.getStatus();
+            recipe.setStatus(status);
+            dashboardStatsService.recordRecipeStatusChanged(recipe, oldStatus);
+        }
 
         String statusDesc = status == RecipeConstants.STATUS_PUBLISHED ? "上架"
                 : (status == RecipeConstants.STATUS_PENDING ? "下架" : "更新状态");
@@ -0,0 +1,122 @@
+package com.n1etzsch3.recipe.business.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.n1etzsch3.recipe.business.entity.SensitiveWord;
+import com.n1etzsch3.recipe.business.mapper.SensitiveWordMapper;
+import com.n1etzsch3.recipe.business.service.AdminLogService;
+import com.n1etzsch3.recipe.business.service.AdminSensitiveWordService;
+import com.n1etzsch3.recipe.business.service.SensitiveWordService;
+import com.n1etzsch3.recipe.common.core.domain.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class AdminSensitiveWordServiceImpl implements AdminSensitiveWordService {
+
+    /**
+     * 单条 INSERT 语句最多包含的词条数
+     */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    private final SensitiveWordMapper sensitiveWordMapper;
+    private final SensitiveWordService sensitiveWordService;
+    private final AdminLogService adminLogService;
+
+    @Override
+    public Result<IPage<SensitiveWord>> pageSensitiveWords(Integer page, Integer size, String keyword,
+            String category) {
+        Page<SensitiveWord> p = new Page<>(page, size);
+        LambdaQueryWrapper<SensitiveWord> wrapper = new LambdaQueryWrapper<SensitiveWord>()
+                .like(StrUtil.isNotBlank(keyword), SensitiveWord::getWord, keyword)
+                .eq(StrUtil.isNotBlank(category), SensitiveWord::getCategory, category)
+                .orderByDesc(SensitiveWord::getId);
+        return Result.ok(sensitiveWordMapper.selectPage(p, wrapper));
+    }
+
+    @Override
+    public Result<?> addSensitiveWord(SensitiveWord word) {
+        word.setWord(word.getWord().strip());
+        Long count = sensitiveWordMapper.selectCount(new LambdaQueryWrapper<SensitiveWord>()
+                .eq(SensitiveWord::getWord, word.getWord()));
+        if (count > 0) {
+            return Result.fail("敏感词已存在");
+        }
+
+        word.setCreateTime(LocalDateTime.now());
+        word.setUpdateTime(LocalDateTime.now());
+        sensitiveWordMapper.insert(word);
+        sensitiveWordService.publishChange();
+        adminLogService.log("SENSITIVE_WORD_ADD", "sensitive_word", word.getId(), word.getWord(), null);
+        return Result.ok("添加成功");
+    }
+
+    @Override
+    public Result<?> importSensitiveWords(List<String> words, String category) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String word : words) {
+            if (StrUtil.isNotBlank(word) && word.strip().length() <= 100) {
+                distinct.add(word.strip());
+            }
+        }
+        if (distinct.isEmpty()) {
+            return Result.fail("没有有效的敏感词");
+        }
+
+        List<String> list = List.copyOf(distinct);
+        int inserted = 0;
+        for (int i = 0; i < list.size(); i += IMPORT_BATCH_SIZE) {
+            inserted += sensitiveWordMapper.insertIgnoreBatch(
+                    list.subList(i, Math.min(i + IMPORT_BATCH_SIZE, list.size())), category);
+        }
+        if (inserted > 0) {
+            sensitiveWordService.publishChange();
+        }
+        adminLogService.log("SENSITIVE_WORD_IMPORT", "导入敏感词 " + inserted + " 个，跳过 " + (words.size() - inserted) + " 个");
+        return Result.ok("成功导入 " + inserted + " 个敏感词");
+    }
+
+    @Override
+    public Result<?> updateSensitiveWord(Long id, SensitiveWord word) {
+        SensitiveWord existing = sensitiveWordMapper.selectById(id);
+        if (existing == null) {
+            return Result.fail("敏感词不存在");
+        }
+
+        String text = word.getWord().strip();
+        Long count = sensitiveWordMapper.selectCount(new LambdaQueryWrapper<SensitiveWord>()
+                .eq(SensitiveWord::getWord, text)
+                .ne(SensitiveWord::getId, id));
+        if (count > 0) {
+            return Result.fail("敏感词已存在");
+        }
+
+        existing.setWord(text);
+        existing.setCategory(word.getCategory());
+        existing.setUpdateTime(LocalDateTime.now());
+        sensitiveWordMapper.updateById(existing);
+        sensitiveWordService.publishChange();
+        adminLogService.log("SENSITIVE_WORD_UPDATE", "sensitive_word", id, text, null);
+        return Result.ok("修改成功");
+    }
+
+    @Override
+    public Result<?> deleteSensitiveWord(Long id) {
+        SensitiveWord existing = sensitiveWordMapper.selectById(id);
+        if (existing == null) {
+            return Result.fail("敏感词不存在");
+        }
+        sensitiveWordMapper.deleteById(id);
+        sensitiveWordService.publishChange();
+        adminLogService.log("SENSITIVE_WORD_DELETE", "sensitive_word", id, existing.getWord(), null);
+        return Result.ok("删除成功");
+    }
+}
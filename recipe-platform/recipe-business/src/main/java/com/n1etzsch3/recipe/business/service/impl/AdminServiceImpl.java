@@ -8,11 +8,13 @@ import com.n1etzsch3.recipe.business.domain.dto.RecipeDetailDTO;
 import com.n1etzsch3.recipe.business.domain.dto.UserDTO;
 import com.n1etzsch3.recipe.business.domain.dto.UserStatusDTO;
 import com.n1etzsch3.recipe.business.entity.RecipeCategory;
+import com.n1etzsch3.recipe.business.entity.SensitiveWord;
 import com.n1etzsch3.recipe.business.service.AdminAuthService;
 import com.n1etzsch3.recipe.business.service.AdminCategoryService;
 import com.n1etzsch3.recipe.business.service.AdminCommentService;
 import com.n1etzsch3.recipe.business.service.AdminDashboardService;
 import com.n1etzsch3.recipe.business.service.AdminRecipeService;
+import com.n1etzsch3.recipe.business.service.AdminSensitiveWordService;
 import com.n1etzsch3.recipe.business.service.AdminService;
 import com.n1etzsch3.recipe.business.service.AdminUserService;
 import com.n1etzsch3.recipe.common.core.domain.Result;
@@ -33,6 +35,7 @@ public class AdminServiceImpl implements AdminService {
     private final AdminCategoryService adminCategoryService;
     private final AdminUserService adminUserService;
     private final AdminCommentService adminCommentService;
+    private final AdminSensitiveWordService adminSensitiveWordService;
 
     @Override
     public Result<Map<String, Object>> adminLogin(String username, String password) {
@@ -129,4 +132,30 @@ public class AdminServiceImpl implements AdminService {
     public Result<?> deleteComment(Long commentId) {
         return adminCommentService.deleteComment(commentId);
     }
+
+    @Override
+    public Result<IPage<SensitiveWord>> pageSensitiveWords(Integer page, Integer size, String keyword,
+            String category) {
+        return adminSensitiveWordService.pageSensitiveWords(page, size, keyword, category);
+    }
+
+    @Override
+    public Result<?> addSensitiveWord(SensitiveWord word) {
+        return adminSensitiveWordService.addSensitiveWord(word);
+    }
+
+    @Override
+    public Result<?> importSensitiveWords(List<String> words, String category) {
+        return adminSensitiveWordService.importSensitiveWords(words, category);
+    }
+
+    @Override
+    public Result<?> updateSensitiveWord(Long id, SensitiveWord word) {
+        return adminSensitiveWordService.updateSensitiveWord(id, word);
+    }
+
+    @Override
+    public Result<?> deleteSensitiveWord(Long id) {
+        return adminSensitiveWordService.deleteSensitiveWord(id);
+    }
 }
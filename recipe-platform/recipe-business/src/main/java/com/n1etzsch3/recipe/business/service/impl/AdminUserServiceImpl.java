@@ -12,13 +12,16 @@ import com.n1etzsch3.recipe.business.domain.dto.UserStatusDTO;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
 import com.n1etzsch3.recipe.business.service.AdminLogService;
 import com.n1etzsch3.recipe.business.service.AdminUserService;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
 import com.n1etzsch3.recipe.common.constant.UserConstants;
 import com.n1etzsch3.recipe.common.core.domain.Result;
+import com.n1etzsch3.recipe.common.event.UserRoleChangedEvent;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
+import com.n1etzsch3.recipe.framework.service.PasswordHashService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -32,8 +35,10 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     private final SysUserMapper sysUserMapper;
     private final RecipeInfoMapper recipeInfoMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashService passwordHashService;
     private final AdminLogService adminLogService;
+    private final DashboardStatsService dashboardStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Result<IPage<UserDTO>> pageUsers(Integer page, Integer size, String keyword, String role, String sortBy) {
@@ -105,7 +110,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         user.setUpdateTime(LocalDateTime.now());
 
         if (StrUtil.isNotBlank(user.getPassword())) {
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashService.encode(user.getPassword()));
         } else {
             return Result.fail("密码不能为空");
         }
@@ -115,6 +120,8 @@ public class AdminUserServiceImpl implements AdminUserService {
         }
 
         sysUserMapper.insert(user);
+        dashboardStatsService.recordUserCreated(user.getCreateTime());
+        eventPublisher.publishEvent(new UserRoleChangedEvent(List.of(user.getId())));
         adminLogService.log("USER_ADD", "user", user.getId(), user.getUsername(), null);
         return Result.ok("添加成功");
     }
@@ -144,10 +151,11 @@ public class AdminUserServiceImpl implements AdminUserService {
         }
 
         if (StrUtil.isNotBlank(user.getPassword())) {
-            existing.setPassword(passwordEncoder.encode(user.getPassword()));
+            existing.setPassword(passwordHashService.encode(user.getPassword()));
         }
 
         sysUserMapper.updateById(existing);
+        eventPublisher.publishEvent(new UserRoleChangedEvent(List.of(id)));
         adminLogService.log("USER_UPDATE", "user", id, existing.getUsername(), null);
         return Result.ok("修改成功");
     }
@@ -162,6 +170,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         user.setStatus(statusDTO.getStatus());
         user.setUpdateTime(LocalDateTime.now());
         sysUserMapper.updateById(user);
+        eventPublisher.publishEvent(new UserRoleChangedEvent(List.of(userId)));
 
         String operationType = statusDTO.getStatus() == UserConstants.DISABLE ? "USER_BAN" : "USER_UNBAN";
         adminLogService.log(operationType, "user", userId, user.getNickname(), null);
@@ -187,6 +196,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         update.setUpdateTime(LocalDateTime.now());
 
         sysUserMapper.update(update, new LambdaQueryWrapper<SysUser>().in(SysUser::getId, ids));
+        eventPublisher.publishEvent(new UserRoleChangedEvent(ids));
 
         String operationType = status == UserConstants.DISABLE ? "USER_BATCH_BAN" : "USER_BATCH_UNBAN";
         adminLogService.log(operationType, "user", 0L, "Batch count: " + ids.size(), null);
@@ -0,0 +1,49 @@
+package com.n1etzsch3.recipe.business.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * 菜谱子记录（食材、步骤）按位置对比的结果
+ * 第 i 条提交的记录对应第 i 条已有记录：内容相同不处理，不同则沿用其主键更新；
+ * 多出的提交记录新增，多出的已有记录删除
+ *
+ * @param inserts 需新增的记录（无主键）
+ * @param updates 需更新的记录（已设置主键）
+ * @param deletes 需删除的主键
+ */
+record ChildRowDiff<T>(List<T> inserts, List<T> updates, List<Long> deletes) {
+
+    /**
+     * @param existing    已有记录，按展示顺序排列
+     * @param incoming    提交的记录，按展示顺序排列
+     * @param idOf        取主键
+     * @param withId      将主键写入提交的记录
+     * @param sameContent 两条记录内容是否相同（不比较主键）
+     */
+    static <T> ChildRowDiff<T> of(List<T> existing, List<T> incoming, Function<T, Long> idOf,
+            BiConsumer<T, Long> withId, BiPredicate<T, T> sameContent) {
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (int i = 0; i < incoming.size(); i++) {
+            T row = incoming.get(i);
+            if (i >= existing.size()) {
+                inserts.add(row);
+                continue;
+            }
+            T old = existing.get(i);
+            if (!sameContent.test(old, row)) {
+                withId.accept(row, idOf.apply(old));
+                updates.add(row);
+            }
+        }
+        for (int i = incoming.size(); i < existing.size(); i++) {
+            deletes.add(idOf.apply(existing.get(i)));
+        }
+        return new ChildRowDiff<>(inserts, updates, deletes);
+    }
+}
@@ -0,0 +1,179 @@
+package com.n1etzsch3.recipe.business.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.n1etzsch3.recipe.business.entity.CommentLike;
+import com.n1etzsch3.recipe.business.entity.RecipeComment;
+import com.n1etzsch3.recipe.business.entity.RecipeInfo;
+import com.n1etzsch3.recipe.business.mapper.CommentLikeMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
+import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
+import com.n1etzsch3.recipe.system.entity.SysUser;
+import com.n1etzsch3.recipe.system.service.RedisUserCacheService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 评论相关数据的批量加载器（单次请求内使用）
+ * 先收集整页需要的 key，每类数据用一次 IN / GROUP BY 查询解析，结果在本次请求内复用
+ */
+final class CommentBatchLoader {
+
+    private final RecipeCommentMapper commentMapper;
+    private final CommentLikeMapper commentLikeMapper;
+    private final RecipeInfoMapper recipeInfoMapper;
+    private final RedisUserCacheService userCacheService;
+
+    private final Map<Long, SysUser> users = new HashMap<>();
+    private final Map<Long, RecipeComment> comments = new HashMap<>();
+    private final Map<Long, RecipeInfo> recipes = new HashMap<>();
+
+    CommentBatchLoader(RecipeCommentMapper commentMapper, CommentLikeMapper commentLikeMapper,
+            RecipeInfoMapper recipeInfoMapper, RedisUserCacheService userCacheService) {
+        this.commentMapper = commentMapper;
+        this.commentLikeMapper = commentLikeMapper;
+        this.recipeInfoMapper = recipeInfoMapper;
+        this.userCacheService = userCacheService;
+    }
+
+    /**
+     * 将已查询到的评论加入缓存，后续按ID加载时不再查询
+     */
+    void primeComments(Collection<RecipeComment> loaded) {
+        for (RecipeComment comment : loaded) {
+            comments.put(comment.getId(), comment);
+        }
+    }
+
+    /**
+     * 批量加载用户（Redis 用户缓存 + 数据库兜底）
+     */
+    Map<Long, SysUser> loadUsers(Collection<Long> userIds) {
+        Set<Long> missing = missingKeys(userIds, users);
+        if (!missing.isEmpty()) {
+            users.putAll(userCacheService.batchGetUsers(missing));
+        }
+        return users;
+    }
+
+    /**
+     * 批量加载评论
+     */
+    Map<Long, RecipeComment> loadComments(Collection<Long> commentIds) {
+        Set<Long> missing = missingKeys(commentIds, comments);
+        if (!missing.isEmpty()) {
+            primeComments(commentMapper.selectBatchIds(missing));
+        }
+        return comments;
+    }
+
+    /**
+     * 批量加载菜谱
+     */
+    Map<Long, RecipeInfo> loadRecipes(Collection<Long> recipeIds) {
+        Set<Long> missing = missingKeys(recipeIds, recipes);
+        if (!missing.isEmpty()) {
+            for (RecipeInfo recipe : recipeInfoMapper.selectBatchIds(missing)) {
+                recipes.put(recipe.getId(), recipe);
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * 批量查询用户点赞过的评论ID
+     */
+    Set<Long> loadLikedCommentIds(Long userId, Collection<Long> commentIds) {
+        Set<Long> liked = new HashSet<>();
+        if (userId == null || commentIds.isEmpty()) {
+            return liked;
+        }
+        List<CommentLike> likes = commentLikeMapper.selectList(new LambdaQueryWrapper<CommentLike>()
+                .select(CommentLike::getCommentId)
+                .eq(CommentLike::getUserId, userId)
+                .in(CommentLike::getCommentId, commentIds));
+        likes.forEach(like -> liked.add(like.getCommentId()));
+        return liked;
+    }
+
+    /**
+     * 批量统计回复数（没有回复的评论不在结果中）
+     */
+    Map<Long, Integer> loadReplyCounts(Collection<Long> parentIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (parentIds.isEmpty()) {
+            return counts;
+        }
+        List<Map<String, Object>> rows = commentMapper.selectMaps(new QueryWrapper<RecipeComment>()
+                .select("parent_id", "count(*) as cnt")
+                .in("parent_id", parentIds)
+                .groupBy("parent_id"));
+        for (Map<String, Object> row : rows) {
+            counts.put(((Number) row.get("parent_id")).longValue(), ((Number) row.get("cnt")).intValue());
+        }
+        return counts;
+    }
+
+    /**
+     * 批量查询每条评论的第一条回复
+     *
+     * @return 父评论ID → 第一条回复
+     */
+    Map<Long, RecipeComment> loadFirstReplies(Collection<Long> parentIds) {
+        Map<Long, RecipeComment> firstReplies = new HashMap<>();
+        if (parentIds.isEmpty()) {
+            return firstReplies;
+        }
+        List<RecipeComment> replies = commentMapper.selectFirstReplies(parentIds);
+        primeComments(replies);
+        replies.forEach(reply -> firstReplies.put(reply.getParentId(), reply));
+        return firstReplies;
+    }
+
+    /**
+     * 批量查询每条评论最近的点赞记录
+     *
+     * @return 评论ID → 最近点赞（按时间倒序）
+     */
+    Map<Long, List<CommentLike>> loadRecentLikes(Collection<Long> commentIds, int limit) {
+        Map<Long, List<CommentLike>> recentLikes = new HashMap<>();
+        if (commentIds.isEmpty()) {
+            return recentLikes;
+        }
+        for (CommentLike like : commentLikeMapper.selectRecentLikes(commentIds, limit)) {
+            recentLikes.computeIfAbsent(like.getCommentId(), id -> new ArrayList<>()).add(like);
+        }
+        return recentLikes;
+    }
+
+    private static <V> Set<Long> missingKeys(Collection<Long> keys, Map<Long, V> loaded) {
+        Set<Long> missing = new HashSet<>();
+        for (Long key : keys) {
+            if (key != null && !loaded.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 从对象集合中提取非空ID
+     */
+    static <T> Set<Long> collect(Collection<T> items, Function<T, Long> keyMapper) {
+        Set<Long> keys = new HashSet<>();
+        for (T item : items) {
+            Long key = keyMapper.apply(item);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
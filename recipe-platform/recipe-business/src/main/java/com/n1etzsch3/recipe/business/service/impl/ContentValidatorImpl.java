@@ -1,13 +1,18 @@
 package com.n1etzsch3.recipe.business.service.impl;
 
+import com.n1etzsch3.recipe.business.domain.dto.ContentHit;
 import com.n1etzsch3.recipe.business.domain.dto.ValidationResult;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
 import com.n1etzsch3.recipe.business.entity.RecipeStep;
+import com.n1etzsch3.recipe.business.moderation.SensitiveWordMatcher;
+import com.n1etzsch3.recipe.business.moderation.UrlScanner;
 import com.n1etzsch3.recipe.business.service.ContentValidator;
+import com.n1etzsch3.recipe.business.service.SensitiveWordService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,84 +21,48 @@ import java.util.List;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ContentValidatorImpl implements ContentValidator {
 
-    /**
-     * 敏感词列表（实际项目中应从数据库或配置文件加载）
-     * 这里仅作示例，包含一些常见的需要过滤的词汇类型
-     */
-    private static final List<String> SENSITIVE_WORDS = Arrays.asList(
-            // 广告相关
-            "加微信", "加QQ", "免费领取", "点击链接",
-            // 政治敏感（示例）
-            "政治敏感词示例",
-            // 色情词汇（示例）
-            "色情词汇示例");
-
-    /**
-     * URL 模式（简单匹配）
-     */
-    private static final String URL_PATTERN = "(https?://|www\\.)\\S+";
+    private final SensitiveWordService sensitiveWordService;
 
     @Override
     public ValidationResult validate(RecipeInfo recipe, List<RecipeStep> steps) {
-        // 1. 验证标题
-        ValidationResult titleResult = validateText(recipe.getTitle(), "标题");
-        if (!titleResult.isPassed()) {
-            return titleResult;
-        }
-
-        // 2. 验证描述
-        if (recipe.getDescription() != null) {
-            ValidationResult descResult = validateText(recipe.getDescription(), "简介");
-            if (!descResult.isPassed()) {
-                return descResult;
+        // 整个菜谱使用同一份词典快照，依次扫描标题、简介与全部步骤，收集所有命中
+        SensitiveWordMatcher matcher = sensitiveWordService.getMatcher();
+        List<ContentHit> hits = new ArrayList<>();
+        scanText(matcher, recipe.getTitle(), "标题", hits);
+        scanText(matcher, recipe.getDescription(), "简介", hits);
+        if (steps != null) {
+            for (int i = 0; i < steps.size(); i++) {
+                scanText(matcher, steps.get(i).getDescription(), "步骤 " + (i + 1), hits);
             }
         }
 
-        // 3. 验证步骤描述
-        if (steps != null && !steps.isEmpty()) {
-            for (int i = 0; i < steps.size(); i++) {
-                RecipeStep step = steps.get(i);
-                if (step.getDescription() != null) {
-                    ValidationResult stepResult = validateText(
-                            step.getDescription(),
-                            "步骤 " + (i + 1));
-                    if (!stepResult.isPassed()) {
-                        return stepResult;
-                    }
-                }
-            }
+        if (hits.isEmpty()) {
+            log.debug("菜谱内容验证通过: recipeId={}", recipe.getId());
+            return ValidationResult.pass();
         }
 
-        log.debug("菜谱内容验证通过: recipeId={}", recipe.getId());
-        return ValidationResult.pass();
+        log.warn("菜谱内容检测到违规: recipeId={}, hits={}", recipe.getId(), hits);
+        // 以第一个命中（字段顺序靠前、敏感词优先于链接）作为退回原因
+        ContentHit first = hits.get(0);
+        String reason = first.getType() == ContentHit.Type.SENSITIVE_WORD
+                ? first.getField() + "包含敏感内容，请修改后重新提交"
+                : first.getField() + "不能包含外部链接";
+        return ValidationResult.fail(reason, hits);
     }
 
     /**
-     * 验证文本内容
+     * 扫描单个字段的敏感词与外部链接（菜谱中不应包含外部链接）
      */
-    private ValidationResult validateText(String text, String fieldName) {
+    private void scanText(SensitiveWordMatcher matcher, String text, String fieldName, List<ContentHit> hits) {
         if (text == null || text.isBlank()) {
-            return ValidationResult.pass();
+            return;
         }
-
-        String lowerText = text.toLowerCase();
-
-        // 检查敏感词
-        for (String word : SENSITIVE_WORDS) {
-            if (lowerText.contains(word.toLowerCase())) {
-                log.warn("检测到敏感词: field={}, word={}", fieldName, word);
-                return ValidationResult.fail(fieldName + "包含敏感内容，请修改后重新提交");
-            }
-        }
-
-        // 检查 URL（菜谱中不应包含外部链接）
-        if (text.matches(".*" + URL_PATTERN + ".*")) {
-            log.warn("检测到外部链接: field={}", fieldName);
-            return ValidationResult.fail(fieldName + "不能包含外部链接");
-        }
-
-        return ValidationResult.pass();
+        matcher.scan(text, (start, end, word) ->
+                hits.add(new ContentHit(ContentHit.Type.SENSITIVE_WORD, fieldName, start, end, word)));
+        UrlScanner.scan(text, (start, end, url) ->
+                hits.add(new ContentHit(ContentHit.Type.URL, fieldName, start, end, url)));
     }
 }
@@ -2,6 +2,7 @@ package com.n1etzsch3.recipe.business.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -16,16 +17,23 @@ import com.n1etzsch3.recipe.business.entity.CommentLike;
 import com.n1etzsch3.recipe.business.entity.RecipeComment;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
 import com.n1etzsch3.recipe.business.entity.UserFavorite;
+import com.n1etzsch3.recipe.business.entity.UserNotification;
 import com.n1etzsch3.recipe.business.mapper.CommentLikeMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
 import com.n1etzsch3.recipe.business.mapper.UserFavoriteMapper;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
 import com.n1etzsch3.recipe.business.service.InteractionService;
+import com.n1etzsch3.recipe.business.service.NotificationInboxService;
 import com.n1etzsch3.recipe.business.service.NotificationService;
+import com.n1etzsch3.recipe.business.service.RecipeStatsService;
 import com.n1etzsch3.recipe.common.context.UserContext;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
+import com.n1etzsch3.recipe.common.core.domain.PageCursor;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
+import com.n1etzsch3.recipe.system.service.RedisUserCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DuplicateKeyException;
@@ -50,8 +58,18 @@ public class InteractionServiceImpl implements InteractionService {
     private final SysUserMapper sysUserMapper;
     private final CommentLikeMapper commentLikeMapper;
     private final NotificationService notificationService;
+    private final RedisUserCacheService userCacheService;
+    private final DashboardStatsService dashboardStatsService;
+    private final RecipeStatsService recipeStatsService;
+    private final NotificationInboxService notificationInboxService;
+
+    /**
+     * 收到的赞列表中每条评论展示的最近点赞者数量
+     */
+    private static final int RECENT_LIKER_LIMIT = 3;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Result<?> toggleFavorite(Long recipeId) {
         Long userId = UserContext.getUserId();
         if (userId == null)
@@ -71,19 +89,37 @@ public class InteractionServiceImpl implements InteractionService {
                 .eq(UserFavorite::getRecipeId, recipeId));
 
         if (favorite != null) {
-            favoriteMapper.deleteById(favorite.getId());
+            if (favoriteMapper.deleteById(favorite.getId()) > 0) {
+                recipeStatsService.incrementFavorites(recipeId, -1);
+            }
             return Result.ok("已取消收藏");
         } else {
             favorite = new UserFavorite();
             favorite.setUserId(userId);
             favorite.setRecipeId(recipeId);
             favorite.setCreateTime(LocalDateTime.now());
-            favoriteMapper.insert(favorite);
+            try {
+                favoriteMapper.insert(favorite);
+            } catch (DuplicateKeyException e) {
+                return Result.ok("收藏成功");
+            }
+            recipeStatsService.incrementFavorites(recipeId, 1);
+
+            // 发送收藏通知
+            try {
+                SysUser user = userCacheService.getUserById(userId);
+                notificationService.sendRecipeFavorited(recipe.getUserId(), userId,
+                        user != null ? user.getNickname() : "用户", user != null ? user.getAvatar() : null,
+                        recipeId, recipe.getTitle());
+            } catch (Exception e) {
+                log.warn("收藏通知发送失败: userId={}, recipeId={}", userId, recipeId, e);
+            }
             return Result.ok("收藏成功");
         }
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Result<?> addComment(CommentDTO commentDTO) {
         Long userId = UserContext.getUserId();
 
@@ -105,6 +141,8 @@ public class InteractionServiceImpl implements InteractionService {
         comment.setCreateTime(LocalDateTime.now());
 
         commentMapper.insert(comment);
+        recipeStatsService.incrementComments(comment.getRecipeId(), 1);
+        dashboardStatsService.recordCommentAdded(comment);
 
         // 发送通知
         try {
@@ -152,58 +190,125 @@ public class InteractionServiceImpl implements InteractionService {
                 .isNull(RecipeComment::getParentId)
                 .orderByDesc(RecipeComment::getCreateTime));
 
-        IPage<CommentVO> voPage = resultPage.convert(comment -> convertToVO(comment, currentUserId, true));
+        Page<CommentVO> voPage = new Page<>(page, size, resultPage.getTotal());
+        voPage.setRecords(convertToVOs(resultPage.getRecords(), currentUserId, true));
 
         return Result.ok(voPage);
     }
 
-    private CommentVO convertToVO(RecipeComment comment, Long currentUserId, boolean loadReplies) {
+    @Override
+    public Result<CursorPage<CommentVO>> scrollComments(Long recipeId, String cursor, Integer size, boolean withTotal) {
+        int limit = PageCursor.normalizeSize(size);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        LambdaQueryWrapper<RecipeComment> wrapper = new LambdaQueryWrapper<RecipeComment>()
+                .eq(RecipeComment::getRecipeId, recipeId)
+                .isNull(RecipeComment::getParentId);
+        Long total = pageCursor == null && withTotal ? commentMapper.selectCount(wrapper) : null;
+
+        if (pageCursor != null) {
+            LocalDateTime createTime = pageCursor.getTime();
+            wrapper.and(w -> w.lt(RecipeComment::getCreateTime, createTime)
+                    .or(o -> o.eq(RecipeComment::getCreateTime, createTime).lt(RecipeComment::getId, pageCursor.getId())));
+        }
+        wrapper.orderByDesc(RecipeComment::getCreateTime)
+                .orderByDesc(RecipeComment::getId)
+                .last("LIMIT " + (limit + 1));
+
+        List<RecipeComment> comments = commentMapper.selectList(wrapper);
+        String next = null;
+        if (comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            RecipeComment last = comments.get(limit - 1);
+            next = PageCursor.of(last.getCreateTime(), last.getId()).encode();
+        }
+        return Result.ok(new CursorPage<>(convertToVOs(comments, UserContext.getUserId(), true), next, total));
+    }
+
+    private CommentBatchLoader newBatchLoader() {
+        return new CommentBatchLoader(commentMapper, commentLikeMapper, recipeInfoMapper, userCacheService);
+    }
+
+    /**
+     * 批量转换评论（整页数据每类只查询一次，避免 N+1）
+     */
+    private List<CommentVO> convertToVOs(List<RecipeComment> comments, Long currentUserId, boolean loadReplies) {
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CommentBatchLoader loader = newBatchLoader();
+        loader.primeComments(comments);
+
+        // 1. 顶级评论的回复数与首条回复预览
+        Map<Long, Integer> replyCounts = new HashMap<>();
+        Map<Long, RecipeComment> firstReplies = new HashMap<>();
+        if (loadReplies) {
+            List<Long> topIds = comments.stream()
+                    .filter(c -> c.getParentId() == null)
+                    .map(RecipeComment::getId)
+                    .collect(Collectors.toList());
+            replyCounts = loader.loadReplyCounts(topIds);
+            firstReplies = loader.loadFirstReplies(replyCounts.keySet());
+        }
+
+        // 2. 需要展示的全部评论（含回复预览）及其父评论
+        List<RecipeComment> all = new ArrayList<>(comments);
+        all.addAll(firstReplies.values());
+        Map<Long, RecipeComment> parents = loader.loadComments(CommentBatchLoader.collect(all, RecipeComment::getParentId));
+
+        // 3. 评论者与被回复者
+        Set<Long> userIds = CommentBatchLoader.collect(all, RecipeComment::getUserId);
+        for (RecipeComment comment : all) {
+            RecipeComment parent = comment.getParentId() != null ? parents.get(comment.getParentId()) : null;
+            if (parent != null) {
+                userIds.add(parent.getUserId());
+            }
+        }
+        Map<Long, SysUser> users = loader.loadUsers(userIds);
+
+        // 4. 当前用户点赞状态
+        Set<Long> likedIds = loader.loadLikedCommentIds(currentUserId,
+                CommentBatchLoader.collect(all, RecipeComment::getId));
+
+        List<CommentVO> result = new ArrayList<>(comments.size());
+        for (RecipeComment comment : comments) {
+            CommentVO vo = convertToVO(comment, currentUserId, users, parents, likedIds);
+            if (loadReplies && comment.getParentId() == null) {
+                vo.setReplyCount(replyCounts.getOrDefault(comment.getId(), 0));
+                List<CommentVO> replies = new ArrayList<>();
+                RecipeComment firstReply = firstReplies.get(comment.getId());
+                if (firstReply != null) {
+                    replies.add(convertToVO(firstReply, currentUserId, users, parents, likedIds));
+                }
+                vo.setReplies(replies);
+            }
+            result.add(vo);
+        }
+        return result;
+    }
+
+    private CommentVO convertToVO(RecipeComment comment, Long currentUserId, Map<Long, SysUser> users,
+            Map<Long, RecipeComment> parents, Set<Long> likedIds) {
         CommentVO vo = new CommentVO();
         BeanUtil.copyProperties(comment, vo);
 
-        SysUser user = sysUserMapper.selectById(comment.getUserId());
+        SysUser user = users.get(comment.getUserId());
         if (user != null) {
             vo.setNickname(user.getNickname());
             vo.setAvatar(user.getAvatar());
         }
 
         if (comment.getParentId() != null) {
-            RecipeComment parentComment = commentMapper.selectById(comment.getParentId());
+            RecipeComment parentComment = parents.get(comment.getParentId());
             if (parentComment != null) {
-                SysUser parentUser = sysUserMapper.selectById(parentComment.getUserId());
+                SysUser parentUser = users.get(parentComment.getUserId());
                 if (parentUser != null) {
                     vo.setReplyToNickname(parentUser.getNickname());
                 }
             }
         }
 
-        if (currentUserId != null) {
-            Long likeCount = commentLikeMapper.selectCount(new LambdaQueryWrapper<CommentLike>()
-                    .eq(CommentLike::getCommentId, comment.getId())
-                    .eq(CommentLike::getUserId, currentUserId));
-            vo.setIsLiked(likeCount != null && likeCount > 0);
-        } else {
-            vo.setIsLiked(false);
-        }
-
-        if (loadReplies && comment.getParentId() == null) {
-            Long replyCount = commentMapper.selectCount(new LambdaQueryWrapper<RecipeComment>()
-                    .eq(RecipeComment::getParentId, comment.getId()));
-            vo.setReplyCount(replyCount != null ? replyCount.intValue() : 0);
-
-            if (vo.getReplyCount() > 0) {
-                List<RecipeComment> replyList = commentMapper.selectList(new LambdaQueryWrapper<RecipeComment>()
-                        .eq(RecipeComment::getParentId, comment.getId())
-                        .orderByAsc(RecipeComment::getCreateTime)
-                        .last("LIMIT 1"));
-                vo.setReplies(replyList.stream()
-                        .map(r -> convertToVO(r, currentUserId, false))
-                        .collect(Collectors.toList()));
-            } else {
-                vo.setReplies(new ArrayList<>());
-            }
-        }
-
+        vo.setIsLiked(currentUserId != null && likedIds.contains(comment.getId()));
         return vo;
     }
 
@@ -258,6 +363,7 @@ public class InteractionServiceImpl implements InteractionService {
                         comment.getUserId(),
                         userId,
                         likerName,
+                        commentId,
                         comment.getRecipeId(),
                         recipeTitle,
                         comment.getContent());
@@ -279,7 +385,8 @@ public class InteractionServiceImpl implements InteractionService {
                 .eq(RecipeComment::getParentId, parentId)
                 .orderByAsc(RecipeComment::getCreateTime));
 
-        IPage<CommentVO> voPage = resultPage.convert(comment -> convertToVO(comment, currentUserId, false));
+        Page<CommentVO> voPage = new Page<>(page, size, resultPage.getTotal());
+        voPage.setRecords(convertToVOs(resultPage.getRecords(), currentUserId, false));
 
         return Result.ok(voPage);
     }
@@ -292,11 +399,45 @@ public class InteractionServiceImpl implements InteractionService {
                 .eq(UserFavorite::getUserId, userId)
                 .orderByDesc(UserFavorite::getCreateTime));
 
-        List<UserFavorite> favorites = p.getRecords();
+        Page<RecipeDetailDTO> result = new Page<>(page, size, p.getTotal());
+        result.setRecords(convertFavorites(p.getRecords()));
+
+        return Result.ok(result);
+    }
+
+    @Override
+    public Result<CursorPage<RecipeDetailDTO>> scrollMyFavorites(String cursor, Integer size) {
+        Long userId = UserContext.getUserId();
+        int limit = PageCursor.normalizeSize(size);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        LambdaQueryWrapper<UserFavorite> wrapper = new LambdaQueryWrapper<UserFavorite>()
+                .eq(UserFavorite::getUserId, userId);
+        if (pageCursor != null) {
+            LocalDateTime createTime = pageCursor.getTime();
+            wrapper.and(w -> w.lt(UserFavorite::getCreateTime, createTime)
+                    .or(o -> o.eq(UserFavorite::getCreateTime, createTime).lt(UserFavorite::getId, pageCursor.getId())));
+        }
+        wrapper.orderByDesc(UserFavorite::getCreateTime)
+                .orderByDesc(UserFavorite::getId)
+                .last("LIMIT " + (limit + 1));
+
+        List<UserFavorite> favorites = favoriteMapper.selectList(wrapper);
+        String next = null;
+        if (favorites.size() > limit) {
+            favorites = favorites.subList(0, limit);
+            UserFavorite last = favorites.get(limit - 1);
+            next = PageCursor.of(last.getCreateTime(), last.getId()).encode();
+        }
+        return Result.ok(new CursorPage<>(convertFavorites(favorites), next, null));
+    }
+
+    /**
+     * 收藏记录转换为菜谱 DTO（已删除的菜谱跳过）
+     */
+    private List<RecipeDetailDTO> convertFavorites(List<UserFavorite> favorites) {
         if (favorites.isEmpty()) {
-            Page<RecipeDetailDTO> empty = new Page<>(page, size, p.getTotal());
-            empty.setRecords(new ArrayList<>());
-            return Result.ok(empty);
+            return new ArrayList<>();
         }
 
         // 批量查询菜谱与作者，避免 N+1 查询
@@ -338,10 +479,7 @@ public class InteractionServiceImpl implements InteractionService {
             return dto;
         }).filter(Objects::nonNull).collect(Collectors.toList());
 
-        Page<RecipeDetailDTO> result = new Page<>(page, size, p.getTotal());
-        result.setRecords(detailList);
-
-        return Result.ok(result);
+        return detailList;
     }
 
     @Override
@@ -372,7 +510,9 @@ public class InteractionServiceImpl implements InteractionService {
         }
 
         // 删除该评论的所有回复
-        commentMapper.delete(new LambdaQueryWrapper<RecipeComment>()
+        dashboardStatsService.recordCommentsDeleting(new QueryWrapper<RecipeComment>()
+                .eq("parent_id", commentId).or().eq("id", commentId));
+        int removed = commentMapper.delete(new LambdaQueryWrapper<RecipeComment>()
                 .eq(RecipeComment::getParentId, commentId));
 
         // 删除该评论的所有点赞
@@ -380,7 +520,8 @@ public class InteractionServiceImpl implements InteractionService {
                 .eq(CommentLike::getCommentId, commentId));
 
         // 删除评论本身
-        commentMapper.deleteById(commentId);
+        removed += commentMapper.deleteById(commentId);
+        recipeStatsService.incrementComments(comment.getRecipeId(), -removed);
 
         return Result.ok("删除成功");
     }
@@ -399,6 +540,22 @@ public class InteractionServiceImpl implements InteractionService {
                 // 移除 isNull(ParentId) 限制，同时查询顶级评论和回复评论
                 .orderByDesc(RecipeComment::getCreateTime));
 
+        // 批量加载菜谱、父评论、被回复用户与回复数
+        List<RecipeComment> comments = resultPage.getRecords();
+        CommentBatchLoader loader = newBatchLoader();
+        loader.primeComments(comments);
+        Map<Long, RecipeInfo> recipes = loader.loadRecipes(CommentBatchLoader.collect(comments, RecipeComment::getRecipeId));
+        Map<Long, RecipeComment> parents = loader.loadComments(CommentBatchLoader.collect(comments, RecipeComment::getParentId));
+        Set<Long> parentUserIds = new HashSet<>();
+        for (RecipeComment comment : comments) {
+            RecipeComment parent = comment.getParentId() != null ? parents.get(comment.getParentId()) : null;
+            if (parent != null) {
+                parentUserIds.add(parent.getUserId());
+            }
+        }
+        Map<Long, SysUser> users = loader.loadUsers(parentUserIds);
+        Map<Long, Integer> replyCounts = loader.loadReplyCounts(CommentBatchLoader.collect(comments, RecipeComment::getId));
+
         IPage<MyCommentVO> voPage = resultPage.convert(comment -> {
             MyCommentVO vo = new MyCommentVO();
             vo.setId(comment.getId());
@@ -408,8 +565,8 @@ public class InteractionServiceImpl implements InteractionService {
             vo.setCreateTime(comment.getCreateTime());
             vo.setParentId(comment.getParentId());
 
-            // 获取菜谱信息
-            RecipeInfo recipe = recipeInfoMapper.selectById(comment.getRecipeId());
+            // 菜谱信息
+            RecipeInfo recipe = recipes.get(comment.getRecipeId());
             if (recipe != null) {
                 vo.setRecipeTitle(recipe.getTitle());
                 vo.setRecipeCoverImage(recipe.getCoverImage());
@@ -417,11 +574,11 @@ public class InteractionServiceImpl implements InteractionService {
 
             // 如果是回复评论，获取父评论信息
             if (comment.getParentId() != null) {
-                RecipeComment parentComment = commentMapper.selectById(comment.getParentId());
+                RecipeComment parentComment = parents.get(comment.getParentId());
                 if (parentComment != null) {
                     vo.setParentContent(parentComment.getContent());
-                    // 获取被回复用户的昵称
-                    SysUser parentUser = sysUserMapper.selectById(parentComment.getUserId());
+                    // 被回复用户的昵称
+                    SysUser parentUser = users.get(parentComment.getUserId());
                     if (parentUser != null) {
                         vo.setReplyToUserName(parentUser.getNickname());
                     }
@@ -429,9 +586,7 @@ public class InteractionServiceImpl implements InteractionService {
             }
 
             // 回复数量（只对顶级评论有意义）
-            Long replyCount = commentMapper.selectCount(new LambdaQueryWrapper<RecipeComment>()
-                    .eq(RecipeComment::getParentId, comment.getId()));
-            vo.setReplyCount(replyCount != null ? replyCount.intValue() : 0);
+            vo.setReplyCount(replyCounts.getOrDefault(comment.getId(), 0));
 
             return vo;
         });
@@ -450,13 +605,16 @@ public class InteractionServiceImpl implements InteractionService {
             RecipeComment comment = commentMapper.selectById(commentId);
             if (comment != null && comment.getUserId().equals(userId)) {
                 // 删除回复
-                commentMapper.delete(new LambdaQueryWrapper<RecipeComment>()
+                dashboardStatsService.recordCommentsDeleting(new QueryWrapper<RecipeComment>()
+                        .eq("parent_id", commentId).or().eq("id", commentId));
+                int removed = commentMapper.delete(new LambdaQueryWrapper<RecipeComment>()
                         .eq(RecipeComment::getParentId, commentId));
                 // 删除点赞
                 commentLikeMapper.delete(new LambdaQueryWrapper<CommentLike>()
                         .eq(CommentLike::getCommentId, commentId));
                 // 删除评论
-                commentMapper.deleteById(commentId);
+                removed += commentMapper.deleteById(commentId);
+                recipeStatsService.incrementComments(comment.getRecipeId(), -removed);
             }
         }
         return Result.ok("删除成功");
@@ -485,6 +643,13 @@ public class InteractionServiceImpl implements InteractionService {
                 .ne(RecipeComment::getUserId, userId) // 排除自己的回复
                 .orderByDesc(RecipeComment::getCreateTime));
 
+        // 批量加载回复者、我的原评论与菜谱
+        List<RecipeComment> replies = resultPage.getRecords();
+        CommentBatchLoader loader = newBatchLoader();
+        Map<Long, SysUser> users = loader.loadUsers(CommentBatchLoader.collect(replies, RecipeComment::getUserId));
+        Map<Long, RecipeComment> myComments = loader.loadComments(CommentBatchLoader.collect(replies, RecipeComment::getParentId));
+        Map<Long, RecipeInfo> recipes = loader.loadRecipes(CommentBatchLoader.collect(replies, RecipeComment::getRecipeId));
+
         IPage<CommentReplyVO> voPage = resultPage.convert(reply -> {
             CommentReplyVO vo = new CommentReplyVO();
             vo.setId(reply.getId());
@@ -492,7 +657,7 @@ public class InteractionServiceImpl implements InteractionService {
             vo.setCreateTime(reply.getCreateTime());
 
             // 回复者信息
-            SysUser replyUser = sysUserMapper.selectById(reply.getUserId());
+            SysUser replyUser = users.get(reply.getUserId());
             if (replyUser != null) {
                 vo.setReplyUserId(replyUser.getId());
                 vo.setReplyUserName(replyUser.getNickname());
@@ -500,14 +665,14 @@ public class InteractionServiceImpl implements InteractionService {
             }
 
             // 我的原评论
-            RecipeComment myComment = commentMapper.selectById(reply.getParentId());
+            RecipeComment myComment = myComments.get(reply.getParentId());
             if (myComment != null) {
                 vo.setMyCommentId(myComment.getId());
                 vo.setMyCommentContent(myComment.getContent());
             }
 
             // 菜谱信息
-            RecipeInfo recipe = recipeInfoMapper.selectById(reply.getRecipeId());
+            RecipeInfo recipe = recipes.get(reply.getRecipeId());
             if (recipe != null) {
                 vo.setRecipeId(recipe.getId());
                 vo.setRecipeTitle(recipe.getTitle());
@@ -532,6 +697,16 @@ public class InteractionServiceImpl implements InteractionService {
                 .gt(RecipeComment::getLikeCount, 0)
                 .orderByDesc(RecipeComment::getCreateTime));
 
+        // 批量加载菜谱、最近点赞记录与点赞者
+        List<RecipeComment> comments = resultPage.getRecords();
+        CommentBatchLoader loader = newBatchLoader();
+        Map<Long, RecipeInfo> recipes = loader.loadRecipes(CommentBatchLoader.collect(comments, RecipeComment::getRecipeId));
+        Map<Long, List<CommentLike>> recentLikesMap = loader.loadRecentLikes(
+                CommentBatchLoader.collect(comments, RecipeComment::getId), RECENT_LIKER_LIMIT);
+        Set<Long> likerIds = new HashSet<>();
+        recentLikesMap.values().forEach(likes -> likerIds.addAll(CommentBatchLoader.collect(likes, CommentLike::getUserId)));
+        Map<Long, SysUser> users = loader.loadUsers(likerIds);
+
         IPage<CommentLikeVO> voPage = resultPage.convert(comment -> {
             CommentLikeVO vo = new CommentLikeVO();
             vo.setCommentId(comment.getId());
@@ -539,29 +714,18 @@ public class InteractionServiceImpl implements InteractionService {
             vo.setLikeCount(comment.getLikeCount());
 
             // 菜谱信息
-            RecipeInfo recipe = recipeInfoMapper.selectById(comment.getRecipeId());
+            RecipeInfo recipe = recipes.get(comment.getRecipeId());
             if (recipe != null) {
                 vo.setRecipeId(recipe.getId());
                 vo.setRecipeTitle(recipe.getTitle());
             }
 
             // 最近点赞者
-            List<CommentLike> recentLikes = commentLikeMapper.selectList(new LambdaQueryWrapper<CommentLike>()
-                    .eq(CommentLike::getCommentId, comment.getId())
-                    .orderByDesc(CommentLike::getCreateTime)
-                    .last("LIMIT 3"));
-
-            List<CommentLikeVO.LikerInfo> likers = recentLikes.stream().map(like -> {
-                CommentLikeVO.LikerInfo liker = new CommentLikeVO.LikerInfo();
-                SysUser user = sysUserMapper.selectById(like.getUserId());
-                if (user != null) {
-                    liker.setUserId(user.getId());
-                    liker.setNickname(user.getNickname());
-                    liker.setAvatar(user.getAvatar());
-                }
-                liker.setLikeTime(like.getCreateTime());
-                return liker;
-            }).collect(Collectors.toList());
+            List<CommentLike> recentLikes = recentLikesMap.getOrDefault(comment.getId(), List.of());
+
+            List<CommentLikeVO.LikerInfo> likers = recentLikes.stream()
+                    .map(like -> toLikerInfo(like, users))
+                    .collect(Collectors.toList());
 
             vo.setLikers(likers);
             if (!likers.isEmpty()) {
@@ -574,6 +738,18 @@ public class InteractionServiceImpl implements InteractionService {
         return Result.ok(voPage);
     }
 
+    private CommentLikeVO.LikerInfo toLikerInfo(CommentLike like, Map<Long, SysUser> users) {
+        CommentLikeVO.LikerInfo liker = new CommentLikeVO.LikerInfo();
+        SysUser user = users.get(like.getUserId());
+        if (user != null) {
+            liker.setUserId(user.getId());
+            liker.setNickname(user.getNickname());
+            liker.setAvatar(user.getAvatar());
+        }
+        liker.setLikeTime(like.getCreateTime());
+        return liker;
+    }
+
     @Override
     public Result<IPage<CommentLikeVO>> pageLikeDetail(Long commentId, Integer page, Integer size) {
         // 获取评论的所有点赞者
@@ -585,6 +761,8 @@ public class InteractionServiceImpl implements InteractionService {
         RecipeComment comment = commentMapper.selectById(commentId);
 
         Page<CommentLikeVO> voPage = new Page<>(page, size, resultPage.getTotal());
+        Map<Long, SysUser> users = newBatchLoader().loadUsers(
+                CommentBatchLoader.collect(resultPage.getRecords(), CommentLike::getUserId));
 
         // 转换为单个点赞者信息的VO列表
         List<CommentLikeVO> likeList = resultPage.getRecords().stream().map(like -> {
@@ -594,15 +772,7 @@ public class InteractionServiceImpl implements InteractionService {
                 vo.setCommentContent(comment.getContent());
             }
 
-            CommentLikeVO.LikerInfo liker = new CommentLikeVO.LikerInfo();
-            SysUser user = sysUserMapper.selectById(like.getUserId());
-            if (user != null) {
-                liker.setUserId(user.getId());
-                liker.setNickname(user.getNickname());
-                liker.setAvatar(user.getAvatar());
-            }
-            liker.setLikeTime(like.getCreateTime());
-            vo.setLikers(List.of(liker));
+            vo.setLikers(List.of(toLikerInfo(like, users)));
             vo.setLatestLikeTime(like.getCreateTime());
 
             return vo;
@@ -614,10 +784,29 @@ public class InteractionServiceImpl implements InteractionService {
 
     @Override
     public Result<IPage<SystemNotificationVO>> pageSystemNotifications(Integer page, Integer size) {
-        // 系统通知目前从前端 notificationStore 获取
-        // 这里返回空列表，实际生产中应该从数据库获取
-        Page<SystemNotificationVO> emptyPage = new Page<>(page, size, 0);
-        emptyPage.setRecords(new ArrayList<>());
-        return Result.ok(emptyPage);
+        Long userId = UserContext.getUserId();
+        IPage<UserNotification> notifications = notificationInboxService.page(userId, page, size);
+        return Result.ok(notifications.convert(n -> {
+            SystemNotificationVO vo = new SystemNotificationVO();
+            vo.setId(n.getId());
+            vo.setType(n.getType());
+            vo.setTitle(n.getTitle());
+            vo.setContent(n.getContent());
+            vo.setRelatedId(n.getRelatedId());
+            vo.setRead(n.getIsRead() != null && n.getIsRead() == 1);
+            vo.setCreateTime(n.getCreateTime());
+            return vo;
+        }));
+    }
+
+    @Override
+    public Result<Long> countUnreadNotifications() {
+        return Result.ok(notificationInboxService.unreadCount(UserContext.getUserId()));
+    }
+
+    @Override
+    public Result<?> markNotificationsRead() {
+        notificationInboxService.markAllRead(UserContext.getUserId());
+        return Result.ok();
     }
 }
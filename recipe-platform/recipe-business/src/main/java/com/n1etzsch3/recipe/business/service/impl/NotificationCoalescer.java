@@ -0,0 +1,142 @@
+package com.n1etzsch3.recipe.business.service.impl;
+
+import com.n1etzsch3.recipe.common.websocket.MessageType;
+import com.n1etzsch3.recipe.common.websocket.WebSocketMessage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 通知合并窗口
+ * 同一接收者、同一对象的同类通知（点赞、收藏、关注）先缓存，最后一次事件后静默 quietMs，
+ * 或首个事件后达到 maxLatencyMs 时合并为一条发出（"A、B 等 N 人赞了你的评论"）；同一用户重复触发只计一次
+ */
+final class NotificationCoalescer {
+
+    /**
+     * 合并键
+     *
+     * @param targetId 被操作的对象（评论ID、菜谱ID，关注为接收者ID）
+     */
+    record Key(MessageType type, Long recipientId, Long targetId) {
+    }
+
+    /**
+     * 触发通知的用户
+     */
+    record Actor(Long id, String name, String avatar) {
+    }
+
+    /**
+     * 窗口内事件汇总
+     *
+     * @param latest 最近的操作者（最新的在前，最多两个）
+     * @param count  去重后的操作者数
+     */
+    record Summary(List<Actor> latest, int count) {
+
+        /**
+         * 展示用的操作者描述：A / A、B / A、B 等 N 人
+         */
+        String names() {
+            String shown = latest.size() > 1 ? latest.get(0).name() + "、" + latest.get(1).name() : latest.get(0).name();
+            return count > 2 ? shown + " 等 " + count + " 人" : shown;
+        }
+
+        Actor first() {
+            return latest.get(0);
+        }
+    }
+
+    private static final class Batch {
+        private final long firstAt;
+        private volatile long lastAt;
+        // 按最近一次触发排序的操作者，最新的在末尾
+        private final LinkedHashMap<Long, Actor> actors = new LinkedHashMap<>();
+        private Function<Summary, WebSocketMessage> renderer;
+
+        private Batch(long now) {
+            this.firstAt = now;
+        }
+    }
+
+    private final long quietMs;
+    private final long maxLatencyMs;
+    private final BiConsumer<Long, WebSocketMessage> sink;
+    private final Map<Key, Batch> batches = new ConcurrentHashMap<>();
+
+    /**
+     * @param sink 合并后的消息出口（接收者ID, 消息）
+     */
+    NotificationCoalescer(long quietMs, long maxLatencyMs, BiConsumer<Long, WebSocketMessage> sink) {
+        this.quietMs = quietMs;
+        this.maxLatencyMs = Math.max(quietMs, maxLatencyMs);
+        this.sink = sink;
+    }
+
+    /**
+     * 加入合并窗口
+     *
+     * @param renderer 根据汇总生成消息，窗口关闭时使用最后一次提交的版本
+     */
+    void submit(Key key, Actor actor, Function<Summary, WebSocketMessage> renderer) {
+        long now = System.currentTimeMillis();
+        // 同一键的修改与移除由 compute 串行化，窗口移除后不会再被修改
+        batches.compute(key, (k, batch) -> {
+            Batch current = batch != null ? batch : new Batch(now);
+            current.actors.remove(actor.id());
+            current.actors.put(actor.id(), actor);
+            current.renderer = renderer;
+            current.lastAt = now;
+            return current;
+        });
+    }
+
+    /**
+     * 发出已到期的窗口
+     *
+     * @return 发出的消息数
+     */
+    int sweep() {
+        return drain(false);
+    }
+
+    /**
+     * 发出全部窗口（应用关闭时）
+     */
+    int flushAll() {
+        return drain(true);
+    }
+
+    int pendingCount() {
+        return batches.size();
+    }
+
+    private int drain(boolean all) {
+        long now = System.currentTimeMillis();
+        int emitted = 0;
+        for (Map.Entry<Key, Batch> entry : batches.entrySet()) {
+            Batch batch = entry.getValue();
+            boolean due = all || now - batch.lastAt >= quietMs || now - batch.firstAt >= maxLatencyMs;
+            if (due && batches.remove(entry.getKey(), batch)) {
+                sink.accept(entry.getKey().recipientId(), batch.renderer.apply(summarize(batch)));
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    private static Summary summarize(Batch batch) {
+        List<Actor> all = new ArrayList<>(batch.actors.values());
+        List<Actor> latest = new ArrayList<>(2);
+        for (int i = all.size() - 1; i >= 0 && latest.size() < 2; i--) {
+            latest.add(all.get(i));
+        }
+        return new Summary(latest, all.size());
+    }
+}
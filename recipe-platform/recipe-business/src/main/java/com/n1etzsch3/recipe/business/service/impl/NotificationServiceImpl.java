@@ -1,32 +1,74 @@
 package com.n1etzsch3.recipe.business.service.impl;
 
 import cn.hutool.json.JSONUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.n1etzsch3.recipe.business.service.AdminRoleRegistry;
+import com.n1etzsch3.recipe.business.service.NotificationInboxService;
 import com.n1etzsch3.recipe.business.service.NotificationService;
 import com.n1etzsch3.recipe.common.websocket.MessageType;
 import com.n1etzsch3.recipe.common.websocket.WebSocketMessage;
-import com.n1etzsch3.recipe.framework.websocket.WebSocketSessionManager;
-import com.n1etzsch3.recipe.system.entity.SysUser;
-import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
+import com.n1etzsch3.recipe.framework.websocket.PresenceHub;
+import com.n1etzsch3.recipe.framework.websocket.WebSocketMessageRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * 通知推送服务实现
- * 通过 WebSocket 将消息推送给在线用户
+ * 通过 WebSocket 将消息推送给在线用户（用户连接在其他节点时经 Redis 转发）；
+ * 点赞、收藏、关注通知先进入合并窗口，同一对象的多次操作合并为一条
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
-    private final WebSocketSessionManager sessionManager;
-    private final SysUserMapper sysUserMapper;
+    private final WebSocketMessageRouter messageRouter;
+    private final PresenceHub presenceHub;
+    private final AdminRoleRegistry adminRoleRegistry;
+    private final NotificationInboxService notificationInbox;
+
+    /**
+     * 点赞/收藏/关注通知的合并窗口：最后一次事件后静默多久发出（毫秒）
+     */
+    @Value("${recipe.notification.coalesce-window:3000}")
+    private long coalesceWindowMs;
+
+    /**
+     * 合并窗口的最大延迟：首个事件后最迟多久发出（毫秒）
+     */
+    @Value("${recipe.notification.coalesce-max-latency:10000}")
+    private long coalesceMaxLatencyMs;
+
+    private NotificationCoalescer coalescer;
+
+    @PostConstruct
+    public void init() {
+        coalescer = new NotificationCoalescer(coalesceWindowMs, coalesceMaxLatencyMs, this::sendToUser);
+    }
+
+    /**
+     * 发出到期的合并通知
+     */
+    @Scheduled(fixedDelay = 500)
+    public void flushCoalesced() {
+        int emitted = coalescer.sweep();
+        if (emitted > 0) {
+            log.debug("合并通知发出: count={}, 等待中={}", emitted, coalescer.pendingCount());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescer.flushAll();
+    }
 
     @Override
     public boolean sendToUser(Long userId, WebSocketMessage message) {
@@ -39,14 +81,16 @@ public class NotificationServiceImpl implements NotificationService {
             message.setTimestamp(LocalDateTime.now());
         }
 
+        // 先存入收件箱分配序号，用户离线时重连后补发
+        notificationInbox.append(userId, message);
         String json = JSONUtil.toJsonStr(message);
 
-        boolean success = sessionManager.sendMessage(userId, json);
+        boolean success = messageRouter.sendToUser(userId, json);
         if (success) {
-            log.info("通知发送成功: userId={}, type={}", userId, message.getType());
+            log.debug("通知发送成功: userId={}, type={}, seq={}", userId, message.getType(), message.getSeq());
         } else {
-            log.info("用户不在线，通知未发送: userId={}, type={}", userId, message.getType());
-            // TODO: 可选择存储离线消息到数据库，用户上线后推送
+            log.debug("用户不在线，通知已存入收件箱: userId={}, type={}, seq={}", userId, message.getType(),
+                    message.getSeq());
         }
         return success;
     }
@@ -99,15 +143,22 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public void sendNewFollower(Long followedId, Long followerId, String followerName, String followerAvatar) {
-        WebSocketMessage message = WebSocketMessage.builder()
-                .type(MessageType.NEW_FOLLOWER)
-                .title("新粉丝")
-                .content(followerName + " 关注了你")
-                .senderId(followerId)
-                .senderName(followerName)
-                .senderAvatar(followerAvatar)
-                .build();
-        sendToUser(followedId, message);
+        coalescer.submit(new NotificationCoalescer.Key(MessageType.NEW_FOLLOWER, followedId, followedId),
+                new NotificationCoalescer.Actor(followerId, followerName, followerAvatar),
+                summary -> coalesced(MessageType.NEW_FOLLOWER, "新粉丝", summary.names() + " 关注了你", null, summary));
+    }
+
+    @Override
+    public void sendRecipeFavorited(Long authorId, Long userId, String userName, String userAvatar,
+            Long recipeId, String recipeTitle) {
+        // 不通知自己
+        if (authorId.equals(userId)) {
+            return;
+        }
+        coalescer.submit(new NotificationCoalescer.Key(MessageType.RECIPE_FAVORITED, authorId, recipeId),
+                new NotificationCoalescer.Actor(userId, userName, userAvatar),
+                summary -> coalesced(MessageType.RECIPE_FAVORITED, "菜谱被收藏",
+                        summary.names() + " 收藏了你的菜谱「" + recipeTitle + "」", recipeId, summary));
     }
 
     @Override
@@ -127,35 +178,13 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void sendNewRecipePending(Long recipeId, String recipeTitle, Long authorId, String authorName,
             String coverImage) {
-        // 查询所有管理员（包括超级管理员和普通管理员）
-        // 移除状态限制，只要角色匹配即可
-        List<SysUser> admins = sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
-                .in(SysUser::getRole, "admin", "common_admin"));
-
+        // 全部管理员（包括超级管理员和普通管理员，不限状态）
+        Set<Long> admins = adminRoleRegistry.getAdminIds();
         if (admins.isEmpty()) {
             log.warn("没有找到管理员，无法发送待审核通知");
             return;
         }
 
-        // We can put coverImage in the content or as a custom field.
-        // WebSocketMessage doesn't have coverImage field explicitly for recipe.
-        // But we can put it in 'content' JSON if we change structure, or abuse
-        // connection of fields.
-        // Actually, better to add an 'extras' map or just use JSON content?
-        // Wait, WebSocketMessage has senderAvatar, but not relatedEntityImage.
-        // Let's check WebSocketMessage again. It has limited fields.
-        // Option 1: Add coverImage to WebSocketMessage
-        // Option 2: Put it in content as JSON string (messy)
-        // Option 3: Overload senderAvatar? No.
-
-        // Let's modify WebSocketMessage first? No, that requires common package update.
-        // Does WebSocketMessage have an 'extras' field? Checked earlier: No.
-        // But wait, the user showed an image where senderAvatar is user avatar.
-        // The list item needs a cover image.
-
-        // Ideally, I should add 'coverImage' to WebSocketMessage.
-        // Let's assume I can modify WebSocketMessage.
-
         WebSocketMessage message = WebSocketMessage.builder()
                 .type(MessageType.NEW_RECIPE_PENDING)
                 .title("新菜谱待审核 📝")
@@ -163,30 +192,20 @@ public class NotificationServiceImpl implements NotificationService {
                 .relatedId(recipeId)
                 .senderId(authorId)
                 .senderName(authorName)
-                // We will add a new field 'imageUrl' to WebSocketMessage for this
                 .imageUrl(coverImage)
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
-        int sentCount = 0;
-        // 向所有管理员发送通知
-        for (SysUser admin : admins) {
-            boolean success = sessionManager.sendMessage(admin.getId(), JSONUtil.toJsonStr(message));
-            if (success) {
-                sentCount++;
-            }
-        }
+        // 向所有在线管理员发送通知
+        int sentCount = sendToAdmins(admins, message);
 
-        log.info("新菜谱待审核通知: recipeId={}, 目标管理员数={}, 实际在线发送数={}",
+        log.info("新菜谱待审核通知: recipeId={}, 目标管理员数={}, 本节点在线发送数={}",
                 recipeId, admins.size(), sentCount);
     }
 
     @Override
     public void sendRecipeWithdrawn(Long recipeId, String recipeTitle, Long authorId, String authorName) {
-        // 查询所有管理员
-        List<SysUser> admins = sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
-                .in(SysUser::getRole, "admin", "common_admin"));
-
+        Set<Long> admins = adminRoleRegistry.getAdminIds();
         if (admins.isEmpty()) {
             return;
         }
@@ -201,15 +220,9 @@ public class NotificationServiceImpl implements NotificationService {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
-        int sentCount = 0;
-        String json = JSONUtil.toJsonStr(message);
-        for (SysUser admin : admins) {
-            if (sessionManager.sendMessage(admin.getId(), json)) {
-                sentCount++;
-            }
-        }
+        int sentCount = sendToAdmins(admins, message);
 
-        log.info("菜谱撤销通知: recipeId={}, 目标管理员数={}, 实际在线发送数={}",
+        log.info("菜谱撤销通知: recipeId={}, 目标管理员数={}, 本节点在线发送数={}",
                 recipeId, admins.size(), sentCount);
     }
 
@@ -242,7 +255,7 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public void sendCommentLiked(Long commentOwnerId, Long likerId, String likerName,
-            Long recipeId, String recipeTitle, String commentContent) {
+            Long commentId, Long recipeId, String recipeTitle, String commentContent) {
         // 不通知自己
         if (commentOwnerId.equals(likerId)) {
             return;
@@ -253,52 +266,48 @@ public class NotificationServiceImpl implements NotificationService {
                 ? commentContent.substring(0, 30) + "..."
                 : commentContent;
 
-        WebSocketMessage message = WebSocketMessage.builder()
-                .type(MessageType.COMMENT_LIKED)
-                .title("评论被点赞")
-                .content(likerName + " 赞了你的评论：" + contentPreview)
-                .relatedId(recipeId)
-                .senderId(likerId)
-                .senderName(likerName)
+        coalescer.submit(new NotificationCoalescer.Key(MessageType.COMMENT_LIKED, commentOwnerId, commentId),
+                new NotificationCoalescer.Actor(likerId, likerName, null),
+                summary -> coalesced(MessageType.COMMENT_LIKED, "评论被点赞",
+                        summary.names() + " 赞了你的评论：" + contentPreview, recipeId, summary));
+    }
+
+    /**
+     * 合并通知：发送者为最近的操作者，附加数据中为去重后的总人数
+     */
+    private static WebSocketMessage coalesced(MessageType type, String title, String content, Long relatedId,
+            NotificationCoalescer.Summary summary) {
+        return WebSocketMessage.builder()
+                .type(type)
+                .title(title)
+                .content(content)
+                .relatedId(relatedId)
+                .senderId(summary.first().id())
+                .senderName(summary.first().name())
+                .senderAvatar(summary.first().avatar())
+                .data(Map.of("count", summary.count()))
                 .build();
-        sendToUser(commentOwnerId, message);
     }
 
     // ========== 管理员广播实现 ==========
 
     @Override
     public void broadcastUserOnline(Long userId, String nickname) {
-        WebSocketMessage message = WebSocketMessage.builder()
-                .type(MessageType.USER_ONLINE)
-                .title("用户上线")
-                .content(nickname != null ? nickname + " 已上线" : "用户已上线")
-                .relatedId(userId)
-                .timestamp(LocalDateTime.now())
-                .build();
-        broadcastToAllOnlineUsers(message);
-        log.debug("广播用户上线: userId={}", userId);
+        // 只推送给订阅者（关注者、私信会话对象与管理员），按周期合并为差异消息
+        presenceHub.publish(userId, true);
+        log.debug("发布用户上线: userId={}", userId);
     }
 
     @Override
     public void broadcastUserOffline(Long userId) {
-        WebSocketMessage message = WebSocketMessage.builder()
-                .type(MessageType.USER_OFFLINE)
-                .title("用户离线")
-                .content("用户已离线")
-                .relatedId(userId)
-                .timestamp(LocalDateTime.now())
-                .build();
-        broadcastToAllOnlineUsers(message);
-        log.debug("广播用户离线: userId={}", userId);
+        presenceHub.publish(userId, false);
+        log.debug("发布用户离线: userId={}", userId);
     }
 
     @Override
     public void broadcastToAdmins(WebSocketMessage message) {
-        // 查询所有管理员（包括超级管理员和普通管理员，正常状态）
-        List<SysUser> admins = sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
-                .in(SysUser::getRole, "admin", "common_admin")
-                .eq(SysUser::getStatus, com.n1etzsch3.recipe.common.constant.UserConstants.NORMAL));
-
+        // 状态正常的管理员（包括超级管理员和普通管理员）
+        Set<Long> admins = adminRoleRegistry.getActiveAdminIds();
         if (admins.isEmpty()) {
             return;
         }
@@ -308,49 +317,19 @@ public class NotificationServiceImpl implements NotificationService {
             message.setTimestamp(LocalDateTime.now());
         }
 
-        String json = JSONUtil.toJsonStr(message);
-        int sentCount = 0;
-
-        for (SysUser admin : admins) {
-            if (sessionManager.sendMessage(admin.getId(), json)) {
-                sentCount++;
-            }
-        }
-
+        int sentCount = sendToAdmins(admins, message);
         if (sentCount > 0) {
-            log.debug("管理员广播完成: type={}, 在线管理员={}/{}",
+            log.debug("管理员广播完成: type={}, 本节点在线管理员={}/{}",
                     message.getType(), sentCount, admins.size());
         }
     }
 
     /**
-     * 广播消息给所有在线用户
-     * 用于用户状态变化等需要全局通知的场景
+     * 消息只序列化一次，组播给在线的管理员（管理员名单来自内存，不查询数据库和路由）
+     *
+     * @return 本节点投递成功的管理员数
      */
-    private void broadcastToAllOnlineUsers(WebSocketMessage message) {
-        // 设置时间戳
-        if (message.getTimestamp() == null) {
-            message.setTimestamp(LocalDateTime.now());
-        }
-
-        String json = JSONUtil.toJsonStr(message);
-
-        // 获取所有在线用户ID
-        Set<Long> onlineUserIds = sessionManager.getOnlineUserIds();
-        if (onlineUserIds.isEmpty()) {
-            return;
-        }
-
-        int sentCount = 0;
-        for (Long userId : onlineUserIds) {
-            if (sessionManager.sendMessage(userId, json)) {
-                sentCount++;
-            }
-        }
-
-        if (sentCount > 0) {
-            log.debug("全局广播完成: type={}, 在线用户={}",
-                    message.getType(), sentCount);
-        }
+    private int sendToAdmins(Set<Long> adminIds, WebSocketMessage message) {
+        return messageRouter.multicast(adminIds, JSONUtil.toJsonStr(message));
     }
 }
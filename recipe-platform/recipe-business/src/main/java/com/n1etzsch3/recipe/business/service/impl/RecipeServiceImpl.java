@@ -2,25 +2,40 @@ package com.n1etzsch3.recipe.business.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.n1etzsch3.recipe.business.domain.dto.RecipeDetailDTO;
 import com.n1etzsch3.recipe.business.domain.dto.RecipePublishDTO;
+import com.n1etzsch3.recipe.business.domain.query.IngredientMatchQuery;
 import com.n1etzsch3.recipe.business.domain.query.RecipePageQuery;
 import com.n1etzsch3.recipe.business.entity.*;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeIngredientMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeStepMapper;
+import com.n1etzsch3.recipe.business.mapper.UserFavoriteMapper;
+import com.n1etzsch3.recipe.business.mapper.UserFollowMapper;
 import com.n1etzsch3.recipe.business.service.CategoryService;
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
 import com.n1etzsch3.recipe.business.service.NotificationService;
+import com.n1etzsch3.recipe.business.search.IngredientHit;
+import com.n1etzsch3.recipe.business.search.IngredientIndex;
+import com.n1etzsch3.recipe.business.search.IngredientMatchResult;
+import com.n1etzsch3.recipe.business.search.SearchQuery;
+import com.n1etzsch3.recipe.business.search.SearchResult;
+import com.n1etzsch3.recipe.business.service.RecipeCacheService;
+import com.n1etzsch3.recipe.business.service.RecipeSearchService;
 import com.n1etzsch3.recipe.business.service.RecipeService;
+import com.n1etzsch3.recipe.business.service.RecipeStatsService;
+import com.n1etzsch3.recipe.business.service.RecipeViewCountService;
 import com.n1etzsch3.recipe.common.constant.UserConstants;
 import com.n1etzsch3.recipe.common.context.UserContext;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
 import com.n1etzsch3.recipe.common.core.domain.LoginUser;
+import com.n1etzsch3.recipe.common.core.domain.PageCursor;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
@@ -32,8 +47,15 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
@@ -49,13 +71,35 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
     private final RecipeIngredientMapper ingredientMapper;
     private final RecipeStepMapper stepMapper;
     private final SysUserMapper sysUserMapper;
-    private final com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper commentMapper;
-    private final com.n1etzsch3.recipe.business.mapper.UserFavoriteMapper favoriteMapper;
-    private final com.n1etzsch3.recipe.business.mapper.UserFollowMapper followMapper;
+    private final UserFavoriteMapper favoriteMapper;
+    private final UserFollowMapper followMapper;
     private final CategoryService categoryService;
     private final NotificationService notificationService;
+    private final RecipeCacheService recipeCacheService;
+    private final RecipeViewCountService recipeViewCountService;
+    private final DashboardStatsService dashboardStatsService;
+    private final RecipeSearchService recipeSearchService;
+    private final RecipeStatsService recipeStatsService;
     private final StringRedisTemplate stringRedisTemplate;
 
+    /**
+     * 关键词检索按热度排序时，参与数据库排序的最大命中数
+     */
+    private static final int MAX_HOT_SEARCH_CANDIDATES = 1000;
+    private static final int SUGGEST_LIMIT = 10;
+    /**
+     * 按食材查找时最多使用的食材数
+     */
+    private static final int MAX_MATCH_INGREDIENTS = 20;
+    /**
+     * 按食材查找时允许的最大页码
+     */
+    private static final int MAX_MATCH_PAGE = 1000;
+    /**
+     * 食材、步骤单条多行 INSERT 的最大行数
+     */
+    private static final int CHILD_ROW_BATCH_SIZE = 500;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Result<?> publishRecipe(RecipePublishDTO publishDTO) {
@@ -85,30 +129,15 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         recipe.setUpdateTime(LocalDateTime.now());
 
         this.save(recipe);
+        dashboardStatsService.recordRecipeCreated(recipe);
 
         Long recipeId = recipe.getId();
 
-        // 2. 保存食材
-        if (CollUtil.isNotEmpty(publishDTO.getIngredients())) {
-            List<RecipeIngredient> ingredients = publishDTO.getIngredients().stream().map(item -> {
-                RecipeIngredient entity = new RecipeIngredient();
-                BeanUtil.copyProperties(item, entity);
-                entity.setRecipeId(recipeId);
-                return entity;
-            }).toList();
-            ingredients.forEach(ingredientMapper::insert);
-        }
+        // 2. 保存食材（多行批量写入）
+        writeInBatches(toIngredients(recipeId, publishDTO), ingredientMapper::insertBatch);
 
-        // 3. 保存步骤
-        if (CollUtil.isNotEmpty(publishDTO.getSteps())) {
-            List<RecipeStep> steps = publishDTO.getSteps().stream().map(item -> {
-                RecipeStep entity = new RecipeStep();
-                BeanUtil.copyProperties(item, entity);
-                entity.setRecipeId(recipeId);
-                return entity;
-            }).toList();
-            steps.forEach(stepMapper::insert);
-        }
+        // 3. 保存步骤（多行批量写入）
+        writeInBatches(toSteps(recipeId, publishDTO), stepMapper::insertBatch);
 
         // 4. 写入 Redis Stream 队列，异步处理 (使用事务同步，确保 DB 事务提交后再发消息)
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
@@ -128,6 +157,7 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
                     // 注意：此时原事务已提交，这里是新的独立操作
                     recipe.setStatus(RecipeConstants.STATUS_PENDING);
                     RecipeServiceImpl.this.updateById(recipe);
+                    dashboardStatsService.recordRecipeStatusChanged(recipe, RecipeConstants.STATUS_PROCESSING);
 
                     SysUser author = sysUserMapper.selectById(userId);
                     String authorName = author != null ? author.getNickname() : "用户" + userId;
@@ -145,9 +175,9 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
     @Override
     public Result<RecipeDetailDTO> getRecipeDetail(Long id) {
         log.info("查询菜谱详情: {}", id);
-        // 1. 获取基本信息
-        RecipeInfo recipe = this.getById(id);
-        if (recipe == null) {
+        // 1. 获取基本信息、作者、食材、步骤（二级缓存）
+        RecipeDetailDTO cached = recipeCacheService.getRecipeDetail(id);
+        if (cached == null) {
             return Result.fail("菜谱不存在");
         }
 
@@ -156,46 +186,18 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         boolean isAdmin = loginUser != null &&
                 (UserConstants.ROLE_ADMIN.equals(loginUser.getRole()) ||
                         UserConstants.ROLE_COMMON_ADMIN.equals(loginUser.getRole()));
-        boolean isOwner = currentUserId != null && currentUserId.equals(recipe.getUserId());
-        if (!Integer.valueOf(RecipeConstants.STATUS_PUBLISHED).equals(recipe.getStatus()) && !isOwner && !isAdmin) {
+        boolean isOwner = currentUserId != null && currentUserId.equals(cached.getUserId());
+        if (!Integer.valueOf(RecipeConstants.STATUS_PUBLISHED).equals(cached.getStatus()) && !isOwner && !isAdmin) {
             return Result.fail("菜谱不存在");
         }
 
-        // 2. 组装 DTO
-        RecipeDetailDTO detailDTO = new RecipeDetailDTO();
-        BeanUtil.copyProperties(recipe, detailDTO);
+        // 2. 复制缓存对象（缓存实例被多个请求共享，不能直接填充用户相关字段）
+        RecipeDetailDTO detailDTO = BeanUtil.copyProperties(cached, RecipeDetailDTO.class);
 
-        // 3. 获取作者信息
-        SysUser author = sysUserMapper.selectById(recipe.getUserId());
-        if (author != null) {
-            detailDTO.setAuthorName(author.getNickname());
-            detailDTO.setAuthorAvatar(author.getAvatar());
-        }
+        // 3. 增加浏览量（本地累加后批量写回，避免热点行锁竞争）
+        detailDTO.setViewCount(recipeViewCountService.recordView(id, cached.getViewCount()));
 
-        // 4. 获取食材
-        // 如果未维护食材表，这里可能为空列表
-        List<RecipeIngredient> ingredients = ingredientMapper.selectList(new LambdaQueryWrapper<RecipeIngredient>()
-                .eq(RecipeIngredient::getRecipeId, id)
-                .orderByAsc(RecipeIngredient::getSortOrder));
-        detailDTO.setIngredients(ingredients);
-
-        // 5. 获取步骤
-        // 如果未维护步骤表，这里可能为空列表
-        List<RecipeStep> steps = stepMapper.selectList(new LambdaQueryWrapper<RecipeStep>()
-                .eq(RecipeStep::getRecipeId, id)
-                .orderByAsc(RecipeStep::getStepNo));
-        detailDTO.setSteps(steps);
-
-        // 6. 增加浏览量（原子更新，避免并发丢失）
-        int currentViewCount = recipe.getViewCount() != null ? recipe.getViewCount() : 0;
-        int nextViewCount = currentViewCount + 1;
-        LambdaUpdateWrapper<RecipeInfo> updateWrapper = new LambdaUpdateWrapper<>();
-        updateWrapper.eq(RecipeInfo::getId, id)
-                .setSql("view_count = COALESCE(view_count, 0) + 1");
-        this.baseMapper.update(null, updateWrapper);
-        detailDTO.setViewCount(nextViewCount);
-
-        // 7. 检查当前用户是否收藏
+        // 4. 检查当前用户是否收藏
         if (currentUserId != null) {
             Long isFav = favoriteMapper.selectCount(
                     new LambdaQueryWrapper<UserFavorite>()
@@ -207,7 +209,7 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
             Long isFollow = followMapper.selectCount(
                     new LambdaQueryWrapper<UserFollow>()
                             .eq(UserFollow::getFollowerId, currentUserId)
-                            .eq(UserFollow::getFollowedId, recipe.getUserId()));
+                            .eq(UserFollow::getFollowedId, cached.getUserId()));
             detailDTO.setIsFollow(isFollow != null && isFollow > 0);
         } else {
             detailDTO.setIsFavorite(false);
@@ -223,43 +225,207 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
                 query.getPage(), query.getSize(), query.getKeyword(), query.getAuthorId(), query.getStatus());
         Page<RecipeInfo> page = new Page<>(query.getPage(), query.getSize());
 
-        LambdaQueryWrapper<RecipeInfo> wrapper = new LambdaQueryWrapper<>();
-
-        // 1. 状态筛选
-        if (query.getStatus() != null) {
-            wrapper.eq(RecipeInfo::getStatus, query.getStatus());
-        } else if (query.getAuthorId() == null) {
-            // 默认：未指定作者/状态时只显示已发布
-            wrapper.eq(RecipeInfo::getStatus, RecipeConstants.STATUS_PUBLISHED);
-        }
+        // 1~3. 状态、作者、分类筛选
+        Integer status = resolveStatus(query);
+        LambdaQueryWrapper<RecipeInfo> wrapper = buildFilter(query, status);
+
+        boolean sortByHot = isSortByHot(query);
+        Page<RecipeInfo> resultPage;
+        if (StrUtil.isNotBlank(query.getKeyword()) && recipeSearchService.isReady()) {
+            // 4. 关键词检索（倒排索引，默认按相关度排序）
+            SearchQuery searchQuery = toSearchQuery(query, status);
+            if (sortByHot) {
+                // 按热度排序：在命中集合内由数据库排序
+                searchQuery.setLimit(MAX_HOT_SEARCH_CANDIDATES);
+                List<Long> hitIds = recipeSearchService.search(searchQuery).getIds();
+                if (hitIds.isEmpty()) {
+                    return Result.ok(new Page<>(query.getPage(), query.getSize(), 0));
+                }
+                wrapper.in(RecipeInfo::getId, hitIds).orderByDesc(RecipeInfo::getViewCount);
+                resultPage = this.page(page, wrapper);
+            } else {
+                resultPage = recipeSearchService.searchPage(searchQuery, query.getPage(), query.getSize());
+            }
+        } else {
+            // 4. 关键词筛选（索引构建完成前回退到 LIKE）
+            if (StrUtil.isNotBlank(query.getKeyword())) {
+                wrapper.like(RecipeInfo::getTitle, query.getKeyword());
+            }
 
-        // 2. 作者筛选
-        if (query.getAuthorId() != null) {
-            wrapper.eq(RecipeInfo::getUserId, query.getAuthorId());
+            // 5. 排序
+            if (sortByHot) {
+                wrapper.orderByDesc(RecipeInfo::getViewCount);
+            } else {
+                wrapper.orderByDesc(RecipeInfo::getCreateTime);
+            }
+            resultPage = this.page(page, wrapper);
         }
+        return Result.ok(toDetailPage(resultPage));
+    }
 
-        // 3. 分类筛选
-        if (query.getCategoryId() != null) {
-            wrapper.eq(RecipeInfo::getCategoryId, query.getCategoryId());
+    @Override
+    public Result<CursorPage<RecipeDetailDTO>> scrollRecipes(RecipePageQuery query) {
+        int size = PageCursor.normalizeSize(query.getSize());
+        PageCursor cursor = PageCursor.decode(query.getCursor());
+        boolean withTotal = cursor == null && Boolean.TRUE.equals(query.getWithTotal());
+
+        Integer status = resolveStatus(query);
+        LambdaQueryWrapper<RecipeInfo> wrapper = buildFilter(query, status);
+        boolean sortByHot = isSortByHot(query);
+        Long total = null;
+
+        if (StrUtil.isNotBlank(query.getKeyword()) && recipeSearchService.isReady()) {
+            SearchQuery searchQuery = toSearchQuery(query, status);
+            if (!sortByHot) {
+                // 按相关度排序时游标记录检索结果偏移量（索引在内存中，偏移无额外开销）
+                int offset = cursor == null ? 0 : (int) cursor.getKey();
+                searchQuery.setOffset(offset);
+                searchQuery.setLimit(size);
+                SearchResult result = recipeSearchService.search(searchQuery);
+                List<RecipeInfo> records = recipeSearchService.loadRecipes(result.getIds(), searchQuery);
+                String next = offset + size < result.getTotal() ? new PageCursor(offset + size, 0).encode() : null;
+                return Result.ok(new CursorPage<>(toDetailList(records), next, withTotal ? result.getTotal() : null));
+            }
+            searchQuery.setLimit(MAX_HOT_SEARCH_CANDIDATES);
+            List<Long> hitIds = recipeSearchService.search(searchQuery).getIds();
+            if (hitIds.isEmpty()) {
+                return Result.ok(new CursorPage<>(List.of(), null, withTotal ? 0L : null));
+            }
+            wrapper.in(RecipeInfo::getId, hitIds);
+        } else if (StrUtil.isNotBlank(query.getKeyword())) {
+            wrapper.like(RecipeInfo::getTitle, query.getKeyword());
         }
 
-        // 4. 关键词筛选
-        if (StrUtil.isNotBlank(query.getKeyword())) {
-            wrapper.like(RecipeInfo::getTitle, query.getKeyword());
+        if (withTotal) {
+            total = this.count(wrapper);
         }
 
-        // 5. 排序
-        if (StringUtils.hasText(query.getSort()) && RecipeConstants.SORT_HOT.equals(query.getSort())) {
+        // 键集分页：(排序键, id) 严格小于上一页最后一条
+        if (sortByHot) {
+            if (cursor != null) {
+                int viewCount = (int) cursor.getKey();
+                wrapper.and(w -> w.lt(RecipeInfo::getViewCount, viewCount)
+                        .or(o -> o.eq(RecipeInfo::getViewCount, viewCount).lt(RecipeInfo::getId, cursor.getId())));
+            }
             wrapper.orderByDesc(RecipeInfo::getViewCount);
         } else {
+            if (cursor != null) {
+                LocalDateTime createTime = cursor.getTime();
+                wrapper.and(w -> w.lt(RecipeInfo::getCreateTime, createTime)
+                        .or(o -> o.eq(RecipeInfo::getCreateTime, createTime).lt(RecipeInfo::getId, cursor.getId())));
+            }
             wrapper.orderByDesc(RecipeInfo::getCreateTime);
         }
+        wrapper.orderByDesc(RecipeInfo::getId).last("LIMIT " + (size + 1));
+
+        List<RecipeInfo> records = this.list(wrapper);
+        String next = null;
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            RecipeInfo last = records.get(size - 1);
+            next = (sortByHot
+                    ? new PageCursor(last.getViewCount() == null ? 0 : last.getViewCount(), last.getId())
+                    : PageCursor.of(last.getCreateTime(), last.getId())).encode();
+        }
+        return Result.ok(new CursorPage<>(toDetailList(records), next, total));
+    }
+
+    /**
+     * 状态筛选：未指定作者/状态时只显示已发布
+     */
+    private Integer resolveStatus(RecipePageQuery query) {
+        Integer status = query.getStatus();
+        if (status == null && query.getAuthorId() == null) {
+            status = RecipeConstants.STATUS_PUBLISHED;
+        }
+        return status;
+    }
+
+    /**
+     * 状态、作者、分类筛选条件
+     */
+    private LambdaQueryWrapper<RecipeInfo> buildFilter(RecipePageQuery query, Integer status) {
+        return new LambdaQueryWrapper<RecipeInfo>()
+                .eq(status != null, RecipeInfo::getStatus, status)
+                .eq(query.getAuthorId() != null, RecipeInfo::getUserId, query.getAuthorId())
+                .eq(query.getCategoryId() != null, RecipeInfo::getCategoryId, query.getCategoryId());
+    }
+
+    private boolean isSortByHot(RecipePageQuery query) {
+        return StringUtils.hasText(query.getSort()) && RecipeConstants.SORT_HOT.equals(query.getSort());
+    }
 
-        Page<RecipeInfo> resultPage = this.page(page, wrapper);
+    private SearchQuery toSearchQuery(RecipePageQuery query, Integer status) {
+        SearchQuery searchQuery = new SearchQuery();
+        searchQuery.setKeyword(query.getKeyword());
+        searchQuery.setStatus(status);
+        searchQuery.setUserId(query.getAuthorId());
+        searchQuery.setCategoryId(query.getCategoryId());
+        return searchQuery;
+    }
+
+    private List<RecipeDetailDTO> toDetailList(List<RecipeInfo> records) {
+        Page<RecipeInfo> page = new Page<>(1, records.size(), false);
+        page.setRecords(records);
+        return toDetailPage(page).getRecords();
+    }
+
+    @Override
+    public Result<IPage<RecipeDetailDTO>> pageByIngredients(IngredientMatchQuery query) {
+        Set<String> names = new LinkedHashSet<>();
+        if (query.getIngredients() != null) {
+            for (String ingredient : query.getIngredients()) {
+                String name = IngredientIndex.normalize(ingredient);
+                if (!name.isEmpty() && names.size() < MAX_MATCH_INGREDIENTS) {
+                    names.add(name);
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return Result.fail("请至少输入一种食材");
+        }
+
+        int size = PageCursor.normalizeSize(query.getSize());
+        int page = query.getPage() == null ? 1 : Math.min(Math.max(query.getPage(), 1), MAX_MATCH_PAGE);
+        int offset = (page - 1) * size;
+        IngredientMatchResult result = recipeSearchService.matchIngredients(names, offset, size);
+        Page<RecipeInfo> resultPage = new Page<>(page, size, result.getTotal());
+        if (result.getHits().isEmpty()) {
+            resultPage.setRecords(List.of());
+            return Result.ok(toDetailPage(resultPage));
+        }
+
+        // 按命中顺序加载，索引刷新有秒级延迟，按数据库最新状态再过滤一次
+        Map<Long, IngredientHit> hitMap = new HashMap<>();
+        result.getHits().forEach(h -> hitMap.put(h.getRecipeId(), h));
+        Map<Long, RecipeInfo> loaded = new HashMap<>();
+        this.listByIds(hitMap.keySet()).forEach(r -> loaded.put(r.getId(), r));
+        List<RecipeInfo> records = new ArrayList<>(hitMap.size());
+        for (IngredientHit hit : result.getHits()) {
+            RecipeInfo recipe = loaded.get(hit.getRecipeId());
+            if (recipe != null && recipe.getStatus() == RecipeConstants.STATUS_PUBLISHED) {
+                records.add(recipe);
+            }
+        }
+        resultPage.setRecords(records);
+
+        IPage<RecipeDetailDTO> dtoPage = toDetailPage(resultPage);
+        for (RecipeDetailDTO dto : dtoPage.getRecords()) {
+            IngredientHit hit = hitMap.get(dto.getId());
+            dto.setMatchedCount(hit.getMatchedCount());
+            dto.setIngredientCount(hit.getIngredientCount());
+        }
+        return Result.ok(dtoPage);
+    }
+
+    /**
+     * 批量组装列表页 DTO（作者、计数、收藏状态）
+     */
+    private IPage<RecipeDetailDTO> toDetailPage(Page<RecipeInfo> resultPage) {
         List<RecipeInfo> recipes = resultPage.getRecords();
 
         if (recipes.isEmpty()) {
-            return Result.ok(resultPage.convert(r -> new RecipeDetailDTO()));
+            return resultPage.convert(r -> new RecipeDetailDTO());
         }
 
         // === 批量查询优化 ===
@@ -267,52 +433,32 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         // 收集所有ID
         List<Long> recipeIds = recipes.stream().map(RecipeInfo::getId).collect(Collectors.toList());
         List<Long> authorIds = recipes.stream().map(RecipeInfo::getUserId).distinct().collect(Collectors.toList());
-        Long currentUserId = com.n1etzsch3.recipe.common.context.UserContext.getUserId();
+        Long currentUserId = UserContext.getUserId();
 
         // 1. 批量查询作者
-        java.util.Map<Long, SysUser> authorMap = new java.util.HashMap<>();
+        Map<Long, SysUser> authorMap = new HashMap<>();
         if (!authorIds.isEmpty()) {
             List<SysUser> authors = sysUserMapper.selectList(
                     new LambdaQueryWrapper<SysUser>().in(SysUser::getId, authorIds));
             authors.forEach(a -> authorMap.put(a.getId(), a));
         }
 
-        // 2. 批量查询评论计数
-        java.util.Map<Long, Long> commentCountMap = new java.util.HashMap<>();
-        List<java.util.Map<String, Object>> commentCounts = commentMapper.selectMaps(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<com.n1etzsch3.recipe.business.entity.RecipeComment>()
-                        .select("recipe_id", "count(*) as cnt")
-                        .in("recipe_id", recipeIds)
-                        .groupBy("recipe_id"));
-        for (java.util.Map<String, Object> row : commentCounts) {
-            Long rid = ((Number) row.get("recipe_id")).longValue();
-            Long cnt = ((Number) row.get("cnt")).longValue();
-            commentCountMap.put(rid, cnt);
-        }
-
-        // 3. 批量查询收藏计数
-        java.util.Map<Long, Long> favoriteCountMap = new java.util.HashMap<>();
-        List<java.util.Map<String, Object>> favoriteCounts = favoriteMapper.selectMaps(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<com.n1etzsch3.recipe.business.entity.UserFavorite>()
-                        .select("recipe_id", "count(*) as cnt")
-                        .in("recipe_id", recipeIds)
-                        .groupBy("recipe_id"));
-        for (java.util.Map<String, Object> row : favoriteCounts) {
-            Long rid = ((Number) row.get("recipe_id")).longValue();
-            Long cnt = ((Number) row.get("cnt")).longValue();
-            favoriteCountMap.put(rid, cnt);
-        }
+        // 2~3. 评论数、收藏数（按主键读取计数表）
+        Map<Long, RecipeStats> statsMap = recipeStatsService.getStats(recipeIds);
 
         // 4. 批量查询当前用户的收藏状态
-        java.util.Set<Long> userFavoriteRecipeIds = new java.util.HashSet<>();
+        Set<Long> userFavoriteRecipeIds = new HashSet<>();
         if (currentUserId != null && !recipeIds.isEmpty()) {
-            List<com.n1etzsch3.recipe.business.entity.UserFavorite> userFavorites = favoriteMapper.selectList(
-                    new LambdaQueryWrapper<com.n1etzsch3.recipe.business.entity.UserFavorite>()
-                            .eq(com.n1etzsch3.recipe.business.entity.UserFavorite::getUserId, currentUserId)
-                            .in(com.n1etzsch3.recipe.business.entity.UserFavorite::getRecipeId, recipeIds));
+            List<UserFavorite> userFavorites = favoriteMapper.selectList(
+                    new LambdaQueryWrapper<UserFavorite>()
+                            .eq(UserFavorite::getUserId, currentUserId)
+                            .in(UserFavorite::getRecipeId, recipeIds));
             userFavorites.forEach(f -> userFavoriteRecipeIds.add(f.getRecipeId()));
         }
 
+        // 5. 合并尚未写回数据库的浏览量
+        Map<Long, Integer> viewCountMap = recipeViewCountService.getViewCounts(recipes);
+
         // 转换为 DTO Page（使用批量查询的数据）
         IPage<RecipeDetailDTO> dtoPage = resultPage.convert(recipe -> {
             RecipeDetailDTO dto = new RecipeDetailDTO();
@@ -325,11 +471,13 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
                 dto.setAuthorAvatar(author.getAvatar());
             }
 
-            // 评论数（从映射获取）
-            dto.setCommentCount(commentCountMap.getOrDefault(recipe.getId(), 0L).intValue());
+            // 浏览量（数据库值 + 实时增量）
+            dto.setViewCount(viewCountMap.getOrDefault(recipe.getId(), dto.getViewCount()));
 
-            // 收藏数（从映射获取）
-            dto.setFavoriteCount(favoriteCountMap.getOrDefault(recipe.getId(), 0L).intValue());
+            // 评论数、收藏数（从计数表获取）
+            RecipeStats stats = statsMap.get(recipe.getId());
+            dto.setCommentCount(stats != null ? stats.getCommentCount() : 0);
+            dto.setFavoriteCount(stats != null ? stats.getFavoriteCount() : 0);
 
             // 分类名称映射
             dto.setCategoryName(mapCategoryIdToName(recipe.getCategoryId()));
@@ -340,7 +488,15 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
             return dto;
         });
 
-        return Result.ok(dtoPage);
+        return dtoPage;
+    }
+
+    @Override
+    public Result<List<String>> suggest(String prefix) {
+        if (StrUtil.isBlank(prefix) || !recipeSearchService.isReady()) {
+            return Result.ok(List.of());
+        }
+        return Result.ok(recipeSearchService.suggest(prefix, SUGGEST_LIMIT));
     }
 
     // 分类ID映射到名称
@@ -363,34 +519,20 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         if (recipe.getStatus() == RecipeConstants.STATUS_PUBLISHED)
             return Result.fail("已发布菜谱无法直接修改，请申请下架");
 
+        Integer oldStatus = recipe.getStatus();
+        Integer oldCategoryId = recipe.getCategoryId();
         BeanUtil.copyProperties(publishDTO, recipe);
         recipe.setStatus(RecipeConstants.STATUS_PENDING); // 修改后重新审核
         recipe.setUpdateTime(LocalDateTime.now());
         this.updateById(recipe);
+        recipeCacheService.evictRecipe(recipe.getId());
+        dashboardStatsService.recordRecipeStatusChanged(recipe, oldStatus);
+        dashboardStatsService.recordRecipeCategoryChanged(recipe, oldCategoryId);
 
-        // 删除旧的 steps/ingredients 重新插入
-        ingredientMapper
-                .delete(new LambdaQueryWrapper<RecipeIngredient>().eq(RecipeIngredient::getRecipeId, recipe.getId()));
-        stepMapper.delete(new LambdaQueryWrapper<RecipeStep>().eq(RecipeStep::getRecipeId, recipe.getId()));
-
-        // 重新插入逻辑 (复用 publish 的部分逻辑，这里为了简洁先省略提取 verify)
+        // 与已有的 steps/ingredients 按位置对比，只批量写入有变化的行
         Long recipeId = recipe.getId();
-        if (CollUtil.isNotEmpty(publishDTO.getIngredients())) {
-            publishDTO.getIngredients().forEach(item -> {
-                RecipeIngredient entity = new RecipeIngredient();
-                BeanUtil.copyProperties(item, entity);
-                entity.setRecipeId(recipeId);
-                ingredientMapper.insert(entity);
-            });
-        }
-        if (CollUtil.isNotEmpty(publishDTO.getSteps())) {
-            publishDTO.getSteps().forEach(item -> {
-                RecipeStep entity = new RecipeStep();
-                BeanUtil.copyProperties(item, entity);
-                entity.setRecipeId(recipeId);
-                stepMapper.insert(entity);
-            });
-        }
+        syncIngredients(recipeId, toIngredients(recipeId, publishDTO));
+        syncSteps(recipeId, toSteps(recipeId, publishDTO));
 
         // 发送待审核通知
         SysUser author = sysUserMapper.selectById(userId);
@@ -401,6 +543,73 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         return Result.ok("修改成功，请等待审核");
     }
 
+    private static List<RecipeIngredient> toIngredients(Long recipeId, RecipePublishDTO publishDTO) {
+        if (CollUtil.isEmpty(publishDTO.getIngredients())) {
+            return List.of();
+        }
+        return publishDTO.getIngredients().stream().map(item -> {
+            RecipeIngredient entity = new RecipeIngredient();
+            BeanUtil.copyProperties(item, entity);
+            entity.setRecipeId(recipeId);
+            return entity;
+        }).toList();
+    }
+
+    private static List<RecipeStep> toSteps(Long recipeId, RecipePublishDTO publishDTO) {
+        if (CollUtil.isEmpty(publishDTO.getSteps())) {
+            return List.of();
+        }
+        return publishDTO.getSteps().stream().map(item -> {
+            RecipeStep entity = new RecipeStep();
+            BeanUtil.copyProperties(item, entity);
+            entity.setRecipeId(recipeId);
+            return entity;
+        }).toList();
+    }
+
+    private void syncIngredients(Long recipeId, List<RecipeIngredient> incoming) {
+        List<RecipeIngredient> existing = ingredientMapper.selectList(new LambdaQueryWrapper<RecipeIngredient>()
+                .eq(RecipeIngredient::getRecipeId, recipeId)
+                .orderByAsc(RecipeIngredient::getSortOrder)
+                .orderByAsc(RecipeIngredient::getId));
+        ChildRowDiff<RecipeIngredient> diff = ChildRowDiff.of(existing, incoming, RecipeIngredient::getId,
+                RecipeIngredient::setId,
+                (a, b) -> Objects.equals(a.getName(), b.getName())
+                        && Objects.equals(a.getAmount(), b.getAmount())
+                        && Objects.equals(a.getSortOrder(), b.getSortOrder() != null ? b.getSortOrder() : 0));
+        if (!diff.deletes().isEmpty()) {
+            ingredientMapper.delete(new LambdaQueryWrapper<RecipeIngredient>()
+                    .in(RecipeIngredient::getId, diff.deletes()));
+        }
+        writeInBatches(diff.updates(), ingredientMapper::updateBatch);
+        writeInBatches(diff.inserts(), ingredientMapper::insertBatch);
+    }
+
+    private void syncSteps(Long recipeId, List<RecipeStep> incoming) {
+        List<RecipeStep> existing = stepMapper.selectList(new LambdaQueryWrapper<RecipeStep>()
+                .eq(RecipeStep::getRecipeId, recipeId)
+                .orderByAsc(RecipeStep::getStepNo)
+                .orderByAsc(RecipeStep::getId));
+        ChildRowDiff<RecipeStep> diff = ChildRowDiff.of(existing, incoming, RecipeStep::getId, RecipeStep::setId,
+                (a, b) -> Objects.equals(a.getStepNo(), b.getStepNo())
+                        && Objects.equals(a.getDescription(), b.getDescription())
+                        && Objects.equals(a.getImageUrl(), b.getImageUrl()));
+        if (!diff.deletes().isEmpty()) {
+            stepMapper.delete(new LambdaQueryWrapper<RecipeStep>().in(RecipeStep::getId, diff.deletes()));
+        }
+        writeInBatches(diff.updates(), stepMapper::updateBatch);
+        writeInBatches(diff.inserts(), stepMapper::insertBatch);
+    }
+
+    /**
+     * 按批写入（插入或更新）子记录，每批一条多行语句
+     */
+    private static <T> void writeInBatches(List<T> rows, Function<List<T>, Integer> writer) {
+        for (List<T> batch : ListUtil.partition(rows, CHILD_ROW_BATCH_SIZE)) {
+            writer.apply(batch);
+        }
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Result<?> deleteRecipe(Long id) {
@@ -416,9 +625,12 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         boolean checkPending = recipe.getStatus() == RecipeConstants.STATUS_PENDING;
 
         this.removeById(id);
+        recipeStatsService.remove(id);
         // 级联删除 steps ingredients?
         ingredientMapper.delete(new LambdaQueryWrapper<RecipeIngredient>().eq(RecipeIngredient::getRecipeId, id));
         stepMapper.delete(new LambdaQueryWrapper<RecipeStep>().eq(RecipeStep::getRecipeId, id));
+        recipeCacheService.evictRecipe(id);
+        dashboardStatsService.recordRecipeDeleted(recipe);
 
         if (checkPending) {
             SysUser author = sysUserMapper.selectById(userId);
@@ -449,6 +661,8 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         recipe.setStatus(RecipeConstants.STATUS_UNPUBLISHED);
         recipe.setUpdateTime(LocalDateTime.now());
         this.updateById(recipe);
+        recipeCacheService.evictRecipe(id);
+        dashboardStatsService.recordRecipeStatusChanged(recipe, RecipeConstants.STATUS_PUBLISHED);
 
         return Result.ok("下架成功，您现在可以编辑菜谱了");
     }
@@ -472,9 +686,12 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeInfoMapper, RecipeInfo>
         }
 
         // 将状态改为草稿
+        Integer oldStatus = recipe.getStatus();
         recipe.setStatus(RecipeConstants.STATUS_DRAFT);
         recipe.setUpdateTime(LocalDateTime.now());
         this.updateById(recipe);
+        recipeCacheService.evictRecipe(id);
+        dashboardStatsService.recordRecipeStatusChanged(recipe, oldStatus);
 
         // 发送撤销通知
         SysUser author = sysUserMapper.selectById(userId);
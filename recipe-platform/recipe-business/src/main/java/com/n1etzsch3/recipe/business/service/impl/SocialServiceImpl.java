@@ -17,7 +17,10 @@ import com.n1etzsch3.recipe.business.mapper.UserFollowMapper;
 import com.n1etzsch3.recipe.business.service.NotificationService;
 import com.n1etzsch3.recipe.business.service.SocialService;
 import com.n1etzsch3.recipe.common.context.UserContext;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
+import com.n1etzsch3.recipe.common.core.domain.PageCursor;
 import com.n1etzsch3.recipe.common.core.domain.Result;
+import com.n1etzsch3.recipe.framework.websocket.PresenceHub;
 import com.n1etzsch3.recipe.system.entity.SysUser;
 import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
 import lombok.RequiredArgsConstructor;
@@ -41,6 +44,7 @@ public class SocialServiceImpl implements SocialService {
     private final SysUserMapper sysUserMapper;
     private final ChatMessageMapper chatMessageMapper;
     private final NotificationService notificationService;
+    private final PresenceHub presenceHub;
 
     @Override
     public Result<?> toggleFollow(Long targetUserId) {
@@ -55,6 +59,8 @@ public class SocialServiceImpl implements SocialService {
 
         if (follow != null) {
             followMapper.deleteById(follow.getId());
+            // 可能仍有私信会话，重新加载在线状态订阅关系
+            presenceHub.reload(userId);
             return Result.ok("已取消关注");
         } else {
             follow = new UserFollow();
@@ -62,6 +68,7 @@ public class SocialServiceImpl implements SocialService {
             follow.setFollowedId(targetUserId);
             follow.setCreateTime(LocalDateTime.now());
             followMapper.insert(follow);
+            presenceHub.watch(userId, targetUserId);
 
             // 发送新关注者通知
             SysUser follower = sysUserMapper.selectById(userId);
@@ -141,6 +148,9 @@ public class SocialServiceImpl implements SocialService {
         msg.setIsRead(0);
 
         chatMessageMapper.insert(msg);
+        // 会话双方互相订阅在线状态
+        presenceHub.watch(userId, receiverId);
+        presenceHub.watch(receiverId, userId);
 
         // 发送新私信通知
         SysUser sender = sysUserMapper.selectById(userId);
@@ -163,11 +173,33 @@ public class SocialServiceImpl implements SocialService {
                 .or(w -> w.eq(ChatMessage::getSenderId, targetUserId).eq(ChatMessage::getReceiverId, userId))
                 .orderByDesc(ChatMessage::getCreateTime)); // Latest first
 
-        List<ChatMessage> messages = p.getRecords();
+        Page<MessageVO> result = new Page<>(page, size, p.getTotal());
+        result.setRecords(convertMessages(p.getRecords(), userId));
+        return Result.ok(result);
+    }
+
+    @Override
+    public Result<CursorPage<MessageVO>> scrollMessages(Long targetUserId, String cursor, Integer size) {
+        Long userId = UserContext.getUserId();
+        int limit = PageCursor.normalizeSize(size);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        // 两个方向分别走会话索引的有序范围扫描后合并，避免 OR 条件导致整段会话排序
+        List<ChatMessage> messages = chatMessageMapper.selectConversationPage(userId, targetUserId,
+                pageCursor != null ? pageCursor.getTime() : null, pageCursor != null ? pageCursor.getId() : null,
+                limit + 1);
+        String next = null;
+        if (messages.size() > limit) {
+            messages = messages.subList(0, limit);
+            ChatMessage last = messages.get(limit - 1);
+            next = PageCursor.of(last.getCreateTime(), last.getId()).encode();
+        }
+        return Result.ok(new CursorPage<>(convertMessages(messages, userId), next, null));
+    }
+
+    private List<MessageVO> convertMessages(List<ChatMessage> messages, Long userId) {
         if (messages.isEmpty()) {
-            Page<MessageVO> empty = new Page<>(page, size, p.getTotal());
-            empty.setRecords(new ArrayList<>());
-            return Result.ok(empty);
+            return new ArrayList<>();
         }
 
         Set<Long> senderIds = new HashSet<>();
@@ -201,9 +233,7 @@ public class SocialServiceImpl implements SocialService {
             return vo;
         }).collect(Collectors.toList());
 
-        Page<MessageVO> result = new Page<>(page, size, p.getTotal());
-        result.setRecords(vos);
-        return Result.ok(result);
+        return vos;
     }
 
     @Override
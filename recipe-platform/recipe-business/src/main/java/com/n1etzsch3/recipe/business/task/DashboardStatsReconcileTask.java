@@ -0,0 +1,151 @@
+package com.n1etzsch3.recipe.business.task;
+
+import com.n1etzsch3.recipe.business.service.DashboardStatsService;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.framework.config.SchedulingConfig;
+import com.n1etzsch3.recipe.framework.service.DistributedLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 仪表盘统计对账任务
+ * 增量统计可能因事务外异常、进程崩溃等原因产生偏差，定期从明细表重建每日汇总
+ * 同一时间只有一个节点执行；按日期区间分段重建，每段一个短事务，重建前先让所有节点写入本地增量
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardStatsReconcileTask {
+
+    private static final List<String> REBUILD_METRICS = List.of(
+            DashboardStatsService.METRIC_USER,
+            DashboardStatsService.METRIC_RECIPE,
+            DashboardStatsService.METRIC_CATEGORY,
+            DashboardStatsService.METRIC_COMMENT);
+
+    private final DashboardStatsService dashboardStatsService;
+    private final DistributedLockService lockService;
+
+    /**
+     * 每段重建覆盖的天数
+     */
+    @Value("${recipe.dashboard.stats.rebuild-chunk-days:31}")
+    private int chunkDays;
+
+    /**
+     * 等待各节点确认写入增量的最长时间（毫秒）
+     */
+    @Value("${recipe.dashboard.stats.flush-wait:3000}")
+    private long flushWaitMillis;
+
+    /**
+     * 对账锁有效期（毫秒），每段完成后续期
+     */
+    @Value("${recipe.dashboard.stats.reconcile-lock-ttl:300000}")
+    private long lockTtlMillis;
+
+    /**
+     * 汇总表为空（首次部署）时在后台立即构建一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (dashboardStatsService.loadTotals().isEmpty()) {
+            Thread.ofVirtual().name("dashboard-stats-init").start(this::reconcile);
+        }
+    }
+
+    /**
+     * 默认每天凌晨 4 点执行（在菜谱清理任务之后）
+     */
+    @Scheduled(cron = "${recipe.dashboard.stats.reconcile-cron:0 0 4 * * ?}",
+            scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void reconcile() {
+        String lockToken = lockService.tryLock(CacheConstants.KEY_DASHBOARD_RECONCILE_LOCK, lockTtlMillis);
+        if (lockToken == null) {
+            log.info("仪表盘统计对账任务正在其他节点执行，跳过");
+            return;
+        }
+        log.info("开始执行仪表盘统计对账任务...");
+        long start = System.currentTimeMillis();
+        try {
+            for (String metric : REBUILD_METRICS) {
+                try {
+                    int rows = rebuild(metric, lockToken);
+                    log.info("统计指标重建完成: metric={}, rows={}", metric, rows);
+                } catch (IllegalStateException e) {
+                    log.warn("统计指标重建中止: metric={}, reason={}", metric, e.getMessage());
+                    return;
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("统计指标重建失败: metric={}", metric, e);
+                }
+            }
+
+            try {
+                awaitFlush();
+                long diff = dashboardStatsService.reconcileViews();
+                if (diff != 0) {
+                    log.info("浏览量合计已修正: diff={}", diff);
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("浏览量对账失败", e);
+            }
+
+            try {
+                dashboardStatsService.rebuildActiveUsers();
+            } catch (Exception e) {
+                log.error("活跃用户重建失败", e);
+            }
+
+            log.info("仪表盘统计对账完成: 耗时 {}ms", System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("仪表盘统计对账被中断");
+        } finally {
+            lockService.unlock(CacheConstants.KEY_DASHBOARD_RECONCILE_LOCK, lockToken);
+        }
+    }
+
+    /**
+     * 按日期区间逐段重建一个指标
+     *
+     * @return 重建后的行数
+     * @throws IllegalStateException 对账锁已失效
+     */
+    private int rebuild(String metric, String lockToken) throws InterruptedException {
+        LocalDate from = dashboardStatsService.firstRebuildDate(metric);
+        if (from == null) {
+            return 0;
+        }
+        LocalDate end = LocalDate.now().plusDays(1);
+        int rows = 0;
+        while (from.isBefore(end)) {
+            LocalDate to = from.plusDays(Math.max(chunkDays, 1));
+            // 每段快照前都让各节点写入增量，缩小与增量写入重叠的时间窗口
+            awaitFlush();
+            rows += dashboardStatsService.rebuildRange(metric, from, to);
+            if (!lockService.renew(CacheConstants.KEY_DASHBOARD_RECONCILE_LOCK, lockToken, lockTtlMillis)) {
+                throw new IllegalStateException("对账锁已失效");
+            }
+            from = to;
+        }
+        return rows;
+    }
+
+    private void awaitFlush() throws InterruptedException {
+        if (!dashboardStatsService.flushAllNodes(flushWaitMillis)) {
+            log.warn("部分节点未在 {}ms 内确认写入统计增量，重建结果可能重复计入这些节点的增量", flushWaitMillis);
+        }
+    }
+}
@@ -1,41 +1,59 @@
 package com.n1etzsch3.recipe.business.task;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.n1etzsch3.recipe.business.entity.RecipeComment;
 import com.n1etzsch3.recipe.business.entity.RecipeInfo;
-import com.n1etzsch3.recipe.business.entity.RecipeIngredient;
-import com.n1etzsch3.recipe.business.entity.RecipeStep;
-import com.n1etzsch3.recipe.business.entity.UserFavorite;
-import com.n1etzsch3.recipe.business.mapper.RecipeCommentMapper;
 import com.n1etzsch3.recipe.business.mapper.RecipeInfoMapper;
-import com.n1etzsch3.recipe.business.mapper.RecipeIngredientMapper;
-import com.n1etzsch3.recipe.business.mapper.RecipeStepMapper;
-import com.n1etzsch3.recipe.business.mapper.UserFavoriteMapper;
+import com.n1etzsch3.recipe.business.service.RecipePurgeService;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.common.constant.RecipeConstants;
+import com.n1etzsch3.recipe.framework.config.SchedulingConfig;
+import com.n1etzsch3.recipe.framework.service.DistributedLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 菜谱数据定时清理任务
  * 清理过期的草稿和被驳回的菜谱，释放数据库空间
+ * 候选菜谱按主键键集分块读取，每块在独立的短事务中按集合删除；按每块耗时自适应调整块大小并在块间暂停，
+ * 进度检查点保存在 Redis，中断后下次执行（或应用启动时）从检查点继续；
+ * 同一时间只有一个节点执行，执行锁有效期较短并由心跳续期，节点崩溃后其他节点很快即可接管
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RecipeCleanupTask {
 
+    private static final String FIELD_PHASE = "phase";
+    private static final String FIELD_LAST_ID = "lastId";
+    private static final String FIELD_STARTED_AT = "startedAt";
+
     private final RecipeInfoMapper recipeInfoMapper;
-    private final RecipeIngredientMapper ingredientMapper;
-    private final RecipeStepMapper stepMapper;
-    private final RecipeCommentMapper commentMapper;
-    private final UserFavoriteMapper favoriteMapper;
+    private final RecipePurgeService recipePurgeService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final DistributedLockService lockService;
 
     /**
      * 被驳回菜谱保留天数（默认30天）
@@ -50,73 +68,268 @@ public class RecipeCleanupTask {
     private int draftRetentionDays;
 
     /**
-     * 每天凌晨 3 点执行清理任务
+     * 每块菜谱数的初始值与上下限
      */
-    @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional(rollbackFor = Exception.class)
-    public void cleanup() {
-        log.info("开始执行菜谱数据清理任务...");
+    @Value("${recipe.cleanup.chunk-size:200}")
+    private int initialChunkSize;
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime rejectedThreshold = now.minusDays(rejectedRetentionDays);
-        LocalDateTime draftThreshold = now.minusDays(draftRetentionDays);
+    @Value("${recipe.cleanup.min-chunk-size:20}")
+    private int minChunkSize;
 
-        int rejectedCount = 0;
-        int draftCount = 0;
+    @Value("${recipe.cleanup.max-chunk-size:1000}")
+    private int maxChunkSize;
+
+    /**
+     * 单块删除的目标耗时（毫秒），超过时缩小块，远低于时放大块
+     */
+    @Value("${recipe.cleanup.target-chunk-millis:500}")
+    private long targetChunkMillis;
 
-        // 1. 清理过期的被驳回菜谱
-        List<RecipeInfo> rejectedRecipes = recipeInfoMapper.selectList(
-                new LambdaQueryWrapper<RecipeInfo>()
-                        .eq(RecipeInfo::getStatus, RecipeConstants.STATUS_REJECTED)
-                        .lt(RecipeInfo::getUpdateTime, rejectedThreshold));
+    /**
+     * 块间暂停时间与该块耗时之比，为数据库（及从库复制）留出余量
+     */
+    @Value("${recipe.cleanup.pause-ratio:1.0}")
+    private double pauseRatio;
 
-        for (RecipeInfo recipe : rejectedRecipes) {
-            deleteRecipeWithRelations(recipe.getId());
-            rejectedCount++;
+    /**
+     * 执行锁有效期（毫秒），执行期间每 1/3 有效期续期一次
+     */
+    @Value("${recipe.cleanup.lock-ttl:30000}")
+    private long lockTtlMillis;
+
+    /**
+     * 清理阶段，按顺序执行
+     */
+    private enum Phase {
+        REJECTED(RecipeConstants.STATUS_REJECTED),
+        DRAFT(RecipeConstants.STATUS_DRAFT);
+
+        private final int status;
+
+        Phase(int status) {
+            this.status = status;
         }
+    }
 
-        // 2. 清理过期的草稿菜谱
-        List<RecipeInfo> oldDrafts = recipeInfoMapper.selectList(
-                new LambdaQueryWrapper<RecipeInfo>()
-                        .eq(RecipeInfo::getStatus, RecipeConstants.STATUS_DRAFT)
-                        .lt(RecipeInfo::getUpdateTime, draftThreshold));
+    /**
+     * 清理进度
+     *
+     * @param startedAt 本轮开始时间，保留期限按此计算，续跑时保持不变
+     */
+    private record Checkpoint(Phase phase, long lastId, long startedAt) {
+    }
+
+    private final Map<Phase, Counter> purgedCounters = new EnumMap<>(Phase.class);
+    private final AtomicInteger chunkSize = new AtomicInteger();
+    private Timer chunkTimer;
+
+    @PostConstruct
+    public void init() {
+        chunkSize.set(initialChunkSize);
+        for (Phase phase : Phase.values()) {
+            purgedCounters.put(phase, Counter.builder("recipe.cleanup.purged")
+                    .description("清理删除的菜谱数")
+                    .tag("phase", phase.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        chunkTimer = Timer.builder("recipe.cleanup.chunk")
+                .description("单块清理事务耗时")
+                .register(meterRegistry);
+        Gauge.builder("recipe.cleanup.chunk.size", chunkSize, AtomicInteger::get)
+                .description("当前清理块大小")
+                .register(meterRegistry);
+    }
 
-        for (RecipeInfo recipe : oldDrafts) {
-            deleteRecipeWithRelations(recipe.getId());
-            draftCount++;
+    /**
+     * 上次清理未完成（存在检查点）时，启动后在后台继续
+     * 上次执行的节点崩溃时其执行锁尚未过期，在锁过期前持续重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIfInterrupted() {
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConstants.KEY_CLEANUP_CHECKPOINT))) {
+            return;
         }
+        Thread.ofVirtual().name("recipe-cleanup-resume").start(() -> {
+            long deadline = System.currentTimeMillis() + lockTtlMillis * 2;
+            try {
+                while (Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConstants.KEY_CLEANUP_CHECKPOINT))) {
+                    if (runLocked()) {
+                        return;
+                    }
+                    if (System.currentTimeMillis() >= deadline) {
+                        log.info("菜谱数据清理任务正在其他节点执行，不再尝试续跑");
+                        return;
+                    }
+                    Thread.sleep(renewIntervalMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("续跑菜谱数据清理失败: {}", e.getMessage());
+            }
+        });
+    }
 
-        log.info("菜谱数据清理完成: 驳回菜谱 {} 个, 过期草稿 {} 个", rejectedCount, draftCount);
+    /**
+     * 默认每天凌晨 3 点执行清理任务
+     */
+    @Scheduled(cron = "${recipe.cleanup.cron:0 0 3 * * ?}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void cleanup() {
+        if (!runLocked()) {
+            log.info("菜谱数据清理任务正在其他节点执行，跳过");
+        }
     }
 
     /**
-     * 删除菜谱及其关联数据
+     * 获取执行锁并执行清理，执行期间由心跳线程续期
+     *
+     * @return 是否获得执行锁
      */
-    private void deleteRecipeWithRelations(Long recipeId) {
-        // 删除食材
-        ingredientMapper.delete(
-                new LambdaQueryWrapper<RecipeIngredient>()
-                        .eq(RecipeIngredient::getRecipeId, recipeId));
-
-        // 删除步骤
-        stepMapper.delete(
-                new LambdaQueryWrapper<RecipeStep>()
-                        .eq(RecipeStep::getRecipeId, recipeId));
-
-        // 删除评论
-        commentMapper.delete(
-                new LambdaQueryWrapper<RecipeComment>()
-                        .eq(RecipeComment::getRecipeId, recipeId));
-
-        // 删除收藏记录
-        favoriteMapper.delete(
-                new LambdaQueryWrapper<UserFavorite>()
-                        .eq(UserFavorite::getRecipeId, recipeId));
-
-        // 删除菜谱主记录
-        recipeInfoMapper.deleteById(recipeId);
-
-        log.debug("已删除菜谱及关联数据: recipeId={}", recipeId);
+    private boolean runLocked() {
+        String lockToken = lockService.tryLock(CacheConstants.KEY_CLEANUP_LOCK, lockTtlMillis);
+        if (lockToken == null) {
+            return false;
+        }
+        AtomicBoolean lockLost = new AtomicBoolean();
+        Thread heartbeat = Thread.ofVirtual().name("recipe-cleanup-lock").start(() -> {
+            try {
+                while (!lockLost.get()) {
+                    Thread.sleep(renewIntervalMillis());
+                    try {
+                        if (!lockService.renew(CacheConstants.KEY_CLEANUP_LOCK, lockToken, lockTtlMillis)) {
+                            lockLost.set(true);
+                        }
+                    } catch (Exception e) {
+                        log.warn("清理执行锁续期失败: {}", e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            run(lockLost);
+        } finally {
+            heartbeat.interrupt();
+            lockService.unlock(CacheConstants.KEY_CLEANUP_LOCK, lockToken);
+        }
+        return true;
+    }
+
+    private void run(AtomicBoolean lockLost) {
+        long start = System.currentTimeMillis();
+        try {
+            Checkpoint checkpoint = loadCheckpoint();
+            if (checkpoint == null) {
+                checkpoint = new Checkpoint(Phase.REJECTED, 0, start);
+                log.info("开始执行菜谱数据清理任务...");
+            } else {
+                log.info("从检查点继续菜谱数据清理: phase={}, lastId={}", checkpoint.phase(), checkpoint.lastId());
+            }
+
+            Map<Phase, Long> purged = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                if (phase.ordinal() < checkpoint.phase().ordinal()) {
+                    continue;
+                }
+                long afterId = phase == checkpoint.phase() ? checkpoint.lastId() : 0;
+                purged.put(phase, purgePhase(phase, afterId, checkpoint.startedAt(), lockLost));
+            }
+            stringRedisTemplate.delete(CacheConstants.KEY_CLEANUP_CHECKPOINT);
+
+            log.info("菜谱数据清理完成: 驳回菜谱 {} 个, 过期草稿 {} 个, 耗时 {}ms",
+                    purged.getOrDefault(Phase.REJECTED, 0L), purged.getOrDefault(Phase.DRAFT, 0L),
+                    System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("菜谱数据清理被中断，下次执行时从检查点继续");
+        } catch (Exception e) {
+            log.error("菜谱数据清理失败，下次执行时从检查点继续", e);
+        }
+    }
+
+    private long renewIntervalMillis() {
+        return Math.max(lockTtlMillis / 3, 1);
+    }
+
+    /**
+     * 按主键顺序分块清理一个阶段
+     *
+     * @return 删除的菜谱数
+     */
+    private long purgePhase(Phase phase, long afterId, long startedAt, AtomicBoolean lockLost)
+            throws InterruptedException {
+        LocalDateTime threshold = LocalDateTime.ofInstant(Instant.ofEpochMilli(startedAt), ZoneId.systemDefault())
+                .minusDays(phase == Phase.REJECTED ? rejectedRetentionDays : draftRetentionDays);
+        long total = 0;
+        long lastId = afterId;
+        while (true) {
+            if (lockLost.get()) {
+                throw new IllegalStateException("执行锁已失效，停止清理");
+            }
+            // 键集分页：只读主键，(status, id) 索引有序扫描
+            List<Long> ids = recipeInfoMapper.selectList(new LambdaQueryWrapper<RecipeInfo>()
+                    .select(RecipeInfo::getId)
+                    .eq(RecipeInfo::getStatus, phase.status)
+                    .lt(RecipeInfo::getUpdateTime, threshold)
+                    .gt(RecipeInfo::getId, lastId)
+                    .orderByAsc(RecipeInfo::getId)
+                    .last("LIMIT " + chunkSize.get()))
+                    .stream().map(RecipeInfo::getId).toList();
+            if (ids.isEmpty()) {
+                return total;
+            }
+
+            long chunkStart = System.nanoTime();
+            int deleted = recipePurgeService.purge(ids, phase.status, threshold);
+            long elapsedNanos = System.nanoTime() - chunkStart;
+            chunkTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            purgedCounters.get(phase).increment(deleted);
+            total += deleted;
+
+            lastId = ids.get(ids.size() - 1);
+            saveCheckpoint(new Checkpoint(phase, lastId, startedAt));
+            throttle(Duration.ofNanos(elapsedNanos));
+        }
+    }
+
+    /**
+     * 按本块耗时调整块大小，并暂停与耗时成比例的时间
+     */
+    private void throttle(Duration elapsed) throws InterruptedException {
+        long millis = elapsed.toMillis();
+        int current = chunkSize.get();
+        if (millis > targetChunkMillis) {
+            chunkSize.set(Math.max(minChunkSize, current / 2));
+        } else if (millis < targetChunkMillis / 2) {
+            chunkSize.set(Math.min(maxChunkSize, current + current / 2 + 1));
+        }
+        long pause = (long) (millis * pauseRatio);
+        if (pause > 0) {
+            Thread.sleep(pause);
+        }
+    }
+
+    private Checkpoint loadCheckpoint() {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(CacheConstants.KEY_CLEANUP_CHECKPOINT);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        try {
+            return new Checkpoint(Phase.valueOf(String.valueOf(fields.get(FIELD_PHASE))),
+                    Long.parseLong(String.valueOf(fields.get(FIELD_LAST_ID))),
+                    Long.parseLong(String.valueOf(fields.get(FIELD_STARTED_AT))));
+        } catch (Exception e) {
+            log.warn("清理检查点无效，重新开始: {}", fields);
+            return null;
+        }
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint) {
+        stringRedisTemplate.opsForHash().putAll(CacheConstants.KEY_CLEANUP_CHECKPOINT, Map.of(
+                FIELD_PHASE, checkpoint.phase().name(),
+                FIELD_LAST_ID, String.valueOf(checkpoint.lastId()),
+                FIELD_STARTED_AT, String.valueOf(checkpoint.startedAt())));
     }
 
     /**
@@ -0,0 +1,89 @@
+package com.n1etzsch3.recipe.business.task;
+
+import com.n1etzsch3.recipe.business.service.RecipeStatsService;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.framework.config.SchedulingConfig;
+import com.n1etzsch3.recipe.framework.service.DistributedLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 菜谱计数对账任务
+ * 计数随业务事务增减，历史数据、手工改库或异常路径可能产生偏差，定期按明细表修正
+ * 同一时间只有一个节点执行；执行期间后台线程定期续期执行锁，锁失效时在下一批开始前停止
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecipeStatsReconcileTask {
+
+    private final RecipeStatsService recipeStatsService;
+    private final DistributedLockService lockService;
+
+    /**
+     * 执行锁有效期（毫秒），执行期间每 1/3 有效期续期一次
+     */
+    @Value("${recipe.counter.reconcile-lock-ttl:30000}")
+    private long lockTtlMillis;
+
+    /**
+     * 计数表为空（首次部署）时在后台立即构建一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (recipeStatsService.isEmpty()) {
+            Thread.ofVirtual().name("recipe-stats-init").start(this::reconcile);
+        }
+    }
+
+    /**
+     * 默认每天凌晨 3:30 执行（在菜谱清理任务之后）
+     */
+    @Scheduled(cron = "${recipe.counter.reconcile-cron:0 30 3 * * ?}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void reconcile() {
+        String lockToken = lockService.tryLock(CacheConstants.KEY_RECIPE_STATS_RECONCILE_LOCK, lockTtlMillis);
+        if (lockToken == null) {
+            log.info("菜谱计数对账任务正在其他节点执行，跳过");
+            return;
+        }
+        AtomicBoolean lockLost = new AtomicBoolean();
+        long renewInterval = Math.max(lockTtlMillis / 3, 1);
+        Thread heartbeat = Thread.ofVirtual().name("recipe-stats-reconcile-lock").start(() -> {
+            try {
+                while (!lockLost.get()) {
+                    Thread.sleep(renewInterval);
+                    try {
+                        if (!lockService.renew(CacheConstants.KEY_RECIPE_STATS_RECONCILE_LOCK, lockToken,
+                                lockTtlMillis)) {
+                            lockLost.set(true);
+                        }
+                    } catch (Exception e) {
+                        log.warn("计数对账执行锁续期失败: {}", e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        try {
+            recipeStatsService.reconcile(lockLost::get);
+        } catch (IllegalStateException e) {
+            log.warn("菜谱计数对账中止: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("菜谱计数对账失败", e);
+        } finally {
+            heartbeat.interrupt();
+            lockService.unlock(CacheConstants.KEY_RECIPE_STATS_RECONCILE_LOCK, lockToken);
+        }
+        log.info("菜谱计数对账任务结束: 耗时 {}ms", System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,101 @@
+package com.n1etzsch3.recipe.business.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SensitiveWordMatcherTest {
+
+    @Test
+    void reportsOverlappingMatchesInEndOrder() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("he", "she", "his", "hers"));
+
+        assertThat(scan(matcher, "ushers")).containsExactly("she@1-4", "he@2-4", "hers@2-6");
+    }
+
+    @Test
+    void reportsNestedMatches() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("中国", "中国人", "国人"));
+
+        assertThat(scan(matcher, "我是中国人")).containsExactly("中国@2-4", "中国人@2-5", "国人@3-5");
+    }
+
+    @Test
+    void followsFailureLinksAfterPartialMatch() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("abcd", "bce"));
+
+        assertThat(scan(matcher, "abce")).containsExactly("bce@1-4");
+    }
+
+    @Test
+    void foldsFullWidthAndCaseWithOriginalOffsets() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("ABC", "a b"));
+
+        assertThat(scan(matcher, "xＡｂＣy")).containsExactly("ABC@1-4");
+        assertThat(scan(matcher, "A　B")).containsExactly("a b@0-3");
+    }
+
+    @Test
+    void ignoresBlankAndFoldedDuplicateWords() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(Arrays.asList("Foo", "ｆｏｏ", " ", null, "  bar "));
+
+        assertThat(matcher.size()).isEqualTo(2);
+        assertThat(scan(matcher, "foo bar")).containsExactly("Foo@0-3", "bar@4-7");
+    }
+
+    @Test
+    void emptyDictionaryMatchesNothing() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of());
+
+        assertThat(matcher.size()).isZero();
+        assertThat(scan(matcher, "anything")).isEmpty();
+        assertThat(scan(SensitiveWordMatcher.compile(List.of("a")), "")).isEmpty();
+    }
+
+    @Test
+    void agreesWithBruteForceOnRandomInput() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            Set<String> words = new LinkedHashSet<>();
+            int wordCount = 1 + random.nextInt(20);
+            for (int i = 0; i < wordCount; i++) {
+                words.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, random.nextInt(60));
+            SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(words);
+
+            List<String> expected = new ArrayList<>();
+            for (int end = 1; end <= text.length(); end++) {
+                for (String word : words) {
+                    int start = end - word.length();
+                    if (start >= 0 && text.startsWith(word, start)) {
+                        expected.add(word + "@" + start + "-" + end);
+                    }
+                }
+            }
+            assertThat(scan(matcher, text)).as("words=%s, text=%s", words, text)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static List<String> scan(SensitiveWordMatcher matcher, String text) {
+        List<String> hits = new ArrayList<>();
+        matcher.scan(text, (start, end, word) -> hits.add(word + "@" + start + "-" + end));
+        return hits;
+    }
+
+    private static String randomText(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,40 @@
+package com.n1etzsch3.recipe.business.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlScannerTest {
+
+    @Test
+    void findsUrlUpToWhitespace() {
+        assertThat(scan("访问 https://example.com/a?b=1 获取")).containsExactly("https://example.com/a?b=1@3-28");
+    }
+
+    @Test
+    void findsEveryUrl() {
+        assertThat(scan("http://a.cn www.b.cn")).containsExactly("http://a.cn@0-11", "www.b.cn@12-20");
+    }
+
+    @Test
+    void matchesPrefixIgnoringCaseAndWidth() {
+        assertThat(scan("WWW.Example.COM")).containsExactly("WWW.Example.COM@0-15");
+        assertThat(scan("ｈｔｔｐ://x.cn")).containsExactly("ｈｔｔｐ://x.cn@0-11");
+    }
+
+    @Test
+    void ignoresBarePrefix() {
+        assertThat(scan("http:// x")).isEmpty();
+        assertThat(scan("结尾是 www.")).isEmpty();
+        assertThat(scan("what when")).isEmpty();
+    }
+
+    private static List<String> scan(String text) {
+        List<String> hits = new ArrayList<>();
+        UrlScanner.scan(text, (start, end, url) -> hits.add(url + "@" + start + "-" + end));
+        return hits;
+    }
+}
@@ -19,6 +19,17 @@ public class CacheConstants {
     public static final String KEY_USER_INFO = KEY_PREFIX + "user:info:";
     public static final String KEY_RECIPE_DETAIL = KEY_PREFIX + "recipe:detail:";
     public static final String KEY_RECIPE = KEY_PREFIX + "recipe:";
+    public static final String KEY_VIEW_COUNT = KEY_PREFIX + "recipe:view:";
+    public static final String KEY_ACTIVE_USERS = KEY_PREFIX + "stats:active:";
+    public static final String KEY_SENSITIVE_WORD_VERSION = KEY_PREFIX + "sensitive:version";
+    public static final String KEY_WS_ROUTE = KEY_PREFIX + "ws:route:";
+    public static final String KEY_WS_NODES = KEY_PREFIX + "ws:nodes"; // ZSET：节点ID → 存活过期时间（毫秒）
+    public static final String KEY_NOTIFY_INBOX = KEY_PREFIX + "notify:inbox:"; // Hash：seq 收件箱序号，unread 未读数
+    public static final String KEY_CLEANUP_CHECKPOINT = KEY_PREFIX + "cleanup:checkpoint"; // Hash：phase 阶段，lastId 已处理到的菜谱ID，startedAt 本轮开始时间
+    public static final String KEY_CLEANUP_LOCK = KEY_PREFIX + "cleanup:lock";
+    public static final String KEY_DASHBOARD_RECONCILE_LOCK = KEY_PREFIX + "dashboard:reconcile:lock";
+    public static final String KEY_RECIPE_STATS_RECONCILE_LOCK = KEY_PREFIX + "recipe:stats:reconcile:lock";
+    public static final String KEY_DASHBOARD_FLUSH_ACK = KEY_PREFIX + "dashboard:flush:ack:"; // 后接广播请求ID，值为已确认节点数
 
     // ==================== 安全相关 ====================
     public static final String KEY_TOKEN_BLACKLIST = KEY_PREFIX + "token:blacklist:";
@@ -34,10 +45,33 @@ public class CacheConstants {
     public static final long TTL_RECIPE = 7200; // 2小时
     public static final long TTL_HOT_RECIPES = 600; // 10分钟
     public static final long TTL_CAPTCHA = 300; // 5分钟
+    public static final long TTL_VIEW_COUNT = 86400; // 24小时（每次浏览续期）
+    public static final long TTL_ACTIVE_USERS = 8 * 86400; // 8天（周活跃统计需要最近7天）
+    public static final long TTL_WS_ROUTE = 180; // 3分钟（每次心跳续期，前端每60秒发一次心跳）
+
+    // ==================== Redis Pub/Sub ====================
+    /** 菜谱详情本地缓存失效广播频道 */
+    public static final String CHANNEL_RECIPE_EVICT = KEY_PREFIX + "channel:recipe:evict";
+    /** 敏感词词典变更广播频道（消息体为新版本号） */
+    public static final String CHANNEL_SENSITIVE_WORD_RELOAD = KEY_PREFIX + "channel:sensitive:reload";
+    /** WebSocket 节点定向投递频道前缀（后接节点ID） */
+    public static final String CHANNEL_WS_NODE = KEY_PREFIX + "channel:ws:node:";
+    /** WebSocket 全节点广播频道 */
+    public static final String CHANNEL_WS_BROADCAST = KEY_PREFIX + "channel:ws:broadcast";
+    /** WebSocket 在线状态变化批量同步频道 */
+    public static final String CHANNEL_WS_PRESENCE = KEY_PREFIX + "channel:ws:presence";
+    /** 管理员名单变更广播频道（消息体为变更的用户ID数组） */
+    public static final String CHANNEL_ADMIN_ROLE_CHANGED = KEY_PREFIX + "channel:admin:role";
+    /** Token 注销广播频道（消息体为 jti） */
+    public static final String CHANNEL_TOKEN_REVOKED = KEY_PREFIX + "channel:token:revoked";
+    /** 仪表盘统计增量写入广播频道（消息体为请求ID，各节点写入后确认） */
+    public static final String CHANNEL_DASHBOARD_FLUSH = KEY_PREFIX + "channel:dashboard:flush";
 
     // ==================== Redis Streams ====================
     /** 菜谱发布处理队列 */
     public static final String STREAM_RECIPE_PUBLISH = KEY_PREFIX + "stream:recipe:publish";
+    /** 菜谱发布处理死信队列（超过重试次数的消息） */
+    public static final String STREAM_RECIPE_PUBLISH_DLQ = STREAM_RECIPE_PUBLISH + ":dlq";
     /** 消费者组名称 */
     public static final String STREAM_GROUP_RECIPE = "recipe-processor-group";
     /** 消费者名称前缀 */
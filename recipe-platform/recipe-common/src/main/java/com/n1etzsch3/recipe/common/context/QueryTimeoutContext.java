@@ -0,0 +1,24 @@
+package com.n1etzsch3.recipe.common.context;
+
+/**
+ * 当前线程的 SQL 执行截止时间
+ * 设置后，本线程执行的每条语句都会带上按剩余时间计算的语句超时，超时由数据库驱动取消查询
+ */
+public class QueryTimeoutContext {
+    private static final ThreadLocal<Long> DEADLINE_HOLDER = new ThreadLocal<>();
+
+    /**
+     * @param deadlineMillis 截止时间（毫秒时间戳）
+     */
+    public static void set(long deadlineMillis) {
+        DEADLINE_HOLDER.set(deadlineMillis);
+    }
+
+    public static Long getDeadline() {
+        return DEADLINE_HOLDER.get();
+    }
+
+    public static void remove() {
+        DEADLINE_HOLDER.remove();
+    }
+}
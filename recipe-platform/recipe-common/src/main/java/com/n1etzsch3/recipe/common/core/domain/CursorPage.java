@@ -0,0 +1,49 @@
+package com.n1etzsch3.recipe.common.core.domain;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果（无限滚动列表使用，不执行 OFFSET 与 COUNT）
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 列表数据
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标，为空表示没有更多数据
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+
+    /**
+     * 总记录数（仅首页且显式请求时返回）
+     */
+    private Long total;
+
+    public CursorPage() {
+    }
+
+    /**
+     * @param records    列表数据
+     * @param nextCursor 下一页游标
+     * @param total      总记录数，可为空
+     */
+    public CursorPage(List<T> records, String nextCursor, Long total) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.total = total;
+    }
+}
@@ -0,0 +1,74 @@
+package com.n1etzsch3.recipe.common.core.domain;
+
+import cn.hutool.core.util.StrUtil;
+import com.n1etzsch3.recipe.common.core.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * 分页游标：上一页最后一条记录的排序键与ID，对客户端不透明（Base64 编码）
+ * 排序键为创建时间（毫秒时间戳）、浏览量或检索结果偏移量
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    /** 默认每页条数 */
+    public static final int DEFAULT_SIZE = 10;
+
+    /** 每页最大条数 */
+    public static final int MAX_SIZE = 100;
+
+    private final long key;
+    private final long id;
+
+    public static PageCursor of(LocalDateTime time, Long id) {
+        return new PageCursor(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), id);
+    }
+
+    /**
+     * 排序键按时间解析
+     */
+    public LocalDateTime getTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(key), ZoneId.systemDefault());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，为空表示第一页
+     *
+     * @throws BusinessException 游标格式错误
+     */
+    public static PageCursor decode(String cursor) {
+        if (StrUtil.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new PageCursor(Long.parseLong(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 规范化每页条数
+     */
+    public static int normalizeSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,19 @@
+package com.n1etzsch3.recipe.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户注册事件
+ * 由 system 模块发布，business 模块监听（放在 common 模块避免循环依赖）
+ */
+@Data
+@AllArgsConstructor
+public class UserRegisteredEvent {
+
+    private Long userId;
+
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,17 @@
+package com.n1etzsch3.recipe.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用户角色或状态变更事件
+ * 后台新增、修改用户或变更用户状态后发布，用于刷新内存中的管理员名单
+ */
+@Data
+@AllArgsConstructor
+public class UserRoleChangedEvent {
+
+    private List<Long> userIds;
+}
@@ -1,6 +1,7 @@
 package com.n1etzsch3.recipe.common.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,9 @@ public class JwtUtils {
     // 使用懒加载确保在 dotenv 加载后才初始化密钥
     private static volatile SecretKey key;
 
+    // 解析器线程安全，与密钥一同初始化后复用
+    private static volatile JwtParser parser;
+
     private static SecretKey getKey() {
         if (key == null) {
             synchronized (JwtUtils.class) {
@@ -42,6 +46,17 @@ public class JwtUtils {
         return key;
     }
 
+    private static JwtParser getParser() {
+        if (parser == null) {
+            synchronized (JwtUtils.class) {
+                if (parser == null) {
+                    parser = Jwts.parser().verifyWith(getKey()).build();
+                }
+            }
+        }
+        return parser;
+    }
+
     /**
      * 生成 Token（包含唯一标识 jti）
      * 
@@ -67,9 +82,7 @@ public class JwtUtils {
      */
     public static Claims parseToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getKey())
-                    .build()
+            return getParser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (Exception e) {
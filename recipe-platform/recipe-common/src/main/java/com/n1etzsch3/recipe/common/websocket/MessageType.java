@@ -51,6 +51,11 @@ public enum MessageType {
      */
     COMMENT_LIKED,
 
+    /**
+     * 菜谱被收藏
+     */
+    RECIPE_FAVORITED,
+
     /**
      * 新菜谱待审核（通知管理员）
      */
@@ -72,6 +77,11 @@ public enum MessageType {
      */
     USER_OFFLINE,
 
+    /**
+     * 在线状态差异（一段时间内订阅用户的上线/离线变化合并为一帧；订阅建立时推送一帧 snapshot = true 的全量快照）
+     */
+    PRESENCE_DIFF,
+
     /**
      * 新评论（通知管理员）
      */
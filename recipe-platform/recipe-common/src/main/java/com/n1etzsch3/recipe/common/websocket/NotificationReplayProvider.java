@@ -0,0 +1,28 @@
+package com.n1etzsch3.recipe.common.websocket;
+
+import java.util.List;
+
+/**
+ * 通知补发提供者
+ * WebSocket 连接建立时补发客户端最后收到的序号之后的通知，由业务模块实现
+ *
+ * 放在 common 模块避免 framework 和 business 模块的循环依赖
+ */
+public interface NotificationReplayProvider {
+
+    /**
+     * 用户收件箱当前序号（客户端首次连接时以此为起点）
+     *
+     * @param userId 用户ID
+     */
+    long currentSeq(Long userId);
+
+    /**
+     * 序号大于 lastSeq 的通知，按序号升序
+     *
+     * @param userId  用户ID
+     * @param lastSeq 客户端最后收到的序号
+     * @return 已序列化的消息（JSON字符串）
+     */
+    List<String> replay(Long userId, long lastSeq);
+}
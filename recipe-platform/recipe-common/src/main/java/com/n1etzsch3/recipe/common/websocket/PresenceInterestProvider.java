@@ -0,0 +1,27 @@
+package com.n1etzsch3.recipe.common.websocket;
+
+import java.util.Set;
+
+/**
+ * 在线状态订阅关系提供者
+ * 决定用户连接后接收哪些用户的上线/离线变化，由业务模块实现
+ *
+ * 放在 common 模块避免 framework 和 business 模块的循环依赖
+ */
+public interface PresenceInterestProvider {
+
+    /**
+     * 用户关心在线状态的用户ID（关注的用户与私信会话对象）
+     *
+     * @param userId 用户ID
+     * @return 订阅的用户ID集合
+     */
+    Set<Long> loadInterests(Long userId);
+
+    /**
+     * 是否接收全部用户的在线状态变化（管理员）
+     *
+     * @param userId 用户ID
+     */
+    boolean watchesAll(Long userId);
+}
@@ -56,6 +56,16 @@ public class WebSocketMessage {
      */
     private String imageUrl;
 
+    /**
+     * 附加数据 (如在线状态差异中的上线/离线用户ID列表)
+     */
+    private Object data;
+
+    /**
+     * 收件箱序号（用户内递增），客户端重连时携带最后收到的序号以补发离线期间的通知
+     */
+    private Long seq;
+
     /**
      * 时间戳
      */
@@ -4,7 +4,7 @@ import java.lang.annotation.*;
 
 /**
  * 接口限流注解
- * 基于 Redis 实现的滑动窗口限流
+ * 基于 Redis Lua 脚本实现，单次调用原子完成判定与计数
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -31,6 +31,11 @@ public @interface RateLimit {
      */
     LimitType limitType() default LimitType.IP;
 
+    /**
+     * 限流算法
+     */
+    Algorithm algorithm() default Algorithm.SLIDING_WINDOW;
+
     enum LimitType {
         /**
          * 根据 IP 限流
@@ -45,4 +50,19 @@ public @interface RateLimit {
          */
         GLOBAL
     }
+
+    enum Algorithm {
+        /**
+         * 滑动窗口日志：任意 time 秒内最多 count 次，窗口边界不会出现双倍突发
+         */
+        SLIDING_WINDOW,
+        /**
+         * 令牌桶：桶容量 count，每 time 秒补满，允许积攒的突发
+         */
+        TOKEN_BUCKET,
+        /**
+         * GCRA：按 time/count 的间隔匀速放行，最多允许 count 次突发，每个 key 只占一个字符串
+         */
+        GCRA
+    }
 }
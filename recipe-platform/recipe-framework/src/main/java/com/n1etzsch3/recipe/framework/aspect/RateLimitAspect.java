@@ -4,21 +4,21 @@ import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.common.context.UserContext;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.framework.annotation.RateLimit;
-import jakarta.servlet.http.HttpServletRequest;
+import com.n1etzsch3.recipe.framework.service.ClientIpResolver;
+import com.n1etzsch3.recipe.framework.service.RateLimitService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
-import java.util.concurrent.TimeUnit;
 
 /**
  * 接口限流切面
@@ -29,32 +29,45 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class RateLimitAspect {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RateLimitService rateLimitService;
+    private final ClientIpResolver clientIpResolver;
 
     @Around("@annotation(rateLimit)")
     public Object around(ProceedingJoinPoint point, RateLimit rateLimit) throws Throwable {
         String key = buildKey(point, rateLimit);
-        int count = rateLimit.count();
-        int time = rateLimit.time();
+        RateLimitService.Decision decision = rateLimitService.tryAcquire(key, rateLimit.algorithm(),
+                rateLimit.count(), rateLimit.time());
+        writeHeaders(decision);
 
-        // 获取当前计数
-        Integer current = (Integer) redisTemplate.opsForValue().get(key);
-
-        if (current == null) {
-            // 首次访问，设置计数为1
-            redisTemplate.opsForValue().set(key, 1, time, TimeUnit.SECONDS);
-        } else if (current >= count) {
-            // 超过限制
-            log.warn("接口限流触发: key={}, current={}, limit={}", key, current, count);
+        if (!decision.allowed()) {
+            log.warn("接口限流触发: key={}, limit={}, retryAfterMs={}", key, decision.limit(), decision.retryAfterMs());
             return Result.fail("请求过于频繁，请稍后再试");
-        } else {
-            // 计数加1
-            redisTemplate.opsForValue().increment(key, 1);
         }
 
         return point.proceed();
     }
 
+    /**
+     * 写入剩余额度响应头
+     */
+    private void writeHeaders(RateLimitService.Decision decision) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        HttpServletResponse response = attributes != null ? attributes.getResponse() : null;
+        if (response == null) {
+            return;
+        }
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(toSeconds(decision.resetMs())));
+        if (!decision.allowed()) {
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, toSeconds(decision.retryAfterMs()))));
+        }
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
     /**
      * 构建限流 key
      */
@@ -71,14 +84,17 @@ public class RateLimitAspect {
                 : method.getDeclaringClass().getSimpleName() + ":" + method.getName();
         sb.append(prefix).append(":");
 
+        // 不同算法的存储结构不同，key 中区分算法
+        sb.append(rateLimit.algorithm().name().toLowerCase()).append(":");
+
         // 根据限流类型添加标识
         switch (rateLimit.limitType()) {
             case IP:
-                sb.append(getClientIp());
+                sb.append(clientIpResolver.currentIp());
                 break;
             case USER:
                 Long userId = UserContext.getUserId();
-                sb.append(userId != null ? userId : getClientIp());
+                sb.append(userId != null ? userId : clientIpResolver.currentIp());
                 break;
             case GLOBAL:
                 sb.append("global");
@@ -87,28 +103,4 @@ public class RateLimitAspect {
 
         return sb.toString();
     }
-
-    /**
-     * 获取客户端 IP
-     */
-    private String getClientIp() {
-        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attributes == null) {
-            return "unknown";
-        }
-        HttpServletRequest request = attributes.getRequest();
-
-        String ip = request.getHeader("X-Forwarded-For");
-        if (!StringUtils.hasText(ip) || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        if (!StringUtils.hasText(ip) || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 处理多级代理
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip != null ? ip : "unknown";
-    }
 }
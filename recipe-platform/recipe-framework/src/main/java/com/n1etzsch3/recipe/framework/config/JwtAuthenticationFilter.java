@@ -2,8 +2,8 @@ package com.n1etzsch3.recipe.framework.config;
 
 import com.n1etzsch3.recipe.common.context.UserContext;
 import com.n1etzsch3.recipe.common.core.domain.LoginUser;
-import com.n1etzsch3.recipe.common.utils.JwtUtils;
 import com.n1etzsch3.recipe.framework.service.TokenBlacklistService;
+import com.n1etzsch3.recipe.framework.service.TokenVerifyService;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -29,17 +29,18 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenVerifyService tokenVerifyService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) && JwtUtils.validateToken(token)) {
+        // 验签结果按 Token 缓存，常见情况下只需一次本地查找
+        Claims claims = StringUtils.hasText(token) ? tokenVerifyService.verify(token) : null;
+        if (claims != null) {
             try {
-                Claims claims = JwtUtils.parseToken(token);
-
-                // 检查 Token 是否在黑名单中
+                // 检查 Token 是否在黑名单中（本地过滤器命中时才查询 Redis）
                 String jti = claims.getId();
                 if (jti != null && tokenBlacklistService.isBlacklisted(jti)) {
                     log.debug("Token已被注销: jti={}", jti);
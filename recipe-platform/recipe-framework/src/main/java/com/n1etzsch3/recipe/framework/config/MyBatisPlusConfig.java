@@ -18,4 +18,12 @@ public class MyBatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         return interceptor;
     }
+
+    /**
+     * 语句超时插件（按线程上设置的截止时间取消慢查询）
+     */
+    @Bean
+    public QueryTimeoutInterceptor queryTimeoutInterceptor() {
+        return new QueryTimeoutInterceptor();
+    }
 }
@@ -0,0 +1,41 @@
+package com.n1etzsch3.recipe.framework.config;
+
+import com.n1etzsch3.recipe.common.context.QueryTimeoutContext;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * 按 {@link QueryTimeoutContext} 的截止时间设置语句超时
+ * 调用方放弃等待后查询仍会占用数据库连接，设置语句超时后由驱动取消执行中的查询并释放连接
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class QueryTimeoutInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Long deadline = QueryTimeoutContext.getDeadline();
+        if (deadline == null) {
+            return invocation.proceed();
+        }
+
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("已超过查询截止时间，不再执行");
+        }
+        Statement statement = (Statement) invocation.proceed();
+        // JDBC 超时以秒为单位，向上取整；不放宽语句自身更短的超时
+        int seconds = (int) Math.ceil(remaining / 1000.0);
+        int current = statement.getQueryTimeout();
+        if (current == 0 || current > seconds) {
+            statement.setQueryTimeout(seconds);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,42 @@
+package com.n1etzsch3.recipe.framework.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 定时任务线程池配置
+ * 高频的短任务（心跳写入、收件箱写回、在线状态广播等）使用默认调度器；
+ * 耗时较长的夜间任务（清理、对账、索引重建）通过 {@code @Scheduled(scheduler = BATCH_SCHEDULER)} 使用独立调度器，
+ * 避免长任务占用线程导致心跳过期、节点被判定下线
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String BATCH_SCHEDULER = "batchTaskScheduler";
+
+    /**
+     * 默认调度器（未指定 scheduler 的 @Scheduled 任务）
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${recipe.scheduling.pool-size:4}") int poolSize) {
+        return newScheduler(poolSize, "recipe-scheduling-");
+    }
+
+    /**
+     * 长耗时批处理任务调度器
+     */
+    @Bean(BATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler batchTaskScheduler(@Value("${recipe.scheduling.batch-pool-size:2}") int poolSize) {
+        return newScheduler(poolSize, "recipe-batch-");
+    }
+
+    private static ThreadPoolTaskScheduler newScheduler(int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, poolSize));
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
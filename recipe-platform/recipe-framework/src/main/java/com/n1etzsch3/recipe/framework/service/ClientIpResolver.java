@@ -0,0 +1,89 @@
+package com.n1etzsch3.recipe.framework.service;
+
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.StrUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+/**
+ * 客户端 IP 解析
+ * 只有直连地址属于受信任代理时才读取 X-Forwarded-For / X-Real-IP，并从右向左取第一个非受信任代理的地址，
+ * 客户端无法通过伪造请求头冒充其他 IP（限流、登录准入等按 IP 计数的逻辑依赖此结果）
+ */
+@Slf4j
+@Component
+public class ClientIpResolver {
+
+    public static final String UNKNOWN = "unknown";
+
+    /**
+     * 受信任的反向代理地址（IP 或 IPv4 CIDR）
+     */
+    private final List<String> trustedProxies;
+
+    public ClientIpResolver(@Value("${recipe.security.trusted-proxies:127.0.0.1,::1,0:0:0:0:0:0:0:1}")
+            List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream().map(String::trim).filter(StrUtil::isNotEmpty).toList();
+    }
+
+    /**
+     * 当前请求的客户端 IP，不在请求上下文中时返回 {@link #UNKNOWN}
+     */
+    public String currentIp() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? resolve(attributes.getRequest()) : UNKNOWN;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (StrUtil.isBlank(remote)) {
+            return UNKNOWN;
+        }
+        if (!isTrusted(remote)) {
+            return normalize(remote);
+        }
+
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (StrUtil.isNotBlank(forwarded)) {
+            // 每经过一层代理在末尾追加一个地址，最右侧的非受信任地址即为真实客户端
+            String[] hops = forwarded.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !UNKNOWN.equalsIgnoreCase(hop) && !isTrusted(hop)) {
+                    return normalize(hop);
+                }
+            }
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (StrUtil.isNotBlank(realIp) && !UNKNOWN.equalsIgnoreCase(realIp)) {
+            return normalize(realIp.trim());
+        }
+        return normalize(remote);
+    }
+
+    private boolean isTrusted(String ip) {
+        for (String proxy : trustedProxies) {
+            try {
+                if (proxy.contains("/") ? NetUtil.isInRange(ip, proxy) : proxy.equals(ip)) {
+                    return true;
+                }
+            } catch (Exception e) {
+                log.debug("受信任代理匹配失败: ip={}, proxy={}", ip, proxy);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将 IPv6 本机地址转为 IPv4
+     */
+    private static String normalize(String ip) {
+        return "0:0:0:0:0:0:0:1".equals(ip) || "::1".equals(ip) ? "127.0.0.1" : ip;
+    }
+}
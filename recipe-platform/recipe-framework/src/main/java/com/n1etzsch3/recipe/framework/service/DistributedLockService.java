@@ -0,0 +1,69 @@
+package com.n1etzsch3.recipe.framework.service;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 互斥锁（用于多节点部署时只允许一个节点执行的定时任务）
+ * 加锁时写入随机持有者标识，续期与释放均先比较持有者，不会误操作其他节点在本锁过期后获得的锁
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DistributedLockService {
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 尝试加锁
+     *
+     * @return 持有者标识，锁已被占用时返回 null
+     */
+    public String tryLock(String key, long ttlMillis) {
+        String token = IdUtil.fastSimpleUUID();
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(key, token, ttlMillis, TimeUnit.MILLISECONDS);
+        return Boolean.TRUE.equals(locked) ? token : null;
+    }
+
+    /**
+     * 续期
+     *
+     * @return 是否仍持有锁
+     */
+    public boolean renew(String key, String token, long ttlMillis) {
+        Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(ttlMillis));
+        return renewed != null && renewed == 1;
+    }
+
+    /**
+     * 释放锁（仅当仍由本持有者持有时）
+     */
+    public void unlock(String key, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+        } catch (Exception e) {
+            log.warn("释放锁失败，等待自动过期: key={}, error={}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.n1etzsch3.recipe.framework.service;
+
+import com.n1etzsch3.recipe.common.core.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 密码哈希服务
+ * BCrypt 计算在固定大小（默认等于 CPU 核数）的专用线程池中执行，等待队列有界，队列已满或同一 IP
+ * 排队的请求过多时立即拒绝（429），登录洪峰只会占用该线程池，不会拖垮浏览等读请求
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashService {
+
+    public static final int TOO_MANY_REQUESTS = 429;
+    private static final String BUSY_MESSAGE = "登录请求过多，请稍后再试";
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    private final ClientIpResolver clientIpResolver;
+
+    /**
+     * 哈希线程数，0 表示使用 CPU 核数
+     */
+    @Value("${recipe.password-hash.threads:0}")
+    private int threads;
+
+    /**
+     * 等待队列容量
+     */
+    @Value("${recipe.password-hash.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * 同一 IP 同时排队或执行的最大请求数
+     */
+    @Value("${recipe.password-hash.per-ip-limit:4}")
+    private int perIpLimit;
+
+    /**
+     * 请求线程等待结果的最长时间（毫秒）
+     */
+    @Value("${recipe.password-hash.timeout:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    // IP → 排队或执行中的请求数
+    private final Map<String, Integer> inFlightByIp = new ConcurrentHashMap<>();
+
+    /**
+     * 单类操作的排队耗时与计算耗时
+     */
+    private record HashTimers(Timer queue, Timer hash) {
+    }
+
+    private HashTimers matchesTimers;
+    private HashTimers encodeTimers;
+    private Counter queueFullRejections;
+    private Counter perIpRejections;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        matchesTimers = timers("matches");
+        encodeTimers = timers("encode");
+        queueFullRejections = Counter.builder("auth.password.hash.rejected").tag("reason", "queue_full")
+                .register(meterRegistry);
+        perIpRejections = Counter.builder("auth.password.hash.rejected").tag("reason", "per_ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queued", executor, e -> e.getQueue().size())
+                .description("等待执行的密码哈希任务数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校验明文密码与哈希是否匹配
+     *
+     * @throws BusinessException 线程池繁忙时抛出，错误码 429
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimers, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 计算密码哈希
+     *
+     * @throws BusinessException 线程池繁忙时抛出，错误码 429
+     */
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimers, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    private HashTimers timers(String operation) {
+        return new HashTimers(
+                Timer.builder("auth.password.hash.queue").description("密码哈希任务排队耗时")
+                        .tag("operation", operation).register(meterRegistry),
+                Timer.builder("auth.password.hash.duration").description("密码哈希计算耗时")
+                        .tag("operation", operation).register(meterRegistry));
+    }
+
+    private <T> T submit(HashTimers timers, Callable<T> task) {
+        String ip = clientIpResolver.currentIp();
+        if (!acquire(ip)) {
+            perIpRejections.increment();
+            log.warn("密码哈希请求被拒绝（单 IP 并发超限）: ip={}", ip);
+            throw new BusinessException(BUSY_MESSAGE, TOO_MANY_REQUESTS);
+        }
+        try {
+            long submittedAt = System.nanoTime();
+            Future<T> future;
+            try {
+                future = executor.submit(() -> {
+                    long startedAt = System.nanoTime();
+                    timers.queue().record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        return task.call();
+                    } finally {
+                        timers.hash().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                queueFullRejections.increment();
+                log.warn("密码哈希请求被拒绝（队列已满）: ip={}", ip);
+                throw new BusinessException(BUSY_MESSAGE, TOO_MANY_REQUESTS);
+            }
+            return await(future);
+        } finally {
+            release(ip);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusinessException(BUSY_MESSAGE, TOO_MANY_REQUESTS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(BUSY_MESSAGE, TOO_MANY_REQUESTS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private boolean acquire(String ip) {
+        boolean[] admitted = new boolean[1];
+        inFlightByIp.compute(ip, (k, count) -> {
+            int current = count != null ? count : 0;
+            admitted[0] = current < perIpLimit;
+            return admitted[0] ? current + 1 : count;
+        });
+        return admitted[0];
+    }
+
+    private void release(String ip) {
+        inFlightByIp.computeIfPresent(ip, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,184 @@
+package com.n1etzsch3.recipe.framework.service;
+
+import cn.hutool.core.util.IdUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.n1etzsch3.recipe.framework.annotation.RateLimit;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 限流引擎
+ * 每种算法对应一个 Lua 脚本，判定与计数在一次 EVALSHA 中原子完成，时间取 Redis 服务器时间以保证各节点一致；
+ * 被拒绝的 key 在本地记录可再次放行的时间，此前的请求直接在本节点拒绝，不再访问 Redis
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    /**
+     * 脚本统一返回 {是否放行, 剩余次数, 需等待毫秒数, 额度完全恢复的毫秒数}
+     */
+    private static final String NOW_MS = """
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            """;
+
+    /**
+     * 令牌桶：Hash 保存剩余令牌与上次补充时间，按经过的时间连续补充
+     * ARGV: 容量, 补满周期（毫秒）
+     */
+    private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(NOW_MS + """
+            local capacity = tonumber(ARGV[1])
+            local period = tonumber(ARGV[2])
+            local rate = capacity / period
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            local allowed = 0
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            else
+                wait = math.ceil((1 - tokens) / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], period)
+            return {allowed, math.floor(tokens), wait, math.ceil((capacity - tokens) / rate)}
+            """, List.class);
+
+    /**
+     * 滑动窗口日志：有序集合记录窗口内每次放行的时间
+     * ARGV: 次数上限, 窗口（毫秒）, 唯一成员标识
+     */
+    private static final DefaultRedisScript<List> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>(NOW_MS + """
+            local limit = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            local used = redis.call('ZCARD', KEYS[1])
+            if used < limit then
+                redis.call('ZADD', KEYS[1], now, ARGV[3])
+                redis.call('PEXPIRE', KEYS[1], window)
+                return {1, limit - used - 1, 0, window}
+            end
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            local newest = redis.call('ZRANGE', KEYS[1], -1, -1, 'WITHSCORES')
+            return {0, 0, tonumber(oldest[2]) + window - now, tonumber(newest[2]) + window - now}
+            """, List.class);
+
+    /**
+     * GCRA：只保存理论到达时间（TAT），每次放行推后一个间隔，超出容忍范围即拒绝
+     * ARGV: 次数上限, 周期（毫秒）
+     */
+    private static final DefaultRedisScript<List> GCRA_SCRIPT = new DefaultRedisScript<>(NOW_MS + """
+            local limit = tonumber(ARGV[1])
+            local period = tonumber(ARGV[2])
+            local interval = period / limit
+            local tat = math.max(tonumber(redis.call('GET', KEYS[1])) or now, now)
+            local newTat = tat + interval
+            local allowAt = newTat - period
+            if now < allowAt then
+                return {0, 0, math.ceil(allowAt - now), math.ceil(tat - now)}
+            end
+            local reset = math.ceil(newTat - now)
+            redis.call('SET', KEYS[1], tostring(newTat), 'PX', reset)
+            return {1, math.floor((period - (newTat - now)) / interval), 0, reset}
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 本地拒绝记录的最大 key 数
+     */
+    @Value("${recipe.rate-limit.local-max-keys:100000}")
+    private long localMaxKeys;
+
+    // 限流 key → 本节点已知的可再次放行时间（毫秒时间戳）
+    private Cache<String, Long> blockedUntil;
+    // 滑动窗口成员唯一标识：节点前缀 + 自增序号
+    private final String memberPrefix = IdUtil.fastSimpleUUID().substring(0, 8) + ":";
+    private final AtomicLong memberSeq = new AtomicLong();
+
+    /**
+     * 限流判定结果
+     *
+     * @param limit        次数上限
+     * @param remaining    剩余次数
+     * @param retryAfterMs 被拒绝时需等待的毫秒数
+     * @param resetMs      额度完全恢复的毫秒数
+     */
+    public record Decision(boolean allowed, int limit, long remaining, long retryAfterMs, long resetMs) {
+    }
+
+    @PostConstruct
+    public void init() {
+        blockedUntil = Caffeine.newBuilder()
+                .maximumSize(localMaxKeys)
+                .expireAfterWrite(1, TimeUnit.HOURS)
+                .build();
+    }
+
+    /**
+     * 尝试获取一次调用许可
+     *
+     * @param key           限流 key
+     * @param algorithm     限流算法
+     * @param count         周期内允许的次数
+     * @param periodSeconds 周期（秒）
+     */
+    public Decision tryAcquire(String key, RateLimit.Algorithm algorithm, int count, int periodSeconds) {
+        long now = System.currentTimeMillis();
+        Long until = blockedUntil.getIfPresent(key);
+        if (until != null) {
+            if (until > now) {
+                return new Decision(false, count, 0, until - now, until - now);
+            }
+            blockedUntil.invalidate(key);
+        }
+
+        long periodMs = periodSeconds * 1000L;
+        List<?> result;
+        try {
+            result = switch (algorithm) {
+                case TOKEN_BUCKET -> stringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                        String.valueOf(count), String.valueOf(periodMs));
+                case SLIDING_WINDOW -> stringRedisTemplate.execute(SLIDING_WINDOW_SCRIPT, List.of(key),
+                        String.valueOf(count), String.valueOf(periodMs),
+                        memberPrefix + memberSeq.incrementAndGet());
+                case GCRA -> stringRedisTemplate.execute(GCRA_SCRIPT, List.of(key),
+                        String.valueOf(count), String.valueOf(periodMs));
+            };
+        } catch (Exception e) {
+            // Redis 不可用时放行，避免限流组件拖垮业务
+            log.warn("限流判定失败，放行请求: key={}, error={}", key, e.getMessage());
+            return new Decision(true, count, count, 0, 0);
+        }
+        if (result == null || result.size() < 4) {
+            return new Decision(true, count, count, 0, 0);
+        }
+
+        boolean allowed = toLong(result.get(0)) == 1;
+        long retryAfterMs = Math.max(0, toLong(result.get(2)));
+        if (!allowed && retryAfterMs > 0) {
+            blockedUntil.put(key, now + retryAfterMs);
+        }
+        return new Decision(allowed, count, Math.max(0, toLong(result.get(1))), retryAfterMs,
+                Math.max(0, toLong(result.get(3))));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
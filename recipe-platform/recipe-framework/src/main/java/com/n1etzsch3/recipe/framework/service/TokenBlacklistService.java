@@ -1,16 +1,31 @@
 package com.n1etzsch3.recipe.framework.service;
 
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Token 黑名单服务
  * 用于实现 JWT Token 注销功能
+ * 各节点在本地维护已注销 jti 的布隆过滤器（启动时与定时从 Redis 重建，注销时通过 Pub/Sub 同步），
+ * 仅当过滤器命中时才查询 Redis 确认
  */
 @Slf4j
 @Service
@@ -18,6 +33,8 @@ import java.util.concurrent.TimeUnit;
 public class TokenBlacklistService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
 
     /**
      * 默认黑名单过期时间（秒）
@@ -25,6 +42,31 @@ public class TokenBlacklistService {
      */
     private static final long DEFAULT_BLACKLIST_TTL = 86400; // 24小时
 
+    /**
+     * 过滤器预计容纳的已注销 Token 数（实际数量更多时按实际数量扩容）
+     */
+    @Value("${recipe.security.revoked-filter-capacity:100000}")
+    private long filterCapacity;
+
+    /**
+     * 过滤器期望误判率
+     */
+    @Value("${recipe.security.revoked-filter-fpp:0.01}")
+    private double filterFpp;
+
+    // 过滤器不可用（尚未从 Redis 加载成功）时为 null，此时每次都查询 Redis
+    private volatile RevokedTokenFilter filter;
+    // 重建期间收到的注销，切换过滤器时补入
+    private volatile Set<String> rebuilding;
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> markRevoked(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CacheConstants.CHANNEL_TOKEN_REVOKED));
+        rebuildFilter();
+    }
+
     /**
      * 将 Token 加入黑名单
      * 
@@ -38,6 +80,13 @@ public class TokenBlacklistService {
         String key = CacheConstants.KEY_TOKEN_BLACKLIST + jti;
         long ttl = expireSeconds > 0 ? expireSeconds : DEFAULT_BLACKLIST_TTL;
         redisTemplate.opsForValue().set(key, "1", ttl, TimeUnit.SECONDS);
+        markRevoked(jti);
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_TOKEN_REVOKED, jti);
+        } catch (Exception e) {
+            // 其他节点将在下次重建过滤器时同步
+            log.warn("广播Token注销失败: jti={}, error={}", jti, e.getMessage());
+        }
         log.info("Token已加入黑名单: jti={}", jti);
     }
 
@@ -58,8 +107,59 @@ public class TokenBlacklistService {
         if (jti == null || jti.isEmpty()) {
             return false;
         }
+        RevokedTokenFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
         String key = CacheConstants.KEY_TOKEN_BLACKLIST + jti;
         Boolean exists = redisTemplate.hasKey(key);
         return Boolean.TRUE.equals(exists);
     }
+
+    /**
+     * 定时从 Redis 重建过滤器，移除已过期的注销记录并兜底丢失的广播
+     */
+    @Scheduled(fixedDelayString = "${recipe.security.revoked-filter-rebuild-interval:600000}",
+            initialDelayString = "${recipe.security.revoked-filter-rebuild-interval:600000}")
+    public synchronized void rebuildFilter() {
+        // 扫描开始前写入 Redis 的注销一定会被扫描到，扫描期间广播的注销先记录下来
+        Set<String> revokedDuringScan = ConcurrentHashMap.newKeySet();
+        rebuilding = revokedDuringScan;
+        try {
+            List<String> jtis = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions()
+                    .match(CacheConstants.KEY_TOKEN_BLACKLIST + "*")
+                    .count(1000)
+                    .build();
+            int prefixLength = CacheConstants.KEY_TOKEN_BLACKLIST.length();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    jtis.add(cursor.next().substring(prefixLength));
+                }
+            }
+            // 实际数量接近容量时扩容，保持误判率
+            RevokedTokenFilter next = new RevokedTokenFilter(Math.max(filterCapacity, jtis.size() * 2L), filterFpp);
+            jtis.forEach(next::put);
+            revokedDuringScan.forEach(next::put);
+            filter = next;
+            // 切换前最后一刻到达的注销
+            revokedDuringScan.forEach(next::put);
+            log.debug("已注销Token过滤器重建完成: count={}", jtis.size());
+        } catch (Exception e) {
+            log.warn("已注销Token过滤器重建失败，继续使用当前过滤器: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void markRevoked(String jti) {
+        Set<String> pending = rebuilding;
+        if (pending != null) {
+            pending.add(jti);
+        }
+        RevokedTokenFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.n1etzsch3.recipe.framework.service;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.n1etzsch3.recipe.common.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token 验签缓存
+ * 验签通过的 Claims 按 Token 摘要缓存至 Token 过期，同一 Token 的后续请求无需重复验签；
+ * 无效 Token 不缓存
+ */
+@Slf4j
+@Service
+public class TokenVerifyService {
+
+    /**
+     * 最多缓存的 Token 数
+     */
+    @Value("${recipe.security.token-cache-size:50000}")
+    private long cacheSize;
+
+    private Cache<String, Claims> verified;
+
+    @PostConstruct
+    public void init() {
+        verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        long remainingMillis = expiration != null
+                                ? expiration.getTime() - System.currentTimeMillis()
+                                : 0;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 验证 Token 并返回 Claims
+     *
+     * @return 无效或已过期时返回 null
+     */
+    public Claims verify(String token) {
+        String digest = DigestUtil.sha256Hex(token);
+        Claims claims = verified.getIfPresent(digest);
+        if (claims != null) {
+            return claims;
+        }
+        try {
+            claims = JwtUtils.parseToken(token);
+        } catch (Exception e) {
+            return null;
+        }
+        verified.put(digest, claims);
+        return claims;
+    }
+}
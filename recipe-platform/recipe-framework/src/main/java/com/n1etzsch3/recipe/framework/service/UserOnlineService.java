@@ -1,106 +1,166 @@
 package com.n1etzsch3.recipe.framework.service;
 
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
-import com.n1etzsch3.recipe.framework.websocket.WebSocketSessionManager;
+import com.n1etzsch3.recipe.framework.websocket.WebSocketMessageRouter;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 用户在线状态服务
- * 使用 Redis 跟踪用户在线状态
+ * 在线用户保存在一个 Redis 有序集合中，分数为在线状态的过期时间（毫秒时间戳）；
+ * 心跳先在本节点合并，定时以一次管道 ZADD 批量写入，过期成员由 ZREMRANGEBYSCORE 统一清理，
+ * 在线查询均为单条命令，与在线人数无关
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserOnlineService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final WebSocketSessionManager sessionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WebSocketMessageRouter messageRouter;
 
     private static final String KEY_ONLINE_USERS = CacheConstants.KEY_PREFIX + "online:users";
-    private static final String KEY_USER_SESSION = CacheConstants.KEY_PREFIX + "session:";
     private static final long HEARTBEAT_TIMEOUT = 120; // 120秒无心跳视为离线（前端每60秒发一次心跳）
     private static final long LOGIN_SESSION_TIMEOUT = 24 * 60 * 60; // 登录会话超时 (24小时，与 Token 一致)
 
     /**
-     * 用户登录时设置在线状态（使用较长 TTL，与 Token 有效期一致）
+     * 单条 ZADD 的最大成员数
+     */
+    @Value("${recipe.websocket.heartbeat-batch-size:1000}")
+    private int heartbeatBatchSize;
+
+    // 待写入的心跳（用户ID → 在线状态过期时间），同一周期内同一用户只保留最新一次
+    private final Map<Long, Long> pendingHeartbeats = new ConcurrentHashMap<>();
+
+    /**
+     * 用户登录时设置在线状态（使用较长有效期，与 Token 有效期一致）
      */
     public void online(Long userId) {
-        String key = KEY_USER_SESSION + userId;
-        redisTemplate.opsForValue().set(key, System.currentTimeMillis(), LOGIN_SESSION_TIMEOUT, TimeUnit.SECONDS);
-        redisTemplate.opsForSet().add(KEY_ONLINE_USERS, userId.toString());
+        pendingHeartbeats.remove(userId);
+        stringRedisTemplate.opsForZSet().add(KEY_ONLINE_USERS, userId.toString(),
+                System.currentTimeMillis() + LOGIN_SESSION_TIMEOUT * 1000);
         log.info("用户上线: userId={}", userId);
     }
 
     /**
-     * 用户心跳/刷新在线状态
+     * 用户心跳/刷新在线状态，下一写入周期生效（周期远小于心跳超时）
      */
     public void heartbeat(Long userId) {
-        String key = KEY_USER_SESSION + userId;
-        redisTemplate.opsForValue().set(key, System.currentTimeMillis(), HEARTBEAT_TIMEOUT, TimeUnit.SECONDS);
-        redisTemplate.opsForSet().add(KEY_ONLINE_USERS, userId.toString());
+        pendingHeartbeats.put(userId, System.currentTimeMillis() + HEARTBEAT_TIMEOUT * 1000);
     }
 
     /**
      * 用户下线
      */
     public void offline(Long userId) {
-        String key = KEY_USER_SESSION + userId;
-        redisTemplate.delete(key);
-        redisTemplate.opsForSet().remove(KEY_ONLINE_USERS, userId.toString());
+        pendingHeartbeats.remove(userId);
+        stringRedisTemplate.opsForZSet().remove(KEY_ONLINE_USERS, userId.toString());
     }
 
     /**
      * 检查用户是否在线
      */
     public boolean isOnline(Long userId) {
-        String key = KEY_USER_SESSION + userId;
-        return redisTemplate.hasKey(key);
+        if (pendingHeartbeats.containsKey(userId)) {
+            return true;
+        }
+        Double expireAt = stringRedisTemplate.opsForZSet().score(KEY_ONLINE_USERS, userId.toString());
+        return expireAt != null && expireAt > System.currentTimeMillis();
     }
 
     /**
      * 获取所有在线用户ID
      */
     public Set<Long> getOnlineUserIds() {
-        Set<Object> members = redisTemplate.opsForSet().members(KEY_ONLINE_USERS);
-        if (members == null || members.isEmpty()) {
-            return Collections.emptySet();
-        }
-
-        Set<Long> result = new HashSet<>();
-        for (Object member : members) {
-            try {
-                Long userId = Long.parseLong(member.toString());
-                // 双重检查是否真的在线
-                if (isOnline(userId)) {
-                    result.add(userId);
-                } else {
-                    // 清理过期数据
-                    redisTemplate.opsForSet().remove(KEY_ONLINE_USERS, member);
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .rangeByScore(KEY_ONLINE_USERS, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        Set<Long> result = new HashSet<>(pendingHeartbeats.keySet());
+        if (members != null) {
+            for (String member : members) {
+                try {
+                    result.add(Long.parseLong(member));
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid user ID in online set: {}", member);
                 }
-            } catch (NumberFormatException e) {
-                log.warn("Invalid user ID in online set: {}", member);
             }
         }
         return result;
     }
 
     /**
-     * 批量检查用户在线状态
+     * 批量检查用户在线状态（一次 ZMSCORE）
      */
     public Map<Long, Boolean> batchCheckOnline(List<Long> userIds) {
         Map<Long, Boolean> result = new HashMap<>();
-        for (Long userId : userIds) {
-            result.put(userId, isOnline(userId));
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+        Object[] members = userIds.stream().map(String::valueOf).toArray();
+        List<Double> scores = stringRedisTemplate.opsForZSet().score(KEY_ONLINE_USERS, members);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            Double expireAt = scores != null ? scores.get(i) : null;
+            result.put(userId, pendingHeartbeats.containsKey(userId) || (expireAt != null && expireAt > now));
         }
         return result;
     }
 
+    /**
+     * 定时批量写入本节点积累的心跳，并清理已过期的在线状态
+     */
+    @Scheduled(fixedDelayString = "${recipe.websocket.heartbeat-flush-interval:3000}")
+    public void flushHeartbeats() {
+        List<Map.Entry<Long, Long>> batch = new ArrayList<>(pendingHeartbeats.size());
+        for (Map.Entry<Long, Long> entry : pendingHeartbeats.entrySet()) {
+            // 取出后再次到达的心跳留到下一周期
+            if (pendingHeartbeats.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        byte[] key = KEY_ONLINE_USERS.getBytes(StandardCharsets.UTF_8);
+        long now = System.currentTimeMillis();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                Set<Tuple> tuples = new HashSet<>();
+                for (Map.Entry<Long, Long> entry : batch) {
+                    tuples.add(new DefaultTuple(entry.getKey().toString().getBytes(StandardCharsets.UTF_8),
+                            entry.getValue().doubleValue()));
+                    if (tuples.size() >= heartbeatBatchSize) {
+                        connection.zSetCommands().zAdd(key, tuples);
+                        tuples = new HashSet<>();
+                    }
+                }
+                if (!tuples.isEmpty()) {
+                    connection.zSetCommands().zAdd(key, tuples);
+                }
+                connection.zSetCommands().zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                return null;
+            });
+            if (!batch.isEmpty()) {
+                log.debug("在线心跳写入完成: users={}", batch.size());
+            }
+        } catch (Exception e) {
+            // 写入失败的心跳放回，下一周期重试（期间已有更新的保留更新值）
+            for (Map.Entry<Long, Long> entry : batch) {
+                pendingHeartbeats.merge(entry.getKey(), entry.getValue(), Math::max);
+            }
+            log.warn("在线心跳批量写入失败: users={}, error={}", batch.size(), e.getMessage());
+        }
+    }
+
     /**
      * 踢用户下线
      * 
@@ -108,9 +168,17 @@ public class UserOnlineService {
      */
     public void kickUser(Long userId) {
         log.info("管理员踢用户下线: userId={}", userId);
-        // 1. 先关闭 WebSocket 连接（会发送 FORCED_LOGOUT 消息）
-        sessionManager.closeAllSessions(userId, "您已被管理员强制下线");
+        // 1. 先关闭 WebSocket 连接（会发送 FORCED_LOGOUT 消息，用户连接在其他节点时转发到对应节点）
+        messageRouter.closeUser(userId, "您已被管理员强制下线");
         // 2. 清除 Redis 在线状态
         offline(userId);
     }
+
+    /**
+     * 应用关闭前写入缓冲中的心跳
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushHeartbeats();
+    }
 }
@@ -0,0 +1,69 @@
+package com.n1etzsch3.recipe.framework.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocket 发送队列指标
+ */
+class OutboundMetrics {
+
+    private final Timer latency;
+    private final DistributionSummary depth;
+    private final Counter dropped;
+    private final Counter coalesced;
+    private final Counter closed;
+    private final Counter failed;
+    private final AtomicLong queued = new AtomicLong();
+
+    OutboundMetrics(MeterRegistry registry) {
+        latency = Timer.builder("websocket.send.latency")
+                .description("消息入队到发送完成的耗时")
+                .register(registry);
+        depth = DistributionSummary.builder("websocket.send.queue.depth")
+                .description("入队时的会话队列深度")
+                .register(registry);
+        dropped = Counter.builder("websocket.send.overflow").tag("action", "dropped").register(registry);
+        coalesced = Counter.builder("websocket.send.overflow").tag("action", "coalesced").register(registry);
+        closed = Counter.builder("websocket.send.overflow").tag("action", "closed").register(registry);
+        failed = Counter.builder("websocket.send.failed").register(registry);
+        Gauge.builder("websocket.send.queued", queued, AtomicLong::get)
+                .description("全部会话待发送的消息数")
+                .register(registry);
+    }
+
+    void enqueued(int queueDepth) {
+        queued.incrementAndGet();
+        depth.record(queueDepth);
+    }
+
+    void dequeued(int count) {
+        queued.addAndGet(-count);
+    }
+
+    void sent(long enqueuedAt) {
+        latency.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void closed() {
+        closed.increment();
+    }
+
+    void failed() {
+        failed.increment();
+    }
+}
@@ -0,0 +1,35 @@
+package com.n1etzsch3.recipe.framework.websocket;
+
+import java.util.Locale;
+
+/**
+ * 会话发送队列溢出策略
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 丢弃最早的待发送消息
+     */
+    DROP_OLDEST,
+
+    /**
+     * 用新消息替换队列中合并键相同的旧消息，没有可合并的消息时丢弃最早的消息
+     */
+    COALESCE,
+
+    /**
+     * 关闭消费过慢的会话
+     */
+    CLOSE;
+
+    /**
+     * 解析配置值（如 drop-oldest），无法识别时使用 DROP_OLDEST
+     */
+    public static OverflowPolicy from(String value) {
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            return DROP_OLDEST;
+        }
+    }
+}
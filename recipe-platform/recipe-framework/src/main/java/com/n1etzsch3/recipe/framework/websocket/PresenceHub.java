@@ -0,0 +1,440 @@
+package com.n1etzsch3.recipe.framework.websocket;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.common.websocket.MessageType;
+import com.n1etzsch3.recipe.common.websocket.PresenceInterestProvider;
+import com.n1etzsch3.recipe.common.websocket.WebSocketMessage;
+import com.n1etzsch3.recipe.framework.service.UserOnlineService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 在线状态订阅中心
+ * 用户只接收订阅对象（关注的用户、私信会话对象，管理员订阅全部用户）的上线/离线变化；
+ * 状态变化先在本节点合并，按固定间隔批量发布到共享频道，各节点只推送给本节点连接的订阅者，
+ * 每个订阅者每个周期最多收到一帧差异消息，消息量与订阅关系数成正比，而不是与在线人数的平方成正比；
+ * 订阅关系加载完成时先推送一帧全量快照（data.snapshot = true），并补上加载期间已推送过的变化
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceHub {
+
+    private final WebSocketSessionManager sessionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectProvider<PresenceInterestProvider> interestProvider;
+    private final ObjectProvider<UserOnlineService> userOnlineService;
+
+    /**
+     * 加载订阅关系的最大并发数
+     */
+    @Value("${recipe.websocket.presence-load-concurrency:16}")
+    private int loadConcurrency;
+
+    /**
+     * 已推送变化的保留时间（毫秒），应覆盖在线状态写入 Redis 的延迟（心跳批量写入周期 + 发布周期）
+     */
+    @Value("${recipe.websocket.presence-replay-window:10000}")
+    private long replayWindowMs;
+
+    // 订阅者 → 订阅的用户（仅本节点连接的用户）
+    private final Map<Long, Set<Long>> interests = new ConcurrentHashMap<>();
+    // 被订阅的用户 → 本节点的订阅者
+    private final Map<Long, Set<Long>> watchers = new ConcurrentHashMap<>();
+    // 本节点订阅全部用户的订阅者（管理员）
+    private final Set<Long> watchAll = ConcurrentHashMap.newKeySet();
+
+    // 待发布的状态变化（用户ID → 是否在线），同一周期内同一用户只保留最新状态
+    private final Map<Long, Boolean> outbound = new ConcurrentHashMap<>();
+    // 待发布的新增订阅 [订阅者, 被订阅用户]
+    private final Set<List<Long>> outboundWatch = ConcurrentHashMap.newKeySet();
+    // 待发布的订阅关系重新加载
+    private final Set<Long> outboundReload = ConcurrentHashMap.newKeySet();
+    // 集群发布的、待推送给本节点订阅者的状态变化
+    private final Map<Long, Boolean> inbound = new ConcurrentHashMap<>();
+
+    // 最近推送过的状态变化（按推送顺序），新订阅者的快照之后补推其中的变化；仅在 deliverLock 内访问
+    private final ArrayDeque<Batch> journal = new ArrayDeque<>();
+    // 正在加载的订阅关系（加载编号 → 开始时间），保留其开始之后的变化记录
+    private final Map<Long, Long> activeLoads = new ConcurrentHashMap<>();
+    private final AtomicLong loadSequence = new AtomicLong();
+    // 差异推送与新订阅者注册互斥，保证快照先于之后的差异到达
+    private final ReentrantLock deliverLock = new ReentrantLock();
+
+    private final ExecutorService loader = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("presence-loader-", 0).factory());
+    private Semaphore loadPermits;
+
+    /**
+     * 单个订阅者在一个周期内的状态差异
+     */
+    private record Diff(List<Long> online, List<Long> offline) {
+    }
+
+    /**
+     * 一个周期推送的状态变化
+     */
+    private record Batch(long time, Map<Long, Boolean> changes) {
+    }
+
+    @PostConstruct
+    public void init() {
+        loadPermits = new Semaphore(Math.max(1, loadConcurrency));
+        listenerContainer.addMessageListener((message, pattern) -> onPresenceMessage(message),
+                new ChannelTopic(CacheConstants.CHANNEL_WS_PRESENCE));
+    }
+
+    /**
+     * 用户在本节点建立连接，异步加载订阅关系（已加载时忽略）
+     */
+    public void subscribe(Long userId) {
+        if (!interests.containsKey(userId) && !watchAll.contains(userId)) {
+            load(userId);
+        }
+    }
+
+    /**
+     * 用户在本节点已无连接，移除订阅关系
+     */
+    public void unsubscribe(Long userId) {
+        watchAll.remove(userId);
+        Set<Long> targets = interests.remove(userId);
+        if (targets != null) {
+            for (Long target : targets) {
+                unwatch(userId, target);
+            }
+        }
+    }
+
+    /**
+     * 记录用户上线/离线，下一周期合并发布
+     */
+    public void publish(Long userId, boolean online) {
+        outbound.put(userId, online);
+    }
+
+    /**
+     * 新增订阅关系（如关注用户、开始私信会话），订阅者连接在任意节点均生效
+     */
+    public void watch(Long subscriberId, Long targetId) {
+        if (!subscriberId.equals(targetId)) {
+            outboundWatch.add(List.of(subscriberId, targetId));
+        }
+    }
+
+    /**
+     * 订阅关系减少（如取消关注）时重新加载订阅者的订阅关系
+     */
+    public void reload(Long subscriberId) {
+        outboundReload.add(subscriberId);
+    }
+
+    /**
+     * 发布本节点积累的变化，并向本节点订阅者推送集群中的状态差异
+     */
+    @Scheduled(fixedDelayString = "${recipe.websocket.presence-interval:2000}")
+    public void flush() {
+        publishPending();
+        deliverPending();
+    }
+
+    private void publishPending() {
+        Map<Long, Boolean> changes = drain(outbound);
+        List<List<Long>> watches = drain(outboundWatch);
+        List<Long> reloads = drain(outboundReload);
+        if (changes.isEmpty() && watches.isEmpty() && reloads.isEmpty()) {
+            return;
+        }
+        JSONObject body = new JSONObject();
+        body.set("online", changes.entrySet().stream().filter(Map.Entry::getValue).map(Map.Entry::getKey).toList());
+        body.set("offline", changes.entrySet().stream().filter(e -> !e.getValue()).map(Map.Entry::getKey).toList());
+        body.set("watch", watches);
+        body.set("reload", reloads);
+        try {
+            // 本节点同样订阅该频道，发布成功后由监听器统一处理
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_WS_PRESENCE, body.toString());
+        } catch (Exception e) {
+            log.warn("在线状态变化发布失败，仅推送本节点: {}", e.getMessage());
+            apply(body);
+        }
+    }
+
+    private void onPresenceMessage(Message message) {
+        try {
+            apply(JSONUtil.parseObj(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("处理在线状态变化消息失败: {}", e.getMessage());
+        }
+    }
+
+    private void apply(JSONObject body) {
+        for (Long userId : longs(body.getJSONArray("online"))) {
+            inbound.put(userId, Boolean.TRUE);
+        }
+        for (Long userId : longs(body.getJSONArray("offline"))) {
+            inbound.put(userId, Boolean.FALSE);
+        }
+        JSONArray watches = body.getJSONArray("watch");
+        if (watches != null) {
+            for (int i = 0; i < watches.size(); i++) {
+                JSONArray pair = watches.getJSONArray(i);
+                Long subscriberId = pair.getLong(0);
+                Long targetId = pair.getLong(1);
+                Set<Long> targets = interests.get(subscriberId);
+                if (targets != null && targets.add(targetId)) {
+                    watchers.compute(targetId, (k, set) -> {
+                        Set<Long> result = set != null ? set : ConcurrentHashMap.newKeySet();
+                        result.add(subscriberId);
+                        return result;
+                    });
+                }
+            }
+        }
+        for (Long subscriberId : longs(body.getJSONArray("reload"))) {
+            if (interests.containsKey(subscriberId) || watchAll.contains(subscriberId)) {
+                load(subscriberId);
+            }
+        }
+    }
+
+    private void deliverPending() {
+        deliverLock.lock();
+        try {
+            Map<Long, Boolean> changes = drain(inbound);
+            long now = System.currentTimeMillis();
+            if (!changes.isEmpty()) {
+                journal.addLast(new Batch(now, changes));
+            }
+            trimJournal(now);
+            if (!changes.isEmpty()) {
+                deliver(changes);
+            }
+        } finally {
+            deliverLock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃早于保留时间、且不再被正在加载的订阅关系需要的变化记录
+     */
+    private void trimJournal(long now) {
+        long keepFrom = now;
+        for (Long started : activeLoads.values()) {
+            keepFrom = Math.min(keepFrom, started);
+        }
+        keepFrom -= replayWindowMs;
+        while (!journal.isEmpty() && journal.peekFirst().time() < keepFrom) {
+            journal.pollFirst();
+        }
+    }
+
+    private void deliver(Map<Long, Boolean> changes) {
+        Map<Long, Diff> diffs = new HashMap<>();
+        for (Map.Entry<Long, Boolean> change : changes.entrySet()) {
+            Set<Long> subscribers = watchers.get(change.getKey());
+            if (subscribers != null) {
+                for (Long subscriberId : subscribers) {
+                    addChange(diffs, subscriberId, change.getKey(), change.getValue());
+                }
+            }
+            for (Long subscriberId : watchAll) {
+                addChange(diffs, subscriberId, change.getKey(), change.getValue());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Diff> entry : diffs.entrySet()) {
+            WebSocketMessage message = WebSocketMessage.builder()
+                    .type(MessageType.PRESENCE_DIFF)
+                    .data(Map.of("online", entry.getValue().online(), "offline", entry.getValue().offline()))
+                    .timestamp(now)
+                    .build();
+            if (!sessionManager.sendMessage(entry.getKey(), JSONUtil.toJsonStr(message))
+                    && !sessionManager.isOnline(entry.getKey())) {
+                // 连接关闭时未能清理的订阅关系
+                unsubscribe(entry.getKey());
+            }
+        }
+        log.debug("在线状态差异推送完成: changes={}, subscribers={}", changes.size(), diffs.size());
+    }
+
+    /**
+     * 读取订阅对象的当前在线状态（订阅全部用户时只返回在线用户）
+     */
+    private Map<Long, Boolean> readSnapshot(boolean all, Set<Long> targets) {
+        UserOnlineService onlineService = userOnlineService.getIfAvailable();
+        if (onlineService == null) {
+            return new HashMap<>();
+        }
+        if (all) {
+            Map<Long, Boolean> snapshot = new HashMap<>();
+            onlineService.getOnlineUserIds().forEach(id -> snapshot.put(id, Boolean.TRUE));
+            return snapshot;
+        }
+        return targets.isEmpty() ? new HashMap<>() : onlineService.batchCheckOnline(new ArrayList<>(targets));
+    }
+
+    /**
+     * 推送全量快照：在快照上依次叠加加载开始（再往前保留时间）以来推送过的变化，
+     * 覆盖加载期间没有订阅者可推送的变化，以及尚未写入 Redis 的状态（须在 deliverLock 内调用）
+     */
+    private void sendSnapshot(Long userId, boolean all, Set<Long> targets, Map<Long, Boolean> snapshot, long started) {
+        Map<Long, Boolean> state = new HashMap<>(snapshot);
+        long replayFrom = started - replayWindowMs;
+        for (Batch batch : journal) {
+            if (batch.time() < replayFrom) {
+                continue;
+            }
+            batch.changes().forEach((id, online) -> {
+                if (all || targets.contains(id)) {
+                    state.put(id, online);
+                }
+            });
+        }
+        state.remove(userId);
+
+        Diff diff = new Diff(new ArrayList<>(), new ArrayList<>());
+        state.forEach((id, online) -> (online ? diff.online() : diff.offline()).add(id));
+        WebSocketMessage message = WebSocketMessage.builder()
+                .type(MessageType.PRESENCE_DIFF)
+                .data(Map.of("online", diff.online(), "offline", diff.offline(), "snapshot", true))
+                .timestamp(LocalDateTime.now())
+                .build();
+        sessionManager.sendMessage(userId, JSONUtil.toJsonStr(message));
+    }
+
+    private static void addChange(Map<Long, Diff> diffs, Long subscriberId, Long userId, boolean online) {
+        if (subscriberId.equals(userId)) {
+            return;
+        }
+        Diff diff = diffs.computeIfAbsent(subscriberId, k -> new Diff(new ArrayList<>(), new ArrayList<>()));
+        (online ? diff.online() : diff.offline()).add(userId);
+    }
+
+    /**
+     * 后台加载订阅关系并替换原有关系，并发数受限以免重连高峰压垮数据库
+     */
+    private void load(Long userId) {
+        PresenceInterestProvider provider = interestProvider.getIfAvailable();
+        if (provider == null) {
+            return;
+        }
+        // 从此刻起推送的变化都保留，直到加载完成
+        long loadId = loadSequence.incrementAndGet();
+        long started = System.currentTimeMillis();
+        activeLoads.put(loadId, started);
+        loader.execute(() -> {
+            try {
+                loadPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activeLoads.remove(loadId);
+                return;
+            }
+            try {
+                boolean all = provider.watchesAll(userId);
+                Set<Long> own = new HashSet<>(all ? Set.of() : provider.loadInterests(userId));
+                own.remove(userId);
+                // 快照在注册前读取，读取之后的变化由变化记录补上
+                Map<Long, Boolean> snapshot = readSnapshot(all, own);
+                // 加载期间用户可能已断开
+                if (!sessionManager.isOnline(userId)) {
+                    return;
+                }
+                deliverLock.lock();
+                try {
+                    unsubscribe(userId);
+                    if (all) {
+                        watchAll.add(userId);
+                    } else {
+                        Set<Long> targets = ConcurrentHashMap.newKeySet();
+                        targets.addAll(own);
+                        interests.put(userId, targets);
+                        for (Long target : targets) {
+                            watchers.compute(target, (k, set) -> {
+                                Set<Long> result = set != null ? set : ConcurrentHashMap.newKeySet();
+                                result.add(userId);
+                                return result;
+                            });
+                        }
+                    }
+                    sendSnapshot(userId, all, own, snapshot, started);
+                } finally {
+                    deliverLock.unlock();
+                }
+            } catch (Exception e) {
+                log.warn("加载在线状态订阅关系失败: userId={}, error={}", userId, e.getMessage());
+            } finally {
+                activeLoads.remove(loadId);
+                loadPermits.release();
+            }
+        });
+    }
+
+    private void unwatch(Long subscriberId, Long targetId) {
+        watchers.computeIfPresent(targetId, (k, set) -> {
+            set.remove(subscriberId);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static List<Long> longs(JSONArray array) {
+        return array != null ? array.toList(Long.class) : List.of();
+    }
+
+    private static <K, V> Map<K, V> drain(Map<K, V> source) {
+        Map<K, V> batch = new HashMap<>();
+        for (Map.Entry<K, V> entry : source.entrySet()) {
+            // 取出后被更新的值留到下一周期
+            if (source.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return batch;
+    }
+
+    private static <T> List<T> drain(Set<T> source) {
+        List<T> batch = new ArrayList<>();
+        for (T item : source) {
+            if (source.remove(item)) {
+                batch.add(item);
+            }
+        }
+        return batch;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.n1etzsch3.recipe.framework.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 跨节点转发的 WebSocket 消息
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutedMessage {
+
+    /** 推送消息 */
+    public static final String TYPE_SEND = "send";
+    /** 关闭用户全部会话（踢下线） */
+    public static final String TYPE_CLOSE = "close";
+    /** 推送给节点上的全部在线用户 */
+    public static final String TYPE_BROADCAST = "broadcast";
+
+    private String type;
+
+    /** 目标用户ID，广播时为空 */
+    private Long userId;
+
+    /** 消息内容（JSON 字符串），关闭会话时为下线原因 */
+    private String payload;
+
+    /** 发送队列溢出时的合并键，可为空 */
+    private String coalesceKey;
+
+    public RoutedMessage(String type, Long userId, String payload) {
+        this(type, userId, payload, null);
+    }
+}
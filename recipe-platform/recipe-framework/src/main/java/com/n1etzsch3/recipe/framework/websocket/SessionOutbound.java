@@ -0,0 +1,218 @@
+package com.n1etzsch3.recipe.framework.websocket;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 会话发送队列
+ * 调用方只负责入队，队列通过异步发送逐条写出（同一会话同时只有一条消息在发送），全程无监视器锁；
+ * 队列长度有上限，溢出时按 {@link OverflowPolicy} 处理
+ */
+@Slf4j
+class SessionOutbound implements SendHandler {
+
+    private final Session session;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final OutboundMetrics metrics;
+
+    private final ConcurrentLinkedDeque<Frame> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // 是否有消息正在发送
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Frame inFlight;
+
+    /**
+     * 待发送消息
+     *
+     * @param key        合并键，为空表示不可合并
+     * @param closeAfter 发送完成后关闭会话的原因，为空表示不关闭
+     */
+    private record Frame(String text, String key, long enqueuedAt, CloseReason closeAfter) {
+    }
+
+    SessionOutbound(Session session, int capacity, OverflowPolicy policy, OutboundMetrics metrics) {
+        this.session = session;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 消息入队
+     *
+     * @return 是否已入队（会话已关闭或因溢出被关闭时返回 false）
+     */
+    boolean offer(String text, String key) {
+        return offer(new Frame(text, key, System.nanoTime(), null));
+    }
+
+    /**
+     * 发送最后一条消息后关闭会话
+     */
+    void closeAfter(String text, CloseReason reason) {
+        offer(new Frame(text, null, System.nanoTime(), reason));
+    }
+
+    private boolean offer(Frame frame) {
+        if (closed.get() || !session.isOpen()) {
+            return false;
+        }
+        int depth = size.incrementAndGet();
+        if (depth > capacity && !makeRoom(frame)) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.addLast(frame);
+        metrics.enqueued(depth);
+        drain();
+        return true;
+    }
+
+    /**
+     * 队列已满时按溢出策略腾出位置
+     *
+     * @return 新消息是否可以入队
+     */
+    private boolean makeRoom(Frame frame) {
+        switch (policy) {
+            case CLOSE -> {
+                metrics.closed();
+                log.warn("WebSocket 会话消费过慢，关闭连接: sessionId={}, queued={}", session.getId(), size.get());
+                discard();
+                close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Slow consumer"));
+                return false;
+            }
+            case COALESCE -> {
+                if (frame.key() != null && removeSameKey(frame.key())) {
+                    metrics.coalesced();
+                    return true;
+                }
+                dropOldest();
+                return true;
+            }
+            default -> {
+                dropOldest();
+                return true;
+            }
+        }
+    }
+
+    private boolean removeSameKey(String key) {
+        Iterator<Frame> it = queue.iterator();
+        while (it.hasNext()) {
+            Frame queued = it.next();
+            if (Objects.equals(queued.key(), key) && queue.removeFirstOccurrence(queued)) {
+                size.decrementAndGet();
+                metrics.dequeued(1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void dropOldest() {
+        // 关闭会话的消息不丢弃
+        Frame oldest = queue.peekFirst();
+        if (oldest != null && oldest.closeAfter() == null && queue.removeFirstOccurrence(oldest)) {
+            size.decrementAndGet();
+            metrics.dequeued(1);
+            metrics.dropped();
+        }
+    }
+
+    /**
+     * 没有正在发送的消息时取出队首发送；发送完成回调中继续发送下一条
+     */
+    private void drain() {
+        while (sending.compareAndSet(false, true)) {
+            Frame frame = queue.pollFirst();
+            if (frame == null) {
+                sending.set(false);
+                // 释放标记与入队并发时，由本线程继续发送
+                if (queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            size.decrementAndGet();
+            metrics.dequeued(1);
+            if (write(frame)) {
+                return;
+            }
+            sending.set(false);
+        }
+    }
+
+    /**
+     * @return 是否已提交异步发送（提交成功后由 {@link #onResult} 释放发送标记）
+     */
+    private boolean write(Frame frame) {
+        if (!session.isOpen()) {
+            discard();
+            return false;
+        }
+        inFlight = frame;
+        try {
+            session.getAsyncRemote().sendText(frame.text(), this);
+            return true;
+        } catch (RuntimeException e) {
+            inFlight = null;
+            metrics.failed();
+            log.debug("WebSocket 消息发送失败: sessionId={}, error={}", session.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void onResult(SendResult result) {
+        Frame frame = inFlight;
+        inFlight = null;
+        if (frame != null) {
+            metrics.sent(frame.enqueuedAt());
+            if (frame.closeAfter() != null) {
+                close(frame.closeAfter());
+            }
+        }
+        if (!result.isOK()) {
+            metrics.failed();
+            log.debug("WebSocket 消息发送失败: sessionId={}, error={}", session.getId(),
+                    result.getException() != null ? result.getException().getMessage() : null);
+        }
+        sending.set(false);
+        drain();
+    }
+
+    /**
+     * 清空待发送消息（会话移除时调用）
+     */
+    void discard() {
+        int count = 0;
+        while (queue.pollFirst() != null) {
+            count++;
+        }
+        size.addAndGet(-count);
+        metrics.dequeued(count);
+    }
+
+    private void close(CloseReason reason) {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                session.close(reason);
+            } catch (IOException e) {
+                log.debug("关闭会话失败: sessionId={}", session.getId());
+            }
+        }
+    }
+}
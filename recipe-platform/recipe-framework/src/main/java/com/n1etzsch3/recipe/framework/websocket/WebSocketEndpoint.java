@@ -3,6 +3,7 @@ package com.n1etzsch3.recipe.framework.websocket;
 import cn.hutool.json.JSONUtil;
 import com.n1etzsch3.recipe.common.utils.JwtUtils;
 import com.n1etzsch3.recipe.common.websocket.MessageType;
+import com.n1etzsch3.recipe.common.websocket.NotificationReplayProvider;
 import com.n1etzsch3.recipe.common.websocket.WebSocketMessage;
 import jakarta.websocket.*;
 import jakarta.websocket.server.ServerEndpoint;
@@ -28,14 +29,27 @@ public class WebSocketEndpoint {
      * 由于 @ServerEndpoint 不是 Spring 管理的 Bean，需要静态注入
      */
     private static WebSocketSessionManager sessionManager;
+    private static WebSocketMessageRouter messageRouter;
+    private static PresenceHub presenceHub;
     private static com.n1etzsch3.recipe.framework.service.UserOnlineService userOnlineService;
     private static com.n1etzsch3.recipe.common.websocket.WebSocketUserStatusCallback userStatusCallback;
+    private static NotificationReplayProvider replayProvider;
 
     @Autowired
     public void setSessionManager(WebSocketSessionManager manager) {
         WebSocketEndpoint.sessionManager = manager;
     }
 
+    @Autowired
+    public void setMessageRouter(WebSocketMessageRouter router) {
+        WebSocketEndpoint.messageRouter = router;
+    }
+
+    @Autowired
+    public void setPresenceHub(PresenceHub hub) {
+        WebSocketEndpoint.presenceHub = hub;
+    }
+
     @Autowired
     public void setUserOnlineService(com.n1etzsch3.recipe.framework.service.UserOnlineService service) {
         WebSocketEndpoint.userOnlineService = service;
@@ -46,6 +60,11 @@ public class WebSocketEndpoint {
         WebSocketEndpoint.userStatusCallback = callback;
     }
 
+    @Autowired(required = false)
+    public void setReplayProvider(NotificationReplayProvider provider) {
+        WebSocketEndpoint.replayProvider = provider;
+    }
+
     /**
      * 当前会话的用户ID
      */
@@ -83,26 +102,41 @@ public class WebSocketEndpoint {
                 return;
             }
 
-            // 注册用户会话
-            sessionManager.register(userId, session);
+            // 注册用户会话并登记所在节点
+            messageRouter.register(userId, session);
+            // 加载在线状态订阅关系（关注的用户与私信会话对象）
+            presenceHub.subscribe(userId);
             // 更新 Redis 在线状态
             if (userOnlineService != null) {
                 userOnlineService.heartbeat(userId);
             }
-            // 广播用户上线状态给管理员（通过回调）
+            // 发布用户上线状态给订阅者（通过回调）
             if (userStatusCallback != null) {
                 // 昵称可选，通过回调实现类获取
                 userStatusCallback.onUserOnline(userId, null);
             }
 
-            // 发送连接成功消息
+            // 发送连接成功消息，附带收件箱当前序号（客户端首次连接时作为补发起点）
             WebSocketMessage welcomeMsg = WebSocketMessage.builder()
                     .type(MessageType.CONNECTED)
                     .title("连接成功")
                     .content("欢迎使用菜谱分享平台")
+                    .seq(replayProvider != null ? replayProvider.currentSeq(userId) : null)
                     .timestamp(LocalDateTime.now())
                     .build();
-            session.getBasicRemote().sendText(JSONUtil.toJsonStr(welcomeMsg));
+            sessionManager.send(session, JSONUtil.toJsonStr(welcomeMsg));
+
+            // 补发客户端最后收到的序号之后的通知
+            Long lastSeq = parseLastSeq(params.get("lastSeq"));
+            if (replayProvider != null && lastSeq != null) {
+                List<String> missed = replayProvider.replay(userId, lastSeq);
+                for (String json : missed) {
+                    sessionManager.send(session, json);
+                }
+                if (!missed.isEmpty()) {
+                    log.info("WebSocket 补发离线通知: userId={}, lastSeq={}, count={}", userId, lastSeq, missed.size());
+                }
+            }
 
         } catch (Exception e) {
             log.error("WebSocket 连接异常", e);
@@ -122,15 +156,13 @@ public class WebSocketEndpoint {
 
         // 处理心跳
         if ("ping".equalsIgnoreCase(message)) {
-            try {
-                // 更新 Redis 在线状态（刷新 TTL）
-                if (userOnlineService != null && userId != null) {
-                    userOnlineService.heartbeat(userId);
-                }
-                session.getBasicRemote().sendText("pong");
-            } catch (IOException e) {
-                log.error("发送心跳响应失败", e);
+            // 更新 Redis 在线状态（刷新 TTL）
+            if (userOnlineService != null && userId != null) {
+                userOnlineService.heartbeat(userId);
+                messageRouter.refresh(userId);
             }
+            // 与推送消息共用发送队列，避免并发写入同一会话
+            sessionManager.send(session, "pong");
         }
         // 可以在这里扩展其他消息类型的处理
     }
@@ -142,13 +174,16 @@ public class WebSocketEndpoint {
     public void onClose(Session session) {
         if (userId != null) {
             try {
-                sessionManager.remove(userId, session);
-                // 检查是否还有其他会话，如果没有则标记离线
+                // 检查集群中是否还有其他会话，如果没有则标记离线
+                boolean connected = messageRouter.remove(userId, session);
                 if (!sessionManager.isOnline(userId)) {
+                    presenceHub.unsubscribe(userId);
+                }
+                if (!connected) {
                     if (userOnlineService != null) {
                         userOnlineService.offline(userId);
                     }
-                    // 广播用户离线状态给管理员（通过回调）
+                    // 发布用户离线状态给订阅者（通过回调）
                     if (userStatusCallback != null) {
                         userStatusCallback.onUserOffline(userId);
                     }
@@ -175,9 +210,12 @@ public class WebSocketEndpoint {
 
         if (userId != null) {
             try {
-                sessionManager.remove(userId, session);
-                // 检查是否还有其他会话，如果没有则标记离线
-                if (!sessionManager.isOnline(userId) && userOnlineService != null) {
+                // 检查集群中是否还有其他会话，如果没有则标记离线
+                boolean connected = messageRouter.remove(userId, session);
+                if (!sessionManager.isOnline(userId)) {
+                    presenceHub.unsubscribe(userId);
+                }
+                if (!connected && userOnlineService != null) {
                     userOnlineService.offline(userId);
                 }
             } catch (Exception e) {
@@ -187,6 +225,17 @@ public class WebSocketEndpoint {
         }
     }
 
+    private Long parseLastSeq(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(values.get(0));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * 关闭会话的辅助方法
      */
@@ -0,0 +1,480 @@
+package com.n1etzsch3.recipe.framework.websocket;
+
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebSocket 集群消息路由
+ * 用户连接所在节点登记在 Redis（userId → 节点ID 集合），推送时本节点会话直接发送，
+ * 其他节点的消息按目标节点合并后通过该节点专属频道批量发布；全局广播与组播使用共享频道。
+ * 各节点定时在存活表（ZSET：节点ID → 过期时间）中续期，读取路由时剔除已过期（崩溃）节点的登记
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebSocketMessageRouter {
+
+    private final WebSocketSessionManager sessionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 消息合并等待时间（毫秒），同一目标节点在此期间的消息合并为一次发布
+     */
+    @Value("${recipe.websocket.route-linger:5}")
+    private long lingerMs;
+
+    /**
+     * 单次发布的最大消息数
+     */
+    @Value("${recipe.websocket.route-batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 节点存活续期间隔（毫秒），超过 3 个间隔未续期的节点视为已下线
+     */
+    @Value("${recipe.websocket.node-heartbeat-interval:10000}")
+    private long nodeHeartbeatMs;
+
+    /**
+     * 当前节点ID
+     */
+    @Getter
+    private final String nodeId = NetUtil.getLocalHostName() + "-" + RuntimeUtil.getPid() + "-" + IdUtil.nanoId(6);
+
+    // 目标节点 → 待发布消息
+    private final Map<String, Outbox> outboxes = new ConcurrentHashMap<>();
+    // 节点ID → 存活过期时间（毫秒时间戳），每次续期时从 Redis 刷新；不在表中的节点视为新启动的节点
+    private volatile Map<String, Long> nodeExpiry = Map.of();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("ws-route-flusher").factory());
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) -> onNodeMessage(message),
+                new ChannelTopic(CacheConstants.CHANNEL_WS_NODE + nodeId));
+        listenerContainer.addMessageListener((message, pattern) -> onBroadcastMessage(message),
+                new ChannelTopic(CacheConstants.CHANNEL_WS_BROADCAST));
+        heartbeatNode();
+        log.info("WebSocket 路由已启动: nodeId={}", nodeId);
+    }
+
+    /**
+     * 续期本节点存活记录，并刷新各节点的存活状态
+     */
+    @Scheduled(fixedDelayString = "${recipe.websocket.node-heartbeat-interval:10000}")
+    public void heartbeatNode() {
+        long now = System.currentTimeMillis();
+        try {
+            stringRedisTemplate.opsForZSet().add(CacheConstants.KEY_WS_NODES, nodeId, now + nodeHeartbeatMs * 3);
+            // 过期节点保留一段时间，期间仍可识别其残留路由
+            stringRedisTemplate.opsForZSet().removeRangeByScore(CacheConstants.KEY_WS_NODES, 0,
+                    now - TimeUnit.DAYS.toMillis(1));
+            Set<ZSetOperations.TypedTuple<String>> nodes =
+                    stringRedisTemplate.opsForZSet().rangeWithScores(CacheConstants.KEY_WS_NODES, 0, -1);
+            Map<String, Long> expiry = new HashMap<>();
+            if (nodes != null) {
+                for (ZSetOperations.TypedTuple<String> node : nodes) {
+                    if (node.getValue() != null && node.getScore() != null) {
+                        expiry.put(node.getValue(), node.getScore().longValue());
+                    }
+                }
+            }
+            nodeExpiry = expiry;
+        } catch (Exception e) {
+            log.warn("续期 WebSocket 节点存活记录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 注册本节点会话并登记路由
+     */
+    public void register(Long userId, Session session) {
+        sessionManager.register(userId, session);
+        try {
+            String key = CacheConstants.KEY_WS_ROUTE + userId;
+            stringRedisTemplate.opsForSet().add(key, nodeId);
+            stringRedisTemplate.expire(key, CacheConstants.TTL_WS_ROUTE, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("登记 WebSocket 路由失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 移除本节点会话，本节点已无该用户会话时注销路由
+     *
+     * @return 用户在集群中是否仍有其他连接
+     */
+    public boolean remove(Long userId, Session session) {
+        sessionManager.remove(userId, session);
+        if (sessionManager.isOnline(userId)) {
+            return true;
+        }
+        String key = CacheConstants.KEY_WS_ROUTE + userId;
+        try {
+            stringRedisTemplate.opsForSet().remove(key, nodeId);
+            Set<String> remaining = liveNodes(userId, stringRedisTemplate.opsForSet().members(key));
+            return remaining != null && !remaining.isEmpty();
+        } catch (Exception e) {
+            // 路由不可用时按本节点状态判断
+            log.warn("注销 WebSocket 路由失败: userId={}, error={}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 心跳续期路由
+     */
+    public void refresh(Long userId) {
+        String key = CacheConstants.KEY_WS_ROUTE + userId;
+        try {
+            stringRedisTemplate.opsForSet().add(key, nodeId);
+            stringRedisTemplate.expire(key, CacheConstants.TTL_WS_ROUTE, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("续期 WebSocket 路由失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 推送消息给用户在集群中的所有会话
+     *
+     * @param payload 消息内容（JSON字符串）
+     * @return 本节点发送成功或已转发到其他节点
+     */
+    public boolean sendToUser(Long userId, String payload) {
+        return dispatch(RoutedMessage.TYPE_SEND, userId, payload, lookupRoute(userId));
+    }
+
+    /**
+     * 推送同一条消息给多个用户，路由查询使用管道批量执行
+     *
+     * @return 本节点发送成功或已转发的用户数
+     */
+    public int sendToUsers(Collection<Long> userIds, String payload) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Set<String>> routes = lookupRoutes(ids);
+        int routed = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            if (dispatch(RoutedMessage.TYPE_SEND, ids.get(i), payload, routes != null ? routes.get(i) : null)) {
+                routed++;
+            }
+        }
+        return routed;
+    }
+
+    /**
+     * 关闭用户在集群中的所有会话
+     */
+    public void closeUser(Long userId, String reason) {
+        dispatch(RoutedMessage.TYPE_CLOSE, userId, reason, lookupRoute(userId));
+    }
+
+    /**
+     * 推送给集群中的全部在线用户
+     */
+    public void broadcast(String payload) {
+        broadcast(payload, null);
+    }
+
+    /**
+     * 推送可合并的消息给集群中的全部在线用户
+     *
+     * @param coalesceKey 发送队列溢出时的合并键，如同一用户的上下线状态
+     */
+    public void broadcast(String payload, String coalesceKey) {
+        deliverLocal(new RoutedMessage(RoutedMessage.TYPE_BROADCAST, null, payload, coalesceKey));
+        try {
+            JSONObject body = new JSONObject();
+            body.set("origin", nodeId);
+            body.set("payload", payload);
+            body.set("coalesceKey", coalesceKey);
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_WS_BROADCAST, body.toString());
+        } catch (Exception e) {
+            log.warn("WebSocket 广播发布失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 推送同一条消息给一组用户（如全部管理员）：不查询路由，整组只发布一次，
+     * 各节点只投递给本节点在线的目标用户
+     *
+     * @param payload 已序列化的消息内容（JSON字符串），所有目标共用
+     * @return 本节点投递成功的用户数
+     */
+    public int multicast(Collection<Long> userIds, String payload) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        int delivered = deliverLocal(userIds, payload);
+        try {
+            JSONObject body = new JSONObject();
+            body.set("origin", nodeId);
+            body.set("payload", payload);
+            body.set("userIds", userIds);
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_WS_BROADCAST, body.toString());
+        } catch (Exception e) {
+            log.warn("WebSocket 组播发布失败: {}", e.getMessage());
+        }
+        return delivered;
+    }
+
+    /**
+     * 本节点会话直接投递，其他节点的转发进入对应节点的发件箱
+     *
+     * @param nodes 用户所在节点，为空表示路由不可用，仅投递本节点
+     */
+    private boolean dispatch(String type, Long userId, String payload, Set<String> nodes) {
+        if (userId == null) {
+            return false;
+        }
+        RoutedMessage message = new RoutedMessage(type, userId, payload);
+        boolean delivered = deliverLocal(message);
+        if (nodes != null) {
+            for (String node : nodes) {
+                if (!nodeId.equals(node)) {
+                    enqueue(node, message);
+                    delivered = true;
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private boolean deliverLocal(RoutedMessage message) {
+        Long userId = message.getUserId();
+        switch (message.getType()) {
+            case RoutedMessage.TYPE_SEND:
+                return sessionManager.sendMessage(userId, message.getPayload(), message.getCoalesceKey());
+            case RoutedMessage.TYPE_CLOSE:
+                if (!sessionManager.isOnline(userId)) {
+                    return false;
+                }
+                sessionManager.closeAllSessions(userId, message.getPayload());
+                return true;
+            case RoutedMessage.TYPE_BROADCAST:
+                boolean sent = false;
+                for (Long onlineUserId : sessionManager.getOnlineUserIds()) {
+                    sent |= sessionManager.sendMessage(onlineUserId, message.getPayload(), message.getCoalesceKey());
+                }
+                return sent;
+            default:
+                log.warn("未知的 WebSocket 转发类型: {}", message.getType());
+                return false;
+        }
+    }
+
+    private int deliverLocal(Collection<Long> userIds, String payload) {
+        int delivered = 0;
+        for (Long userId : userIds) {
+            if (sessionManager.sendMessage(userId, payload)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    private Set<String> lookupRoute(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return liveNodes(userId, stringRedisTemplate.opsForSet().members(CacheConstants.KEY_WS_ROUTE + userId));
+        } catch (Exception e) {
+            log.warn("查询 WebSocket 路由失败，仅投递本节点: userId={}, error={}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Set<String>> lookupRoutes(List<Long> userIds) {
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : userIds) {
+                    connection.setCommands().sMembers(
+                            (CacheConstants.KEY_WS_ROUTE + userId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            List<Set<String>> routes = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
+                routes.add(liveNodes(userIds.get(i), (Set<String>) results.get(i)));
+            }
+            return routes;
+        } catch (Exception e) {
+            log.warn("批量查询 WebSocket 路由失败，仅投递本节点: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 剔除已下线节点，并从用户路由中删除其登记
+     */
+    private Set<String> liveNodes(Long userId, Set<String> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            return nodes;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Long> expiry = nodeExpiry;
+        Set<String> live = new LinkedHashSet<>(nodes.size());
+        List<String> dead = new ArrayList<>();
+        for (String node : nodes) {
+            Long expireAt = expiry.get(node);
+            if (nodeId.equals(node) || expireAt == null || expireAt >= now) {
+                live.add(node);
+            } else {
+                dead.add(node);
+            }
+        }
+        if (!dead.isEmpty()) {
+            try {
+                stringRedisTemplate.opsForSet().remove(CacheConstants.KEY_WS_ROUTE + userId, dead.toArray());
+            } catch (Exception e) {
+                log.debug("清理已下线节点的 WebSocket 路由失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+        return live;
+    }
+
+    private void enqueue(String node, RoutedMessage message) {
+        Outbox outbox = outboxes.computeIfAbsent(node, Outbox::new);
+        outbox.queue.add(message);
+        if (outbox.scheduled.compareAndSet(false, true)) {
+            flusher.schedule(() -> flush(outbox), lingerMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 发布发件箱中的消息，每次最多 batchSize 条
+     */
+    private void flush(Outbox outbox) {
+        // 先清除标记再取消息，取消息期间新入队的消息会触发下一次发布
+        outbox.scheduled.set(false);
+        List<RoutedMessage> batch = new ArrayList<>();
+        RoutedMessage message;
+        while ((message = outbox.queue.poll()) != null) {
+            batch.add(message);
+            if (batch.size() >= batchSize) {
+                publish(outbox.node, batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            publish(outbox.node, batch);
+        }
+        // 空闲的发件箱移除，避免已下线节点的发件箱累积；移除后入队的消息由已调度的发布处理
+        if (outbox.queue.isEmpty() && !outbox.scheduled.get()) {
+            outboxes.remove(outbox.node, outbox);
+        }
+    }
+
+    private void publish(String node, List<RoutedMessage> batch) {
+        try {
+            JSONObject body = new JSONObject();
+            body.set("origin", nodeId);
+            body.set("messages", batch);
+            stringRedisTemplate.convertAndSend(CacheConstants.CHANNEL_WS_NODE + node, body.toString());
+        } catch (Exception e) {
+            log.warn("WebSocket 消息转发失败: node={}, count={}, error={}", node, batch.size(), e.getMessage());
+        }
+    }
+
+    private void onNodeMessage(Message message) {
+        try {
+            JSONObject body = JSONUtil.parseObj(new String(message.getBody(), StandardCharsets.UTF_8));
+            for (RoutedMessage routed : body.getJSONArray("messages").toList(RoutedMessage.class)) {
+                if (!deliverLocal(routed) && !sessionManager.isOnline(routed.getUserId())) {
+                    // 用户已不在本节点，清理过期路由
+                    stringRedisTemplate.opsForSet().remove(CacheConstants.KEY_WS_ROUTE + routed.getUserId(), nodeId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("处理 WebSocket 转发消息失败: {}", e.getMessage());
+        }
+    }
+
+    private void onBroadcastMessage(Message message) {
+        try {
+            JSONObject body = JSONUtil.parseObj(new String(message.getBody(), StandardCharsets.UTF_8));
+            // 本节点发出的广播已直接投递
+            if (nodeId.equals(body.getStr("origin"))) {
+                return;
+            }
+            if (body.containsKey("userIds")) {
+                deliverLocal(body.getJSONArray("userIds").toList(Long.class), body.getStr("payload"));
+            } else {
+                deliverLocal(new RoutedMessage(RoutedMessage.TYPE_BROADCAST, null,
+                        body.getStr("payload"), body.getStr("coalesceKey")));
+            }
+        } catch (Exception e) {
+            log.warn("处理 WebSocket 广播消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 节点关闭时注销本节点的路由（尽力而为，未注销的路由随 TTL 过期）
+     */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            // 标记为已过期（而非删除），其他节点据此剔除残留路由
+            stringRedisTemplate.opsForZSet().add(CacheConstants.KEY_WS_NODES, nodeId, System.currentTimeMillis());
+            for (Long userId : sessionManager.getOnlineUserIds()) {
+                stringRedisTemplate.opsForSet().remove(CacheConstants.KEY_WS_ROUTE + userId, nodeId);
+            }
+        } catch (Exception e) {
+            log.debug("注销 WebSocket 路由失败（可能是应用正在关闭）: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 目标节点发件箱
+     */
+    private static class Outbox {
+        private final String node;
+        private final Queue<RoutedMessage> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Outbox(String node) {
+            this.node = node;
+        }
+    }
+}
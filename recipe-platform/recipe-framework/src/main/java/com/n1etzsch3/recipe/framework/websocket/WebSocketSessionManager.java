@@ -2,30 +2,69 @@ package com.n1etzsch3.recipe.framework.websocket;
 
 import com.n1etzsch3.recipe.common.websocket.MessageType;
 import com.n1etzsch3.recipe.common.websocket.WebSocketMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.websocket.CloseReason;
 import jakarta.websocket.Session;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket 会话管理器
- * 管理用户ID与WebSocket会话的映射关系
+ * 管理本节点用户ID与WebSocket会话的映射关系，跨节点推送见 {@link WebSocketMessageRouter}；
+ * 每个会话拥有独立的有界发送队列，发送方法只负责入队，不阻塞调用线程
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class WebSocketSessionManager {
 
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 会话属性中保存发送队列的键
+     */
+    private static final String OUTBOUND_KEY = SessionOutbound.class.getName();
+
+    /**
+     * 每个会话最多缓存的待发送消息数
+     */
+    @Value("${recipe.websocket.send-queue-capacity:256}")
+    private int queueCapacity;
+
+    /**
+     * 发送队列溢出策略：drop-oldest / coalesce / close
+     */
+    @Value("${recipe.websocket.overflow-policy:drop-oldest}")
+    private String overflowPolicy;
+
+    /**
+     * 单条消息异步发送超时（毫秒）
+     */
+    @Value("${recipe.websocket.send-timeout:10000}")
+    private long sendTimeoutMs;
+
+    private OverflowPolicy policy;
+    private OutboundMetrics metrics;
+
     /**
      * 存储用户ID与WebSocket会话的映射
      * Key: userId, Value: Set of WebSocket Sessions
      */
     private static final ConcurrentHashMap<Long, Set<Session>> USER_SESSIONS = new ConcurrentHashMap<>();
 
+    @PostConstruct
+    public void init() {
+        policy = OverflowPolicy.from(overflowPolicy);
+        metrics = new OutboundMetrics(meterRegistry);
+    }
+
     /**
      * 注册用户会话
      * 
@@ -33,6 +72,8 @@ public class WebSocketSessionManager {
      * @param session WebSocket会话
      */
     public void register(Long userId, Session session) {
+        session.getAsyncRemote().setSendTimeout(sendTimeoutMs);
+        session.getUserProperties().put(OUTBOUND_KEY, new SessionOutbound(session, queueCapacity, policy, metrics));
         USER_SESSIONS.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(session);
         log.info("WebSocket 用户上线: userId={}, sessionId={}, 当前在线用户数: {}", userId, session.getId(), USER_SESSIONS.size());
     }
@@ -44,6 +85,10 @@ public class WebSocketSessionManager {
      * @param session WebSocket会话
      */
     public void remove(Long userId, Session session) {
+        SessionOutbound outbound = outbound(session);
+        if (outbound != null) {
+            outbound.discard();
+        }
         Set<Session> sessions = USER_SESSIONS.get(userId);
         if (sessions != null) {
             sessions.remove(session);
@@ -67,13 +112,22 @@ public class WebSocketSessionManager {
     }
 
     /**
-     * 发送消息给指定用户的所有会话
+     * 发送消息给指定用户的所有会话（入队后立即返回）
      * 
      * @param userId  目标用户ID
      * @param message 消息内容（JSON字符串）
-     * @return 至少发送成功一个会话即返回true
+     * @return 至少一个会话入队成功即返回true
      */
     public boolean sendMessage(Long userId, String message) {
+        return sendMessage(userId, message, null);
+    }
+
+    /**
+     * 发送可合并的消息，队列溢出且策略为 coalesce 时替换合并键相同的旧消息
+     *
+     * @param coalesceKey 合并键，为空表示不可合并
+     */
+    public boolean sendMessage(Long userId, String message, String coalesceKey) {
         Set<Session> sessions = USER_SESSIONS.get(userId);
         if (sessions == null || sessions.isEmpty()) {
             return false;
@@ -81,29 +135,30 @@ public class WebSocketSessionManager {
 
         boolean sent = false;
         for (Session session : sessions) {
-            if (session.isOpen()) {
-                try {
-                    // 同步发送，避免并发写入冲突
-                    synchronized (session) {
-                        if (session.isOpen()) {
-                            session.getBasicRemote().sendText(message);
-                            sent = true;
-                        }
-                    }
-                } catch (IOException e) {
-                    log.warn("WebSocket 消息发送失败: userId={}, sessionId={}", userId, session.getId());
-                } catch (IllegalStateException e) {
-                    // 会话正在写入中或已关闭，忽略此错误
-                    log.debug("WebSocket 会话状态异常，跳过发送: userId={}, sessionId={}", userId, session.getId());
-                }
-            }
+            sent |= send(session, message, coalesceKey);
         }
         if (sent) {
-            log.debug("WebSocket 消息推送成功: userId={}", userId);
+            log.debug("WebSocket 消息已入队: userId={}", userId);
         }
         return sent;
     }
 
+    /**
+     * 发送消息给单个会话（入队后立即返回）
+     */
+    public boolean send(Session session, String message) {
+        return send(session, message, null);
+    }
+
+    private boolean send(Session session, String message, String coalesceKey) {
+        SessionOutbound outbound = outbound(session);
+        return outbound != null && outbound.offer(message, coalesceKey);
+    }
+
+    private SessionOutbound outbound(Session session) {
+        return (SessionOutbound) session.getUserProperties().get(OUTBOUND_KEY);
+    }
+
     /**
      * 获取在线用户数
      * 
@@ -144,16 +199,12 @@ public class WebSocketSessionManager {
                 .build();
         String msgJson = cn.hutool.json.JSONUtil.toJsonStr(forceLogoutMsg);
 
+        CloseReason closeReason = new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, reason);
         for (Session session : sessions) {
-            try {
-                if (session.isOpen()) {
-                    // 先发送强制下线消息
-                    session.getBasicRemote().sendText(msgJson);
-                    // 再关闭会话
-                    session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, reason));
-                }
-            } catch (IOException e) {
-                log.error("关闭用户会话失败: userId={}, sessionId={}", userId, session.getId(), e);
+            SessionOutbound outbound = outbound(session);
+            if (outbound != null) {
+                // 排在已入队的消息之后发送强制下线消息，发送完成后关闭会话
+                outbound.closeAfter(msgJson, closeReason);
             }
         }
         log.info("已关闭用户所有会话: userId={}, 会话数={}", userId, sessions.size());
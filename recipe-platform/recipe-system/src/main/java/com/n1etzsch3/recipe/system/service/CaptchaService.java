@@ -3,18 +3,31 @@ package com.n1etzsch3.recipe.system.service;
 import cn.hutool.captcha.CaptchaUtil;
 import cn.hutool.captcha.LineCaptcha;
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
+import com.n1etzsch3.recipe.common.core.exception.BusinessException;
+import com.n1etzsch3.recipe.framework.service.PasswordHashService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 验证码服务
+ * 验证码图片由后台低优先级线程预先生成并放入有界池，请求时直接取出并写入 Redis；
+ * 池的目标水位随取用速率自适应（保持约 refill-horizon 毫秒的用量）；
+ * 池空时唤醒生产线程并短暂等待，仍取不到时只允许少量请求同步生成，其余立即拒绝（429），图片渲染不会占满请求线程
  */
 @Slf4j
 @Service
@@ -23,31 +36,166 @@ public class CaptchaService {
 
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * 池容量上限
+     */
+    @Value("${recipe.captcha.pool-capacity:512}")
+    private int poolCapacity;
+
+    /**
+     * 池的最低目标水位
+     */
+    @Value("${recipe.captcha.pool-min:16}")
+    private int poolMin;
+
+    /**
+     * 按当前取用速率预备多长时间（毫秒）的用量
+     */
+    @Value("${recipe.captcha.refill-horizon:5000}")
+    private long refillHorizonMs;
+
+    /**
+     * 生产线程检查水位的间隔（毫秒）
+     */
+    @Value("${recipe.captcha.refill-interval:200}")
+    private long refillIntervalMs;
+
+    /**
+     * 池空时等待生产线程补充的最长时间（毫秒）
+     */
+    @Value("${recipe.captcha.miss-wait:50}")
+    private long missWaitMs;
+
+    /**
+     * 池空时允许同时在请求线程上同步生成的数量
+     */
+    @Value("${recipe.captcha.sync-render-limit:2}")
+    private int syncRenderLimit;
+
+    private static final String BUSY_MESSAGE = "验证码请求过多，请稍后再试";
+
+    /**
+     * 预生成的验证码
+     */
+    private record PooledCaptcha(String captchaId, String code, String imageBase64) {
+    }
+
+    private BlockingQueue<PooledCaptcha> pool;
+    // 上次检查以来的取用次数
+    private final AtomicLong draws = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Thread producer;
+    private Semaphore syncRenders;
+
+    @PostConstruct
+    public void init() {
+        pool = new ArrayBlockingQueue<>(Math.max(1, poolCapacity));
+        syncRenders = new Semaphore(Math.max(0, syncRenderLimit));
+        producer = Thread.ofPlatform()
+                .name("captcha-producer")
+                .daemon(true)
+                .priority(Thread.MIN_PRIORITY)
+                .start(this::produce);
+    }
+
     /**
      * 生成图形验证码
      * 
      * @return 包含 captchaId 和 imageBase64 的 Map
+     * @throws BusinessException 池已取空且同步生成名额已用完时抛出，错误码 429
      */
     public Map<String, String> generateCaptcha() {
-        // 生成验证码 (宽、高、字符数、干扰线数)
-        LineCaptcha captcha = CaptchaUtil.createLineCaptcha(130, 48, 4, 50);
-
-        String captchaId = UUID.randomUUID().toString().replace("-", "");
-        String code = captcha.getCode().toLowerCase();
-        String imageBase64 = captcha.getImageBase64Data();
+        PooledCaptcha captcha = pool.poll();
+        draws.incrementAndGet();
+        if (captcha == null) {
+            misses.incrementAndGet();
+            captcha = takeOnMiss();
+        }
+        if (pool.size() < poolMin) {
+            LockSupport.unpark(producer);
+        }
 
         // 存入 Redis，5分钟有效
-        String key = CacheConstants.KEY_CAPTCHA + captchaId;
-        redisTemplate.opsForValue().set(key, code, CacheConstants.TTL_CAPTCHA, TimeUnit.SECONDS);
+        String key = CacheConstants.KEY_CAPTCHA + captcha.captchaId();
+        redisTemplate.opsForValue().set(key, captcha.code(), CacheConstants.TTL_CAPTCHA, TimeUnit.SECONDS);
 
-        log.debug("生成验证码: captchaId={}, code={}", captchaId, code);
+        log.debug("生成验证码: captchaId={}, code={}", captcha.captchaId(), captcha.code());
 
         Map<String, String> result = new HashMap<>();
-        result.put("captchaId", captchaId);
-        result.put("imageBase64", imageBase64);
+        result.put("captchaId", captcha.captchaId());
+        result.put("imageBase64", captcha.imageBase64());
         return result;
     }
 
+    /**
+     * 池空时的取用：唤醒生产线程并短暂等待；仍未取到时在同步生成名额内生成，超出名额拒绝
+     */
+    private PooledCaptcha takeOnMiss() {
+        LockSupport.unpark(producer);
+        try {
+            PooledCaptcha captcha = pool.poll(missWaitMs, TimeUnit.MILLISECONDS);
+            if (captcha != null) {
+                return captcha;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(BUSY_MESSAGE, PasswordHashService.TOO_MANY_REQUESTS);
+        }
+        if (!syncRenders.tryAcquire()) {
+            log.warn("验证码池已取空且同步生成名额已用完，拒绝请求");
+            throw new BusinessException(BUSY_MESSAGE, PasswordHashService.TOO_MANY_REQUESTS);
+        }
+        try {
+            return render();
+        } finally {
+            syncRenders.release();
+        }
+    }
+
+    private static PooledCaptcha render() {
+        // 生成验证码 (宽、高、字符数、干扰线数)
+        LineCaptcha captcha = CaptchaUtil.createLineCaptcha(130, 48, 4, 50);
+        String captchaId = UUID.randomUUID().toString().replace("-", "");
+        return new PooledCaptcha(captchaId, captcha.getCode().toLowerCase(), captcha.getImageBase64Data());
+    }
+
+    /**
+     * 生产循环：按取用速率（指数平滑）计算目标水位，补足后休眠到下一周期或被取用方唤醒
+     */
+    private void produce() {
+        double ratePerMs = 0;
+        long lastCheck = System.currentTimeMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = System.currentTimeMillis();
+            long elapsed = Math.max(1, now - lastCheck);
+            lastCheck = now;
+            ratePerMs = 0.3 * draws.getAndSet(0) / elapsed + 0.7 * ratePerMs;
+            int target = (int) Math.min(poolCapacity, Math.max(poolMin, Math.ceil(ratePerMs * refillHorizonMs)));
+            try {
+                while (pool.size() < target && !Thread.currentThread().isInterrupted()) {
+                    if (!pool.offer(render())) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("预生成验证码失败: {}", e.getMessage());
+            }
+            long missed = misses.getAndSet(0);
+            if (missed > 0) {
+                log.debug("验证码池未命中: missed={}, target={}", missed, target);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(refillIntervalMs));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = producer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
     /**
      * 验证验证码
      * 
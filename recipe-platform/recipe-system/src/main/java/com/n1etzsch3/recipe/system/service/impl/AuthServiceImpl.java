@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.common.constant.UserConstants;
 import com.n1etzsch3.recipe.common.core.domain.Result;
+import com.n1etzsch3.recipe.common.event.UserRegisteredEvent;
 import com.n1etzsch3.recipe.common.utils.JwtUtils;
 import com.n1etzsch3.recipe.framework.service.LoginAttemptService;
 import com.n1etzsch3.recipe.system.domain.dto.ForceLoginDTO;
@@ -16,9 +17,10 @@ import com.n1etzsch3.recipe.system.mapper.SysUserMapper;
 import com.n1etzsch3.recipe.system.service.AuthService;
 import com.n1etzsch3.recipe.system.service.CaptchaService;
 import com.n1etzsch3.recipe.framework.service.UserOnlineService;
+import com.n1etzsch3.recipe.framework.service.PasswordHashService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -32,11 +34,12 @@ import java.util.concurrent.TimeUnit;
 public class AuthServiceImpl implements AuthService {
 
     private final SysUserMapper sysUserMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashService passwordHashService;
     private final CaptchaService captchaService;
     private final UserOnlineService userOnlineService;
     private final LoginAttemptService loginAttemptService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Result<Map<String, Object>> login(LoginDTO loginDTO) {
@@ -88,7 +91,7 @@ public class AuthServiceImpl implements AuthService {
         if (!user.getUsername().equals(forceLoginDTO.getUsername())) {
             return Result.fail("用户名不匹配");
         }
-        if (!passwordEncoder.matches(forceLoginDTO.getPassword(), user.getPassword())) {
+        if (!passwordHashService.matches(forceLoginDTO.getPassword(), user.getPassword())) {
             return Result.fail("密码错误");
         }
 
@@ -129,7 +132,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // 3. 校验密码
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        if (!passwordHashService.matches(loginDTO.getPassword(), user.getPassword())) {
             loginAttemptService.loginFailed(username);
             return Result.fail("用户名或密码错误");
         }
@@ -190,7 +193,7 @@ public class AuthServiceImpl implements AuthService {
         // 3. 创建用户
         SysUser user = new SysUser();
         user.setUsername(registerDTO.getUsername());
-        String encodedPassword = passwordEncoder.encode(registerDTO.getPassword());
+        String encodedPassword = passwordHashService.encode(registerDTO.getPassword());
         user.setPassword(encodedPassword);
         user.setNickname(registerDTO.getNickname());
         user.setRole(UserConstants.ROLE_MEMBER); // 默认角色
@@ -200,6 +203,7 @@ public class AuthServiceImpl implements AuthService {
 
         // 4. 保存
         sysUserMapper.insert(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getCreateTime()));
 
         return Result.ok("注册成功");
     }
@@ -240,11 +244,11 @@ public class AuthServiceImpl implements AuthService {
         if (user == null)
             return Result.fail("用户不存在");
 
-        if (!passwordEncoder.matches(passwordDTO.getOldPassword(), user.getPassword())) {
+        if (!passwordHashService.matches(passwordDTO.getOldPassword(), user.getPassword())) {
             return Result.fail("旧密码错误");
         }
 
-        user.setPassword(passwordEncoder.encode(passwordDTO.getNewPassword()));
+        user.setPassword(passwordHashService.encode(passwordDTO.getNewPassword()));
         user.setUpdateTime(LocalDateTime.now());
         sysUserMapper.updateById(user);
 
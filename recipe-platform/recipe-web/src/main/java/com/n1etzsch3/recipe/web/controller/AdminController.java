@@ -5,6 +5,8 @@ import com.n1etzsch3.recipe.business.domain.dto.AdminBatchAuditDTO;
 import com.n1etzsch3.recipe.business.domain.dto.AdminCategoryDTO;
 import com.n1etzsch3.recipe.business.domain.dto.AdminOperationLogDTO;
 import com.n1etzsch3.recipe.business.domain.dto.AdminRecipeBatchStatusDTO;
+import com.n1etzsch3.recipe.business.domain.dto.AdminSensitiveWordBatchDTO;
+import com.n1etzsch3.recipe.business.domain.dto.AdminSensitiveWordDTO;
 import com.n1etzsch3.recipe.business.domain.dto.AdminUserBatchStatusDTO;
 import com.n1etzsch3.recipe.business.domain.dto.AdminUserCreateDTO;
 import com.n1etzsch3.recipe.business.domain.dto.AdminUserUpdateDTO;
@@ -15,6 +17,7 @@ import com.n1etzsch3.recipe.business.domain.dto.RecipeDetailDTO;
 import com.n1etzsch3.recipe.business.domain.dto.UserDTO;
 import com.n1etzsch3.recipe.business.domain.dto.UserStatusDTO;
 import com.n1etzsch3.recipe.business.entity.RecipeCategory;
+import com.n1etzsch3.recipe.business.entity.SensitiveWord;
 import com.n1etzsch3.recipe.business.service.AdminLogService;
 import com.n1etzsch3.recipe.business.service.AdminService;
 import com.n1etzsch3.recipe.common.core.domain.Result;
@@ -236,6 +239,51 @@ public class AdminController {
         return adminService.deleteComment(id);
     }
 
+    // ================== Sensitive Word Management ==================
+
+    @GetMapping("/sensitive-words")
+    public Result<IPage<SensitiveWord>> pageSensitiveWords(
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category) {
+        log.info("管理员获取敏感词列表: page={}, size={}, keyword={}, category={}", page, size, keyword, category);
+        return adminService.pageSensitiveWords(page, size, keyword, category);
+    }
+
+    @PostMapping("/sensitive-words")
+    public Result<?> addSensitiveWord(@RequestBody @Valid AdminSensitiveWordDTO dto) {
+        log.info("管理员新增敏感词: {}", dto.getWord());
+        SensitiveWord word = new SensitiveWord();
+        word.setWord(dto.getWord());
+        word.setCategory(dto.getCategory());
+        return adminService.addSensitiveWord(word);
+    }
+
+    /**
+     * 批量导入敏感词
+     */
+    @PostMapping("/sensitive-words/batch")
+    public Result<?> importSensitiveWords(@RequestBody @Valid AdminSensitiveWordBatchDTO dto) {
+        log.info("管理员批量导入敏感词: count={}, category={}", dto.getWords().size(), dto.getCategory());
+        return adminService.importSensitiveWords(dto.getWords(), dto.getCategory());
+    }
+
+    @PutMapping("/sensitive-words/{id}")
+    public Result<?> updateSensitiveWord(@PathVariable Long id, @RequestBody @Valid AdminSensitiveWordDTO dto) {
+        log.info("管理员修改敏感词: id={}, word={}", id, dto.getWord());
+        SensitiveWord word = new SensitiveWord();
+        word.setWord(dto.getWord());
+        word.setCategory(dto.getCategory());
+        return adminService.updateSensitiveWord(id, word);
+    }
+
+    @DeleteMapping("/sensitive-words/{id}")
+    public Result<?> deleteSensitiveWord(@PathVariable Long id) {
+        log.info("管理员删除敏感词: id={}", id);
+        return adminService.deleteSensitiveWord(id);
+    }
+
     // ================== Operation Logs ==================
 
     @GetMapping("/logs")
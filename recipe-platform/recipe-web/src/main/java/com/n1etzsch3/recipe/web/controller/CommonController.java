@@ -29,7 +29,7 @@ public class CommonController {
     private final RedisTemplate<String, Object> redisTemplate;
 
     @Operation(summary = "文件上传")
-    @RateLimit(time = 60, count = 20, limitType = RateLimit.LimitType.USER)
+    @RateLimit(time = 60, count = 20, limitType = RateLimit.LimitType.USER, algorithm = RateLimit.Algorithm.GCRA)
     @PostMapping("/upload")
     public Result<String> upload(@RequestPart("file") MultipartFile file) {
         log.info("收到文件上传请求: {}, size: {}", file.getOriginalFilename(), file.getSize());
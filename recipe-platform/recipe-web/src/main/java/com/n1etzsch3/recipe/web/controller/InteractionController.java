@@ -9,6 +9,7 @@ import com.n1etzsch3.recipe.business.domain.vo.CommentReplyVO;
 import com.n1etzsch3.recipe.business.domain.vo.CommentLikeVO;
 import com.n1etzsch3.recipe.business.domain.vo.SystemNotificationVO;
 import com.n1etzsch3.recipe.business.service.InteractionService;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -55,6 +56,17 @@ public class InteractionController {
         return interactionService.pageComments(recipeId, page, size);
     }
 
+    /**
+     * 评论列表（游标分页）
+     */
+    @GetMapping("/comments/{recipeId}/scroll")
+    public Result<CursorPage<CommentVO>> scrollComments(@PathVariable Long recipeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return interactionService.scrollComments(recipeId, cursor, size, withTotal);
+    }
+
     /**
      * 我的收藏
      */
@@ -64,6 +76,15 @@ public class InteractionController {
         return interactionService.pageMyFavorites(page, size);
     }
 
+    /**
+     * 我的收藏（游标分页）
+     */
+    @GetMapping("/favorites/scroll")
+    public Result<CursorPage<RecipeDetailDTO>> scrollFavorites(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        return interactionService.scrollMyFavorites(cursor, size);
+    }
+
     /**
      * 点赞/取消点赞评论
      */
@@ -149,4 +170,20 @@ public class InteractionController {
             @RequestParam(defaultValue = "10") Integer size) {
         return interactionService.pageSystemNotifications(page, size);
     }
+
+    /**
+     * 未读系统通知数
+     */
+    @GetMapping("/system-notifications/unread-count")
+    public Result<Long> unreadNotificationCount() {
+        return interactionService.countUnreadNotifications();
+    }
+
+    /**
+     * 系统通知全部标记为已读
+     */
+    @PutMapping("/system-notifications/read")
+    public Result<?> markNotificationsRead() {
+        return interactionService.markNotificationsRead();
+    }
 }
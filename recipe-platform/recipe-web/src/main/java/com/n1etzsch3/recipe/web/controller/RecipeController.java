@@ -4,10 +4,12 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.n1etzsch3.recipe.business.domain.dto.RecipeDetailDTO;
 import com.n1etzsch3.recipe.business.domain.dto.RecipePublishDTO;
 import com.n1etzsch3.recipe.business.domain.dto.SimpleRecipeDTO;
+import com.n1etzsch3.recipe.business.domain.query.IngredientMatchQuery;
 import com.n1etzsch3.recipe.business.domain.query.RecipePageQuery;
 import com.n1etzsch3.recipe.business.entity.RecipeCategory;
 import com.n1etzsch3.recipe.business.service.CategoryService;
 import com.n1etzsch3.recipe.business.service.RecipeService;
+import com.n1etzsch3.recipe.common.core.domain.CursorPage;
 import com.n1etzsch3.recipe.common.core.domain.Result;
 import com.n1etzsch3.recipe.common.constant.CacheConstants;
 import com.n1etzsch3.recipe.framework.annotation.Idempotent;
@@ -62,11 +64,37 @@ public class RecipeController {
         return recipeService.pageRecipes(query);
     }
 
+    /**
+     * 游标分页查询菜谱列表（无限滚动）
+     */
+    @GetMapping("/scroll")
+    public Result<CursorPage<RecipeDetailDTO>> scrollList(RecipePageQuery query) {
+        log.info("收到游标分页查询请求: {}", query);
+        return recipeService.scrollRecipes(query);
+    }
+
+    /**
+     * 按食材查找菜谱（我有这些食材，能做什么）
+     */
+    @GetMapping("/match")
+    public Result<IPage<RecipeDetailDTO>> pageByIngredients(IngredientMatchQuery query) {
+        log.info("收到按食材查找请求: {}", query);
+        return recipeService.pageByIngredients(query);
+    }
+
+    /**
+     * 搜索联想
+     */
+    @GetMapping("/suggest")
+    public Result<List<String>> suggest(@RequestParam String prefix) {
+        return recipeService.suggest(prefix);
+    }
+
     /**
      * 创建/发布菜谱（简化版 - 前端提交）
      */
     @Idempotent
-    @RateLimit(time = 60, count = 10, limitType = RateLimit.LimitType.USER) // 对可能造成的高流量消耗进行限流
+    @RateLimit(time = 60, count = 10, limitType = RateLimit.LimitType.USER, algorithm = RateLimit.Algorithm.TOKEN_BUCKET) // 对可能造成的高流量消耗进行限流
     @PostMapping
     public Result<?> createRecipe(@RequestBody @Valid SimpleRecipeDTO dto) {
         log.info("收到创建菜谱请求: title={}, category={}", dto.getTitle(), dto.getCategory());
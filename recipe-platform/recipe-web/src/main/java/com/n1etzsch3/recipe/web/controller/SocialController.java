@@ -68,6 +68,16 @@ public class SocialController {
         return socialService.pageMessages(userId, page, size);
     }
 
+    /**
+     * 游标分页获取聊天记录
+     */
+    @GetMapping("/messages/{userId}/scroll")
+    public Result<?> scrollMessages(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return socialService.scrollMessages(userId, cursor, size);
+    }
+
     /**
      * 获取会话列表
      */
@@ -45,12 +45,18 @@ DELIMITER ;
 
 -- ===================== sys_user =====================
 -- 用户名唯一索引已在建表时创建（uk_username）
+-- 仪表盘对账按注册日期区间分块重建
+CALL create_index_if_not_exists('sys_user', 'idx_user_create_time', 'create_time', FALSE);
 
 -- ===================== recipe_info ==================
 CALL create_index_if_not_exists('recipe_info', 'idx_recipe_user', 'user_id', FALSE);
 CALL create_index_if_not_exists('recipe_info', 'idx_recipe_status', 'status', FALSE);
 CALL create_index_if_not_exists('recipe_info', 'idx_recipe_category', 'category_id', FALSE);
 CALL create_index_if_not_exists('recipe_info', 'idx_recipe_hot', 'status, view_count DESC', FALSE);
+-- 游标分页：(status, create_time, id) 键集扫描
+CALL create_index_if_not_exists('recipe_info', 'idx_recipe_feed', 'status, create_time', FALSE);
+-- 仪表盘对账按创建日期区间分块重建
+CALL create_index_if_not_exists('recipe_info', 'idx_recipe_create_time', 'create_time', FALSE);
 
 -- =================== recipe_ingredient ==============
 CALL create_index_if_not_exists('recipe_ingredient', 'idx_ingredient_recipe', 'recipe_id', FALSE);
@@ -62,10 +68,32 @@ CALL create_index_if_not_exists('recipe_step', 'idx_step_recipe', 'recipe_id', F
 CALL create_index_if_not_exists('chat_message', 'idx_msg_sender', 'sender_id', FALSE);
 CALL create_index_if_not_exists('chat_message', 'idx_msg_receiver', 'receiver_id', FALSE);
 
+-- ===================== sys_message ==================
+-- 聊天记录游标分页：两个方向各按 (sender_id, receiver_id, create_time, id) 有序扫描（二级索引隐含主键 id）
+CALL create_index_if_not_exists('sys_message', 'idx_msg_conversation', 'sender_id, receiver_id, create_time', FALSE);
+-- 在线状态订阅：查询私信会话对象（收到的消息）
+CALL create_index_if_not_exists('sys_message', 'idx_msg_receiver_sender', 'receiver_id, sender_id', FALSE);
+
+-- ==================== recipe_comment ================
+-- 评论游标分页
+CALL create_index_if_not_exists('recipe_comment', 'idx_comment_recipe_time', 'recipe_id, parent_id, create_time', FALSE);
+-- 仪表盘对账按创建日期区间分块重建
+CALL create_index_if_not_exists('recipe_comment', 'idx_comment_create_time', 'create_time', FALSE);
+
+-- ==================== user_favorite =================
+-- 我的收藏游标分页
+CALL create_index_if_not_exists('user_favorite', 'idx_favorite_user_time', 'user_id, create_time', FALSE);
+-- 按菜谱删除收藏（数据清理）
+CALL create_index_if_not_exists('user_favorite', 'idx_favorite_recipe', 'recipe_id', FALSE);
+
 -- ===================== user_follow ==================
 CALL create_index_if_not_exists('user_follow', 'idx_follow_follower', 'follower_id', FALSE);
 CALL create_index_if_not_exists('user_follow', 'idx_follow_followed', 'followed_id', FALSE);
 
+-- ================= user_notification ================
+-- 收件箱序号在用户内唯一（已有 idx_user_seq 的旧库创建后可删除 idx_user_seq）
+CALL create_index_if_not_exists('user_notification', 'uk_user_seq', 'user_id, seq', TRUE);
+
 -- ================== recipe_category =================
 CALL create_index_if_not_exists('recipe_category', 'idx_category_name', 'name', FALSE);
 
@@ -80,5 +108,9 @@ DROP PROCEDURE IF EXISTS create_index_if_not_exists;
 -- SHOW INDEX FROM recipe_ingredient;
 -- SHOW INDEX FROM recipe_step;
 -- SHOW INDEX FROM chat_message;
+-- SHOW INDEX FROM sys_message;
+-- SHOW INDEX FROM recipe_comment;
+-- SHOW INDEX FROM user_favorite;
 -- SHOW INDEX FROM user_follow;
 -- SHOW INDEX FROM recipe_category;
+-- SHOW INDEX FROM user_notification;
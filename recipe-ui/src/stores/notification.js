@@ -44,9 +44,9 @@ export const useNotificationStore = defineStore('notification', () => {
         }
 
         // ========== 管理员实时推送处理 ==========
-        // 用户上线/离线状态变化 - 分发自定义事件供管理页面监听
-        if (message.type === 'USER_ONLINE' || message.type === 'USER_OFFLINE') {
-            window.dispatchEvent(new CustomEvent('admin-user-status', { detail: message }))
+        // 订阅用户的上线/离线状态差异（服务端按周期合并）- 分发自定义事件供页面监听
+        if (message.type === 'PRESENCE_DIFF') {
+            window.dispatchEvent(new CustomEvent('admin-user-status', { detail: message.data || {} }))
             // 不添加到通知列表，仅用于实时更新
             return
         }
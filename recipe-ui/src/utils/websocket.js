@@ -47,6 +47,12 @@ class WebSocketManager {
             wsUrl = `${wsProtocol}//${window.location.host}/ws?token=${token}`
         }
 
+        // 携带最后收到的通知序号，服务端补发离线期间的通知
+        const lastSeq = this.getLastSeq()
+        if (lastSeq != null) {
+            wsUrl += '&lastSeq=' + lastSeq
+        }
+
         console.log('WebSocket: 正在连接...', wsUrl)
 
         try {
@@ -95,6 +101,21 @@ class WebSocketManager {
             const message = JSON.parse(data)
             console.log('WebSocket [PARSED]: type=', message.type, ' content=', message)
 
+            // 收件箱序号：首次连接以连接成功消息的序号为起点；补发与实时推送可能重叠，已收到的序号跳过
+            // 服务端序号小于本地记录时（服务端序号被重置），以服务端序号为新起点，避免丢弃新通知
+            if (message.seq != null) {
+                const lastSeq = this.getLastSeq()
+                if (message.type === 'CONNECTED') {
+                    if (lastSeq == null || message.seq < lastSeq) {
+                        this.setLastSeq(message.seq)
+                    }
+                } else if (lastSeq != null && message.seq <= lastSeq) {
+                    return
+                } else {
+                    this.setLastSeq(message.seq)
+                }
+            }
+
             // 将消息传递给通知 store 处理
             const notificationStore = useNotificationStore()
             notificationStore.handleMessage(message)
@@ -103,6 +124,20 @@ class WebSocketManager {
         }
     }
 
+    /**
+     * 最后收到的通知序号（按用户保存）
+     */
+    getLastSeq() {
+        const userStore = useUserStore()
+        const value = localStorage.getItem('ws_last_seq_' + userStore.user?.id)
+        return value != null ? Number(value) : null
+    }
+
+    setLastSeq(seq) {
+        const userStore = useUserStore()
+        localStorage.setItem('ws_last_seq_' + userStore.user?.id, String(seq))
+    }
+
     /**
      * 开始心跳检测
      */
@@ -213,3 +213,75 @@ CREATE TABLE `team_member` (
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='团队成员表';
+
+-- ==========================================
+-- 7. 统计模块
+-- ==========================================
+
+-- 表：dashboard_stat_daily (仪表盘每日统计汇总表)
+-- 按业务事件增量维护，定时任务从明细表重新对账
+CREATE TABLE `dashboard_stat_daily` (
+  `stat_date` date NOT NULL COMMENT '统计日期(用户/菜谱/评论为创建日期, 浏览量为写回日期)',
+  `metric` varchar(32) NOT NULL COMMENT '指标(user/recipe/category/comment/view)',
+  `dim` varchar(32) NOT NULL DEFAULT '' COMMENT '维度(菜谱状态/分类ID等, 无维度为空串)',
+  `value` bigint(20) NOT NULL DEFAULT '0' COMMENT '当日增量',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`, `metric`, `dim`),
+  KEY `idx_metric` (`metric`, `dim`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='仪表盘每日统计汇总表';
+
+-- 表：recipe_stats (菜谱计数表)
+-- 收藏/评论写入时在同一事务内原子增减，列表页直接按主键读取；定时任务从明细表对账
+CREATE TABLE `recipe_stats` (
+  `recipe_id` bigint(20) NOT NULL COMMENT '菜谱ID',
+  `favorite_count` int(11) NOT NULL DEFAULT '0' COMMENT '收藏数',
+  `comment_count` int(11) NOT NULL DEFAULT '0' COMMENT '评论数(含回复)',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`recipe_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='菜谱计数表';
+
+-- ==========================================
+-- 8. 内容审核模块
+-- ==========================================
+
+-- 表：sensitive_word (敏感词词典表)
+-- 词典变更后递增 Redis 版本号并广播，各节点后台重新编译敏感词自动机
+CREATE TABLE `sensitive_word` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `word` varchar(100) NOT NULL COMMENT '敏感词',
+  `category` varchar(32) DEFAULT NULL COMMENT '分类(广告/政治/色情等)',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_word` (`word`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='敏感词词典表';
+
+-- 初始化敏感词数据
+INSERT INTO `sensitive_word` (`word`, `category`) VALUES
+('加微信', '广告'), ('加QQ', '广告'), ('免费领取', '广告'), ('点击链接', '广告'),
+('政治敏感词示例', '政治'),
+('色情词汇示例', '色情');
+
+-- ==========================================
+-- 9. 通知模块
+-- ==========================================
+
+-- 表：user_notification (用户通知收件箱表)
+-- 通知先进入内存缓冲，定时多行批量写入；seq 为用户收件箱内递增序号（Redis 分配），断线重连时按序号补发
+CREATE TABLE `user_notification` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `user_id` bigint(20) NOT NULL COMMENT '接收用户ID',
+  `seq` bigint(20) NOT NULL COMMENT '用户收件箱内序号',
+  `type` varchar(32) NOT NULL COMMENT '通知类型(RECIPE_APPROVED/NEW_COMMENT等)',
+  `title` varchar(100) DEFAULT NULL COMMENT '标题',
+  `content` varchar(500) DEFAULT NULL COMMENT '内容',
+  `related_id` bigint(20) DEFAULT NULL COMMENT '关联业务ID',
+  `sender_id` bigint(20) DEFAULT NULL COMMENT '发送者ID',
+  `sender_name` varchar(50) DEFAULT NULL COMMENT '发送者昵称',
+  `sender_avatar` varchar(255) DEFAULT NULL COMMENT '发送者头像',
+  `image_url` varchar(255) DEFAULT NULL COMMENT '附带图片',
+  `is_read` tinyint(1) NOT NULL DEFAULT '0' COMMENT '是否已读(0:未读 1:已读)',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_user_seq` (`user_id`, `seq`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户通知收件箱表';